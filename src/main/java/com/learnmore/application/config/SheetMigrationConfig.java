@@ -1,5 +1,7 @@
 package com.learnmore.application.config;
 
+import com.learnmore.application.utils.concurrent.MigrationWorkScheduler;
+import com.learnmore.application.utils.config.ExcelConfig;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -49,6 +51,9 @@ public class SheetMigrationConfig {
         private int order;
         private String description;
 
+        // Sheets whose validate + insert must complete before this sheet starts (e.g. master references)
+        private List<String> dependsOn = new ArrayList<>();
+
         // DTO mapping
         private String dtoClass;
 
@@ -64,6 +69,7 @@ public class SheetMigrationConfig {
         private int batchSize = 5000;
         private boolean parallelProcessing = false;
         private boolean enableMasking = true;
+        private ExcelConfig.ParseEngine parseEngine = ExcelConfig.ParseEngine.POI_SAX;
 
         // Validation rules
         private List<String> validationRules = new ArrayList<>();
@@ -91,6 +97,7 @@ public class SheetMigrationConfig {
         // Performance
         private boolean useParallelSheetProcessing = true;
         private int maxConcurrentSheets = 3;
+        private MigrationWorkScheduler.Priority jobPriority = MigrationWorkScheduler.Priority.NORMAL; // Share of the shared worker pool
 
         // Cleanup
         private boolean autoCleanupOnSuccess = false;
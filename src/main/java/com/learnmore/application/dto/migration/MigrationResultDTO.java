@@ -47,6 +47,16 @@ public class MigrationResultDTO {
     private Long maxMemoryUsedMB;
     private Double avgProcessingRate; // records per second
     
+    // Adaptive batch sizing (ingest)
+    private Integer finalBatchSize; // Size the controller settled on
+    private Integer minBatchSizeUsed;
+    private Integer maxBatchSizeUsed;
+    private Long avgBatchLatencyMs; // Consumer time per batch
+    
+    // Read strategy selection (ingest)
+    private String readStrategy;
+    private String readStrategyDecision; // Inputs and per-strategy estimates behind the choice
+    
     public boolean isCompleted() {
         return "COMPLETED".equals(status);
     }
@@ -1,12 +1,15 @@
 package com.learnmore.application.dto.migration.sheet;
 
 import com.learnmore.application.utils.ExcelColumn;
+import com.learnmore.application.utils.sax.UnconvertedCellAware;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * DTO for sheet "HSBG_theo_CIF" (Customer CIF-based Archive Management)
@@ -16,7 +19,7 @@ import java.time.LocalDate;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class CifDTO {
+public class CifDTO implements UnconvertedCellAware {
 
     @ExcelColumn(name = "Kho VPBank", index = 0, required = true)
     private String vpbankWarehouse;
@@ -100,6 +103,12 @@ public class CifDTO {
     private transient String validationErrors;
     private transient boolean isValid = true;
 
+    // Dòng Excel (1-based), do SAX reader gán; ghi vào staging_raw.row_num
+    private transient Integer rowNum;
+
+    // Ô không convert được: field → text gốc (ghi vào staging thay cho NULL)
+    private transient Map<String, String> unconvertedCells;
+
     /**
      * Business key for duplicate check
      * CT1: Check duplicate data key (Customer CIF + Disbursement Date + Document Type)
@@ -152,4 +161,17 @@ public class CifDTO {
                           customerName.substring(customerName.length() - 2);
         }
     }
+
+    @Override
+    public void putUnconvertedCell(String fieldName, String cellText) {
+        if (unconvertedCells == null) {
+            unconvertedCells = new HashMap<>();
+        }
+        unconvertedCells.put(fieldName, cellText);
+    }
+
+    @Override
+    public String getUnconvertedCell(String fieldName) {
+        return unconvertedCells != null ? unconvertedCells.get(fieldName) : null;
+    }
 }
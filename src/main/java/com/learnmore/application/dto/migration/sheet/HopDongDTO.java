@@ -1,12 +1,15 @@
 package com.learnmore.application.dto.migration.sheet;
 
 import com.learnmore.application.utils.ExcelColumn;
+import com.learnmore.application.utils.sax.UnconvertedCellAware;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * DTO for sheet "HSBG_theo_hop_dong" (Contract-based Archive Management)
@@ -16,7 +19,7 @@ import java.time.LocalDate;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class HopDongDTO {
+public class HopDongDTO implements UnconvertedCellAware {
 
     @ExcelColumn(name = "Kho VPBank", index = 0, required = true)
     private String vpbankWarehouse;
@@ -121,6 +124,12 @@ public class HopDongDTO {
     private transient String validationErrors;
     private transient boolean isValid = true;
 
+    // Dòng Excel (1-based), do SAX reader gán; ghi vào staging_raw.row_num
+    private transient Integer rowNum;
+
+    // Ô không convert được: field → text gốc (ghi vào staging thay cho NULL)
+    private transient Map<String, String> unconvertedCells;
+
     /**
      * Business key for duplicate check
      * Rule varies by documentType
@@ -206,4 +215,17 @@ public class HopDongDTO {
                           customerName.substring(customerName.length() - 2);
         }
     }
+
+    @Override
+    public void putUnconvertedCell(String fieldName, String cellText) {
+        if (unconvertedCells == null) {
+            unconvertedCells = new HashMap<>();
+        }
+        unconvertedCells.put(fieldName, cellText);
+    }
+
+    @Override
+    public String getUnconvertedCell(String fieldName) {
+        return unconvertedCells != null ? unconvertedCells.get(fieldName) : null;
+    }
 }
@@ -1,6 +1,7 @@
 package com.learnmore.application.dto.migration.sheet;
 
 import com.learnmore.application.utils.ExcelColumn;
+import com.learnmore.application.utils.sax.UnconvertedCellAware;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,8 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * DTO for sheet "HSBG_theo_tap" (Folder-based Archive Management)
@@ -17,7 +20,7 @@ import java.time.YearMonth;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class TapDTO {
+public class TapDTO implements UnconvertedCellAware {
 
     @ExcelColumn(name = "Kho VPBank", index = 0, required = true)
     private String vpbankWarehouse;
@@ -92,6 +95,12 @@ public class TapDTO {
     private transient String validationErrors;
     private transient boolean isValid = true;
 
+    // Dòng Excel (1-based), do SAX reader gán; ghi vào staging_raw.row_num
+    private transient Integer rowNum;
+
+    // Ô không convert được: field → text gốc (ghi vào staging thay cho NULL)
+    private transient Map<String, String> unconvertedCells;
+
     /**
      * Business key for duplicate check
      * CT1: Check duplicate data key (Unit Code + Handover Responsibility + Incident Month + Product)
@@ -140,4 +149,17 @@ public class TapDTO {
     public boolean isValidProduct() {
         return "KSSV".equals(product);
     }
+
+    @Override
+    public void putUnconvertedCell(String fieldName, String cellText) {
+        if (unconvertedCells == null) {
+            unconvertedCells = new HashMap<>();
+        }
+        unconvertedCells.put(fieldName, cellText);
+    }
+
+    @Override
+    public String getUnconvertedCell(String fieldName) {
+        return unconvertedCells != null ? unconvertedCells.get(fieldName) : null;
+    }
 }
@@ -6,11 +6,15 @@ import com.learnmore.application.excel.service.ExcelReadingService;
 import com.learnmore.application.excel.service.ExcelWritingService;
 import com.learnmore.application.utils.config.ExcelConfig;
 import com.learnmore.application.utils.exception.ExcelProcessException;
+import com.learnmore.application.utils.sax.ColumnarBatch;
+import com.learnmore.application.utils.sax.SheetPreview;
 import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
+import com.learnmore.application.utils.sax.WorkbookSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.function.Consumer;
@@ -201,6 +205,54 @@ public class ExcelFacade {
         return readingService.readWithConfig(inputStream, beanClass, config, batchProcessor);
     }
 
+    /**
+     * Read Excel file into columnar batches instead of beans
+     *
+     * For consumers that only push values onward (e.g. JDBC batch inserts): each batch holds
+     * per-column primitive arrays, dictionary-encoded strings and null bitmaps, reused between
+     * batches, so no object is allocated per row. Use batch.row(i) / batch.toBean(i) where a
+     * row-oriented view is still needed.
+     *
+     * @param inputStream Excel file input stream
+     * @param beanClass Class describing the columns (same header binding as the bean output)
+     * @param config Custom Excel configuration
+     * @param batchProcessor Consumer of each batch; must not keep the batch after returning
+     * @param <T> Bean type describing the columns
+     * @return ProcessingResult with statistics
+     * @throws ExcelProcessException if reading fails
+     */
+    public <T> TrueStreamingSAXProcessor.ProcessingResult readExcelColumnar(
+        InputStream inputStream,
+        Class<T> beanClass,
+        ExcelConfig config,
+        Consumer<ColumnarBatch<T>> batchProcessor
+    ) throws ExcelProcessException {
+        log.debug("Reading Excel file in columnar mode for class: {}", beanClass.getSimpleName());
+
+        return readingService.readColumnar(inputStream, beanClass, config, batchProcessor);
+    }
+
+    /**
+     * Preview an upload before it is committed: header, first rows and detected column types
+     *
+     * Stops parsing after the requested rows and only resolves the shared strings those rows use,
+     * so a 1M-row file previews as fast as a 100-row one.
+     *
+     * @param inputStream Excel file input stream
+     * @param beanClass Class type to map Excel rows to
+     * @param rows Number of data rows to return (e.g. 50)
+     * @param <T> Type of objects to read
+     * @return Preview of the first sheet
+     * @throws ExcelProcessException if reading fails
+     */
+    public <T> SheetPreview<T> previewExcel(
+        InputStream inputStream,
+        Class<T> beanClass,
+        int rows
+    ) throws ExcelProcessException {
+        return readingService.preview(inputStream, beanClass, rows);
+    }
+
     /**
      * Read multi-sheet Excel file using true streaming and return per-sheet results
      *
@@ -226,6 +278,62 @@ public class ExcelFacade {
         }
     }
 
+    /**
+     * Read first sheet from an already opened workbook session
+     *
+     * Reuses the session's package, styles and shared strings: the upload is not unzipped again.
+     *
+     * @param session Workbook session of the upload (caller closes it)
+     * @param beanClass Class type to map Excel rows to
+     * @param config Custom Excel configuration
+     * @param batchProcessor Consumer that processes each batch
+     * @param <T> Type of objects to read
+     * @return ProcessingResult with statistics
+     * @throws ExcelProcessException if reading fails
+     */
+    public <T> TrueStreamingSAXProcessor.ProcessingResult readExcelWithConfig(
+        WorkbookSession session,
+        Class<T> beanClass,
+        ExcelConfig config,
+        Consumer<List<T>> batchProcessor
+    ) throws ExcelProcessException {
+        // Strategies only take an InputStream: the session travels in the config, the processor reads from it
+        WorkbookSession previous = config.getWorkbookSession();
+        config.setWorkbookSession(session);
+        try (InputStream inputStream = session.newInputStream()) {
+            return readExcelWithConfig(inputStream, beanClass, config, batchProcessor);
+        } catch (IOException e) {
+            throw new ExcelProcessException("Failed to read workbook session", e);
+        } finally {
+            config.setWorkbookSession(previous);
+        }
+    }
+
+    /**
+     * Read multi-sheet Excel from an already opened workbook session
+     *
+     * @param session Workbook session of the upload (caller closes it)
+     * @param sheetClassMap Map of sheet name to target bean class
+     * @param sheetProcessors Map of sheet name to batch processor
+     * @param config Custom Excel configuration
+     * @return Map of sheet name to ProcessingResult
+     * @throws ExcelProcessException if reading fails
+     */
+    public Map<String, TrueStreamingSAXProcessor.ProcessingResult> readMultiSheet(
+        WorkbookSession session,
+        Map<String, Class<?>> sheetClassMap,
+        Map<String, Consumer<List<?>>> sheetProcessors,
+        ExcelConfig config
+    ) throws ExcelProcessException {
+        try {
+            com.learnmore.application.utils.sax.TrueStreamingMultiSheetProcessor processor =
+                new com.learnmore.application.utils.sax.TrueStreamingMultiSheetProcessor(sheetClassMap, sheetProcessors, config);
+            return processor.processTrueStreaming(session);
+        } catch (Exception e) {
+            throw new ExcelProcessException("Failed to read multi-sheet Excel", e);
+        }
+    }
+
     // ========== WRITING API ==========
 
     /**
@@ -3,6 +3,7 @@ package com.learnmore.application.excel.builder;
 import com.learnmore.application.excel.service.ExcelReadingService;
 import com.learnmore.application.utils.config.ExcelConfig;
 import com.learnmore.application.utils.exception.ExcelProcessException;
+import com.learnmore.application.utils.sax.ColumnarBatch;
 import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
 
 import java.io.InputStream;
@@ -205,6 +206,40 @@ public class ExcelReaderBuilder<T> {
         return this;
     }
 
+    /**
+     * Add unique field validation with an explicit value store
+     *
+     * FINGERPRINT (default) keeps ~16 bytes per value instead of a String per value;
+     * FINGERPRINT_OFF_HEAP also moves that table out of the heap.
+     *
+     * @param store Where seen values are kept
+     * @param fieldNames Unique field names
+     * @return This builder
+     */
+    public ExcelReaderBuilder<T> withUniqueFields(ExcelConfig.UniqueValueStore store, String... fieldNames) {
+        configBuilder.uniqueValueStore(store);
+        configBuilder.uniqueFields(fieldNames);
+        return this;
+    }
+
+    /**
+     * Read only the given columns (column projection)
+     *
+     * Other mapped fields stay at their default value. Uses the byte-level tokenizer so cells of
+     * unrequested columns are skipped before shared-string lookup, conversion or setter call;
+     * the cost of a narrow read follows the number of requested columns, not the sheet width.
+     * Required/unique/validated fields are always read. Rows that are empty in every projected
+     * column are skipped like fully empty rows.
+     *
+     * @param columns Field names or header (@ExcelColumn) names
+     * @return This builder
+     */
+    public ExcelReaderBuilder<T> columns(String... columns) {
+        configBuilder.columns(columns);
+        configBuilder.parseEngine(ExcelConfig.ParseEngine.FAST);
+        return this;
+    }
+
     /**
      * Enable strict validation (fail on first error)
      *
@@ -271,6 +306,105 @@ public class ExcelReaderBuilder<T> {
         return this;
     }
 
+    /**
+     * Use the byte-level sheet tokenizer instead of POI's XSSFSheetXMLHandler
+     *
+     * Produces the same cell text; skips unmapped columns without copying them.
+     * Numeric cells bound to number/date fields are converted from the raw value
+     * (Excel serial date → LocalDate/LocalDateTime) without DataFormatter text.
+     *
+     * @return This builder
+     */
+    public ExcelReaderBuilder<T> fastParser() {
+        configBuilder.parseEngine(ExcelConfig.ParseEngine.FAST);
+        return this;
+    }
+
+    /**
+     * Parse a single sheet on multiple threads by splitting it into row-range chunks
+     *
+     * Rows are still delivered in sheet order; validations and maxRows are applied sequentially.
+     *
+     * @param threads Parsing threads
+     * @param chunkRows Rows per chunk
+     * @return This builder
+     */
+    public ExcelReaderBuilder<T> parallelSheetParsing(int threads, int chunkRows) {
+        configBuilder.parallelSheetParsing(true);
+        configBuilder.threadPoolSize(threads);
+        configBuilder.parallelChunkRows(chunkRows);
+        return this;
+    }
+
+    /**
+     * Keep the parse thread to tokenizing only: raw rows are bound, converted and validated on worker threads
+     *
+     * Rows are delivered in sheet order; the unique check, maxRows and batching stay sequential.
+     * Validation rules must be thread-safe.
+     *
+     * @param threads Conversion threads
+     * @return This builder
+     */
+    public ExcelReaderBuilder<T> parallelRowConversion(int threads) {
+        configBuilder.parallelRowConversion(true);
+        configBuilder.threadPoolSize(threads);
+        return this;
+    }
+
+    /**
+     * Keep the shared strings table in a temp file instead of the heap
+     *
+     * For workbooks with millions of unique strings; only an offset index and a small LRU stay in memory.
+     *
+     * @return This builder
+     */
+    public ExcelReaderBuilder<T> fileBackedSharedStrings() {
+        configBuilder.sharedStringsStore(ExcelConfig.SharedStringsStore.FILE_BACKED);
+        return this;
+    }
+
+    /**
+     * Parallel processing with recycled row objects: steady-state allocation is near zero
+     *
+     * Batches and their records are reused once the batch processor returns, so the processor
+     * must copy anything it needs to keep (e.g. persist, then drop the references).
+     *
+     * @param ringBufferSize Batches in flight between the parser and the workers (0 = auto)
+     * @return This builder
+     */
+    public ExcelReaderBuilder<T> recycleRowObjects(int ringBufferSize) {
+        configBuilder.parallelProcessing(true);
+        configBuilder.ringBufferSize(ringBufferSize);
+        configBuilder.recycleRowObjects(true);
+        return this;
+    }
+
+    /**
+     * Parallel processing with batches delivered in file order
+     *
+     * Pass an OrderedBatchProcessor to keep its prepare() stage parallel; only commit() is serialized.
+     *
+     * @param reorderWindow Batches prepared ahead of the oldest uncommitted one (0 = auto)
+     * @return This builder
+     */
+    public ExcelReaderBuilder<T> orderedDelivery(int reorderWindow) {
+        configBuilder.parallelProcessing(true);
+        configBuilder.orderedDelivery(true);
+        configBuilder.reorderWindow(reorderWindow);
+        return this;
+    }
+
+    /**
+     * Let the cost model pick the read strategy from the file's rows/columns, CPU cores,
+     * free heap and past throughput (applies to readStream; read() keeps priority selection)
+     *
+     * @return This builder
+     */
+    public ExcelReaderBuilder<T> costBasedStrategySelection() {
+        configBuilder.costBasedStrategySelection(true);
+        return this;
+    }
+
     // ========== Terminal Operations ==========
 
     /**
@@ -306,6 +440,25 @@ public class ExcelReaderBuilder<T> {
         return readingService.readWithConfig(inputStream, beanClass, config, batchProcessor);
     }
 
+    /**
+     * Read and process in columnar batches (streaming, no bean per row)
+     *
+     * Best for ingest paths that copy values straight into JDBC parameters.
+     * The batch is reused: do not keep it after the consumer returns.
+     *
+     * @param inputStream Excel file input stream
+     * @param batchProcessor Consumer that processes each columnar batch
+     * @return ProcessingResult with statistics
+     * @throws ExcelProcessException if reading fails
+     */
+    public TrueStreamingSAXProcessor.ProcessingResult readColumnar(
+        InputStream inputStream,
+        Consumer<ColumnarBatch<T>> batchProcessor
+    ) throws ExcelProcessException {
+        ExcelConfig config = configBuilder.build();
+        return readingService.readColumnar(inputStream, beanClass, config, batchProcessor);
+    }
+
     /**
      * Read all records (alias for read)
      *
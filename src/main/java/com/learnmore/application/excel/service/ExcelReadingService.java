@@ -1,13 +1,19 @@
 package com.learnmore.application.excel.service;
 
+import com.learnmore.application.excel.strategy.OrderedBatchProcessor;
 import com.learnmore.application.excel.strategy.ReadStrategy;
 import com.learnmore.application.excel.monitoring.ErrorTracker;
 import com.learnmore.application.excel.monitoring.MemoryMonitor;
+import com.learnmore.application.excel.strategy.selector.ReadStrategyDecision;
 import com.learnmore.application.excel.strategy.selector.ReadStrategySelector;
 import com.learnmore.application.utils.config.ExcelConfig;
 import com.learnmore.application.utils.config.ExcelConfigFactory;
 import com.learnmore.application.utils.exception.ExcelProcessException;
+import com.learnmore.application.utils.sax.ColumnarBatch;
+import com.learnmore.application.utils.sax.SheetPreview;
 import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
+import com.learnmore.application.utils.sax.WorkbookSession;
+import com.learnmore.application.utils.validation.ExcelEarlyValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -28,6 +34,8 @@ import java.util.function.Consumer;
  * - Uses ReadStrategySelector to automatically choose the best strategy
  * - StreamingReadStrategy: Default for all file sizes
  * - ParallelReadStrategy: When parallelProcessing enabled
+ * - config.costBasedStrategySelection: readWithConfig estimates rows/columns from the file's
+ *   dimension and lets the selector's cost model decide (see ReadStrategySelector.decide)
  *
  * IMPORTANT: All strategies delegate to the existing ExcelUtil methods
  * to preserve the optimized performance for millions of records.
@@ -151,11 +159,136 @@ public class ExcelReadingService {
     ) throws ExcelProcessException {
         log.debug("Reading Excel file with custom config for class: {}", beanClass.getSimpleName());
 
-        ReadStrategy<T> strategy = readStrategySelector.selectStrategy(config);
         Consumer<List<T>> wrapped = decorateBatchProcessor(config, batchProcessor);
+        if (config.isCostBasedStrategySelection()) {
+            return readWithCostModel(inputStream, beanClass, config, wrapped);
+        }
+        ReadStrategy<T> strategy = readStrategySelector.selectStrategy(config);
         return strategy.execute(inputStream, beanClass, config, wrapped);
     }
 
+    /**
+     * Cost-based selection: the dimension of the first sheet gives rows/columns before parsing.
+     * Without ExcelConfig.workbookSession the stream is spooled once into a session that the
+     * estimate and the read share (set on the config for the duration of the read).
+     */
+    private <T> TrueStreamingSAXProcessor.ProcessingResult readWithCostModel(
+        InputStream inputStream,
+        Class<T> beanClass,
+        ExcelConfig config,
+        Consumer<List<T>> batchProcessor
+    ) throws ExcelProcessException {
+        WorkbookSession shared = config.getWorkbookSession();
+        if (shared != null) {
+            return executeDecided(shared, inputStream, beanClass, config, batchProcessor);
+        }
+        try (WorkbookSession session = WorkbookSession.open(inputStream);
+             InputStream sessionStream = session.newInputStream()) {
+            config.setWorkbookSession(session);
+            return executeDecided(session, sessionStream, beanClass, config, batchProcessor);
+        } catch (ExcelProcessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExcelProcessException("Failed to process Excel file", e);
+        } finally {
+            config.setWorkbookSession(null);
+        }
+    }
+
+    private <T> TrueStreamingSAXProcessor.ProcessingResult executeDecided(
+        WorkbookSession session,
+        InputStream inputStream,
+        Class<T> beanClass,
+        ExcelConfig config,
+        Consumer<List<T>> batchProcessor
+    ) throws ExcelProcessException {
+        ExcelEarlyValidator.EarlyValidationResult estimate;
+        try {
+            estimate = ExcelEarlyValidator.validateRecordCount(session, Integer.MAX_VALUE, 1);
+        } catch (Exception e) {
+            // No dimension tag (some generators omit it) → priority selection
+            log.debug("No row/column estimate for cost-based selection: {}", e.getMessage());
+            estimate = null;
+        }
+
+        ReadStrategyDecision decision = readStrategySelector.decide(config, estimate);
+        ReadStrategy<T> strategy = decision.getStrategy();
+        TrueStreamingSAXProcessor.ProcessingResult result = strategy.execute(inputStream, beanClass, config, batchProcessor);
+        readStrategySelector.recordOutcome(decision, result);
+        return result.withReadStrategy(decision.getStrategyName(), decision.summary());
+    }
+
+    /**
+     * Read Excel file into reused columnar batches (no bean per row)
+     *
+     * Always streams on the calling thread with TrueStreamingSAXProcessor: the batch arrays are
+     * reused, so batches cannot be handed to the parallel strategies.
+     *
+     * @param inputStream Excel file input stream
+     * @param beanClass Class describing the columns (headers are bound exactly as for beans)
+     * @param config Custom Excel configuration
+     * @param batchProcessor Consumer of each batch; must not keep it after returning
+     * @return ProcessingResult with statistics
+     * @throws ExcelProcessException if reading fails
+     */
+    public <T> TrueStreamingSAXProcessor.ProcessingResult readColumnar(
+        InputStream inputStream,
+        Class<T> beanClass,
+        ExcelConfig config,
+        Consumer<ColumnarBatch<T>> batchProcessor
+    ) throws ExcelProcessException {
+        log.debug("Reading Excel file in columnar mode for class: {}", beanClass.getSimpleName());
+
+        try {
+            return TrueStreamingSAXProcessor.columnar(beanClass, config, new ArrayList<>(), batchProcessor)
+                    .processExcelStreamTrue(inputStream);
+        } catch (ExcelProcessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExcelProcessException("Failed to process Excel file in columnar mode", e);
+        }
+    }
+
+    /**
+     * Preview the first sheet: header, first rows and detected column types
+     *
+     * Parsing stops as soon as the rows are read (ExcelConfig.rowLimit) and the shared strings
+     * table is only parsed up to the strings those rows reference (SharedStringsStore.LAZY),
+     * so latency does not grow with the size of the file.
+     *
+     * @param inputStream Excel file input stream
+     * @param beanClass Class type to map Excel rows to
+     * @param rows Number of data rows to return
+     * @return Preview of the first sheet
+     * @throws ExcelProcessException if reading fails
+     */
+    public <T> SheetPreview<T> preview(
+        InputStream inputStream,
+        Class<T> beanClass,
+        int rows
+    ) throws ExcelProcessException {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("rows must be positive");
+        }
+        log.debug("Previewing {} rows of Excel file for class: {}", rows, beanClass.getSimpleName());
+
+        ExcelConfig config = ExcelConfig.builder()
+                .parseEngine(ExcelConfig.ParseEngine.FAST)
+                .sharedStringsStore(ExcelConfig.SharedStringsStore.LAZY)
+                .rowLimit(rows)
+                .batchSize(rows)
+                .build();
+        SheetPreview<T> preview = new SheetPreview<>();
+        try {
+            TrueStreamingSAXProcessor.preview(beanClass, config, preview).processExcelStreamTrue(inputStream);
+            return preview;
+        } catch (ExcelProcessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExcelProcessException("Failed to preview Excel file", e);
+        }
+    }
+
     /**
      * Read Excel file with default small file configuration
      *
@@ -208,24 +341,44 @@ public class ExcelReadingService {
             memoryMonitor.startMonitoring(jobId);
         }
         final ErrorTracker errorTracker = new ErrorTracker(config);
+        // A checkpointed read must see the failure: a swallowed batch would be committed as stored
+        final boolean checkpointed = config.getCheckpointRecorder() != null;
 
-        return batch -> {
+        final Consumer<Runnable> guarded = step -> {
             try {
                 if (monitor && memoryMonitor.isThresholdExceeded(jobId, config.getMemoryThresholdMB())) {
                     // If threshold exceeded, still process but log. Consumers can decide to flush.
-                    // Intentionally no GC here; leave to runtime/consumer.
+                    // Intentionally no GC here; leave to runtime/consumer. With config.adaptiveBatchSizing
+                    // the parser's batch sizer halves the next batches on this same threshold.
                 }
-                delegate.accept(batch);
+                step.run();
             } catch (Exception e) {
                 boolean cont = errorTracker.recordError(-1, "batch", e);
                 if (!cont) {
                     throw new ExcelProcessException("Aborted due to max errors", e);
                 }
+                if (checkpointed) {
+                    throw e instanceof RuntimeException runtime ? runtime : new ExcelProcessException("Batch failed", e);
+                }
             } finally {
                 if (monitor && jobId != null && !jobId.isEmpty()) {
                     memoryMonitor.stopMonitoring(jobId);
                 }
             }
         };
+
+        if (delegate instanceof OrderedBatchProcessor<T, ?> ordered) {
+            return guardCommit(ordered, guarded);
+        }
+        return batch -> guarded.accept(() -> delegate.accept(batch));
+    }
+
+    /**
+     * Keep prepare/commit separate so ordered delivery can still prepare in parallel;
+     * error tracking wraps the in-order commit stage (prepare failures fail their batch)
+     */
+    private static <T, R> OrderedBatchProcessor<T, R> guardCommit(OrderedBatchProcessor<T, R> ordered,
+                                                                  Consumer<Runnable> guarded) {
+        return OrderedBatchProcessor.of(ordered::prepare, prepared -> guarded.accept(() -> ordered.commit(prepared)));
     }
 }
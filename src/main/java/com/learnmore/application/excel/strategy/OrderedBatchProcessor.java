@@ -0,0 +1,60 @@
+package com.learnmore.application.excel.strategy;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Batch processor split into a parallel stage and an in-order stage
+ *
+ * With ExcelConfig.orderedDelivery, ParallelReadStrategy calls prepare() on several worker
+ * threads at once, then commit() one batch at a time in file order (batch N is committed only
+ * after batches 0..N-1). Heavy work (mapping, validation, serialization) belongs in prepare();
+ * commit() should only do what needs the order, e.g. append to a sink or advance a checkpoint.
+ *
+ * The batch list is still valid inside commit(), but not after it returns.
+ *
+ * Example:
+ * <pre>
+ * OrderedBatchProcessor&lt;User, List&lt;UserEntity&gt;&gt; processor = OrderedBatchProcessor.of(
+ *         batch -> batch.stream().map(mapper::toEntity).toList(),
+ *         repository::saveAll);
+ * </pre>
+ *
+ * @param <T> Row type
+ * @param <R> Result of the parallel stage handed to commit()
+ */
+public interface OrderedBatchProcessor<T, R> extends Consumer<List<T>> {
+
+    /**
+     * Parallel stage: may run concurrently for different batches
+     */
+    R prepare(List<T> batch);
+
+    /**
+     * Ordered stage: never concurrent, called in batch (file) order
+     */
+    void commit(R prepared);
+
+    /**
+     * Sequential use (strategies without ordered delivery): both stages on the calling thread
+     */
+    @Override
+    default void accept(List<T> batch) {
+        commit(prepare(batch));
+    }
+
+    static <T, R> OrderedBatchProcessor<T, R> of(Function<List<T>, R> prepare, Consumer<R> commit) {
+        return new OrderedBatchProcessor<>() {
+            @Override
+            public R prepare(List<T> batch) {
+                return prepare.apply(batch);
+            }
+
+            @Override
+            public void commit(R prepared) {
+                commit.accept(prepared);
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.learnmore.application.excel.strategy;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Cost-model inputs a read strategy declares for ReadStrategySelector
+ *
+ * Throughput model: baseline cells/sec × (1 + (min(workers, cores) - 1) × scalingEfficiency), replaced by
+ * the throughput measured for the strategy once ReadThroughputHistory has enough past reads.
+ * Memory model: inFlightBatches × batchSize × columns × estimated bytes per cell.
+ */
+@Getter
+@Builder
+public class ReadCostProfile {
+
+    /**
+     * Threads running the batch consumer
+     */
+    private final int workers;
+
+    /**
+     * Batches alive at the same time (parsed, queued or being consumed)
+     */
+    private final int inFlightBatches;
+
+    /**
+     * Share of each extra worker that turns into throughput (parsing stays single-threaded)
+     */
+    private final double scalingEfficiency;
+
+    /**
+     * Fixed cost per read: pool hand-off, pipeline wiring
+     */
+    private final long startupMs;
+
+    /**
+     * Single consumer, one batch at a time
+     */
+    public static ReadCostProfile sequential() {
+        return ReadCostProfile.builder()
+                .workers(1)
+                .inFlightBatches(1)
+                .scalingEfficiency(0)
+                .startupMs(0)
+                .build();
+    }
+}
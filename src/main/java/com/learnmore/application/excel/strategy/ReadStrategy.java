@@ -69,4 +69,17 @@ public interface ReadStrategy<T> {
     default int getPriority() {
         return 0;
     }
+
+    /**
+     * Cost-model inputs for ExcelConfig.costBasedStrategySelection
+     *
+     * Strategies returning null (the default) are only chosen by supports() and priority,
+     * never by the cost model.
+     *
+     * @param config Excel configuration of the read
+     * @return Profile, or null if this strategy cannot run the read or is not cost-modelled
+     */
+    default ReadCostProfile getCostProfile(ExcelConfig config) {
+        return null;
+    }
 }
@@ -1,19 +1,30 @@
 package com.learnmore.application.excel.strategy.impl;
 
+import com.learnmore.application.excel.strategy.OrderedBatchProcessor;
+import com.learnmore.application.excel.strategy.ReadCostProfile;
 import com.learnmore.application.excel.strategy.ReadStrategy;
+import com.learnmore.application.utils.concurrent.MigrationWorkScheduler;
 import com.learnmore.application.utils.config.ExcelConfig;
 import com.learnmore.application.utils.exception.ExcelProcessException;
+import com.learnmore.application.utils.sax.BatchRingBuffer;
 import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
 import com.learnmore.application.utils.validation.ValidationRule;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 /**
@@ -24,13 +35,15 @@ import java.util.function.Consumer;
  * that can process batches in parallel.
  *
  * Performance characteristics:
- * - Memory: O(batch_size * num_threads) - multiple batches may be in memory
+ * - Memory: O(batch_size * ring_buffer_size) - bounded by the ring buffer, and in-flight batches
+ *   are further capped at memoryThresholdMB / 2 using the measured batch size
  * - Speed: ~100,000-200,000 records/sec (multi-threaded, depends on cores)
  * - File size: Up to 2M records (limited by memory)
  *
  * IMPORTANT: The actual parallel processing happens in the batch processor
  * provided by the caller. TrueStreamingSAXProcessor itself is single-threaded
- * (SAX parsing must be sequential), but the batch callbacks can be parallelized.
+ * (SAX parsing must be sequential); batches are handed to worker threads through
+ * a BatchRingBuffer of recycled batch containers.
  *
  * This strategy ALWAYS delegates to ExcelUtil.processExcelTrueStreaming()
  * to ensure ZERO performance impact from the refactoring.
@@ -51,24 +64,80 @@ import java.util.function.Consumer;
 @Component
 public class ParallelReadStrategy<T> implements ReadStrategy<T> {
 
+    private static final AtomicInteger READ_SEQUENCE = new AtomicInteger();
+
+    // ✅ Application-wide worker pool: batches of concurrent reads (and other migration work) share it fairly
+    private final MigrationWorkScheduler workScheduler;
+    private final boolean ownsScheduler;
+    private final int parallelism;
+    private final Set<BatchRingBuffer<?>> activeRings = ConcurrentHashMap.newKeySet();
+    private final Timer stallTimer;
+
+    public ParallelReadStrategy() {
+        this(new MigrationWorkScheduler(Runtime.getRuntime().availableProcessors()), true, null);
+    }
+
+    @Autowired
+    public ParallelReadStrategy(MigrationWorkScheduler workScheduler, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(workScheduler, false, meterRegistry.getIfAvailable());
+    }
+
+    private ParallelReadStrategy(MigrationWorkScheduler workScheduler, boolean ownsScheduler, MeterRegistry meterRegistry) {
+        this.workScheduler = workScheduler;
+        this.ownsScheduler = ownsScheduler;
+        // A single read never gets more workers than the shared pool has threads
+        this.parallelism = Math.min(Runtime.getRuntime().availableProcessors(), workScheduler.getWorkerCount());
+        if (meterRegistry != null) {
+            Gauge.builder("excel.read.parallel.queue.depth", activeRings,
+                            rings -> rings.stream().mapToInt(BatchRingBuffer::getQueueDepth).sum())
+                    .description("Published batches waiting for a worker, over all running parallel reads")
+                    .register(meterRegistry);
+            Gauge.builder("excel.read.parallel.in.flight", activeRings,
+                            rings -> rings.stream().mapToInt(BatchRingBuffer::getInFlightBatches).sum())
+                    .description("Batches published and not yet processed, over all running parallel reads")
+                    .register(meterRegistry);
+            this.stallTimer = Timer.builder("excel.read.parallel.stall")
+                    .description("Time the parse thread waited for batch admission, per read")
+                    .register(meterRegistry);
+        } else {
+            this.stallTimer = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownsScheduler) {
+            workScheduler.shutdown();
+        }
+    }
+
     /**
-     * Execute parallel read using SAX processing with OPTIMIZED parallel batch callbacks
+     * Execute parallel read using SAX processing with a bounded ring buffer of batches
      *
-     * V2.0 OPTIMIZED IMPLEMENTATION with guaranteed completion:
+     * V3.0 RING BUFFER IMPLEMENTATION with guaranteed completion:
      * - Reads Excel file sequentially (SAX parsing must be sequential)
-     * - Creates parallel batch processor using ForkJoinPool (work-stealing for I/O)
-     * - NO semaphore blocking - SAX parsing never blocked
+     * - SAX thread writes rows straight into pre-allocated ring slots (no per-batch copy,
+     *   no CompletableFuture per batch)
+     * - Worker threads claim published slots by sequence and release them when done
+     * - BACKPRESSURE: SAX thread waits when every slot is still in flight, or when in-flight
+     *   batches (measured size) reach memoryThresholdMB / 2
+     * - Workers run on the application-wide MigrationWorkScheduler (at most availableProcessors per read),
+     *   queued under config.jobId with config.jobPriority and yielding after every batch, so concurrent
+     *   uploads share the pool by weighted round-robin
+     * - ORDERED DELIVERY (config.orderedDelivery): an OrderedBatchProcessor prepares batches in
+     *   parallel and commits them in file order through the ring's reorder buffer; the window
+     *   (config.reorderWindow, default ring size) bounds how far preparation runs ahead of commit.
+     *   A plain consumer is committed one batch at a time.
      * - BLOCKING: Waits for all batches to complete (guaranteed data integrity)
      * - Proper error handling with exception propagation
-     * - Graceful executor shutdown with timeout
-     * - Memory efficient with immediate cleanup
      *
      * PERFORMANCE OPTIMIZATION:
-     * - Uses ForkJoinPool with work-stealing (20-30% faster than FixedThreadPool)
-     * - No semaphore blocking SAX thread (30% faster SAX parsing)
-     * - Guaranteed completion tracking with CompletableFuture.allOf
-     * - Immediate memory cleanup (batches GC'd as completed)
-     * - Optimal thread utilization with work-stealing
+     * - Batch containers are recycled: steady-state allocation of the handoff is zero
+     * - config.recycleRowObjects also reuses the DTO instances of released batches
+     * - No unbounded task queue when workers are slower than the parser
+     *
+     * Batch lists (and records, when recycled) are reused after the batch processor returns,
+     * so the processor must not keep references to them.
      *
      * Example usage:
      * <pre>
@@ -78,13 +147,12 @@ public class ParallelReadStrategy<T> implements ReadStrategy<T> {
      *
      * ProcessingResult result = strategy.execute(inputStream, User.class, config, batchProcessor);
      * // Returns only when ALL batches are completed
-     * // Guaranteed data integrity and proper resource cleanup
      * </pre>
      *
      * @param inputStream Excel file input stream
      * @param beanClass Class type to map Excel rows to
      * @param config Excel configuration with parallelProcessing enabled
-     * @param batchProcessor Consumer that processes batches (can be parallel)
+     * @param batchProcessor Consumer that processes batches (called on worker threads)
      * @return ProcessingResult with statistics (guaranteed completion)
      * @throws ExcelProcessException if reading fails or batch processing fails
      */
@@ -104,136 +172,87 @@ public class ParallelReadStrategy<T> implements ReadStrategy<T> {
                     "Consider using StreamingReadStrategy instead.");
         }
 
-        // ✅ V2.0: Track futures for completion monitoring
-        List<CompletableFuture<Void>> futures = new CopyOnWriteArrayList<>();
-
-        // ✅ Progress tracking
-        AtomicInteger failureCount = new AtomicInteger(0);
-        AtomicInteger completedBatches = new AtomicInteger(0);
-        AtomicLong totalProcessedRecords = new AtomicLong(0);
-
-        // ✅ Volatile reference to store first exception for propagation
-        final Exception[] firstException = new Exception[1];
-
-        // ✅ V2.0: NO SEMAPHORE - SAX parsing never blocked!
-        // ForkJoinPool handles backpressure naturally with work-stealing
-
-        // ✅ V2.0: FORKJOINPOOL with work-stealing (20-30% faster than FixedThreadPool)
-        int parallelism = Runtime.getRuntime().availableProcessors();
-        ExecutorService executorService = new ForkJoinPool(
-            parallelism,
-            ForkJoinPool.defaultForkJoinWorkerThreadFactory,
-            null,
-            true // asyncMode = true for better async task handling
-        );
-
-        log.info("ParallelReadStrategy V2.0 initialized with {} threads (ForkJoinPool with work-stealing)", parallelism);
-
-        try {
-            // Create validation rules (empty for now, can be extended)
-            List<ValidationRule> validationRules = new ArrayList<>();
-
-            // ✅ V2.0: NO SEMAPHORE BLOCKING - SAX parsing never blocked!
-            Consumer<List<T>> parallelBatchProcessor = batch -> {
-                // ✅ V2.0: Submit batch processing immediately (no blocking)
-                CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
-                    try {
-                        // Process batch using provided processor
-                        batchProcessor.accept(batch);
-                        
-                        // ✅ PROGRESS TRACKING: Update counters
-                        completedBatches.incrementAndGet();
-                        totalProcessedRecords.addAndGet(batch.size());
-                        
-                        log.debug("Completed batch: {} records, total processed: {}", 
-                                 batch.size(), totalProcessedRecords.get());
-
-                    } catch (Exception e) {
-                        // Track failures
-                        failureCount.incrementAndGet();
-
-                        // Store first exception for propagation
-                        synchronized (firstException) {
-                            if (firstException[0] == null) {
-                                firstException[0] = e;
-                            }
-                        }
-
-                        log.error("Error processing batch in parallel (batch size: {}): {}",
-                                 batch.size(), e.getMessage(), e);
-
-                        // Rethrow to mark future as failed
-                        throw new CompletionException(e);
-                    }
-                }, executorService);
-
-                // ✅ TRACK FUTURE: For completion monitoring
-                futures.add(future);
-            };
-
-            // Create TrueStreamingSAXProcessor with parallel batch processing
-            TrueStreamingSAXProcessor<T> processor = new TrueStreamingSAXProcessor<>(
-                beanClass,
-                config,
-                validationRules,
-                parallelBatchProcessor
-            );
-
-            // Process Excel with true streaming and parallel batch processing
-            TrueStreamingSAXProcessor.ProcessingResult result = processor.processExcelStreamTrue(inputStream);
-
-            // ✅ V2.0: GUARANTEED COMPLETION - Wait for all batches to complete
-            log.info("SAX parsing completed. {} batches submitted for parallel processing", futures.size());
+        int ringSize = ringSize(config);
+        // Half of the job's memory threshold for batches waiting on / inside the consumer;
+        // the rest is left to the parser, shared strings and the consumer itself
+        long inFlightBudgetBytes = config.getMemoryThresholdMB() * 1024L * 1024L / 2;
+
+        // ✅ V3.0: Bounded ring of reusable batch slots between SAX thread and workers
+        try (BatchRingBuffer<T> ringBuffer = new BatchRingBuffer<>(
+                ringSize, config.getBatchSize(), parallelism, config.isRecycleRowObjects(),
+                workScheduler.executorFor(jobKey(config), config.getJobPriority()), batchProcessor)) {
+            ringBuffer.limitInFlightBytes(inFlightBudgetBytes);
+            ringBuffer.yieldBetweenBatches();
+            if (config.isOrderedDelivery()) {
+                deliverInOrder(ringBuffer, batchProcessor);
+            }
 
-            // ✅ V2.0: Create completion future for ALL batches
-            CompletableFuture<Void> allFutures = CompletableFuture.allOf(
-                futures.toArray(new CompletableFuture[0])
-            );
+            log.info("ParallelReadStrategy V3.0 initialized with {} threads, {} ring slots, {} MB in-flight budget (recycleRowObjects={}, ordered={})",
+                    parallelism, ringBuffer.getCapacity(), inFlightBudgetBytes / (1024 * 1024),
+                    config.isRecycleRowObjects(), ringBuffer.isOrdered());
 
+            activeRings.add(ringBuffer);
             try {
-                // ✅ V2.0: WAIT FOR ALL BATCHES TO COMPLETE (guaranteed data integrity)
-                log.info("Waiting for {} batches to complete...", futures.size());
-                
-                // Wait with timeout (10 minutes for large datasets)
-                allFutures.get(10, TimeUnit.MINUTES);
-
-                log.info("All {} batches completed successfully. Total processed: {} records", 
-                        futures.size(), totalProcessedRecords.get());
-
-            } catch (TimeoutException e) {
-                log.error("Timeout waiting for batches to complete after 10 minutes");
-                throw new ExcelProcessException("Batch processing timeout after 10 minutes", e);
-
-            } catch (ExecutionException e) {
-                log.error("Batch processing failed: {}", e.getMessage());
-                throw new ExcelProcessException("Batch processing failed", e.getCause());
-
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new ExcelProcessException("Batch processing interrupted", e);
-            }
+                // Create validation rules (empty for now, can be extended)
+                List<ValidationRule> validationRules = new ArrayList<>();
+
+                // Create TrueStreamingSAXProcessor publishing batches into the ring buffer
+                TrueStreamingSAXProcessor<T> processor = TrueStreamingSAXProcessor.pipelined(
+                    beanClass,
+                    config,
+                    validationRules,
+                    ringBuffer
+                );
+
+                // Process Excel with true streaming and parallel batch processing
+                TrueStreamingSAXProcessor.ProcessingResult result = processor.processExcelStreamTrue(inputStream);
+                ringBuffer.finish();
+
+                // ✅ GUARANTEED COMPLETION - Wait for all published batches
+                log.info("SAX parsing completed. Waiting for in-flight batches to complete...");
+                try {
+                    // Wait with timeout (10 minutes for large datasets)
+                    if (!ringBuffer.awaitCompletion(10, TimeUnit.MINUTES)) {
+                        log.error("Timeout waiting for batches to complete after 10 minutes");
+                        throw new ExcelProcessException("Batch processing timeout after 10 minutes");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ExcelProcessException("Batch processing interrupted", e);
+                }
 
-            // ✅ V2.0: Check for failures and propagate exceptions
-            if (failureCount.get() > 0) {
-                String errorMsg = String.format("Parallel processing completed with %d failures out of %d batches",
-                                               failureCount.get(), futures.size());
-                log.error(errorMsg);
-
-                // Propagate first exception
-                if (firstException[0] != null) {
-                    throw new ExcelProcessException(errorMsg, firstException[0]);
-                } else {
-                    throw new ExcelProcessException(errorMsg);
+                long totalBatches = ringBuffer.getProcessedBatches() + ringBuffer.getFailureCount();
+                log.info("All {} batches completed. Total processed: {} records",
+                        totalBatches, ringBuffer.getProcessedRecords());
+                logAdmission(ringBuffer);
+                if (result.getBatchSizer() != null) {
+                    log.info("Adaptive batch sizing: {}", result.getBatchSizer());
                 }
-            }
 
-            // ✅ V2.0: Return only when ALL processing is complete
-            log.info("ParallelReadStrategy V2.0 completed: {} records in {} ms ({} rec/sec)",
-                    result.getProcessedRecords(),
-                    result.getProcessingTimeMs(),
-                    result.getRecordsPerSecond());
+                // ✅ Check for failures and propagate first exception
+                if (ringBuffer.getFailureCount() > 0) {
+                    String errorMsg = String.format("Parallel processing completed with %d failures out of %d batches",
+                                                   ringBuffer.getFailureCount(), totalBatches);
+                    log.error(errorMsg);
+
+                    Throwable firstFailure = ringBuffer.getFirstFailure();
+                    if (firstFailure != null) {
+                        throw new ExcelProcessException(errorMsg, firstFailure);
+                    } else {
+                        throw new ExcelProcessException(errorMsg);
+                    }
+                }
 
-            return result;
+                // ✅ Return only when ALL processing is complete
+                log.info("ParallelReadStrategy V3.0 completed: {} records in {} ms ({} rec/sec)",
+                        result.getProcessedRecords(),
+                        result.getProcessingTimeMs(),
+                        result.getRecordsPerSecond());
+
+                return result;
+            } finally {
+                activeRings.remove(ringBuffer);
+            }
 
         } catch (ExcelProcessException e) {
             throw e; // Re-throw ExcelProcessException as-is
@@ -241,54 +260,46 @@ public class ParallelReadStrategy<T> implements ReadStrategy<T> {
         } catch (Exception e) {
             log.error("ParallelReadStrategy failed for class: {}", beanClass.getSimpleName(), e);
             throw new ExcelProcessException("Failed to process Excel file with parallel strategy", e);
+        }
+    }
 
-        } finally {
-            // ✅ V2.0: GRACEFUL SHUTDOWN - All batches already completed
-            shutdownExecutorGracefully(executorService);
+    private static String jobKey(ExcelConfig config) {
+        return config.getJobId() != null ? config.getJobId() : "parallel-read-" + READ_SEQUENCE.incrementAndGet();
+    }
+
+    private int ringSize(ExcelConfig config) {
+        if (config.isOrderedDelivery() && config.getReorderWindow() > 0) {
+            // Slots stay taken until committed: the ring size is the reorder window
+            return config.getReorderWindow();
         }
+        return config.getRingBufferSize() > 0 ? config.getRingBufferSize() : parallelism * 2;
     }
 
     /**
-     * Gracefully shutdown ExecutorService with timeout
-     *
-     * This method ensures all tasks complete before shutdown:
-     * 1. Calls shutdown() to stop accepting new tasks
-     * 2. Waits up to 30 seconds for existing tasks to complete
-     * 3. Calls shutdownNow() if tasks don't complete in time
-     * 4. Waits additional 10 seconds for forced shutdown
-     *
-     * @param executorService ExecutorService to shutdown
+     * Ordered delivery: split an OrderedBatchProcessor into its parallel and in-order stages
      */
-    private void shutdownExecutorGracefully(ExecutorService executorService) {
-        log.debug("Shutting down executor service...");
-
-        try {
-            // Disable new tasks from being submitted
-            executorService.shutdown();
-
-            // Wait for existing tasks to terminate (30 seconds)
-            if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
-                log.warn("Executor did not terminate in time, forcing shutdown...");
-
-                // Cancel currently executing tasks
-                executorService.shutdownNow();
-
-                // Wait a bit for tasks to respond to cancellation (10 seconds)
-                if (!executorService.awaitTermination(10, TimeUnit.SECONDS)) {
-                    log.error("Executor did not terminate after forced shutdown");
-                }
-            }
-
-            log.debug("Executor service shut down successfully");
-
-        } catch (InterruptedException e) {
-            log.error("Interrupted while shutting down executor", e);
+    private static <T> void deliverInOrder(BatchRingBuffer<T> ringBuffer, Consumer<List<T>> batchProcessor) {
+        if (batchProcessor instanceof OrderedBatchProcessor<T, ?> ordered) {
+            bindStages(ringBuffer, ordered);
+        } else {
+            log.debug("Ordered delivery with a plain batch consumer: batches are processed one at a time");
+            ringBuffer.deliverInOrder(batch -> batch, batchProcessor);
+        }
+    }
 
-            // Re-interrupt current thread
-            Thread.currentThread().interrupt();
+    private static <T, R> void bindStages(BatchRingBuffer<T> ringBuffer, OrderedBatchProcessor<T, R> ordered) {
+        ringBuffer.deliverInOrder(ordered::prepare, ordered::commit);
+    }
 
-            // Force shutdown
-            executorService.shutdownNow();
+    /**
+     * Admission metrics of one read: how long the parser was held back and how deep the queue got
+     */
+    private void logAdmission(BatchRingBuffer<T> ringBuffer) {
+        log.info("Batch admission: limit {} batches (~{} KB/batch), peak queue depth {}, parser stalled {} times for {} ms",
+                ringBuffer.getAdmissionLimit(), ringBuffer.getAverageBatchBytes() / 1024,
+                ringBuffer.getPeakQueueDepth(), ringBuffer.getStallCount(), ringBuffer.getStallTimeMs());
+        if (stallTimer != null) {
+            stallTimer.record(ringBuffer.getStallTimeMs(), TimeUnit.MILLISECONDS);
         }
     }
 
@@ -316,6 +327,20 @@ public class ParallelReadStrategy<T> implements ReadStrategy<T> {
         return supported;
     }
 
+    /**
+     * Cost model: every core consumes batches, up to ringSize batches alive at once.
+     * Ordered delivery scales a little worse (commits are serialized).
+     */
+    @Override
+    public ReadCostProfile getCostProfile(ExcelConfig config) {
+        return ReadCostProfile.builder()
+                .workers(parallelism)
+                .inFlightBatches(ringSize(config))
+                .scalingEfficiency(config.isOrderedDelivery() ? 0.4 : 0.5)
+                .startupMs(20)
+                .build();
+    }
+
     /**
      * Get strategy name for logging and debugging
      *
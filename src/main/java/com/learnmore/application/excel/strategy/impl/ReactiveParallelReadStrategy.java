@@ -1,5 +1,6 @@
 package com.learnmore.application.excel.strategy.impl;
 
+import com.learnmore.application.excel.strategy.ReadCostProfile;
 import com.learnmore.application.excel.strategy.ReadStrategy;
 import com.learnmore.application.utils.config.ExcelConfig;
 import com.learnmore.application.utils.exception.ExcelProcessException;
@@ -15,52 +16,47 @@ import java.io.InputStream;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 /**
- * TRUE NON-BLOCKING Reactive Parallel Read Strategy
+ * Demand-driven Reactive Parallel Read Strategy
  *
- * This strategy uses Project Reactor for completely non-blocking parallel processing:
- * - SAX parsing produces batches → published to Flux stream
- * - Flux handles batches reactively with automatic backpressure
- * - ALL operations are non-blocking (no thread blocking)
- * - Automatic memory management with reactive streams
- * - Completion tracking with reactive signals
+ * SAX parsing chạy bên trong Flux.create và chỉ emit batch khi downstream đã request:
+ * - flatMap xử lý tối đa threadPoolSize batch song song, request thêm 1 batch mỗi khi 1 batch xong
+ * - SAX thread block khi không còn demand → parse không bao giờ chạy trước consumer
+ * - Không có buffer trung gian chứa toàn bộ file
  *
  * ARCHITECTURE:
- * ┌──────────────┐
- * │ SAX Parser   │ → Produces batches (streaming)
- * └──────┬───────┘
- *        │
+ * ┌──────────────────────────────┐
+ * │ SAX Parser (boundedElastic)  │ → Flux.create: 1 demand permit = 1 batch emitted
+ * └──────┬───────────────────────┘
+ *        │ request(n) ↑   batch ↓
  *        ▼
- * ┌──────────────────────────────────────┐
- * │ Flux<List<T>>                        │
- * │ - publishOn(parallel scheduler)      │ ← Non-blocking publish
- * │ - flatMap(batch → process, concurrency) │ ← Parallel processing
- * │ - onBackpressureBuffer(maxSize)      │ ← Automatic backpressure
- * │ - doOnNext(progress tracking)        │ ← Real-time progress
- * │ - doOnError(error handling)          │ ← Error propagation
- * └──────┬───────────────────────────────┘
+ * ┌──────────────────────────────────────────┐
+ * │ Flux<List<T>>                            │
+ * │ - flatMap(batch → process, concurrency)  │ ← concurrency = ExcelConfig.threadPoolSize
+ * │ - timeout(10 min without a finished batch)│
+ * │ - count()                                │
+ * └──────┬───────────────────────────────────┘
  *        │
  *        ▼
  * ┌──────────────┐
- * │ Database     │ ← Parallel saves (non-blocking I/O)
+ * │ Database     │ ← Parallel saves (boundedElastic)
  * └──────────────┘
  *
  * PERFORMANCE CHARACTERISTICS:
- * - Memory: O(backpressure_buffer_size × batch_size)
- * - Speed: 100,000-200,000 records/sec (depends on DB throughput)
- * - Scalability: Millions of records (automatic backpressure)
- * - Thread blocking: ZERO (all operations non-blocking)
+ * - Memory: O(concurrency × batch_size) - concurrency batches in flight + 1 being filled by the parser
+ * - Parse và DB write chồng lên nhau (không còn 2 phase parse-all rồi process)
  *
  * BACKPRESSURE STRATEGY:
- * - Automatic: Reactor controls flow based on consumer speed
- * - Buffer size: Configurable (default: maxConcurrentBatches)
- * - Overflow: onBackpressureBuffer with error on overflow
- * - No manual semaphore/locking needed
+ * - Demand từ flatMap được chuyển thành permits của một Semaphore
+ * - SAX thread lấy 1 permit trước mỗi batch, chờ khi hết permit
+ * - Downstream lỗi / cancel → batch còn lại bị bỏ, parse kết thúc sớm
  *
  * @param <T> The type of objects to read from Excel
  */
@@ -69,32 +65,20 @@ import java.util.function.Consumer;
 public class ReactiveParallelReadStrategy<T> implements ReadStrategy<T> {
 
     /**
-     * Execute TRUE NON-BLOCKING parallel read using Reactive Streams
+     * Execute demand-driven parallel read using Reactive Streams
      *
      * REACTIVE FLOW:
-     * 1. SAX parsing produces batches → publishOn() to reactive scheduler
-     * 2. Flux.flatMap() processes batches in parallel (non-blocking)
-     * 3. Automatic backpressure prevents memory explosion
-     * 4. Method returns immediately with reactive Mono<Result>
-     * 5. Completion tracking via reactive signals (onComplete, onError)
-     *
-     * ZERO THREAD BLOCKING:
-     * - SAX parsing: Sequential (inherent limitation) but doesn't wait for batches
-     * - Batch processing: Parallel on reactive scheduler (non-blocking I/O)
-     * - Progress tracking: Reactive signals (no polling)
-     * - Completion: Reactive Mono (subscribe-based, non-blocking)
-     *
-     * BACKPRESSURE:
-     * - Automatic: Reactor Flux handles backpressure
-     * - Strategy: Buffer + drop on overflow
-     * - Buffer size: maxConcurrentBatches (configurable)
-     * - No manual locking/semaphore
+     * 1. Subscription starts SAX parsing on a boundedElastic thread (Flux.create)
+     * 2. Each completed batch waits for downstream demand, then is emitted
+     * 3. Flux.flatMap() processes up to threadPoolSize batches in parallel
+     * 4. Every finished batch requests the next one → parser resumes
+     * 5. Caller blocks until the Flux completes (synchronous API contract)
      *
      * @param inputStream Excel file input stream
      * @param beanClass Class type to map Excel rows to
      * @param config Excel configuration with parallelProcessing enabled
      * @param batchProcessor Consumer that processes batches (can be blocking - wrapped in Mono)
-     * @return ProcessingResult with statistics (immediate return)
+     * @return ProcessingResult with statistics
      * @throws ExcelProcessException if reading fails
      */
     @Override
@@ -104,7 +88,7 @@ public class ReactiveParallelReadStrategy<T> implements ReadStrategy<T> {
         ExcelConfig config,
         Consumer<List<T>> batchProcessor
     ) throws ExcelProcessException {
-        log.info("🚀 Executing ReactiveParallelReadStrategy for class: {} (reactive non-blocking)",
+        log.info("🚀 Executing ReactiveParallelReadStrategy for class: {} (demand-driven)",
                  beanClass.getSimpleName());
 
         // Verify parallel processing enabled
@@ -112,66 +96,80 @@ public class ReactiveParallelReadStrategy<T> implements ReadStrategy<T> {
             log.warn("ReactiveParallelReadStrategy selected but parallelProcessing is disabled.");
         }
 
-        // ✅ REACTIVE: Thread-safe batch collector
-        List<List<T>> batchCollector = new CopyOnWriteArrayList<>();
-
         // ✅ REACTIVE: Progress tracking with atomics
+        AtomicInteger emittedBatches = new AtomicInteger(0);
         AtomicInteger processedBatches = new AtomicInteger(0);
         AtomicInteger failedBatches = new AtomicInteger(0);
         AtomicLong totalRecords = new AtomicLong(0);
+        AtomicInteger inFlightBatches = new AtomicInteger(0);
+        AtomicInteger peakInFlightBatches = new AtomicInteger(0);
 
         // ✅ REACTIVE: Exception tracking
         final Exception[] firstException = new Exception[1];
+        AtomicReference<TrueStreamingSAXProcessor.ProcessingResult> saxResult = new AtomicReference<>();
 
-        // ✅ BACKPRESSURE: Calculate max concurrent batches
-        int maxConcurrentBatches = calculateMaxConcurrentBatches(config);
-        int backpressureBufferSize = maxConcurrentBatches * 2; // Buffer 2x for smoothness
-
-        log.info("🔧 Reactive config: maxConcurrent={}, bufferSize={}, scheduler=parallel",
-                maxConcurrentBatches, backpressureBufferSize);
-
-        try {
-            // Create validation rules
-            List<ValidationRule> validationRules = new ArrayList<>();
-
-            // ✅ REACTIVE: Batch collector callback (non-blocking)
-            Consumer<List<T>> reactiveCollector = batch -> {
-                // Just collect batch - actual processing in Flux
-                batchCollector.add(batch);
-                log.debug("📦 Collected batch #{} with {} records", batchCollector.size(), batch.size());
-            };
-
-            // ✅ STEP 1: SAX PARSING (sequential - but doesn't wait for processing)
-            log.info("📖 Starting SAX parsing...");
-            long saxStartTime = System.currentTimeMillis();
-
-            TrueStreamingSAXProcessor<T> processor = new TrueStreamingSAXProcessor<>(
-                beanClass,
-                config,
-                validationRules,
-                reactiveCollector
-            );
+        // ✅ BACKPRESSURE: flatMap concurrency = threadPoolSize
+        int concurrency = Math.max(1, config.getThreadPoolSize());
 
-            // SAX parsing - collects all batches
-            TrueStreamingSAXProcessor.ProcessingResult saxResult =
-                processor.processExcelStreamTrue(inputStream);
+        log.info("🔧 Reactive config: concurrency={}, batchSize={}, scheduler=boundedElastic",
+                concurrency, config.getBatchSize());
 
-            long saxDuration = System.currentTimeMillis() - saxStartTime;
-            log.info("✅ SAX parsing completed: {} batches collected in {} ms",
-                    batchCollector.size(), saxDuration);
+        long startTime = System.currentTimeMillis();
 
-            // ✅ STEP 2: REACTIVE PARALLEL PROCESSING (TRUE NON-BLOCKING)
-            log.info("⚡ Starting reactive parallel processing...");
-            long reactiveStartTime = System.currentTimeMillis();
-
-            // Create Flux from collected batches
-            Mono<Long> processingMono = Flux.fromIterable(batchCollector)
-                // ✅ REACTIVE: Publish batches on parallel scheduler (non-blocking)
-                .publishOn(Schedulers.parallel())
+        try {
+            Flux<List<T>> batches = Flux.<List<T>>create(sink -> {
+                // ✅ DEMAND: one permit per requested batch
+                Semaphore demand = new Semaphore(0);
+                AtomicBoolean cancelled = new AtomicBoolean(false);
+                sink.onRequest(n -> demand.release((int) Math.min(n, Integer.MAX_VALUE / 2)));
+                sink.onDispose(() -> {
+                    cancelled.set(true);
+                    demand.release(); // Wake the parser if it is waiting for demand
+                });
+
+                // Runs on the parse thread: pauses until downstream asks for another batch
+                Consumer<List<T>> demandGate = batch -> {
+                    if (cancelled.get()) {
+                        return; // Downstream gone: drop remaining batches
+                    }
+                    try {
+                        demand.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (cancelled.get()) {
+                        return;
+                    }
+                    int inFlight = inFlightBatches.incrementAndGet();
+                    peakInFlightBatches.accumulateAndGet(inFlight, Math::max);
+                    emittedBatches.incrementAndGet();
+                    sink.next(batch);
+                };
+
+                try {
+                    log.info("📖 Starting SAX parsing...");
+                    TrueStreamingSAXProcessor<T> processor = new TrueStreamingSAXProcessor<>(
+                        beanClass,
+                        config,
+                        new ArrayList<ValidationRule>(),
+                        demandGate
+                    );
+                    saxResult.set(processor.processExcelStreamTrue(inputStream));
+                    log.info("✅ SAX parsing completed: {} batches emitted in {} ms",
+                            emittedBatches.get(), System.currentTimeMillis() - startTime);
+                    sink.complete();
+                } catch (Exception e) {
+                    sink.error(e);
+                }
+            })
+            // ✅ REACTIVE: Parser blocks on demand → keep it off the caller / parallel scheduler
+            .subscribeOn(Schedulers.boundedElastic());
 
+            Mono<Long> processingMono = batches
                 // ✅ REACTIVE: Process batches in parallel with flatMap
                 .flatMap(batch ->
-                    Mono.fromRunnable(() -> {
+                    Mono.fromCallable(() -> {
                         try {
                             // Process batch (may be blocking I/O, but in separate thread)
                             batchProcessor.accept(batch);
@@ -181,7 +179,8 @@ public class ReactiveParallelReadStrategy<T> implements ReadStrategy<T> {
                             long records = totalRecords.addAndGet(batch.size());
 
                             log.debug("✅ Batch {}/{} completed: {} records, total: {}",
-                                    completed, batchCollector.size(), batch.size(), records);
+                                    completed, emittedBatches.get(), batch.size(), records);
+                            return batch.size();
 
                         } catch (Exception e) {
                             failedBatches.incrementAndGet();
@@ -195,42 +194,42 @@ public class ReactiveParallelReadStrategy<T> implements ReadStrategy<T> {
 
                             log.error("❌ Batch processing failed: {}", e.getMessage(), e);
                             throw new RuntimeException("Batch processing error", e);
+                        } finally {
+                            inFlightBatches.decrementAndGet();
                         }
                     })
                     // ✅ REACTIVE: Run on bounded elastic scheduler (good for I/O)
                     .subscribeOn(Schedulers.boundedElastic()),
 
-                    // ✅ CONCURRENCY: Max concurrent batch processing
-                    maxConcurrentBatches
-                )
-
-                // ✅ BACKPRESSURE: Buffer with size limit
-                .onBackpressureBuffer(
-                    backpressureBufferSize,
-                    dropped -> log.warn("⚠️ Backpressure: Dropped batch (buffer overflow)")
+                    // ✅ CONCURRENCY: Max concurrent batch processing (= upstream demand)
+                    concurrency,
+                    1
                 )
 
-                // ✅ TIMEOUT: Global timeout for all batches
+                // ✅ TIMEOUT: No batch finished for 10 minutes → stalled consumer
                 .timeout(Duration.ofMinutes(10))
 
-                // ✅ ERROR HANDLING: Stop on first error
-                .onErrorStop()
-
                 // ✅ PROGRESS: Count processed batches
                 .count();
 
             // ✅ REACTIVE: Block here to wait for completion
             // This is the ONLY blocking point, but it's necessary for synchronous API contract
-            Long processedCount = processingMono.block();
+            try {
+                processingMono.block();
+            } catch (RuntimeException e) {
+                if (failedBatches.get() == 0) {
+                    throw e;
+                }
+                // Batch failure: reported below with the original exception
+            }
 
-            long reactiveDuration = System.currentTimeMillis() - reactiveStartTime;
-            long totalDuration = saxDuration + reactiveDuration;
+            long totalDuration = System.currentTimeMillis() - startTime;
 
             // ✅ CHECK FAILURES
             if (failedBatches.get() > 0) {
                 String errorMsg = String.format(
                     "❌ Reactive processing completed with %d failures out of %d batches",
-                    failedBatches.get(), batchCollector.size()
+                    failedBatches.get(), emittedBatches.get()
                 );
                 log.error(errorMsg);
 
@@ -243,11 +242,13 @@ public class ReactiveParallelReadStrategy<T> implements ReadStrategy<T> {
 
             // ✅ SUCCESS
             log.info("🎉 ReactiveParallelReadStrategy completed successfully:");
-            log.info("   📊 SAX Parsing:       {} ms", saxDuration);
-            log.info("   ⚡ Reactive Processing: {} ms", reactiveDuration);
-            log.info("   ⏱️  Total Duration:     {} ms", totalDuration);
+            log.info("   ⏱️  Total Duration:     {} ms (parse and processing overlapped)", totalDuration);
+            log.info("   📖 Rows Parsed:        {}",
+                    saxResult.get() != null ? saxResult.get().getProcessedRecords() : 0);
             log.info("   📦 Batches Processed:  {}", processedBatches.get());
             log.info("   📝 Records Processed:  {}", totalRecords.get());
+            log.info("   🧮 Peak In-Flight:     {} batches (concurrency {})",
+                    peakInFlightBatches.get(), concurrency);
             log.info("   🚀 Throughput:         {} rec/sec",
                     totalRecords.get() * 1000 / Math.max(totalDuration, 1));
 
@@ -268,35 +269,35 @@ public class ReactiveParallelReadStrategy<T> implements ReadStrategy<T> {
     }
 
     /**
-     * Calculate optimal max concurrent batches based on system resources
-     *
-     * FORMULA:
-     * - Base: availableProcessors × 2 (for I/O operations)
-     * - Min: 4 (ensure parallelism)
-     * - Max: 32 (prevent resource exhaustion)
-     *
-     * @param config Excel configuration
-     * @return Max concurrent batches
+     * Batch kết thúc khi flatMap xử lý xong, không phải khi parser emit: checkpoint và adaptive sizing
+     * trong TrueStreamingSAXProcessor chỉ thấy lúc hand-off → commit sớm / đo sai latency.
+     * Những config đó để cho ParallelReadStrategy (commit theo completion của ring buffer).
      */
-    private int calculateMaxConcurrentBatches(ExcelConfig config) {
-        int cores = Runtime.getRuntime().availableProcessors();
-
-        // For I/O operations: 2x cores is optimal
-        int calculated = cores * 2;
-
-        // Apply bounds
-        int maxConcurrent = Math.max(4, Math.min(calculated, 32));
-
-        log.debug("💡 Calculated maxConcurrentBatches: {} (cores={}, 2x={})",
-                maxConcurrent, cores, calculated);
-
-        return maxConcurrent;
-    }
-
     @Override
     public boolean supports(ExcelConfig config) {
         // Support when parallel processing is enabled
-        return config.isParallelProcessing();
+        return config.isParallelProcessing() && !tracksBatchCompletion(config);
+    }
+
+    /**
+     * Cost model: threadPoolSize workers, concurrency batches in flight + 1 being filled by the parser. Ordered delivery and recycled rows are not supported here → no profile.
+     */
+    @Override
+    public ReadCostProfile getCostProfile(ExcelConfig config) {
+        if (config.isOrderedDelivery() || config.isRecycleRowObjects() || tracksBatchCompletion(config)) {
+            return null;
+        }
+        int workers = Math.max(1, config.getThreadPoolSize());
+        return ReadCostProfile.builder()
+                .workers(workers)
+                .inFlightBatches(workers + 1)
+                .scalingEfficiency(0.45)
+                .startupMs(50)
+                .build();
+    }
+
+    private static boolean tracksBatchCompletion(ExcelConfig config) {
+        return config.getCheckpointRecorder() != null || config.isAdaptiveBatchSizing();
     }
 
     @Override
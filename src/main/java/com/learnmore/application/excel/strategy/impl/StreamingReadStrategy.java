@@ -1,5 +1,6 @@
 package com.learnmore.application.excel.strategy.impl;
 
+import com.learnmore.application.excel.strategy.ReadCostProfile;
 import com.learnmore.application.excel.strategy.ReadStrategy;
 import com.learnmore.application.utils.config.ExcelConfig;
 import com.learnmore.application.utils.exception.ExcelProcessException;
@@ -120,6 +121,14 @@ public class StreamingReadStrategy<T> implements ReadStrategy<T> {
         return true;
     }
 
+    /**
+     * Cost model: one parse thread, one batch in memory - the baseline the others are measured against
+     */
+    @Override
+    public ReadCostProfile getCostProfile(ExcelConfig config) {
+        return ReadCostProfile.sequential();
+    }
+
     /**
      * Get strategy name for logging and debugging
      *
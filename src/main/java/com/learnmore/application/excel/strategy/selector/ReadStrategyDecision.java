@@ -0,0 +1,78 @@
+package com.learnmore.application.excel.strategy.selector;
+
+import com.learnmore.application.excel.strategy.ReadStrategy;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Strategy chosen by ReadStrategySelector together with the inputs and per-candidate estimates behind it
+ */
+@Getter
+@Builder
+public class ReadStrategyDecision {
+
+    public static final String BASIS_COST_MODEL = "cost-model";
+    public static final String BASIS_PRIORITY = "priority";
+
+    private final ReadStrategy<?> strategy;
+    private final String basis;
+
+    // Inputs
+    private final long dataRows;
+    private final int columns;
+    private final long estimatedMemoryMB;
+    private final int cores;
+    private final long availableHeapMB;
+    private final long memoryBudgetMB;
+
+    private final List<Candidate> candidates;
+
+    @SuppressWarnings("unchecked")
+    public <T> ReadStrategy<T> getStrategy() {
+        return (ReadStrategy<T>) strategy;
+    }
+
+    public String getStrategyName() {
+        return strategy.getName();
+    }
+
+    /**
+     * One line for logs and job metrics
+     */
+    public String summary() {
+        if (candidates == null || candidates.isEmpty()) {
+            return String.format("%s by %s", getStrategyName(), basis);
+        }
+        return String.format("%s by %s (rows=%d, cols=%d, cores=%d, heap=%dMB, budget=%dMB; %s)",
+                getStrategyName(), basis, dataRows, columns, cores, availableHeapMB, memoryBudgetMB,
+                candidates.stream().map(Candidate::toString).collect(Collectors.joining(", ")));
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    /**
+     * Estimate for one strategy
+     */
+    @Getter
+    @Builder
+    public static class Candidate {
+        private final String strategyName;
+        private final double rowsPerSecond;
+        private final String throughputSource; // "history(n)" or "model"
+        private final long estimatedMs;
+        private final long inFlightMemoryMB;
+        private final boolean feasible;
+
+        @Override
+        public String toString() {
+            return String.format("%s=%dms/%dMB[%s%s]", strategyName, estimatedMs, inFlightMemoryMB,
+                    throughputSource, feasible ? "" : ",over budget");
+        }
+    }
+}
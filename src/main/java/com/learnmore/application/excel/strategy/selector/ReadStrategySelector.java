@@ -1,13 +1,21 @@
 package com.learnmore.application.excel.strategy.selector;
 
+import com.learnmore.application.excel.strategy.ReadCostProfile;
 import com.learnmore.application.excel.strategy.ReadStrategy;
 import com.learnmore.application.utils.config.ExcelConfig;
-import lombok.RequiredArgsConstructor;
+import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
+import com.learnmore.application.utils.validation.ExcelEarlyValidator.EarlyValidationResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.OptionalDouble;
 
 /**
  * Selector for automatic read strategy selection
@@ -25,9 +33,18 @@ import java.util.List;
  *
  * Strategy priority order:
  * - Priority 20+: Custom strategies (future extensions)
+ * - Priority 15: ReactiveParallelReadStrategy (when parallel enabled)
  * - Priority 10: ParallelReadStrategy (when parallel enabled)
  * - Priority 0: StreamingReadStrategy (always available fallback)
  *
+ * Cost model (ExcelConfig.costBasedStrategySelection, see decide()):
+ * - Inputs: rows/columns from the early validation (dimension tag), CPU cores, free heap,
+ *   and the throughput each strategy reached on earlier reads (ReadThroughputHistory)
+ * - Every supported strategy with a ReadCostProfile gets an estimated time and in-flight memory;
+ *   the fastest one whose memory fits the budget wins (none fits → the smallest footprint)
+ * - A strategy that cannot be cost-modelled but wins on priority (e.g. multi-sheet reads) is kept as is
+ * - The decision is logged and counted as excel.read.strategy.selected{strategy, basis}
+ *
  * Example usage:
  * <pre>
  * ReadStrategy<User> strategy = readStrategySelector.selectStrategy(config);
@@ -41,11 +58,37 @@ import java.util.List;
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ReadStrategySelector {
 
+    // Single-thread parse + convert rate when a strategy has no history yet
+    static final double BASELINE_CELLS_PER_SECOND = 800_000;
+    // Same rough figure as EarlyValidationResult.estimatedMemoryMB
+    static final long BYTES_PER_CELL = 300;
+    private static final long MB = 1024L * 1024L;
+
     // Spring automatically injects all ReadStrategy implementations
     private final List<ReadStrategy<?>> strategies;
+    private final ReadThroughputHistory throughputHistory;
+    private final MeterRegistry meterRegistry;
+
+    public ReadStrategySelector(List<ReadStrategy<?>> strategies) {
+        this(strategies, new ReadThroughputHistory(), (MeterRegistry) null);
+    }
+
+    @Autowired
+    public ReadStrategySelector(List<ReadStrategy<?>> strategies,
+                                ReadThroughputHistory throughputHistory,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this(strategies, throughputHistory, meterRegistry.getIfAvailable());
+    }
+
+    ReadStrategySelector(List<ReadStrategy<?>> strategies,
+                         ReadThroughputHistory throughputHistory,
+                         MeterRegistry meterRegistry) {
+        this.strategies = strategies;
+        this.throughputHistory = throughputHistory;
+        this.meterRegistry = meterRegistry;
+    }
 
     /**
      * Select the best read strategy for the given configuration
@@ -66,10 +109,7 @@ public class ReadStrategySelector {
                  config.isParallelProcessing());
 
         // Find all strategies that support this configuration
-        List<ReadStrategy<?>> supportedStrategies = strategies.stream()
-            .filter(strategy -> strategy.supports(config))
-            .sorted(Comparator.<ReadStrategy<?>>comparingInt(ReadStrategy::getPriority).reversed())
-            .toList();
+        List<ReadStrategy<?>> supportedStrategies = supportedByPriority(config);
 
         if (supportedStrategies.isEmpty()) {
             // This should never happen since StreamingReadStrategy always supports any config
@@ -89,6 +129,130 @@ public class ReadStrategySelector {
         return (ReadStrategy<T>) selected;
     }
 
+    /**
+     * Pick the read strategy for one file with the cost model
+     *
+     * For each supported strategy that has a ReadCostProfile:
+     * - throughput: cells/sec measured on earlier reads, else
+     *   baseline × (1 + (min(workers, cores) - 1) × scalingEfficiency)
+     * - time: startupMs + cells / throughput
+     * - memory: inFlightBatches × batchSize × columns × BYTES_PER_CELL,
+     *   against min(free heap / 2, memoryThresholdMB)
+     *
+     * Falls back to selectStrategy (priority) when there is no estimate or the priority winner
+     * has no cost profile.
+     *
+     * @param config Excel configuration
+     * @param estimate Early validation of the file (rows/columns from the dimension tag), may be null
+     * @return Decision with the chosen strategy and the inputs behind it (never null)
+     */
+    public ReadStrategyDecision decide(ExcelConfig config, EarlyValidationResult estimate) {
+        List<ReadStrategy<?>> supported = supportedByPriority(config);
+        if (estimate == null || estimate.getDimensionInfo() == null || supported.isEmpty()
+                || supported.get(0).getCostProfile(config) == null) {
+            ReadStrategyDecision decision = ReadStrategyDecision.builder()
+                    .strategy(selectStrategy(config))
+                    .basis(ReadStrategyDecision.BASIS_PRIORITY)
+                    .candidates(List.of())
+                    .build();
+            count(decision);
+            return decision;
+        }
+
+        long rows = Math.max(0, estimate.getDataRows());
+        int columns = Math.max(1, estimate.getDimensionInfo().getTotalCols());
+        long cells = rows * columns;
+        int cores = Runtime.getRuntime().availableProcessors();
+        long availableHeapMB = availableHeapMB();
+        long memoryBudgetMB = config.getMemoryThresholdMB() > 0
+                ? Math.min(availableHeapMB / 2, config.getMemoryThresholdMB())
+                : availableHeapMB / 2;
+
+        // Batches never hold more rows than the file has; adaptive sizing may grow up to maxBatchSize
+        long batchRows = Math.max(1, Math.min(rows,
+                config.isAdaptiveBatchSizing() ? Math.max(config.getBatchSize(), config.getMaxBatchSize()) : config.getBatchSize()));
+        long batchCount = Math.max(1, (rows + batchRows - 1) / batchRows);
+        double baseline = baselineCellsPerSecond(config);
+
+        List<ReadStrategyDecision.Candidate> candidates = new ArrayList<>();
+        ReadStrategy<?> fastest = null;
+        ReadStrategyDecision.Candidate fastestCandidate = null;
+        ReadStrategy<?> smallest = null;
+        ReadStrategyDecision.Candidate smallestCandidate = null;
+
+        for (ReadStrategy<?> strategy : supported) {
+            ReadCostProfile profile = strategy.getCostProfile(config);
+            if (profile == null) {
+                continue;
+            }
+            OptionalDouble measured = throughputHistory.cellsPerSecond(strategy.getName());
+            double cellsPerSecond = measured.isPresent()
+                    ? measured.getAsDouble()
+                    : baseline * (1 + (Math.min(Math.max(1, profile.getWorkers()), cores) - 1) * profile.getScalingEfficiency());
+            long estimatedMs = profile.getStartupMs() + Math.round(cells * 1000.0 / Math.max(1, cellsPerSecond));
+            long inFlightBatches = Math.min(Math.max(1, profile.getInFlightBatches()), batchCount);
+            long inFlightMemoryMB = (inFlightBatches * batchRows * columns * BYTES_PER_CELL + MB - 1) / MB;
+
+            ReadStrategyDecision.Candidate candidate = ReadStrategyDecision.Candidate.builder()
+                    .strategyName(strategy.getName())
+                    .rowsPerSecond(cellsPerSecond / columns)
+                    .throughputSource(measured.isPresent()
+                            ? "history(" + throughputHistory.sampleCount(strategy.getName()) + ")"
+                            : "model")
+                    .estimatedMs(estimatedMs)
+                    .inFlightMemoryMB(inFlightMemoryMB)
+                    .feasible(inFlightMemoryMB <= memoryBudgetMB)
+                    .build();
+            candidates.add(candidate);
+
+            // supported is in priority order: on a tie the higher priority stays
+            if (candidate.isFeasible() && (fastestCandidate == null || estimatedMs < fastestCandidate.getEstimatedMs())) {
+                fastest = strategy;
+                fastestCandidate = candidate;
+            }
+            if (smallestCandidate == null || inFlightMemoryMB < smallestCandidate.getInFlightMemoryMB()) {
+                smallest = strategy;
+                smallestCandidate = candidate;
+            }
+        }
+
+        ReadStrategyDecision decision = ReadStrategyDecision.builder()
+                .strategy(fastest != null ? fastest : smallest)
+                .basis(ReadStrategyDecision.BASIS_COST_MODEL)
+                .dataRows(rows)
+                .columns(columns)
+                .estimatedMemoryMB(estimate.estimatedMemoryMB())
+                .cores(cores)
+                .availableHeapMB(availableHeapMB)
+                .memoryBudgetMB(memoryBudgetMB)
+                .candidates(candidates)
+                .build();
+
+        if (fastest == null) {
+            log.warn("No read strategy fits the memory budget ({}MB), using the smallest footprint: {}",
+                    memoryBudgetMB, decision.summary());
+        } else {
+            log.info("Selected read strategy: {}", decision.summary());
+        }
+        count(decision);
+        return decision;
+    }
+
+    /**
+     * Feed the throughput of a finished read back into the history used by decide()
+     *
+     * @param decision Decision the read ran with
+     * @param result Result of the read
+     */
+    public void recordOutcome(ReadStrategyDecision decision, TrueStreamingSAXProcessor.ProcessingResult result) {
+        if (decision == null || result == null) {
+            return;
+        }
+        long columns = Math.max(1, decision.getColumns());
+        throughputHistory.record(decision.getStrategyName(),
+                result.getProcessedRecords() * columns, result.getProcessingTimeMs());
+    }
+
     /**
      * Get all available read strategies
      *
@@ -111,6 +275,46 @@ public class ReadStrategySelector {
             .anyMatch(strategy -> strategy.getName().equals(strategyName));
     }
 
+    private List<ReadStrategy<?>> supportedByPriority(ExcelConfig config) {
+        return strategies.stream()
+            .filter(strategy -> strategy.supports(config))
+            .sorted(Comparator.<ReadStrategy<?>>comparingInt(ReadStrategy::getPriority).reversed())
+            .toList();
+    }
+
+    /**
+     * Single-thread rate: measured by a sequential strategy if one has history, else the constant
+     */
+    private double baselineCellsPerSecond(ExcelConfig config) {
+        for (ReadStrategy<?> strategy : strategies) {
+            ReadCostProfile profile = strategy.getCostProfile(config);
+            if (profile != null && profile.getWorkers() <= 1) {
+                OptionalDouble measured = throughputHistory.cellsPerSecond(strategy.getName());
+                if (measured.isPresent()) {
+                    return measured.getAsDouble();
+                }
+            }
+        }
+        return BASELINE_CELLS_PER_SECOND;
+    }
+
+    private static long availableHeapMB() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return Math.max(0, runtime.maxMemory() - used) / MB;
+    }
+
+    private void count(ReadStrategyDecision decision) {
+        if (meterRegistry != null) {
+            Counter.builder("excel.read.strategy.selected")
+                    .description("Read strategy chosen per read, by selection basis")
+                    .tag("strategy", decision.getStrategyName())
+                    .tag("basis", decision.getBasis())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
     /**
      * Get strategy by name
      *
@@ -0,0 +1,60 @@
+package com.learnmore.application.excel.strategy.selector;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Throughput of past reads, per read strategy, in cells/sec (rows × columns, so wide and narrow
+ * files compare)
+ *
+ * Fed by ReadStrategySelector.recordOutcome after every cost-based read; the selector uses it instead
+ * of the static model once a strategy has MIN_SAMPLES reads of at least MIN_CELLS cells. Kept in memory
+ * for the lifetime of the application, smoothed so recent jobs weigh more.
+ */
+@Slf4j
+@Component
+public class ReadThroughputHistory {
+
+    static final int MIN_SAMPLES = 3;
+    static final long MIN_CELLS = 100_000;
+    private static final double SMOOTHING = 0.3;
+
+    private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+
+    /**
+     * Record one finished read (small reads are ignored: startup dominates their rate)
+     */
+    public void record(String strategyName, long cells, long elapsedMs) {
+        if (strategyName == null || cells < MIN_CELLS || elapsedMs <= 0) {
+            return;
+        }
+        double cellsPerSecond = cells * 1000.0 / elapsedMs;
+        Sample sample = samples.compute(strategyName, (name, current) -> current == null
+                ? new Sample(cellsPerSecond, 1)
+                : new Sample(current.cellsPerSecond * (1 - SMOOTHING) + cellsPerSecond * SMOOTHING, current.count + 1));
+        log.debug("Read throughput {}: {} cells/sec (smoothed {} over {} reads)",
+                strategyName, Math.round(cellsPerSecond), Math.round(sample.cellsPerSecond), sample.count);
+    }
+
+    /**
+     * Smoothed throughput, empty until the strategy has MIN_SAMPLES qualifying reads
+     */
+    public OptionalDouble cellsPerSecond(String strategyName) {
+        Sample sample = samples.get(strategyName);
+        return sample != null && sample.count >= MIN_SAMPLES
+                ? OptionalDouble.of(sample.cellsPerSecond)
+                : OptionalDouble.empty();
+    }
+
+    public int sampleCount(String strategyName) {
+        Sample sample = samples.get(strategyName);
+        return sample != null ? sample.count : 0;
+    }
+
+    private record Sample(double cellsPerSecond, int count) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.learnmore.application.service;
 
 import com.learnmore.application.excel.ExcelFacade;
+import com.learnmore.application.utils.sax.WorkbookSession;
 import com.learnmore.application.utils.validation.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -72,6 +73,27 @@ public class EnhancedExcelTemplateValidationService {
         }
     }
     
+    /**
+     * Validate template migration trên WorkbookSession của upload (dùng chung package đã mở)
+     */
+    public TemplateValidationResult validateMigrationExcel(WorkbookSession session) {
+        try {
+            Class<?> migrationClass = Class.forName("com.learnmore.application.dto.migration.ExcelRowDTO");
+            log.info("Validating Excel file with reflection-based template for class: {}", migrationClass.getSimpleName());
+            return getOrCreateValidator(migrationClass).validate(session);
+        } catch (ClassNotFoundException e) {
+            log.error("ExcelRowDTO class not found", e);
+            return TemplateValidationResult.failure(
+                java.util.List.of(ValidationError.of(
+                    "CLASS_NOT_FOUND", 
+                    "ExcelRowDTO class không tồn tại",
+                    0, 0, "CLASS", "ClassValidation"
+                )),
+                null
+            );
+        }
+    }
+    
     /**
      * Validate file Excel và đọc dữ liệu nếu hợp lệ
      */
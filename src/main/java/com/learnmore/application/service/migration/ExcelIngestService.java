@@ -6,7 +6,14 @@ import com.learnmore.application.dto.migration.MigrationResultDTO;
 import com.learnmore.application.excel.ExcelFacade;
 import com.learnmore.application.service.validation.ExcelValidationService;
 import com.learnmore.application.service.validation.ExcelValidationService.ValidationResult;
+import com.learnmore.application.utils.checkpoint.CheckpointManager;
+import com.learnmore.application.utils.checkpoint.CheckpointRecorder;
+import com.learnmore.application.utils.checkpoint.CheckpointStatus;
+import com.learnmore.application.utils.checkpoint.ProcessingCheckpoint;
 import com.learnmore.application.utils.config.ExcelConfig;
+import com.learnmore.application.utils.sax.AdaptiveBatchSizer;
+import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
+import com.learnmore.application.utils.sax.WorkbookSession;
 import com.learnmore.domain.migration.MigrationJob;
 import com.learnmore.domain.migration.StagingRaw;
 import com.learnmore.infrastructure.repository.MigrationJobRepository;
@@ -15,7 +22,9 @@ import com.learnmore.infrastructure.repository.StagingRawRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
@@ -25,6 +34,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Service xử lý Pha 1: Ingest và Staging Excel data
@@ -41,17 +51,34 @@ public class ExcelIngestService {
     private final StagingRawRepository stagingRawRepository;
     private final ExcelFacade excelFacade;
     private final ExcelValidationService validationService;
+    private final CheckpointManager checkpointManager;
+    private final PlatformTransactionManager transactionManager;
     
     /**
      * Bắt đầu quá trình ingest Excel file
+     *
+     * Không chạy trong một transaction bao ngoài: mỗi batch commit trong transaction riêng trước khi
+     * checkpoint tiến qua nó, nên row mà checkpoint coi là đã lưu không thể bị rollback sau đó.
      * 
      * @param inputStream Excel file input stream
      * @param filename tên file
      * @param createdBy người tạo
      * @param maxRows số lượng bản ghi tối đa cho phép (0 = không giới hạn)
      */
-    @Transactional
     public MigrationResultDTO startIngestProcess(InputStream inputStream, String filename, String createdBy, int maxRows) {
+        return startIngest(inputStream, null, filename, createdBy, maxRows);
+    }
+
+    /**
+     * Ingest từ WorkbookSession của upload: reader dùng package/styles/SST đã mở khi validate
+     * (caller vẫn sở hữu và đóng session)
+     */
+    public MigrationResultDTO startIngestProcess(WorkbookSession session, String filename, String createdBy, int maxRows) {
+        return startIngest(null, session, filename, createdBy, maxRows);
+    }
+
+    private MigrationResultDTO startIngest(InputStream inputStream, WorkbookSession session,
+                                           String filename, String createdBy, int maxRows) {
         
         // Tạo job ID unique
         String jobId = generateJobId();
@@ -70,6 +97,7 @@ public class ExcelIngestService {
                 .build();
         
         migrationJobRepository.save(migrationJob);
+        ProcessingCheckpoint checkpoint = checkpointManager.createCheckpoint(jobId, filename, 0);
         
         try {
             // ✅ PERFORMANCE FIX: Validate during streaming (NO separate validation step)
@@ -82,53 +110,120 @@ public class ExcelIngestService {
             // This eliminates the need for separate validation pass
 
             // ✅ OPTIMIZED: Direct streaming processing with inline validation
-            IngestResult result = performIngest(inputStream, jobId, maxRows);
+            IngestResult result = performIngest(inputStream, session, jobId, maxRows, checkpoint);
+            return completeIngest(migrationJob, result);
 
-            // Cập nhật job status
-            migrationJob.setStatus("INGESTING_COMPLETED");
-            migrationJob.setCurrentPhase("INGEST_COMPLETED");
-            migrationJob.setTotalRows(result.getTotalRows());
-            migrationJob.setProcessedRows(result.getProcessedRows());
-            migrationJob.setProgressPercent(100.0);
-            migrationJob.setProcessingTimeMs(result.getProcessingTimeMs());
+        } catch (Exception e) {
+            return failIngest(migrationJob, e);
+        }
+    }
+    
+    /**
+     * Tiếp tục job ingest bị gián đoạn (pod restart, lỗi giữa chừng) từ checkpoint cuối
+     *
+     * - Row đã commit (≤ lastCommittedRow) không được insert lại; reader bỏ qua chúng mà không
+     *   bind/convert cell (ExcelConfig.resumeAfterRow)
+     * - Row > lastCommittedRow còn sót lại (batch song song commit không theo thứ tự) bị xoá trước
+     *   khi đọc lại, nên không có bản ghi trùng
+     * - Không có checkpoint → ingest lại từ đầu cho cùng jobId
+     *
+     * @param jobId Job cần tiếp tục
+     * @param inputStream Cùng file Excel đã upload
+     * @param maxRows số lượng bản ghi tối đa cho phép (0 = không giới hạn)
+     */
+    public MigrationResultDTO resumeIngestProcess(String jobId, InputStream inputStream, int maxRows) {
+        MigrationJob migrationJob = migrationJobRepository.findByJobId(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Migration job not found: " + jobId));
+        
+        ProcessingCheckpoint checkpoint = checkpointManager.loadCheckpoint(jobId);
+        if (checkpoint == null) {
+            checkpoint = checkpointManager.createCheckpoint(jobId, migrationJob.getFilename(), 0);
+        } else if (checkpoint.getStatus() == CheckpointStatus.COMPLETED) {
+            throw new IllegalStateException("Ingest of job " + jobId + " already completed");
+        }
+        checkpoint.setStatus(CheckpointStatus.ACTIVE);
+        
+        int lastCommittedRow = (int) checkpoint.getLastCommittedRow();
+        int removed = stagingRawRepository.deleteByJobIdAfterRow(jobId, lastCommittedRow);
+        log.info("Resuming Excel ingest. JobId: {}, after row: {}, committed rows: {}, removed partial rows: {}",
+                jobId, lastCommittedRow, checkpoint.getProcessedRows(), removed);
+        
+        migrationJob.setStatus("STARTED");
+        migrationJob.setCurrentPhase("INGEST");
+        migrationJob.setErrorMessage(null);
+        migrationJobRepository.save(migrationJob);
+        
+        long previouslyCommitted = checkpoint.getProcessedRows();
+        try {
+            IngestResult result = performIngest(inputStream, null, jobId, maxRows, checkpoint);
+            // Totals cover the whole file: rows committed before the interruption + this run
+            result.setTotalRows(result.getTotalRows() + previouslyCommitted);
+            result.setProcessedRows(result.getProcessedRows() + previouslyCommitted);
+            result.setErrorCount(stagingRawRepository.countByJobIdAndErrorMessageIsNotNull(jobId));
+            return completeIngest(migrationJob, result);
+        } catch (Exception e) {
+            return failIngest(migrationJob, e);
+        }
+    }
+    
+    private MigrationResultDTO completeIngest(MigrationJob migrationJob, IngestResult result) {
+        String jobId = migrationJob.getJobId();
+        checkpointManager.completeCheckpoint(jobId);
 
-            migrationJobRepository.save(migrationJob);
+        // Cập nhật job status
+        migrationJob.setStatus("INGESTING_COMPLETED");
+        migrationJob.setCurrentPhase("INGEST_COMPLETED");
+        migrationJob.setTotalRows(result.getTotalRows());
+        migrationJob.setProcessedRows(result.getProcessedRows());
+        migrationJob.setProgressPercent(100.0);
+        migrationJob.setProcessingTimeMs(result.getProcessingTimeMs());
 
-            log.info("Excel ingest completed successfully. JobId: {}, ProcessedRows: {}",
-                    jobId, result.getProcessedRows());
+        migrationJobRepository.save(migrationJob);
 
-            return MigrationResultDTO.builder()
-                    .jobId(jobId)
-                    .status("INGESTING_COMPLETED")
-                    .filename(filename)
-                    .totalRows(result.getTotalRows())
-                    .processedRows(result.getProcessedRows())
-                    .errorRows(result.getErrorCount())
-                    .validRows(result.getProcessedRows() - result.getErrorCount())
-                    .currentPhase("INGEST_COMPLETED")
-                    .progressPercent(100.0)
-                    .startedAt(migrationJob.getStartedAt())
-                    .ingestTimeMs(result.getProcessingTimeMs())
-                    .build();
+        log.info("Excel ingest completed successfully. JobId: {}, ProcessedRows: {}",
+                jobId, result.getProcessedRows());
 
-        } catch (Exception e) {
-            log.error("Excel ingest failed. JobId: {}, Error: {}", jobId, e.getMessage(), e);
-            
-            // Cập nhật job failed
-            migrationJob.setStatus("FAILED");
-            migrationJob.setCurrentPhase("INGEST_FAILED");
-            migrationJob.setErrorMessage(e.getMessage());
-            migrationJobRepository.save(migrationJob);
-            
-            return MigrationResultDTO.builder()
-                    .jobId(jobId)
-                    .status("FAILED")
-                    .filename(filename)
-                    .currentPhase("INGEST_FAILED")
-                    .errorMessage(e.getMessage())
-                    .startedAt(migrationJob.getStartedAt())
-                    .build();
-        }
+        return MigrationResultDTO.builder()
+                .jobId(jobId)
+                .status("INGESTING_COMPLETED")
+                .filename(migrationJob.getFilename())
+                .totalRows(result.getTotalRows())
+                .processedRows(result.getProcessedRows())
+                .errorRows(result.getErrorCount())
+                .validRows(result.getProcessedRows() - result.getErrorCount())
+                .currentPhase("INGEST_COMPLETED")
+                .progressPercent(100.0)
+                .startedAt(migrationJob.getStartedAt())
+                .ingestTimeMs(result.getProcessingTimeMs())
+                .finalBatchSize(result.getFinalBatchSize())
+                .minBatchSizeUsed(result.getMinBatchSizeUsed())
+                .maxBatchSizeUsed(result.getMaxBatchSizeUsed())
+                .avgBatchLatencyMs(result.getAvgBatchLatencyMs())
+                .readStrategy(result.getReadStrategy())
+                .readStrategyDecision(result.getReadStrategyDecision())
+                .build();
+    }
+    
+    private MigrationResultDTO failIngest(MigrationJob migrationJob, Exception e) {
+        String jobId = migrationJob.getJobId();
+        log.error("Excel ingest failed. JobId: {}, Error: {}", jobId, e.getMessage(), e);
+        // Checkpoint keeps the committed position: resumeIngestProcess continues from there
+        checkpointManager.failCheckpoint(jobId, e.getMessage(), e);
+        
+        // Cập nhật job failed
+        migrationJob.setStatus("FAILED");
+        migrationJob.setCurrentPhase("INGEST_FAILED");
+        migrationJob.setErrorMessage(e.getMessage());
+        migrationJobRepository.save(migrationJob);
+        
+        return MigrationResultDTO.builder()
+                .jobId(jobId)
+                .status("FAILED")
+                .filename(migrationJob.getFilename())
+                .currentPhase("INGEST_FAILED")
+                .errorMessage(e.getMessage())
+                .startedAt(migrationJob.getStartedAt())
+                .build();
     }
     
     /**
@@ -156,11 +251,15 @@ public class ExcelIngestService {
      * - No semaphore blocking SAX thread (30% faster SAX parsing)
      * - Proper resource cleanup and exception propagation
      *
-     * @param inputStream Excel file input stream
+     * @param inputStream Excel file input stream (used when session is null)
+     * @param session Workbook already opened for the upload, or null
      * @param jobId Migration job ID
      * @param maxRows Maximum rows allowed (0 = no limit)
+     * @param checkpoint Checkpoint advanced after every committed batch; rows up to its
+     *                   lastCommittedRow are skipped (resume)
      */
-    private IngestResult performIngest(InputStream inputStream, String jobId, int maxRows) throws Exception {
+    private IngestResult performIngest(InputStream inputStream, WorkbookSession session, String jobId, int maxRows,
+                                       ProcessingCheckpoint checkpoint) throws Exception {
 
         long startTime = System.currentTimeMillis();
         AtomicInteger processedCount = new AtomicInteger(0);
@@ -169,22 +268,29 @@ public class ExcelIngestService {
 
         // Cấu hình Excel processing cho streaming - optimized cho migration workload
         ExcelConfig config = ExcelConfig.builder()
-                .batchSize(5000) // Process in batches of 5000 records (optimal for database bulk insert)
+                .batchSize(5000) // First batch; adaptive sizing then tracks the JDBC flush time
+                .adaptiveBatchSizing(true)
+                .targetBatchLatencyMs(200) // ~200ms per saveBatch
+                .batchSizeRange(500, 20_000)
                 .memoryThreshold(500) // 500MB memory limit
                 .parallelProcessing(true) // ✅ V2.0: ForkJoinPool with work-stealing, no semaphore blocking
+                .costBasedStrategySelection(true) // Streaming/parallel/reactive chosen from rows × cols, cores, heap, past jobs
                 .enableProgressTracking(true)
                 .enableMemoryMonitoring(true)
                 // NOTE: ExcelFacade automatically uses TrueStreamingSAXProcessor for optimal streaming
                 .strictValidation(false) // Skip strict validation in ingest phase (validation done in Phase 2)
                 .maxRows(maxRows) // ✅ Inline maxRows validation during streaming
+                // ✅ Resumable: checkpoint per committed batch, committed rows skipped without binding
+                .checkpointRecorder(new CheckpointRecorder(checkpointManager, checkpoint)) // Sheet name set when the reader opens it
+                .resumeAfterRow((int) checkpoint.getLastCommittedRow())
                 .build();
 
         // ✅ V2.0: Each batch is processed independently with ForkJoinPool work-stealing
         // ✨ MIGRATED: Use ExcelFacade instead of ExcelUtil (delegates to same optimized implementation)
-        excelFacade.readExcelWithConfig(inputStream, ExcelRowDTO.class, config, batch -> {
+        Consumer<List<ExcelRowDTO>> batchProcessor = batch -> {
 
             // ✅ THREAD-SAFE: Each batch creates its own StagingRaw entities
-            List<StagingRaw> stagingEntities = convertToStagingRaw(batch, jobId);
+            List<StagingRaw> stagingEntities = convertToStagingRaw(batch, jobId, checkpoint.getSheetName());
             
             // ✅ THREAD-SAFE: Direct batch save (no shared buffer)
             saveBatch(stagingEntities, jobId);
@@ -200,7 +306,10 @@ public class ExcelIngestService {
                      jobId, stagingEntities.size(), processedCount.get(), batchErrorCount);
 
             totalCount.addAndGet(batch.size());
-        });
+        };
+        TrueStreamingSAXProcessor.ProcessingResult readResult = session != null
+                ? excelFacade.readExcelWithConfig(session, ExcelRowDTO.class, config, batchProcessor)
+                : excelFacade.readExcelWithConfig(inputStream, ExcelRowDTO.class, config, batchProcessor);
         
         // ✅ V2.0: ALL processing completed (guaranteed data integrity)
         // SAX parsing + batch processing both completed with ForkJoinPool work-stealing
@@ -211,12 +320,22 @@ public class ExcelIngestService {
         log.info("Ingest completed. JobId: {}, Total: {}, Processed: {}, Time: {}ms", 
                 jobId, totalCount.get(), processedCount.get(), processingTime);
         
-        return IngestResult.builder()
+        IngestResult.IngestResultBuilder result = IngestResult.builder()
                 .totalRows((long) totalCount.get())
                 .processedRows((long) processedCount.get())
                 .processingTimeMs(processingTime)
                 .errorCount((long) errorCount.get())
-                .build();
+                .readStrategy(readResult.getReadStrategy())
+                .readStrategyDecision(readResult.getStrategyDecision());
+        AdaptiveBatchSizer batchSizer = readResult.getBatchSizer();
+        if (batchSizer != null) {
+            log.info("Batch sizing for JobId: {}: {}", jobId, batchSizer);
+            result.finalBatchSize(batchSizer.currentSize())
+                    .minBatchSizeUsed(batchSizer.getSmallestSize())
+                    .maxBatchSizeUsed(batchSizer.getLargestSize())
+                    .avgBatchLatencyMs(batchSizer.getAverageLatencyMs());
+        }
+        return result.build();
     }
     
     /**
@@ -228,7 +347,7 @@ public class ExcelIngestService {
      * - UUID.randomUUID() is thread-safe
      * - LocalDateTime.now() is thread-safe
      */
-    private List<StagingRaw> convertToStagingRaw(List<ExcelRowDTO> excelRows, String jobId) {
+    private List<StagingRaw> convertToStagingRaw(List<ExcelRowDTO> excelRows, String jobId, String sheetName) {
         
         // ✅ THREAD-SAFE: Each batch creates its own ArrayList
         List<StagingRaw> stagingEntities = new ArrayList<>(excelRows.size());
@@ -245,8 +364,8 @@ public class ExcelIngestService {
                 StagingRaw stagingRaw = StagingRaw.builder()
                         .id(UUID.randomUUID())
                         .jobId(jobId)
-                        .rowNum(row.getRowNumber())
-                        .sheetName("Sheet1") // Default sheet name
+                        .rowNum(row.getRowNum()) // Sheet row (1-based), used to resume after a checkpoint
+                        .sheetName(sheetName) // Sheet the reader opened (recorded on the checkpoint)
                         .createdAt(LocalDateTime.now()) // ✅ Thread-safe
                         
                         // Raw data
@@ -300,7 +419,7 @@ public class ExcelIngestService {
                 // ✅ THREAD-SAFE: Create error record with thread-safe operations
                 StagingRaw errorRecord = StagingRaw.builder()
                         .jobId(jobId)
-                        .rowNum(row.getRowNumber())
+                        .rowNum(row.getRowNum())
                         .createdAt(LocalDateTime.now()) // ✅ Thread-safe
                         .parseErrors("Conversion error: " + e.getMessage())
                         .errorMessage("Conversion error: " + e.getMessage())
@@ -318,15 +437,16 @@ public class ExcelIngestService {
      * Lưu batch vào database
      * 
      * ✅ THREAD-SAFE: Each batch is saved independently
-     * - @Transactional ensures ACID properties
+     * - Own transaction (REQUIRES_NEW), committed before the reader commits the batch to the checkpoint
      * - Spring Data JPA repository operations are thread-safe
      * - Each batch has its own transaction boundary
      */
-    @Transactional
     private void saveBatch(List<StagingRaw> batch, String jobId) {
         try {
             // ✅ THREAD-SAFE: Spring Data JPA saveAll is thread-safe
-            stagingRawRepository.saveAll(batch);
+            TransactionTemplate batchTransaction = new TransactionTemplate(transactionManager);
+            batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            batchTransaction.executeWithoutResult(status -> stagingRawRepository.saveAll(batch));
             log.debug("Saved batch of {} records for JobId: {}", batch.size(), jobId);
         } catch (Exception e) {
             log.error("Failed to save batch for JobId: {}, Error: {}", jobId, e.getMessage(), e);
@@ -388,7 +508,6 @@ public class ExcelIngestService {
     /**
      * Overload method để maintain backward compatibility (không giới hạn số lượng bản ghi)
      */
-    @Transactional
     public MigrationResultDTO startIngestProcess(InputStream inputStream, String filename, String createdBy) {
         return startIngestProcess(inputStream, filename, createdBy, 0); // 0 = không giới hạn
     }
@@ -503,5 +622,13 @@ public class ExcelIngestService {
         private Long processedRows;
         private Long processingTimeMs;
         private Long errorCount;
+        // Adaptive batch sizing
+        private Integer finalBatchSize;
+        private Integer minBatchSizeUsed;
+        private Integer maxBatchSizeUsed;
+        private Long avgBatchLatencyMs;
+        // Cost-based read strategy selection
+        private String readStrategy;
+        private String readStrategyDecision;
     }
 }
@@ -1,14 +1,17 @@
 package com.learnmore.application.service.migration;
 
 import com.learnmore.application.dto.migration.MigrationResultDTO;
+import com.learnmore.application.utils.sax.WorkbookSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Main Migration Service để orchestrate toàn bộ quá trình migration
@@ -28,13 +31,26 @@ public class MigrationOrchestrationService {
      * Thực hiện toàn bộ quá trình migration (đồng bộ) với giới hạn số lượng bản ghi
      */
     public MigrationResultDTO performFullMigration(InputStream inputStream, String filename, String createdBy, int maxRows) {
+        return performFullMigration(filename,
+                () -> excelIngestService.startIngestProcess(inputStream, filename, createdBy, maxRows));
+    }
+    
+    /**
+     * Thực hiện toàn bộ quá trình migration trên WorkbookSession đã mở (caller đóng session)
+     */
+    public MigrationResultDTO performFullMigration(WorkbookSession session, String filename, String createdBy, int maxRows) {
+        return performFullMigration(filename,
+                () -> excelIngestService.startIngestProcess(session, filename, createdBy, maxRows));
+    }
+    
+    private MigrationResultDTO performFullMigration(String filename, Supplier<MigrationResultDTO> ingest) {
         
         log.info("Starting full migration process for file: {}", filename);
         
         try {
             // Phase 1: Ingest
             log.info("=== Phase 1: Excel Ingest ===");
-            MigrationResultDTO ingestResult = excelIngestService.startIngestProcess(inputStream, filename, createdBy, maxRows);
+            MigrationResultDTO ingestResult = ingest.get();
             
             if (ingestResult.isFailed()) {
                 log.error("Migration failed at ingest phase: {}", ingestResult.getErrorMessage());
@@ -141,6 +157,30 @@ public class MigrationOrchestrationService {
         }
     }
     
+    /**
+     * Thực hiện migration bất đồng bộ trên WorkbookSession của upload
+     * Ingest dùng lại package/styles/SST đã mở khi validate; session được đóng khi job kết thúc
+     */
+    @Async("migrationExecutor")
+    public CompletableFuture<MigrationResultDTO> performFullMigrationAsync(
+            WorkbookSession session, String filename, String createdBy, int maxRows) {
+        
+        log.info("Starting async full migration process for file: {}, maxRows: {}", filename, maxRows);
+        
+        try (WorkbookSession ownedSession = session) {
+            return CompletableFuture.completedFuture(performFullMigration(ownedSession, filename, createdBy, maxRows));
+        } catch (IOException e) {
+            log.error("Async migration process failed for file: {}, Error: {}", filename, e.getMessage(), e);
+            
+            return CompletableFuture.completedFuture(MigrationResultDTO.builder()
+                    .status("FAILED")
+                    .filename(filename)
+                    .currentPhase("ASYNC_MIGRATION_FAILED")
+                    .errorMessage(e.getMessage())
+                    .build());
+        }
+    }
+    
     /**
      * Thực hiện migration bất đồng bộ - backward compatibility
      */
@@ -4,11 +4,11 @@ import com.learnmore.infrastructure.persistence.entity.MigrationJobSheetEntity;
 import com.learnmore.infrastructure.repository.MigrationJobSheetRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -16,7 +16,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * Async service for non-blocking migration job execution
  * 
  * Provides:
- * - Non-blocking job submission (@Async)
+ * - Non-blocking job submission (JobAdmissionScheduler → migrationExecutor)
+ * - Memory-budget admission: job vượt budget xếp hàng với vị trí + ETA
  * - Job cancellation support
  * - Progress tracking
  * - Graceful error handling
@@ -33,6 +34,7 @@ public class AsyncMigrationJobService {
 
     private final MultiSheetProcessor multiSheetProcessor;
     private final MigrationJobSheetRepository jobSheetRepository;
+    private final JobAdmissionScheduler admissionScheduler;
 
     // Track running jobs for cancellation support
     private final Map<String, CompletableFuture<MultiSheetProcessor.MultiSheetProcessResult>> runningJobs 
@@ -41,30 +43,66 @@ public class AsyncMigrationJobService {
     /**
      * Process migration job asynchronously FROM MEMORY (no file I/O)
      * 
-     * Runs in background thread pool (migrationExecutor)
+     * Job được đưa qua JobAdmissionScheduler: chạy ngay trên migrationExecutor nếu còn memory budget,
+     * nếu không thì xếp hàng (vị trí + ETA qua getQueuedJob)
      * Returns CompletableFuture for chaining/cancellation
      * 
      * Benefits:
      * - No file leak risk (no disk cleanup needed)
      * - Faster processing (no disk I/O)
      * - Thread-safe (each job has its own byte array copy)
+     * - Nhiều upload lớn cùng lúc không vượt quá memory budget của node
      * 
      * @param jobId Unique job identifier
      * @param fileBytes Excel file content in memory (max 100MB)
      * @param originalFilename Original file name for logging
-     * @return CompletableFuture with result (completes after 10-30 minutes)
+     * @return CompletableFuture with result (completes after queue wait + 10-30 minutes)
+     * @throws IllegalStateException if a job with this id is already queued or running
      */
-    @Async("migrationExecutor")
     public CompletableFuture<MultiSheetProcessor.MultiSheetProcessResult> processAsyncFromMemory(
             String jobId, byte[] fileBytes, String originalFilename) {
         
-        log.info("🚀 [ASYNC] Starting migration job: {} (filename: {}, size: {} MB)", 
-                 jobId, originalFilename, fileBytes.length / 1024.0 / 1024.0);
-        
         CompletableFuture<MultiSheetProcessor.MultiSheetProcessResult> future = new CompletableFuture<>();
         
-        // Track this job
-        runningJobs.put(jobId, future);
+        // Track this job (queued or running); a duplicate id must not replace the live job's future
+        if (runningJobs.putIfAbsent(jobId, future) != null) {
+            throw new IllegalStateException("Job already queued or running: " + jobId);
+        }
+        
+        try {
+            JobAdmissionScheduler.JobEstimate estimate = JobAdmissionScheduler.estimate(fileBytes);
+            log.info("📥 [ASYNC] Submitting migration job: {} (filename: {}, size: {} MB, estimated footprint: {} MB)", 
+                     jobId, originalFilename, fileBytes.length / 1024.0 / 1024.0, estimate.footprintMB());
+            
+            admissionScheduler.submit(jobId, estimate,
+                    () -> runJob(jobId, fileBytes, originalFilename, future),
+                    rejected -> {
+                        runningJobs.remove(jobId, future);
+                        future.completeExceptionally(rejected);
+                    });
+        } catch (RuntimeException e) {
+            // Never queued: the caller never sees this future, so drop its tracking entry
+            runningJobs.remove(jobId, future);
+            throw e;
+        }
+        
+        return future;
+    }
+
+    /**
+     * Chạy job đã được admit (trên migrationExecutor)
+     */
+    private void runJob(String jobId, byte[] fileBytes, String originalFilename,
+                        CompletableFuture<MultiSheetProcessor.MultiSheetProcessResult> future) {
+        
+        if (future.isDone()) {
+            // Cancelled between admission and start
+            runningJobs.remove(jobId, future);
+            return;
+        }
+        
+        log.info("🚀 [ASYNC] Starting migration job: {} (filename: {}, size: {} MB)", 
+                 jobId, originalFilename, fileBytes.length / 1024.0 / 1024.0);
         
         try {
             // Update overall job status to STARTED
@@ -101,11 +139,9 @@ public class AsyncMigrationJobService {
             
         } finally {
             // Clean up tracking
-            runningJobs.remove(jobId);
+            runningJobs.remove(jobId, future);
             log.info("🧹 [ASYNC] Job removed from tracking: {}", jobId);
         }
-        
-        return future;
     }
 
     /**
@@ -122,6 +158,14 @@ public class AsyncMigrationJobService {
         
         CompletableFuture<MultiSheetProcessor.MultiSheetProcessResult> future = runningJobs.get(jobId);
         
+        // Job chưa được admit: bỏ khỏi hàng đợi, chưa có sheet tracking nào để cập nhật
+        if (future != null && admissionScheduler.cancel(jobId)) {
+            future.cancel(true);
+            runningJobs.remove(jobId, future);
+            log.info("✅ [ASYNC] Queued job removed before start: {}", jobId);
+            return true;
+        }
+        
         if (future != null && !future.isDone()) {
             boolean cancelled = future.cancel(true);
             
@@ -153,12 +197,17 @@ public class AsyncMigrationJobService {
     /**
      * Get current number of running jobs
      * 
-     * @return Count of active jobs
+     * @return Count of active jobs (không tính job còn trong hàng đợi admission)
      */
     public int getRunningJobCount() {
-        return (int) runningJobs.values().stream()
-                .filter(f -> !f.isDone())
-                .count();
+        return admissionScheduler.getRunningJobCount();
+    }
+
+    /**
+     * Vị trí và ETA của job đang chờ memory budget, empty nếu job đã chạy hoặc không tồn tại
+     */
+    public Optional<JobAdmissionScheduler.QueuedJob> getQueuedJob(String jobId) {
+        return admissionScheduler.getQueuedJob(jobId);
     }
 
     /**
@@ -211,9 +260,13 @@ public class AsyncMigrationJobService {
      * Reads the OVERALL_STATUS marker from first sheet's error_message
      * 
      * @param jobId Job to check
-     * @return Overall status (PENDING, STARTED, COMPLETED, COMPLETED_WITH_ERRORS, FAILED, CANCELLED)
+     * @return Overall status (QUEUED, PENDING, STARTED, COMPLETED, COMPLETED_WITH_ERRORS, FAILED, CANCELLED)
      */
     public String getOverallJobStatus(String jobId) {
+        if (admissionScheduler.getQueuedJob(jobId).isPresent()) {
+            return "QUEUED";
+        }
+        
         List<MigrationJobSheetEntity> sheets = jobSheetRepository.findByJobIdOrderBySheetOrder(jobId);
         
         if (sheets.isEmpty()) {
@@ -0,0 +1,416 @@
+package com.learnmore.application.service.multisheet;
+
+import com.learnmore.application.utils.sax.WorkbookSession;
+import com.learnmore.application.utils.validation.ExcelEarlyValidator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission cho job migration async theo ngân sách bộ nhớ chung của node
+ *
+ * - Footprint mỗi job = kích thước file + Σ EarlyValidationResult.estimatedMemoryMB() của các sheet
+ *   (sheet không có dimension: phần của nó trong fallback 10 × kích thước file)
+ * - Job chỉ bắt đầu khi tổng footprint các job đang chạy cộng job mới ≤ budget
+ *   (và số job đang chạy < max-running-jobs); còn lại xếp hàng FIFO
+ * - Job lớn hơn cả budget chỉ chạy khi không còn job nào khác, không bị treo mãi trong hàng đợi
+ * - Job trong hàng đợi có vị trí và ETA, ước từ tốc độ rows/giây của các job đã xong
+ *
+ * Job trong hàng đợi vẫn giữ mảng byte của file upload; budget giới hạn phần parse/insert, là phần
+ * tăng theo kích thước dữ liệu.
+ *
+ * Metrics: migration.admission.queued, .running, .reserved.mb, .budget.mb và timer migration.admission.wait.
+ */
+@Slf4j
+@Component
+public class JobAdmissionScheduler {
+
+    private static final long BYTES_PER_MB = 1024 * 1024;
+    private static final int AUTO_BUDGET_HEAP_PERCENT = 60;
+    // File không đọc được dimension: xlsx nén, dữ liệu parse ra thường gấp ~10 lần kích thước file
+    private static final int UNKNOWN_EXPANSION_FACTOR = 10;
+    // Cùng ước lượng thô với sync mode của controller (~100 rows/sec + 30s overhead) cho tới khi có job hoàn tất
+    private static final long DEFAULT_ROWS_PER_SECOND = 100;
+    private static final long DEFAULT_OVERHEAD_MS = 30_000;
+    private static final double RATE_SMOOTHING = 0.3;
+
+    /**
+     * Memory footprint and row count used to admit a job and to estimate its run time
+     */
+    public record JobEstimate(long footprintMB, long dataRows) {
+    }
+
+    /**
+     * Queued job as reported to clients
+     */
+    @Getter
+    @Builder
+    public static class QueuedJob {
+        private final String jobId;
+        private final int position;
+        private final long footprintMB;
+        private final LocalDateTime queuedAt;
+        private final long estimatedWaitMs;
+        private final LocalDateTime estimatedStartAt;
+    }
+
+    private final long budgetMB;
+    private final int maxRunningJobs;
+    private final Executor executor;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    // FIFO queue and admitted jobs (guarded by lock)
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final Map<String, Admitted> running = new LinkedHashMap<>();
+    private volatile long reservedMB;
+    private volatile int queuedJobs;
+    private volatile int runningJobs;
+    private double rowsPerSecond; // 0 until a job with rows has completed
+    private final Timer admissionWait;
+
+    @Autowired
+    public JobAdmissionScheduler(@Value("${application.migration.admission.memory-budget-mb:0}") long memoryBudgetMB,
+                                 @Value("${application.migration.admission.max-running-jobs:2}") int maxRunningJobs,
+                                 @Qualifier("migrationExecutor") Executor executor,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        this(budgetMB(memoryBudgetMB, Runtime.getRuntime().maxMemory()), maxRunningJobs, executor,
+                System::currentTimeMillis, meterRegistry.getIfAvailable());
+    }
+
+    JobAdmissionScheduler(long budgetMB, int maxRunningJobs, Executor executor, LongSupplier clock,
+                          MeterRegistry meterRegistry) {
+        if (budgetMB < 1) {
+            throw new IllegalArgumentException("budgetMB must be >= 1");
+        }
+        if (maxRunningJobs < 1) {
+            throw new IllegalArgumentException("maxRunningJobs must be >= 1");
+        }
+        this.budgetMB = budgetMB;
+        this.maxRunningJobs = maxRunningJobs;
+        this.executor = executor;
+        this.clock = clock;
+
+        if (meterRegistry != null) {
+            Gauge.builder("migration.admission.queued", this, scheduler -> scheduler.queuedJobs)
+                    .description("Migration jobs waiting for memory budget")
+                    .register(meterRegistry);
+            Gauge.builder("migration.admission.running", this, scheduler -> scheduler.runningJobs)
+                    .description("Migration jobs admitted and running")
+                    .register(meterRegistry);
+            Gauge.builder("migration.admission.reserved.mb", this, scheduler -> scheduler.reservedMB)
+                    .description("Estimated memory held by running migration jobs")
+                    .baseUnit("megabytes")
+                    .register(meterRegistry);
+            Gauge.builder("migration.admission.budget.mb", this, JobAdmissionScheduler::getBudgetMB)
+                    .description("Memory budget shared by migration jobs")
+                    .baseUnit("megabytes")
+                    .register(meterRegistry);
+            this.admissionWait = Timer.builder("migration.admission.wait")
+                    .description("Time a migration job waited for memory budget")
+                    .register(meterRegistry);
+        } else {
+            this.admissionWait = null;
+        }
+        log.info("Migration job admission: budget {} MB, at most {} running jobs", budgetMB, maxRunningJobs);
+    }
+
+    /**
+     * Budget: configured value, else a share of the max heap
+     */
+    static long budgetMB(long configuredMB, long maxHeapBytes) {
+        if (configuredMB > 0) {
+            return configuredMB;
+        }
+        return Math.max(1, maxHeapBytes / BYTES_PER_MB * AUTO_BUDGET_HEAP_PERCENT / 100);
+    }
+
+    /**
+     * Ước lượng footprint của job từ dimension mọi sheet (chỉ đọc tới thẻ <dimension>, không parse dữ liệu)
+     *
+     * Sheet không có &lt;dimension&gt; không có trong kết quả early validation: mỗi sheet như vậy tính phần
+     * của nó trong fallback UNKNOWN_EXPANSION_FACTOR × kích thước file (chia đều theo số sheet) thay vì 0.
+     */
+    public static JobEstimate estimate(byte[] fileBytes) {
+        long fileMB = Math.max(1, (fileBytes.length + BYTES_PER_MB - 1) / BYTES_PER_MB);
+        try (WorkbookSession session = WorkbookSession.open(fileBytes)) {
+            long parseMB = 0;
+            long dataRows = 0;
+            Map<String, ExcelEarlyValidator.EarlyValidationResult> measured =
+                    ExcelEarlyValidator.validateAllSheets(session, Integer.MAX_VALUE, 1);
+            for (ExcelEarlyValidator.EarlyValidationResult sheet : measured.values()) {
+                parseMB += sheet.estimatedMemoryMB();
+                dataRows += sheet.getDataRows();
+            }
+            int sheetCount = session.getDimensionRefs().size();
+            int unmeasured = sheetCount - measured.size();
+            if (unmeasured > 0) {
+                long perSheetMB = unknownSheetMB(fileMB, sheetCount);
+                parseMB += unmeasured * perSheetMB;
+                log.debug("{} of {} sheets have no <dimension>, assuming {}MB each", unmeasured, sheetCount, perSheetMB);
+            }
+            return new JobEstimate(fileMB + parseMB, dataRows);
+        } catch (Exception e) {
+            log.warn("Cannot read sheet dimensions for memory estimate ({}), assuming {}x file size",
+                    e.getMessage(), UNKNOWN_EXPANSION_FACTOR);
+            return new JobEstimate(fileMB * UNKNOWN_EXPANSION_FACTOR, 0);
+        }
+    }
+
+    /**
+     * Share of the whole-file fallback for one sheet whose size is unknown
+     */
+    static long unknownSheetMB(long fileMB, int sheetCount) {
+        long fallbackMB = fileMB * UNKNOWN_EXPANSION_FACTOR;
+        return Math.max(1, (fallbackMB + sheetCount - 1) / Math.max(1, sheetCount));
+    }
+
+    /**
+     * Start the job on the migration executor if the budget allows, else queue it
+     *
+     * @param job Work run once admitted; its budget is released when it returns
+     * @param onRejected Called if the executor refuses the admitted job (budget already released)
+     * @return 0 if the job started right away, else its 1-based position in the queue
+     */
+    public int submit(String jobId, JobEstimate estimate, Runnable job, Consumer<Throwable> onRejected) {
+        List<Pending> admitted;
+        int position;
+        lock.lock();
+        try {
+            if (running.containsKey(jobId) || indexOf(jobId) >= 0) {
+                throw new IllegalStateException("Job already submitted: " + jobId);
+            }
+            queue.addLast(new Pending(jobId, estimate, job, onRejected, clock.getAsLong()));
+            admitted = admit();
+            position = indexOf(jobId) + 1;
+        } finally {
+            lock.unlock();
+        }
+        if (position > 0) {
+            log.info("Job {} queued at position {} (~{} MB, {} / {} MB reserved)",
+                    jobId, position, estimate.footprintMB(), reservedMB, budgetMB);
+        }
+        start(admitted);
+        return position;
+    }
+
+    /**
+     * Remove a job that has not started yet
+     *
+     * @return true if the job was queued (it will not run)
+     */
+    public boolean cancel(String jobId) {
+        lock.lock();
+        try {
+            boolean removed = queue.removeIf(pending -> pending.jobId.equals(jobId));
+            queuedJobs = queue.size();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<QueuedJob> getQueuedJob(String jobId) {
+        return getQueue().stream().filter(job -> job.getJobId().equals(jobId)).findFirst();
+    }
+
+    /**
+     * Queued jobs in admission order with their estimated start time
+     */
+    public List<QueuedJob> getQueue() {
+        lock.lock();
+        try {
+            return estimateQueue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBudgetMB() {
+        return budgetMB;
+    }
+
+    public long getReservedMB() {
+        return reservedMB;
+    }
+
+    public int getMaxRunningJobs() {
+        return maxRunningJobs;
+    }
+
+    public int getRunningJobCount() {
+        return runningJobs;
+    }
+
+    public int getQueuedJobCount() {
+        return queuedJobs;
+    }
+
+    /**
+     * Jobs to start now: strict FIFO, so a large job at the head is not overtaken by smaller ones
+     */
+    private List<Pending> admit() {
+        List<Pending> admitted = new ArrayList<>();
+        long now = clock.getAsLong();
+        while (!queue.isEmpty() && running.size() < maxRunningJobs) {
+            Pending head = queue.peekFirst();
+            // A job over the whole budget runs alone rather than never
+            if (!running.isEmpty() && reservedMB + head.estimate.footprintMB() > budgetMB) {
+                break;
+            }
+            queue.pollFirst();
+            running.put(head.jobId, new Admitted(head, now));
+            reservedMB += head.estimate.footprintMB();
+            admitted.add(head);
+            if (admissionWait != null) {
+                admissionWait.record(now - head.queuedAt, TimeUnit.MILLISECONDS);
+            }
+        }
+        queuedJobs = queue.size();
+        runningJobs = running.size();
+        return admitted;
+    }
+
+    private void start(List<Pending> admitted) {
+        for (Pending pending : admitted) {
+            log.info("Job {} admitted (~{} MB, {} / {} MB reserved)",
+                    pending.jobId, pending.estimate.footprintMB(), reservedMB, budgetMB);
+            try {
+                executor.execute(() -> runAdmitted(pending));
+            } catch (RejectedExecutionException e) {
+                log.error("Migration executor rejected job {}: {}", pending.jobId, e.getMessage());
+                release(pending.jobId, false);
+                pending.onRejected.accept(e);
+            }
+        }
+    }
+
+    private void runAdmitted(Pending pending) {
+        boolean completed = false;
+        try {
+            pending.job.run();
+            completed = true;
+        } finally {
+            release(pending.jobId, completed);
+        }
+    }
+
+    /**
+     * Return the job's budget, learn its throughput and admit whatever now fits
+     */
+    private void release(String jobId, boolean completed) {
+        List<Pending> admitted;
+        lock.lock();
+        try {
+            Admitted done = running.remove(jobId);
+            if (done == null) {
+                return;
+            }
+            reservedMB -= done.pending.estimate.footprintMB();
+            long rows = done.pending.estimate.dataRows();
+            // Measured from admission, the same span the ETA replays
+            long durationMs = clock.getAsLong() - done.startedAt;
+            if (completed && durationMs > 0 && rows > 0) {
+                double rate = rows * 1000.0 / durationMs;
+                rowsPerSecond = rowsPerSecond == 0 ? rate : RATE_SMOOTHING * rate + (1 - RATE_SMOOTHING) * rowsPerSecond;
+            }
+            admitted = admit();
+        } finally {
+            lock.unlock();
+        }
+        start(admitted);
+    }
+
+    /**
+     * Replay admission over expected finish times of running jobs to get each queued job's start
+     */
+    private List<QueuedJob> estimateQueue() {
+        long now = clock.getAsLong();
+        PriorityQueue<Slot> finishing = new PriorityQueue<>(Comparator.comparingLong(Slot::finishAt));
+        for (Admitted admitted : running.values()) {
+            long finishAt = admitted.startedAt + expectedDurationMs(admitted.pending.estimate.dataRows());
+            finishing.add(new Slot(Math.max(now, finishAt), admitted.pending.estimate.footprintMB()));
+        }
+
+        List<QueuedJob> jobs = new ArrayList<>();
+        long time = now;
+        long reserved = reservedMB;
+        for (Pending pending : queue) {
+            long footprint = pending.estimate.footprintMB();
+            while (!finishing.isEmpty()
+                    && (finishing.size() >= maxRunningJobs || reserved + footprint > budgetMB)) {
+                Slot next = finishing.poll();
+                time = Math.max(time, next.finishAt());
+                reserved -= next.footprintMB();
+            }
+            jobs.add(QueuedJob.builder()
+                    .jobId(pending.jobId)
+                    .position(jobs.size() + 1)
+                    .footprintMB(footprint)
+                    .queuedAt(toDateTime(pending.queuedAt))
+                    .estimatedWaitMs(time - now)
+                    .estimatedStartAt(toDateTime(time))
+                    .build());
+            finishing.add(new Slot(time + expectedDurationMs(pending.estimate.dataRows()), footprint));
+            reserved += footprint;
+        }
+        return jobs;
+    }
+
+    private long expectedDurationMs(long dataRows) {
+        if (rowsPerSecond > 0) {
+            return (long) (dataRows * 1000 / rowsPerSecond);
+        }
+        return DEFAULT_OVERHEAD_MS + dataRows * 1000 / DEFAULT_ROWS_PER_SECOND;
+    }
+
+    private int indexOf(String jobId) {
+        int index = 0;
+        for (Pending pending : queue) {
+            if (pending.jobId.equals(jobId)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    private static LocalDateTime toDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+
+    private record Pending(String jobId, JobEstimate estimate, Runnable job, Consumer<Throwable> onRejected,
+                           long queuedAt) {
+    }
+
+    private record Admitted(Pending pending, long startedAt) {
+    }
+
+    private record Slot(long finishAt, long footprintMB) {
+    }
+}
@@ -2,13 +2,15 @@ package com.learnmore.application.service.multisheet;
 
 import com.learnmore.application.config.SheetMigrationConfig;
 import com.learnmore.application.excel.ExcelFacade;
+import com.learnmore.application.utils.concurrent.MigrationWorkScheduler;
 import com.learnmore.application.utils.config.ExcelConfig;
 import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
+import com.learnmore.application.utils.sax.WorkbookSession;
 import com.learnmore.infrastructure.persistence.entity.MigrationJobSheetEntity;
 import com.learnmore.infrastructure.repository.MigrationJobSheetRepository;
-import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
@@ -22,7 +24,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.*;
 import java.util.function.Consumer;
 
 /**
@@ -40,9 +41,8 @@ public class MultiSheetProcessor {
     private final SheetValidationService validationService;
     private final SheetInsertService insertService;
     private final ExcelFacade excelFacade; // ✅ Use ExcelFacade for unified Excel operations
-
-    // Track active executor for graceful shutdown
-    private ExecutorService currentExecutor;
+    private final JdbcTemplate jdbcTemplate; // Staging writes during the read (StagingRawBatchWriter)
+    private final MigrationWorkScheduler workScheduler; // ✅ Application-wide pool, shared fairly with other jobs
 
     /**
      * Process all sheets in Excel file FROM MEMORY using ExcelFacade (RECOMMENDED)
@@ -68,10 +68,32 @@ public class MultiSheetProcessor {
         log.info("Starting multi-sheet processing (in-memory with ExcelFacade) for JobId: {}, File: {}, Size: {} MB", 
                  jobId, originalFilename, fileBytes.length / 1024.0 / 1024.0);
 
+        // ✅ One workbook session per job: sheet discovery and ingest share the opened package
+        try (WorkbookSession session = WorkbookSession.open(fileBytes)) {
+            return processAllSheets(jobId, session, originalFilename);
+        } catch (java.io.IOException e) {
+            throw new RuntimeException("Failed to open workbook: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Process all sheets of an already opened workbook session
+     *
+     * The session's package, sheet list, styles and shared strings are reused by every step,
+     * so the file is unzipped once per job. Caller owns (and closes) the session.
+     *
+     * @param jobId Unique job identifier
+     * @param session Workbook session of the upload
+     * @param originalFilename Original file name for logging
+     * @return Processing result with metrics
+     */
+    public MultiSheetProcessResult processAllSheets(String jobId, WorkbookSession session, String originalFilename) {
+        log.info("Processing workbook session for JobId: {}, File: {}", jobId, originalFilename);
+
         List<SheetMigrationConfig.SheetConfig> enabledSheets = config.getEnabledSheetsOrdered();
 
         // Filter only sheets that are actually present in the workbook (sheets are optional)
-        List<String> presentSheetNames = getSheetNamesFromBytes(fileBytes);
+        List<String> presentSheetNames = getSheetNames(session);
         List<SheetMigrationConfig.SheetConfig> sheetsToProcess = enabledSheets.stream()
                 .filter(sc -> presentSheetNames.contains(sc.getName()))
                 .toList();
@@ -89,118 +111,127 @@ public class MultiSheetProcessor {
         // Initialize tracking for each sheet
         initializeSheetTracking(jobId, sheetsToProcess);
 
+        // Dependency graph checked before the file is read (cycle → IllegalArgumentException)
+        SheetDependencyScheduler scheduler = new SheetDependencyScheduler(sheetsToProcess);
+
         // Process sheets from memory using ExcelFacade
         boolean useParallel = config.getGlobal().isUseParallelSheetProcessing();
-        List<SheetProcessResult> results;
 
         if (useParallel) {
             // ✅ Use ExcelFacade with parallel processing
-            results = processWithExcelFacadeParallel(jobId, fileBytes, sheetsToProcess);
+            return processWithExcelFacadeParallel(jobId, session, sheetsToProcess, scheduler);
         } else {
             // ✅ Use ExcelFacade with sequential processing
-            results = processWithExcelFacadeSequential(jobId, fileBytes, sheetsToProcess);
+            return processWithExcelFacadeSequential(jobId, session, sheetsToProcess, scheduler);
         }
-
-        // Aggregate results
-        return aggregateResults(jobId, results);
     }
     
     /**
      * ✅ NEW: Process sheets using ExcelFacade with parallel processing
-     * Strategy: Read all sheets once with ExcelFacade, then process results in parallel
-     * Each sheet runs in its own thread for validation and insertion phases
+     * Strategy: Read all sheets once with ExcelFacade, then run validation and insertion as a dependency graph:
+     * independent sheets run concurrently, a dependent sheet starts as soon as its prerequisites completed
      * 
      * @param jobId Job identifier
-     * @param fileBytes Excel file content in memory
+     * @param session Workbook session of the upload
      * @param sheetsToProcess List of sheet configs to process
-     * @return List of processing results
+     * @param scheduler Dependency graph of the sheets
+     * @return Aggregated result with critical path
      */
-    private List<SheetProcessResult> processWithExcelFacadeParallel(String jobId,
-                                                                      byte[] fileBytes,
-                                                                      List<SheetMigrationConfig.SheetConfig> sheetsToProcess) {
+    private MultiSheetProcessResult processWithExcelFacadeParallel(String jobId,
+                                                                   WorkbookSession session,
+                                                                   List<SheetMigrationConfig.SheetConfig> sheetsToProcess,
+                                                                   SheetDependencyScheduler scheduler) {
         int maxThreads = config.getGlobal().getMaxConcurrentSheets();
-        ExecutorService executor = Executors.newFixedThreadPool(maxThreads);
+        MigrationWorkScheduler.Priority priority = config.getGlobal().getJobPriority();
         
         try {
-            this.currentExecutor = executor;
-            
-            log.info("Processing {} sheets in parallel using ExcelFacade with {} threads", 
-                    sheetsToProcess.size(), maxThreads);
+            log.info("Processing {} sheets in parallel using ExcelFacade ({} parse threads, {} shared workers, priority {}), dependency order: {}", 
+                    sheetsToProcess.size(), maxThreads, workScheduler.getWorkerCount(), priority,
+                    scheduler.getTopologicalOrder());
             
             // Build sheet-to-DTO mapping from config
             Map<String, Class<?>> sheetClassMap = buildSheetClassMap(sheetsToProcess);
-            Map<String, Consumer<List<?>>> sheetProcessors = buildSheetProcessors(jobId, sheetsToProcess);
+            Map<String, StagingRawBatchWriter> stagingWriters = buildSheetProcessors(jobId, sheetsToProcess, sheetClassMap);
             
             // Create ExcelConfig for multi-sheet processing
             ExcelConfig excelConfig = ExcelConfig.builder()
                     .batchSize(sheetsToProcess.isEmpty() ? 5000 : sheetsToProcess.get(0).getBatchSize())
+                    .adaptiveBatchSizing(true) // Starting size only: each sheet adapts to its own consumer
                     .readAllSheets(true)
                     .jobId(jobId)
+                    .jobPriority(priority)
+                    .workScheduler(workScheduler) // Sheet parsers run on the shared pool, no pool per upload
                     .parallelProcessing(false) // Sequential within sheet, parallel across sheets
+                    .maxConcurrentSheets(maxThreads) // Sheets parsed concurrently, not one after another
                     .build();
             
-            // Phase 1: Read all sheets once using ExcelFacade (shared file read)
-            Map<String, TrueStreamingSAXProcessor.ProcessingResult> readResults;
-            try (InputStream inputStream = new java.io.ByteArrayInputStream(fileBytes)) {
-                readResults = excelFacade.readMultiSheet(inputStream, sheetClassMap, sheetProcessors, excelConfig);
-            }
+            // Phase 1: Read all sheets once using ExcelFacade, batches go straight into staging_raw
+            long readStart = System.currentTimeMillis();
+            Map<String, TrueStreamingSAXProcessor.ProcessingResult> readResults =
+                    readIntoStaging(jobId, session, sheetsToProcess, sheetClassMap, stagingWriters, excelConfig);
+            long readTimeMs = System.currentTimeMillis() - readStart;
             
             log.info("ExcelFacade read completed for {} sheets", readResults.size());
             
-            // Phase 2: Process validation and insertion in parallel (one thread per sheet)
-            List<Future<SheetProcessResult>> futures = new ArrayList<>();
+            // Phase 2: Validation and insertion per sheet, scheduled by dependencies
+            long sheetTimeoutMs = config.getGlobal().getValidationTimeout() + config.getGlobal().getInsertionTimeout();
+            SheetDependencyScheduler.Schedule schedule = scheduler.run(
+                    postIngestTask(jobId, readResults, stagingWriters), workScheduler.executorFor(jobId, priority), sheetTimeoutMs,
+                    config.getGlobal().isContinueOnSheetFailure());
+            
+            return aggregateResults(jobId, schedule, readTimeMs);
             
-            for (SheetMigrationConfig.SheetConfig sheetConfig : sheetsToProcess) {
+        } catch (Exception e) {
+            log.error("Error in ExcelFacade parallel processing", e);
+            throw new RuntimeException("Failed to process sheets with ExcelFacade", e);
+        }
+    }
+    
+    /**
+     * Post-ingest work of one sheet for the dependency scheduler
+     */
+    private SheetDependencyScheduler.SheetTask postIngestTask(
+            String jobId,
+            Map<String, TrueStreamingSAXProcessor.ProcessingResult> readResults,
+            Map<String, StagingRawBatchWriter> stagingWriters) {
+        return new SheetDependencyScheduler.SheetTask() {
+            @Override
+            public SheetProcessResult run(SheetMigrationConfig.SheetConfig sheetConfig,
+                                          SheetDependencyScheduler.SheetRunControl control) {
                 String sheetName = sheetConfig.getName();
                 TrueStreamingSAXProcessor.ProcessingResult readResult = readResults.get(sheetName);
-                
                 if (readResult == null) {
-                    log.warn("No read result for sheet: {}", sheetName);
-                    continue;
+                    return failSheet(jobId, sheetName, "No read result from ExcelFacade", control);
                 }
-                
-                Future<SheetProcessResult> future = executor.submit(() -> {
-                    try {
-                        return processSheetPostIngest(jobId, sheetConfig, readResult);
-                    } catch (Exception e) {
-                        log.error("Uncaught exception in sheet processing thread for sheet: {}",
-                                  sheetConfig.getName(), e);
-                        updateSheetStatus(jobId, sheetConfig.getName(), "FAILED", e.getMessage());
-                        return SheetProcessResult.error(sheetConfig.getName(),
-                                "Thread exception: " + e.getMessage());
-                    }
-                });
-                futures.add(future);
-            }
-            
-            // Wait for all sheets to complete
-            List<SheetProcessResult> results = new ArrayList<>();
-            for (Future<SheetProcessResult> future : futures) {
                 try {
-                    SheetProcessResult result = future.get(30, TimeUnit.MINUTES);
-                    results.add(result);
-                } catch (TimeoutException e) {
-                    log.error("Sheet processing timeout after 30 minutes", e);
-                    results.add(SheetProcessResult.timeout("Unknown", "Timeout after 30 minutes"));
+                    return processSheetPostIngest(jobId, sheetConfig, readResult, stagingWriters.get(sheetName), control);
                 } catch (Exception e) {
-                    log.error("Error waiting for sheet processing", e);
-                    results.add(SheetProcessResult.error("Unknown", e.getMessage()));
+                    log.error("Uncaught exception in sheet processing thread for sheet: {}", sheetName, e);
+                    return failSheet(jobId, sheetName, "Thread exception: " + e.getMessage(), control);
                 }
             }
-            
-            return results;
-            
-        } catch (Exception e) {
-            log.error("Error in ExcelFacade parallel processing", e);
-            throw new RuntimeException("Failed to process sheets with ExcelFacade", e);
-        } finally {
-            shutdownExecutor(executor);
-        }
+
+            @Override
+            public SheetProcessResult abandon(SheetMigrationConfig.SheetConfig sheetConfig, String reason) {
+                updateSheetStatus(jobId, sheetConfig.getName(), "FAILED", reason);
+                return SheetProcessResult.error(sheetConfig.getName(), reason);
+            }
+        };
+    }
+    
+    private SheetProcessResult failSheet(String jobId, String sheetName, String reason,
+                                         SheetDependencyScheduler.SheetRunControl control) {
+        control.finish(() -> updateSheetStatus(jobId, sheetName, "FAILED", reason));
+        return SheetProcessResult.error(sheetName, reason);
     }
     
     /**
      * ✅ NEW: Process sheet post-ingestion (validation and insertion)
-     * Called after ExcelFacade has ingested the sheet
+     * Called after ExcelFacade has ingested the sheet: staging_raw was filled by the sheet's writer
+     * during the read, a sheet with failed staging batches is not validated
+     *
+     * Status writes go through control: once the scheduler abandoned the sheet (timeout) they are
+     * dropped, so a late finish cannot turn the FAILED sheet back into COMPLETED
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW, timeout = 1800)
     @Retryable(
@@ -211,22 +242,34 @@ public class MultiSheetProcessor {
     )
     private SheetProcessResult processSheetPostIngest(String jobId,
                                                       SheetMigrationConfig.SheetConfig sheetConfig,
-                                                      TrueStreamingSAXProcessor.ProcessingResult ingestResult) {
+                                                      TrueStreamingSAXProcessor.ProcessingResult ingestResult,
+                                                      StagingRawBatchWriter stagingWriter,
+                                                      SheetDependencyScheduler.SheetRunControl control) {
         String sheetName = sheetConfig.getName();
         log.info("Processing sheet post-ingest (ExcelFacade): {} for JobId: {}", sheetName, jobId);
         
         SheetProcessResult result = SheetProcessResult.builder()
                 .sheetName(sheetName)
                 .success(false)
-                .ingestedRows(ingestResult.getProcessedRecords())
-                .ingestTimeMs(0L) // Already completed by ExcelFacade
+                .ingestedRows(stagingWriter != null ? stagingWriter.getWrittenRows() : ingestResult.getProcessedRecords())
+                .ingestTimeMs(ingestResult.getProcessingTimeMs()) // Parse + staging insert, overlapped
+                .finalBatchSize(ingestResult.getBatchSizer() != null ? ingestResult.getBatchSizer().currentSize() : null)
                 .build();
         
         try {
-            updateSheetStatus(jobId, sheetName, "INGESTING");
+            if (stagingWriter != null && stagingWriter.getFailedRows() > 0) {
+                String message = String.format("Staging ingest failed for %d rows: %s",
+                        stagingWriter.getFailedRows(), stagingWriter.getFirstFailure());
+                log.error("Sheet '{}' not validated: {}", sheetName, message);
+                result.setErrorMessage(message);
+                control.finish(() -> updateSheetStatus(jobId, sheetName, "FAILED", message));
+                return result;
+            }
             
             // Phase 2: Validate
-            updateSheetStatus(jobId, sheetName, "VALIDATING");
+            if (!control.runIfActive(() -> updateSheetStatus(jobId, sheetName, "VALIDATING"))) {
+                return result;
+            }
             long startValidation = System.currentTimeMillis();
             
             ValidationResult validationResult = validationService.validateSheet(jobId, sheetConfig);
@@ -240,7 +283,10 @@ public class MultiSheetProcessor {
             
             // Phase 3: Insert (if has valid rows)
             if (validationResult.getValidRows() > 0) {
-                updateSheetStatus(jobId, sheetName, "INSERTING");
+                // Abandoned during validation (timeout): do not insert into master tables
+                if (!control.runIfActive(() -> updateSheetStatus(jobId, sheetName, "INSERTING"))) {
+                    return result;
+                }
                 long startInsertion = System.currentTimeMillis();
                 
                 InsertResult insertResult = insertService.insertSheet(jobId, sheetConfig);
@@ -252,8 +298,11 @@ public class MultiSheetProcessor {
             }
             
             // Mark as success
+            if (!control.finish(() -> updateSheetStatus(jobId, sheetName, "COMPLETED"))) {
+                log.warn("Sheet '{}' finished after it was abandoned, COMPLETED not recorded", sheetName);
+                return result;
+            }
             result.setSuccess(true);
-            updateSheetStatus(jobId, sheetName, "COMPLETED");
             
             log.info("Sheet '{}' completed successfully via ExcelFacade. Total time: {}ms",
                      sheetName, result.getTotalTimeMs());
@@ -262,7 +311,7 @@ public class MultiSheetProcessor {
             log.error("Error processing sheet '{}' with ExcelFacade: {}", sheetName, e.getMessage(), e);
             result.setSuccess(false);
             result.setErrorMessage(e.getMessage());
-            updateSheetStatus(jobId, sheetName, "FAILED", e.getMessage());
+            control.finish(() -> updateSheetStatus(jobId, sheetName, "FAILED", e.getMessage()));
         }
         
         return result;
@@ -296,65 +345,60 @@ public class MultiSheetProcessor {
     }
     
     /**
-     * ✅ NEW: Build sheet processors for batch ingestion
-     * Each processor receives DTO batches and inserts into staging table
-     * 
-     * NOTE: Currently, ingestion happens via ExcelFacade.readMultiSheet() which processes
-     * batches directly. The processors here are called during the read phase.
-     * 
-     * For now, we use a no-op processor since actual DB insertion happens in post-ingest phase.
-     * Future: Implement actual DTO-to-DB conversion here for real-time ingestion.
+     * ✅ Build sheet processors for batch ingestion
+     * Each processor receives DTO batches during ExcelFacade.readMultiSheet() and inserts them into the
+     * sheet's staging_raw table right away, so parsing and staging inserts overlap (no separate ingest pass)
      */
-    private Map<String, Consumer<List<?>>> buildSheetProcessors(String jobId, 
-                                                                 List<SheetMigrationConfig.SheetConfig> sheets) {
-        Map<String, Consumer<List<?>>> sheetProcessors = new HashMap<>();
+    private Map<String, StagingRawBatchWriter> buildSheetProcessors(String jobId,
+                                                                    List<SheetMigrationConfig.SheetConfig> sheets,
+                                                                    Map<String, Class<?>> sheetClassMap) {
+        Map<String, StagingRawBatchWriter> sheetProcessors = new HashMap<>();
         
         for (SheetMigrationConfig.SheetConfig sheet : sheets) {
-            String sheetName = sheet.getName();
-            
-            // Create batch processor that receives DTO batches during ExcelFacade read
-            // For now, we just log - actual DB insertion happens in post-ingest phase
-            // This allows ExcelFacade to process all sheets with their respective DTOs
-            Consumer<List<?>> processor = batch -> {
-                try {
-                    log.debug("ExcelFacade processing batch of {} DTOs for sheet: {}", batch.size(), sheetName);
-                    
-                    // TODO: Future enhancement - Convert DTOs to DB rows and insert here
-                    // This would enable real-time ingestion during Excel read
-                    // For now, data is already in staging_raw tables from previous approach
-                    // or will be inserted in post-ingest phase
-                    
-                } catch (Exception e) {
-                    log.error("Error processing batch for sheet '{}': {}", sheetName, e.getMessage(), e);
-                    // Don't throw - let ExcelFacade continue processing other batches
-                }
-            };
-            
-            sheetProcessors.put(sheetName, processor);
+            Class<?> dtoClass = sheetClassMap.get(sheet.getName());
+            if (dtoClass == null) {
+                continue; // Sheet without DTO is not read
+            }
+            sheetProcessors.put(sheet.getName(), new StagingRawBatchWriter(jdbcTemplate, jobId, sheet, dtoClass));
         }
         
         return sheetProcessors;
     }
 
     /**
-     * Extract sheet names from Excel bytes using OPCPackage (SAX). Used to decide which configured sheets exist.
+     * Read all sheets with their staging writers; sheets go to INGESTING before the read starts
      */
-    private List<String> getSheetNamesFromBytes(byte[] fileBytes) {
-        List<String> found = new ArrayList<>();
-        try (java.io.ByteArrayInputStream in = new java.io.ByteArrayInputStream(fileBytes)) {
-            org.apache.poi.openxml4j.opc.OPCPackage pkg = org.apache.poi.openxml4j.opc.OPCPackage.open(in);
-            org.apache.poi.xssf.eventusermodel.XSSFReader reader = new org.apache.poi.xssf.eventusermodel.XSSFReader(pkg);
-            org.apache.poi.xssf.eventusermodel.XSSFReader.SheetIterator iterator =
-                    (org.apache.poi.xssf.eventusermodel.XSSFReader.SheetIterator) reader.getSheetsData();
-            while (iterator.hasNext()) {
-                iterator.next();
-                found.add(iterator.getSheetName());
-            }
-            pkg.close();
+    private Map<String, TrueStreamingSAXProcessor.ProcessingResult> readIntoStaging(
+            String jobId,
+            WorkbookSession session,
+            List<SheetMigrationConfig.SheetConfig> sheetsToProcess,
+            Map<String, Class<?>> sheetClassMap,
+            Map<String, StagingRawBatchWriter> stagingWriters,
+            ExcelConfig excelConfig) throws Exception {
+        for (SheetMigrationConfig.SheetConfig sheetConfig : sheetsToProcess) {
+            updateSheetStatus(jobId, sheetConfig.getName(), "INGESTING");
+        }
+        
+        Map<String, TrueStreamingSAXProcessor.ProcessingResult> readResults =
+                excelFacade.readMultiSheet(session, sheetClassMap, new HashMap<String, Consumer<List<?>>>(stagingWriters), excelConfig);
+        
+        for (StagingRawBatchWriter writer : stagingWriters.values()) {
+            log.info("Sheet '{}' staged: {} rows written, {} failed, {}ms in batch inserts",
+                    writer.getSheetName(), writer.getWrittenRows(), writer.getFailedRows(), writer.getInsertTimeMs());
+        }
+        return readResults;
+    }
+
+    /**
+     * Sheet names present in the workbook (cached by the session). Used to decide which configured sheets exist.
+     */
+    private List<String> getSheetNames(WorkbookSession session) {
+        try {
+            return session.getSheetNames();
         } catch (Exception e) {
-            log.warn("Unable to read sheet names from bytes: {}", e.getMessage(), e);
+            log.warn("Unable to read sheet names from workbook: {}", e.getMessage(), e);
+            return new ArrayList<>();
         }
-        return found;
     }
 
     /**
@@ -390,71 +434,52 @@ public class MultiSheetProcessor {
 
     /**
      * ✅ Process sheets using ExcelFacade with sequential processing
-     * Strategy: Read all sheets once with ExcelFacade, then process results sequentially
+     * Strategy: Read all sheets once with ExcelFacade, then process results one by one in dependency order
+     * (prerequisites first, ties by configured order)
      * 
      * @param jobId Job identifier
-     * @param fileBytes Excel file content in memory
+     * @param session Workbook session of the upload
      * @param sheetsToProcess List of sheet configs to process
-     * @return List of processing results
+     * @param scheduler Dependency graph of the sheets
+     * @return Aggregated result with critical path
      */
-    private List<SheetProcessResult> processWithExcelFacadeSequential(String jobId,
-                                                                       byte[] fileBytes,
-                                                                       List<SheetMigrationConfig.SheetConfig> sheetsToProcess) {
-        log.info("Processing {} sheets sequentially using ExcelFacade", sheetsToProcess.size());
+    private MultiSheetProcessResult processWithExcelFacadeSequential(String jobId,
+                                                                     WorkbookSession session,
+                                                                     List<SheetMigrationConfig.SheetConfig> sheetsToProcess,
+                                                                     SheetDependencyScheduler scheduler) {
+        log.info("Processing {} sheets sequentially using ExcelFacade, dependency order: {}",
+                sheetsToProcess.size(), scheduler.getTopologicalOrder());
         
         try {
             // Build sheet-to-DTO mapping from config
             Map<String, Class<?>> sheetClassMap = buildSheetClassMap(sheetsToProcess);
-            Map<String, Consumer<List<?>>> sheetProcessors = buildSheetProcessors(jobId, sheetsToProcess);
+            Map<String, StagingRawBatchWriter> stagingWriters = buildSheetProcessors(jobId, sheetsToProcess, sheetClassMap);
             
             // Create ExcelConfig for multi-sheet processing
             ExcelConfig excelConfig = ExcelConfig.builder()
                     .batchSize(sheetsToProcess.isEmpty() ? 5000 : sheetsToProcess.get(0).getBatchSize())
+                    .adaptiveBatchSizing(true) // Starting size only: each sheet adapts to its own consumer
                     .readAllSheets(true)
                     .jobId(jobId)
+                    .jobPriority(config.getGlobal().getJobPriority())
+                    .workScheduler(workScheduler)
                     .parallelProcessing(false)
                     .build();
             
-            // Phase 1: Read all sheets once using ExcelFacade (shared file read)
-            Map<String, TrueStreamingSAXProcessor.ProcessingResult> readResults;
-            try (InputStream inputStream = new java.io.ByteArrayInputStream(fileBytes)) {
-                readResults = excelFacade.readMultiSheet(inputStream, sheetClassMap, sheetProcessors, excelConfig);
-            }
+            // Phase 1: Read all sheets once using ExcelFacade, batches go straight into staging_raw
+            long readStart = System.currentTimeMillis();
+            Map<String, TrueStreamingSAXProcessor.ProcessingResult> readResults =
+                    readIntoStaging(jobId, session, sheetsToProcess, sheetClassMap, stagingWriters, excelConfig);
+            long readTimeMs = System.currentTimeMillis() - readStart;
             
             log.info("ExcelFacade read completed for {} sheets", readResults.size());
             
-            // Phase 2: Process validation and insertion sequentially
-            List<SheetProcessResult> results = new ArrayList<>();
+            // Phase 2: Validation and insertion on this thread (direct executor), in dependency order
+            SheetDependencyScheduler.Schedule schedule = scheduler.run(
+                    postIngestTask(jobId, readResults, stagingWriters), Runnable::run, 0,
+                    config.getGlobal().isContinueOnSheetFailure());
             
-            for (SheetMigrationConfig.SheetConfig sheetConfig : sheetsToProcess) {
-                String sheetName = sheetConfig.getName();
-                TrueStreamingSAXProcessor.ProcessingResult readResult = readResults.get(sheetName);
-                
-                if (readResult == null) {
-                    log.warn("No read result for sheet: {}", sheetName);
-                    results.add(SheetProcessResult.error(sheetName, "No read result from ExcelFacade"));
-                    continue;
-                }
-                
-                try {
-                    SheetProcessResult result = processSheetPostIngest(jobId, sheetConfig, readResult);
-                results.add(result);
-
-                if (!result.isSuccess() && !config.getGlobal().isContinueOnSheetFailure()) {
-                        log.warn("Stopping sheet processing due to failure in sheet: {}", sheetName);
-                    break;
-                }
-            } catch (Exception e) {
-                    log.error("Error processing sheet: {}", sheetName, e);
-                    results.add(SheetProcessResult.error(sheetName, e.getMessage()));
-
-                if (!config.getGlobal().isContinueOnSheetFailure()) {
-                    break;
-                }
-            }
-        }
-
-        return results;
+            return aggregateResults(jobId, schedule, readTimeMs);
 
         } catch (Exception e) {
             log.error("Error in ExcelFacade sequential processing", e);
@@ -555,9 +580,11 @@ public class MultiSheetProcessor {
     }
 
     /**
-     * Aggregate results from all sheets
+     * Aggregate results from all sheets; critical path = shared read + the chain of sheets that finished last
      */
-    private MultiSheetProcessResult aggregateResults(String jobId, List<SheetProcessResult> results) {
+    private MultiSheetProcessResult aggregateResults(String jobId, SheetDependencyScheduler.Schedule schedule,
+                                                     long readTimeMs) {
+        List<SheetProcessResult> results = schedule.getResults();
         long totalSheets = results.size();
         long successSheets = results.stream().filter(SheetProcessResult::isSuccess).count();
         long failedSheets = totalSheets - successSheets;
@@ -567,6 +594,9 @@ public class MultiSheetProcessor {
         long totalErrors = results.stream().mapToLong(SheetProcessResult::getErrorRows).sum();
         long totalInserted = results.stream().mapToLong(SheetProcessResult::getInsertedRows).sum();
 
+        log.info("Job {} critical path: read {}ms → {} = {}ms", jobId, readTimeMs,
+                schedule.getCriticalPath(), readTimeMs + schedule.getCriticalPathMs());
+
         return MultiSheetProcessResult.builder()
                 .jobId(jobId)
                 .totalSheets((int) totalSheets)
@@ -577,69 +607,12 @@ public class MultiSheetProcessor {
                 .totalErrorRows(totalErrors)
                 .totalInsertedRows(totalInserted)
                 .sheetResults(results)
+                .readTimeMs(readTimeMs)
+                .criticalPath(schedule.getCriticalPath())
+                .criticalPathMs(readTimeMs + schedule.getCriticalPathMs())
                 .build();
     }
 
-    /**
-     * Gracefully shutdown executor with timeout
-     * Used by processWithExcelFacadeParallel() to prevent memory leak
-     */
-    private void shutdownExecutor(ExecutorService executor) {
-        if (executor == null || executor.isShutdown()) {
-            return;
-        }
-
-        log.info("Shutting down executor gracefully...");
-        executor.shutdown();
-
-        try {
-            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
-                log.warn("Executor did not terminate within 60s, forcing shutdown...");
-                List<Runnable> droppedTasks = executor.shutdownNow();
-                log.warn("Dropped {} tasks during forced shutdown", droppedTasks.size());
-            } else {
-                log.info("Executor shutdown completed successfully");
-            }
-        } catch (InterruptedException e) {
-            log.error("Shutdown interrupted, forcing immediate shutdown", e);
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-    }
-
-    /**
-     * Graceful shutdown of ExecutorService
-     * Waits up to 5 minutes for running tasks to complete
-     */
-    @PreDestroy
-    public void shutdown() {
-        if (currentExecutor == null || currentExecutor.isShutdown()) {
-            return;
-        }
-
-        log.info("Shutting down MultiSheetProcessor gracefully...");
-
-        currentExecutor.shutdown();
-
-        try {
-            if (!currentExecutor.awaitTermination(5, TimeUnit.MINUTES)) {
-                log.warn("Tasks did not complete within 5 minutes, forcing shutdown...");
-                List<Runnable> droppedTasks = currentExecutor.shutdownNow();
-                log.warn("Dropped {} tasks during forced shutdown", droppedTasks.size());
-
-                // TODO: Mark dropped tasks as failed in database
-                // This would require extracting jobId and sheetName from the tasks
-                // For now, log warning - manual intervention may be needed
-            } else {
-                log.info("MultiSheetProcessor shutdown completed successfully");
-            }
-        } catch (InterruptedException e) {
-            log.error("Shutdown interrupted, forcing immediate shutdown", e);
-            currentExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-    }
-
     // =====================================================
     // Inner Classes for Results
     // =====================================================
@@ -656,6 +629,8 @@ public class MultiSheetProcessor {
         private Long ingestTimeMs;
         private Long validationTimeMs;
         private Long insertTimeMs;
+        private Integer finalBatchSize; // Ingest batch size chosen by adaptive sizing
+        private Long waitTimeMs; // Ready (prerequisites done) → started, i.e. waiting for a worker
         private String errorMessage;
 
         public long getTotalTimeMs() {
@@ -714,6 +689,9 @@ public class MultiSheetProcessor {
         private long totalErrorRows;
         private long totalInsertedRows;
         private List<SheetProcessResult> sheetResults;
+        private long readTimeMs; // Shared read of all sheets (parse + staging insert)
+        private List<String> criticalPath; // Sheets that determined the job's end time, prerequisites first
+        private long criticalPathMs; // Read + post-ingest until the last sheet finished
 
         public boolean isAllSuccess() {
             return failedSheets == 0;
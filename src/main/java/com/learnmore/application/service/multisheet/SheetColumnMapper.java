@@ -3,9 +3,12 @@ package com.learnmore.application.service.multisheet;
 import com.learnmore.application.utils.converter.TypeConverter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -119,6 +122,44 @@ public class SheetColumnMapper {
         HEADER_TO_COLUMN_MAP.put("HSBG_theo_tap", tapMap);
     }
 
+    /**
+     * Excel header → staging_raw column of a sheet, or null for an unknown sheet
+     */
+    public static Map<String, String> headerToColumnMap(String sheetName) {
+        Map<String, String> headerToColumn = HEADER_TO_COLUMN_MAP.get(sheetName);
+        return headerToColumn != null ? Collections.unmodifiableMap(headerToColumn) : null;
+    }
+
+    /**
+     * Staging value of an already converted DTO field: same text normalizeValue() produces from the raw cell
+     * (dates yyyy-MM-dd / yyyy-MM, numbers without separators, trimmed strings, blank → null)
+     */
+    public static String toStagingValue(String dbColumn, Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof LocalDate date) {
+            return date.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+        if (value instanceof YearMonth yearMonth) {
+            return yearMonth.format(DateTimeFormatter.ofPattern("yyyy-MM"));
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros().toPlainString();
+        }
+        String text = value.toString().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        if (dbColumn.contains("so_luong") || dbColumn.contains("thoi_han")) {
+            return text.replaceAll("[,\\s]", "");
+        }
+        return text;
+    }
+
     private final String sheetName;
     private final Map<String, Integer> headerIndexMap; // Excel header -> column index
     private final List<String> dbColumnOrder; // Ordered list of DB columns for INSERT
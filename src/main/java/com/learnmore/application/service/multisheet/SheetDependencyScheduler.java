@@ -0,0 +1,349 @@
+package com.learnmore.application.service.multisheet;
+
+import com.learnmore.application.config.SheetMigrationConfig;
+import com.learnmore.application.service.multisheet.MultiSheetProcessor.SheetProcessResult;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chạy phase validate + insert của các sheet theo đồ thị phụ thuộc (SheetConfig.dependsOn)
+ *
+ * - Sheet không phụ thuộc nhau chạy song song trên executor được truyền vào
+ * - Sheet phụ thuộc bắt đầu ngay khi mọi sheet tiên quyết hoàn tất (không chờ theo order)
+ * - Sheet tiên quyết lỗi → sheet phụ thuộc bị bỏ qua (không insert dữ liệu tham chiếu thiếu)
+ * - Phụ thuộc vào sheet không có trong job (tắt hoặc không có trong file) được bỏ qua
+ * - Vòng phụ thuộc → IllegalArgumentException khi tạo scheduler, trước khi đọc file
+ *
+ * Mỗi sheet được đo thời gian chờ và chạy, từ đó tính critical path của job
+ * (chuỗi sheet quyết định thời gian hoàn thành).
+ *
+ * Timeout tính từ lúc task bắt đầu chạy (không tính thời gian chờ worker). Hết giờ thì sheet bị
+ * abandon và thread của task bị interrupt; task ghi status qua SheetRunControl nên kết thúc muộn
+ * không ghi đè được trạng thái FAILED.
+ */
+@Slf4j
+public class SheetDependencyScheduler {
+
+    /**
+     * Work done for one sheet once its prerequisites completed
+     */
+    public interface SheetTask {
+
+        /**
+         * @param control Status writes of the sheet go through control so they cannot race an abandon
+         */
+        SheetProcessResult run(SheetMigrationConfig.SheetConfig sheet, SheetRunControl control);
+
+        /**
+         * Sheet not run (failed prerequisite, earlier failure, timeout): record why and return its result
+         */
+        SheetProcessResult abandon(SheetMigrationConfig.SheetConfig sheet, String reason);
+    }
+
+    private final Map<String, SheetMigrationConfig.SheetConfig> sheets = new LinkedHashMap<>();
+    private final Map<String, List<String>> prerequisites = new HashMap<>();
+    private final List<String> topologicalOrder;
+
+    public SheetDependencyScheduler(List<SheetMigrationConfig.SheetConfig> sheetsToProcess) {
+        for (SheetMigrationConfig.SheetConfig sheet : sheetsToProcess) {
+            sheets.put(sheet.getName(), sheet);
+        }
+        for (SheetMigrationConfig.SheetConfig sheet : sheetsToProcess) {
+            List<String> present = new ArrayList<>();
+            for (String dependency : sheet.getDependsOn()) {
+                if (dependency.equals(sheet.getName())) {
+                    throw new IllegalArgumentException("Sheet '" + sheet.getName() + "' depends on itself");
+                }
+                if (!sheets.containsKey(dependency)) {
+                    log.info("Sheet '{}' depends on '{}', which is not part of this job - ignored",
+                            sheet.getName(), dependency);
+                } else if (!present.contains(dependency)) {
+                    present.add(dependency);
+                }
+            }
+            prerequisites.put(sheet.getName(), present);
+        }
+        this.topologicalOrder = sortTopologically();
+    }
+
+    /**
+     * Arbitrates between a running sheet task and the scheduler giving up on it (timeout)
+     *
+     * Either the task finishes first and the timeout no longer applies, or the sheet is abandoned
+     * first: the task thread is interrupted and its later status writes are dropped.
+     */
+    public static final class SheetRunControl {
+        private Thread runner;
+        private boolean finished;
+        private boolean abandoned;
+
+        public synchronized boolean isAbandoned() {
+            return abandoned;
+        }
+
+        /**
+         * Run an intermediate status write unless the sheet was abandoned
+         */
+        public synchronized boolean runIfActive(Runnable statusUpdate) {
+            if (abandoned) {
+                return false;
+            }
+            statusUpdate.run();
+            return true;
+        }
+
+        /**
+         * Run the final status write unless the sheet was abandoned; the timeout no longer applies after it
+         */
+        public synchronized boolean finish(Runnable statusUpdate) {
+            if (abandoned) {
+                return false;
+            }
+            finished = true;
+            statusUpdate.run();
+            return true;
+        }
+
+        synchronized void attach(Thread thread) {
+            this.runner = thread;
+        }
+
+        /**
+         * Task returned: true if its result stands, false if the sheet was abandoned meanwhile
+         */
+        synchronized boolean close() {
+            runner = null;
+            if (abandoned) {
+                return false;
+            }
+            finished = true;
+            return true;
+        }
+
+        /**
+         * Give up on the sheet unless it already finished; interrupts the task thread
+         */
+        synchronized boolean abandon() {
+            if (finished || abandoned) {
+                return false;
+            }
+            abandoned = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Sheet names in execution order: prerequisites first, ties keep the configured order
+     */
+    public List<String> getTopologicalOrder() {
+        return topologicalOrder;
+    }
+
+    /**
+     * Run every sheet once its prerequisites are done and wait for the whole graph
+     *
+     * @param task Work per sheet
+     * @param executor Executor for sheet tasks (a direct executor runs the graph serially in topological order)
+     * @param sheetTimeoutMs Max time per sheet from the moment it is ready, 0 = no limit
+     * @param continueOnSheetFailure false = sheets not started yet are abandoned after the first failure
+     */
+    public Schedule run(SheetTask task, Executor executor, long sheetTimeoutMs, boolean continueOnSheetFailure) {
+        long origin = System.nanoTime();
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        Map<String, CompletableFuture<SheetRun>> runs = new HashMap<>();
+
+        for (String name : topologicalOrder) {
+            SheetMigrationConfig.SheetConfig sheet = sheets.get(name);
+            List<CompletableFuture<SheetRun>> before = prerequisites.get(name).stream().map(runs::get).toList();
+            CompletableFuture<SheetRun> run = CompletableFuture.allOf(before.toArray(new CompletableFuture[0]))
+                    .thenCompose(ignored -> start(sheet, before, task, executor, sheetTimeoutMs,
+                            continueOnSheetFailure, stopped, origin));
+            runs.put(name, run);
+        }
+        CompletableFuture.allOf(runs.values().toArray(new CompletableFuture[0])).join();
+
+        List<SheetRun> finished = sheets.keySet().stream().map(name -> runs.get(name).join()).toList();
+        return Schedule.of(finished);
+    }
+
+    private CompletableFuture<SheetRun> start(SheetMigrationConfig.SheetConfig sheet,
+                                              List<CompletableFuture<SheetRun>> before,
+                                              SheetTask task,
+                                              Executor executor,
+                                              long sheetTimeoutMs,
+                                              boolean continueOnSheetFailure,
+                                              AtomicBoolean stopped,
+                                              long origin) {
+        long readyMs = elapsedMs(origin);
+        List<SheetRun> prerequisiteRuns = before.stream().map(CompletableFuture::join).toList();
+        String gatedBy = prerequisiteRuns.stream()
+                .max(Comparator.comparingLong(SheetRun::endMs))
+                .map(SheetRun::name)
+                .orElse(null);
+
+        String failedPrerequisite = prerequisiteRuns.stream()
+                .filter(run -> !run.result().isSuccess())
+                .map(SheetRun::name)
+                .findFirst()
+                .orElse(null);
+        if (failedPrerequisite != null) {
+            return CompletableFuture.completedFuture(abandoned(sheet, task, readyMs, gatedBy, origin,
+                    "Skipped: prerequisite sheet '" + failedPrerequisite + "' failed"));
+        }
+        if (stopped.get()) {
+            return CompletableFuture.completedFuture(abandoned(sheet, task, readyMs, gatedBy, origin,
+                    "Skipped: stopped after an earlier sheet failed"));
+        }
+
+        CompletableFuture<SheetRun> running = new CompletableFuture<>();
+        try {
+            executor.execute(() -> runSheet(sheet, task, sheetTimeoutMs, running, readyMs, gatedBy, origin));
+        } catch (RuntimeException e) {
+            running.completeExceptionally(e);
+        }
+        return running
+                .exceptionally(failure -> {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    String reason = cause instanceof TimeoutException
+                            ? "Timeout after " + sheetTimeoutMs + "ms"
+                            : "Sheet task failed: " + cause.getMessage();
+                    log.error("Sheet '{}': {}", sheet.getName(), reason, cause);
+                    return abandoned(sheet, task, readyMs, gatedBy, origin, reason);
+                })
+                .thenApply(run -> {
+                    if (!run.result().isSuccess() && !continueOnSheetFailure) {
+                        stopped.set(true);
+                    }
+                    return run;
+                });
+    }
+
+    /**
+     * Worker side: the timeout starts with the task, not when it was queued for a worker
+     */
+    private static void runSheet(SheetMigrationConfig.SheetConfig sheet,
+                                 SheetTask task,
+                                 long sheetTimeoutMs,
+                                 CompletableFuture<SheetRun> running,
+                                 long readyMs,
+                                 String gatedBy,
+                                 long origin) {
+        long startMs = elapsedMs(origin);
+        SheetRunControl control = new SheetRunControl();
+        control.attach(Thread.currentThread());
+        CompletableFuture<Void> deadline = new CompletableFuture<>();
+        if (sheetTimeoutMs > 0) {
+            deadline.orTimeout(sheetTimeoutMs, TimeUnit.MILLISECONDS).whenCompleteAsync((ignored, failure) -> {
+                if (failure instanceof TimeoutException && control.abandon()) {
+                    running.completeExceptionally(failure);
+                }
+            });
+        }
+        try {
+            SheetProcessResult result = task.run(sheet, control);
+            if (control.close()) {
+                result.setWaitTimeMs(startMs - readyMs);
+                running.complete(new SheetRun(sheet.getName(), result, readyMs, startMs, elapsedMs(origin), gatedBy));
+            }
+        } catch (Throwable t) {
+            if (control.close()) {
+                running.completeExceptionally(t);
+            }
+        } finally {
+            deadline.complete(null);
+            // An abandon interrupts under the control's lock, so after close() no interrupt can arrive:
+            // clear it before the worker thread goes back to the pool
+            Thread.interrupted();
+        }
+    }
+
+    private static SheetRun abandoned(SheetMigrationConfig.SheetConfig sheet, SheetTask task, long readyMs,
+                                      String gatedBy, long origin, String reason) {
+        log.warn("Sheet '{}' not completed: {}", sheet.getName(), reason);
+        SheetProcessResult result;
+        try {
+            result = task.abandon(sheet, reason);
+        } catch (RuntimeException e) {
+            // Recording the failure must not fail the whole schedule (other sheets' results would be lost)
+            log.error("Sheet '{}': could not record abandon ({}): {}", sheet.getName(), reason, e.getMessage(), e);
+            result = SheetProcessResult.error(sheet.getName(), reason);
+        }
+        long endMs = elapsedMs(origin);
+        return new SheetRun(sheet.getName(), result, readyMs, endMs, endMs, gatedBy);
+    }
+
+    /**
+     * Kahn's algorithm, always taking the first ready sheet in configured order
+     */
+    private List<String> sortTopologically() {
+        List<String> ordered = new ArrayList<>();
+        List<String> remaining = new ArrayList<>(sheets.keySet());
+        while (!remaining.isEmpty()) {
+            String next = remaining.stream()
+                    .filter(name -> ordered.containsAll(prerequisites.get(name)))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Sheet dependency cycle among: " + remaining));
+            ordered.add(next);
+            remaining.remove(next);
+        }
+        return Collections.unmodifiableList(ordered);
+    }
+
+    private static long elapsedMs(long origin) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+    }
+
+    /**
+     * Timing of one sheet, relative to the start of the schedule
+     */
+    record SheetRun(String name, SheetProcessResult result, long readyMs, long startMs, long endMs, String gatedBy) {
+    }
+
+    /**
+     * Results in configured sheet order plus the critical path: the chain of sheets, each gated by the
+     * prerequisite that finished last, ending with the sheet that finished last
+     */
+    @Getter
+    public static class Schedule {
+        private final List<SheetProcessResult> results;
+        private final List<String> criticalPath;
+        private final long criticalPathMs;
+
+        private Schedule(List<SheetProcessResult> results, List<String> criticalPath, long criticalPathMs) {
+            this.results = results;
+            this.criticalPath = criticalPath;
+            this.criticalPathMs = criticalPathMs;
+        }
+
+        static Schedule of(List<SheetRun> runs) {
+            Map<String, SheetRun> byName = new HashMap<>();
+            runs.forEach(run -> byName.put(run.name(), run));
+
+            SheetRun last = runs.stream().max(Comparator.comparingLong(SheetRun::endMs)).orElse(null);
+            List<String> path = new ArrayList<>();
+            for (SheetRun run = last; run != null; run = run.gatedBy() != null ? byName.get(run.gatedBy()) : null) {
+                path.add(0, run.name());
+            }
+            List<SheetProcessResult> results = runs.stream().map(SheetRun::result).toList();
+            return new Schedule(results, Collections.unmodifiableList(path), last != null ? last.endMs() : 0);
+        }
+    }
+}
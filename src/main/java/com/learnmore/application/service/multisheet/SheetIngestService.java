@@ -1,9 +1,14 @@
 package com.learnmore.application.service.multisheet;
 
 import com.learnmore.application.config.SheetMigrationConfig;
+import com.learnmore.application.utils.config.ExcelConfig;
+import com.learnmore.application.utils.sax.FastSheetTokenizer;
+import com.learnmore.application.utils.sax.RawCellFormatter;
+import com.learnmore.application.utils.sax.SheetContentsHandlerAdapter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.util.XMLHelper;
 import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
@@ -22,7 +27,11 @@ import java.util.List;
 /**
  * Service to ingest Excel sheet data into staging_raw tables
  * Uses ExcelFacade with SAX streaming for high performance
+ *
+ * @deprecated MultiSheetProcessor writes staging_raw during the read with {@link StagingRawBatchWriter};
+ * this separate ingest pass re-reads the sheet and is no longer called
  */
+@Deprecated
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -85,9 +94,16 @@ public class SheetIngestService {
                 // Create SAX handler to process rows
                 IngestHandler handler = new IngestHandler(jobId, stagingTable, sheetConfig, jdbcTemplate, batchSize);
                 
-                XMLReader parser = XMLHelper.newXMLReader();
-                parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, handler, false));
-                parser.parse(new InputSource(finalSheetStream));
+                if (sheetConfig.getParseEngine() == ExcelConfig.ParseEngine.FAST) {
+                    // Positional handler: no cell reference strings needed
+                    RawCellFormatter formatter = new RawCellFormatter(styles, strings, new DataFormatter());
+                    new FastSheetTokenizer().parse(finalSheetStream,
+                            new SheetContentsHandlerAdapter(handler, formatter, false));
+                } else {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, handler, false));
+                    parser.parse(new InputSource(finalSheetStream));
+                }
 
                 ingestedRows = handler.getRowCount();
                 handler.flush(); // Flush remaining batch
@@ -3,15 +3,20 @@ package com.learnmore.application.service.multisheet;
 import com.learnmore.application.config.SheetMigrationConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 /**
@@ -40,16 +45,8 @@ public class SheetValidationService {
     
     // Batch processing configuration
     private static final int VALIDATION_BATCH_SIZE = 20000; // Process 20k rows per batch
-    private static final long STEP_TIMEOUT_SECONDS = 300; // 5 minutes per step
-    private static final long TOTAL_TIMEOUT_SECONDS = 1800; // 30 minutes total
-    
-    // ExecutorService for timeout handling
-    private final ExecutorService timeoutExecutor = Executors.newCachedThreadPool(r -> {
-        Thread thread = new Thread(r);
-        thread.setDaemon(true);
-        thread.setName("validation-timeout-handler");
-        return thread;
-    });
+    private static final long STEP_TIMEOUT_SECONDS = 300; // 5 minutes per step (statements cancelled past it)
+    private static final long TOTAL_TIMEOUT_SECONDS = 1800; // 30 minutes total (transaction timeout)
 
     /**
      * Validate a sheet's data with optimized LEFT JOIN queries
@@ -261,6 +258,11 @@ public class SheetValidationService {
 
     /**
      * Execute validation step with timeout and performance monitoring
+     *
+     * The step runs on the calling thread (a shared migration worker), inside the validateSheet transaction.
+     * For the step the transaction deadline is narrowed to STEP_TIMEOUT_SECONDS: each statement gets the
+     * remaining step time as JDBC query timeout, so a runaway step is cancelled by the database instead of
+     * being abandoned on a helper thread, and the whole validation still ends within TOTAL_TIMEOUT_SECONDS.
      */
     private <T extends Number> T executeWithTimeoutAndMonitoring(
             String stepName,
@@ -272,18 +274,10 @@ public class SheetValidationService {
         long stepStartTime = System.currentTimeMillis();
         log.info("🔄 [{}] Starting step: {}", sheetName, stepName);
 
-        Future<T> future = timeoutExecutor.submit(() -> {
-            try {
-                return validationStep.get();
-            } catch (Exception e) {
-                log.error("Error in step '{}': {}", stepName, e.getMessage(), e);
-                throw e;
-            }
-        });
-
+        ResourceHolderSupport connection = currentConnectionHolder();
+        Date transactionDeadline = limitStep(connection, STEP_TIMEOUT_SECONDS * 1000);
         try {
-            // Wait for completion with timeout
-            T result = future.get(STEP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            T result = validationStep.get();
             
             long stepDuration = System.currentTimeMillis() - stepStartTime;
             
@@ -297,7 +291,10 @@ public class SheetValidationService {
             stepMetrics.add(metrics);
             
             // Log step completion
-            if (stepDuration > 10000) { // > 10 seconds
+            if (stepDuration > STEP_TIMEOUT_SECONDS * 1000) {
+                log.warn("⏱️ [{}] Step '{}' took {}ms, over its budget of {}s", 
+                         sheetName, stepName, stepDuration, STEP_TIMEOUT_SECONDS);
+            } else if (stepDuration > 10000) { // > 10 seconds
                 log.warn("⚠️ [{}] Step '{}' took {}ms (slow!)", sheetName, stepName, stepDuration);
             } else {
                 log.info("✅ [{}] Step '{}' completed in {}ms, processed {} rows", 
@@ -306,8 +303,7 @@ public class SheetValidationService {
             
             return result;
             
-        } catch (TimeoutException e) {
-            future.cancel(true); // Cancel the running task
+        } catch (QueryTimeoutException | TransactionTimedOutException e) {
             long stepDuration = System.currentTimeMillis() - stepStartTime;
             
             // Record timeout metrics
@@ -316,20 +312,17 @@ public class SheetValidationService {
                     .durationMs(stepDuration)
                     .rowsProcessed(0L)
                     .success(false)
-                    .errorMessage("Timeout after " + STEP_TIMEOUT_SECONDS + " seconds")
+                    .errorMessage("Timeout after " + stepDuration + "ms")
                     .build();
             stepMetrics.add(metrics);
             
-            log.error("⏱️ TIMEOUT: [{}] Step '{}' exceeded timeout of {}s", 
-                     sheetName, stepName, STEP_TIMEOUT_SECONDS);
-            throw new TimeoutException("Step '" + stepName + "' timed out");
+            log.error("⏱️ TIMEOUT: [{}] Step '{}' cancelled after {}ms (step limit {}s, validation timeout {}s)", 
+                     sheetName, stepName, stepDuration, STEP_TIMEOUT_SECONDS, TOTAL_TIMEOUT_SECONDS);
+            TimeoutException timeout = new TimeoutException("Step '" + stepName + "' timed out");
+            timeout.initCause(e);
+            throw timeout;
             
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("🛑 INTERRUPTED: [{}] Step '{}' was interrupted", sheetName, stepName);
-            throw new RuntimeException("Step interrupted: " + stepName, e);
-            
-        } catch (ExecutionException e) {
+        } catch (RuntimeException e) {
             long stepDuration = System.currentTimeMillis() - stepStartTime;
             
             // Record error metrics
@@ -338,12 +331,48 @@ public class SheetValidationService {
                     .durationMs(stepDuration)
                     .rowsProcessed(0L)
                     .success(false)
-                    .errorMessage(e.getCause().getMessage())
+                    .errorMessage(e.getMessage())
                     .build();
             stepMetrics.add(metrics);
             
-            log.error("❌ ERROR: [{}] Step '{}' failed: {}", sheetName, stepName, e.getCause().getMessage());
-            throw new RuntimeException("Step failed: " + stepName, e.getCause());
+            log.error("❌ ERROR: [{}] Step '{}' failed: {}", sheetName, stepName, e.getMessage());
+            throw new RuntimeException("Step failed: " + stepName, e);
+        } finally {
+            restoreDeadline(connection, transactionDeadline);
+        }
+    }
+
+    /**
+     * Connection holder of the current transaction (carries the deadline used for JDBC query timeouts)
+     */
+    private ResourceHolderSupport currentConnectionHolder() {
+        if (jdbcTemplate.getDataSource() == null) {
+            return null;
+        }
+        Object holder = TransactionSynchronizationManager.getResource(jdbcTemplate.getDataSource());
+        return holder instanceof ResourceHolderSupport support ? support : null;
+    }
+
+    /**
+     * Narrow the transaction deadline to stepTimeoutMs (never extend it): JdbcTemplate gives every statement
+     * the remaining time as query timeout and fails with TransactionTimedOutException once it is spent.
+     *
+     * @return Deadline to restore after the step, null if nothing was changed (no transaction timeout)
+     */
+    static Date limitStep(ResourceHolderSupport holder, long stepTimeoutMs) {
+        if (holder == null || !holder.hasTimeout()) {
+            return null;
+        }
+        Date transactionDeadline = holder.getDeadline();
+        if (transactionDeadline.getTime() > System.currentTimeMillis() + stepTimeoutMs) {
+            holder.setTimeoutInMillis(stepTimeoutMs);
+        }
+        return transactionDeadline;
+    }
+
+    static void restoreDeadline(ResourceHolderSupport holder, Date transactionDeadline) {
+        if (holder != null && transactionDeadline != null) {
+            holder.setTimeoutInMillis(transactionDeadline.getTime() - System.currentTimeMillis());
         }
     }
 
@@ -0,0 +1,245 @@
+package com.learnmore.application.service.multisheet;
+
+import com.learnmore.application.config.SheetMigrationConfig;
+import com.learnmore.application.utils.ExcelColumn;
+import com.learnmore.application.utils.reflection.MethodHandleMapper;
+import com.learnmore.application.utils.sax.UnconvertedCellAware;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Ghi batch DTO của một sheet thẳng vào staging_raw_* (SheetConfig.stagingRawTable) trong lúc parse
+ *
+ * - Cột được resolve một lần: field @ExcelColumn của DTO → cột staging qua SheetColumnMapper,
+ *   theo thứ tự khai báo field; getter là MethodHandle
+ * - Một câu INSERT prepared (job_id, row_num, sheet_name, business_key, cột..., created_at),
+ *   mỗi batch là một JDBC batch - không tạo Object[] trung gian cho từng dòng
+ * - row_num: dòng Excel (1-based) mà SAX reader gán vào field rowNum của DTO; DTO không có rowNum
+ *   thì dùng thứ tự dòng dữ liệu trong sheet (header = 0), batch của một sheet đến tuần tự
+ * - Ô không convert được sang kiểu field (UnconvertedCellAware) được ghi bằng text gốc thay cho NULL,
+ *   để validation trên staging báo sai định dạng thay vì thiếu giá trị
+ * - business_key: DTO.generateBusinessKey() nếu có
+ *
+ * Lỗi insert được ném lại (TrueStreamingSAXProcessor tính cả batch là lỗi) và ghi nhận ở đây để
+ * MultiSheetProcessor đánh FAILED cho sheet thay vì validate trên staging thiếu dòng.
+ */
+@Slf4j
+public class StagingRawBatchWriter implements Consumer<List<?>> {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String jobId;
+    private final String sheetName;
+    private final String stagingTable;
+    private final List<String> columns;
+    private final List<String> fieldNames;
+    private final List<MethodHandle> getters;
+    private final MethodHandle rowNumGetter;
+    private final Method businessKey;
+    private final String insertSql;
+
+    // Batches of one sheet are delivered in order, but read from other threads for reporting
+    private final AtomicLong nextRowNum = new AtomicLong(1);
+    private final AtomicLong writtenRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final AtomicLong insertNanos = new AtomicLong();
+    private final AtomicReference<String> firstFailure = new AtomicReference<>();
+
+    public StagingRawBatchWriter(JdbcTemplate jdbcTemplate,
+                                 String jobId,
+                                 SheetMigrationConfig.SheetConfig sheetConfig,
+                                 Class<?> dtoClass) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobId = jobId;
+        this.sheetName = sheetConfig.getName();
+        this.stagingTable = sheetConfig.getStagingRawTable();
+        if (stagingTable == null || !TABLE_NAME.matcher(stagingTable).matches()) {
+            throw new IllegalArgumentException("Invalid stagingRawTable for sheet " + sheetName + ": " + stagingTable);
+        }
+        Map<String, String> headerToColumn = SheetColumnMapper.headerToColumnMap(sheetName);
+        if (headerToColumn == null) {
+            throw new IllegalArgumentException("No staging column mapping for sheet: " + sheetName);
+        }
+
+        MethodHandleMapper<?> mapper = MethodHandleMapper.of(dtoClass);
+        List<String> resolvedColumns = new ArrayList<>();
+        List<String> resolvedFields = new ArrayList<>();
+        List<MethodHandle> resolvedGetters = new ArrayList<>();
+        Set<String> seen = new LinkedHashSet<>();
+        for (Field field : dtoClass.getDeclaredFields()) {
+            ExcelColumn excelColumn = field.getAnnotation(ExcelColumn.class);
+            if (excelColumn == null) {
+                continue;
+            }
+            String column = headerToColumn.get(excelColumn.name());
+            MethodHandle getter = mapper.getGetterHandle(field.getName());
+            if (column == null || getter == null || !seen.add(column)) {
+                log.debug("Sheet '{}': field {} has no staging column, not written", sheetName, field.getName());
+                continue;
+            }
+            resolvedColumns.add(column);
+            resolvedFields.add(field.getName());
+            resolvedGetters.add(getter);
+        }
+        this.columns = List.copyOf(resolvedColumns);
+        this.fieldNames = List.copyOf(resolvedFields);
+        this.getters = List.copyOf(resolvedGetters);
+        this.rowNumGetter = mapper.getGetterHandle("rowNum");
+        this.businessKey = findBusinessKeyMethod(dtoClass);
+        this.insertSql = buildInsertSql();
+        log.debug("Staging writer for sheet '{}': {}", sheetName, insertSql);
+    }
+
+    @Override
+    public void accept(List<?> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long firstRowNum = nextRowNum.getAndAdd(batch.size());
+        long started = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(insertSql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, batch.get(i), firstRowNum + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+            writtenRows.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            failedRows.addAndGet(batch.size());
+            firstFailure.compareAndSet(null, e.getMessage());
+            log.error("Staging insert failed for sheet '{}' ({} rows from row {}): {}",
+                    sheetName, batch.size(), firstRowNum, e.getMessage());
+            throw e;
+        } finally {
+            insertNanos.addAndGet(System.nanoTime() - started);
+        }
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    public long getWrittenRows() {
+        return writtenRows.get();
+    }
+
+    public long getFailedRows() {
+        return failedRows.get();
+    }
+
+    public String getFirstFailure() {
+        return firstFailure.get();
+    }
+
+    /**
+     * Time spent in JDBC batches (the rest of the ingest time is parsing/binding)
+     */
+    public long getInsertTimeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(insertNanos.get());
+    }
+
+    private void bind(PreparedStatement ps, Object dto, long ordinal) throws SQLException {
+        ps.setString(1, jobId);
+        ps.setInt(2, rowNum(dto, ordinal));
+        ps.setString(3, sheetName);
+        setNullableString(ps, 4, businessKey(dto));
+        UnconvertedCellAware unconverted = dto instanceof UnconvertedCellAware aware ? aware : null;
+        for (int c = 0; c < columns.size(); c++) {
+            Object value;
+            try {
+                value = getters.get(c).invoke(dto);
+            } catch (Throwable t) {
+                throw new SQLException("Cannot read " + columns.get(c) + " of " + dto.getClass().getSimpleName(), t);
+            }
+            if (value == null && unconverted != null) {
+                value = unconverted.getUnconvertedCell(fieldNames.get(c)); // normalized like any text below
+            }
+            setNullableString(ps, 5 + c, SheetColumnMapper.toStagingValue(columns.get(c), value));
+        }
+    }
+
+    /**
+     * Excel row of the DTO, or its ordinal in the sheet when the DTO carries none
+     */
+    private int rowNum(Object dto, long ordinal) throws SQLException {
+        if (rowNumGetter != null) {
+            Object rowNum;
+            try {
+                rowNum = rowNumGetter.invoke(dto);
+            } catch (Throwable t) {
+                throw new SQLException("Cannot read rowNum of " + dto.getClass().getSimpleName(), t);
+            }
+            if (rowNum instanceof Number number && number.intValue() > 0) {
+                return number.intValue();
+            }
+        }
+        return Math.toIntExact(ordinal);
+    }
+
+    private String businessKey(Object dto) throws SQLException {
+        if (businessKey == null) {
+            return null;
+        }
+        try {
+            return (String) businessKey.invoke(dto);
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("Cannot build business key for sheet " + sheetName, e);
+        }
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    private static Method findBusinessKeyMethod(Class<?> dtoClass) {
+        try {
+            Method method = dtoClass.getMethod("generateBusinessKey");
+            return method.getReturnType() == String.class ? method : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Same statement shape as the SAX ingest handler: metadata columns first, then the mapped columns
+     */
+    private String buildInsertSql() {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(stagingTable)
+                .append(" (job_id, row_num, sheet_name, business_key");
+        StringBuilder values = new StringBuilder("(?, ?, ?, ?");
+        for (String column : columns) {
+            sql.append(", ").append(column);
+            values.append(", ?");
+        }
+        return sql.append(", created_at) VALUES ").append(values).append(", CURRENT_TIMESTAMP)").toString();
+    }
+}
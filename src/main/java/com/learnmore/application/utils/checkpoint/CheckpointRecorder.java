@@ -0,0 +1,116 @@
+package com.learnmore.application.utils.checkpoint;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records a resumable checkpoint each time the committed prefix of a sheet grows
+ *
+ * The streaming reader announces every batch in sheet order (dispatched) and reports it once its
+ * consumer has returned (committed). Batches may commit out of order on parallel workers, so the
+ * checkpoint only advances over the contiguous run of committed batches: every row up to
+ * lastCommittedRow is guaranteed to be stored, rows after it may or may not be.
+ *
+ * A batch whose consumer failed is never committed, so the checkpoint stops before it and a resume
+ * retries it. Thread-safe.
+ */
+public class CheckpointRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointRecorder.class);
+
+    private final CheckpointManager checkpointManager;
+    private final ProcessingCheckpoint checkpoint;
+    private final Map<Long, Batch> pending = new HashMap<>();
+    private long nextSequence = 0;
+    private long committedRows;
+
+    /**
+     * Sheet name is taken from the workbook when the reader opens the sheet (see sheetOpened)
+     *
+     * @param checkpoint Checkpoint created or loaded by the manager (continues from its processedRows)
+     */
+    public CheckpointRecorder(CheckpointManager checkpointManager, ProcessingCheckpoint checkpoint) {
+        this.checkpointManager = checkpointManager;
+        this.checkpoint = checkpoint;
+        this.committedRows = checkpoint.getProcessedRows();
+    }
+
+    /**
+     * @param checkpoint Checkpoint created or loaded by the manager (continues from its processedRows)
+     * @param sheetName Sheet being read
+     */
+    public CheckpointRecorder(CheckpointManager checkpointManager, ProcessingCheckpoint checkpoint, String sheetName) {
+        this(checkpointManager, checkpoint);
+        checkpoint.setSheetName(sheetName);
+    }
+
+    /**
+     * The reader opened this sheet (reader thread, before the first batch)
+     */
+    public synchronized void sheetOpened(String sheetName) {
+        String previous = checkpoint.getSheetName();
+        if (previous != null && !previous.equals(sheetName) && checkpoint.getLastCommittedRow() > 0) {
+            logger.warn("Checkpoint {} was recorded for sheet '{}' but the workbook's sheet is '{}'",
+                    checkpoint.getSessionId(), previous, sheetName);
+        }
+        checkpoint.setSheetName(sheetName);
+    }
+
+    /**
+     * Announce a batch before it is handed to its consumer (reader thread, in sheet order)
+     *
+     * @param sequence Batch sequence number (0, 1, 2... in sheet order)
+     * @param lastRow Sheet row number (1-based) of the batch's last row
+     * @param byteOffset Offset after that row in the uncompressed sheet XML, or -1
+     * @param rows Number of rows in the batch
+     */
+    public synchronized void dispatched(long sequence, long lastRow, long byteOffset, int rows) {
+        pending.put(sequence, new Batch(lastRow, byteOffset, rows));
+    }
+
+    /**
+     * The batch's consumer returned normally: its rows are stored
+     */
+    public synchronized void committed(long sequence) {
+        Batch batch = pending.get(sequence);
+        if (batch == null) {
+            return; // Not announced (e.g. empty end-of-stream slot)
+        }
+        batch.committed = true;
+
+        boolean advanced = false;
+        Batch next;
+        while ((next = pending.get(nextSequence)) != null && next.committed) {
+            pending.remove(nextSequence);
+            nextSequence++;
+            committedRows += next.rows;
+            checkpoint.setLastCommittedRow(next.lastRow);
+            checkpoint.setByteOffset(next.byteOffset);
+            advanced = true;
+        }
+        if (advanced) {
+            checkpointManager.updateCheckpoint(checkpoint.getSessionId(), committedRows, null);
+            logger.debug("Checkpoint {} advanced to row {} ({} rows committed)",
+                    checkpoint.getSessionId(), checkpoint.getLastCommittedRow(), committedRows);
+        }
+    }
+
+    public ProcessingCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    private static final class Batch {
+        private final long lastRow;
+        private final long byteOffset;
+        private final int rows;
+        private boolean committed;
+
+        private Batch(long lastRow, long byteOffset, int rows) {
+            this.lastRow = lastRow;
+            this.byteOffset = byteOffset;
+            this.rows = rows;
+        }
+    }
+}
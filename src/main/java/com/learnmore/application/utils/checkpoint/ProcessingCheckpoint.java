@@ -16,6 +16,11 @@ public class ProcessingCheckpoint implements Serializable {
     private long totalRows;
     private long processedRows;
     private long lastCheckpointRow;
+    // Resume position: sheet row number (1-based) of the last row of the committed prefix,
+    // and the matching offset in the uncompressed sheet XML (-1 when the engine cannot tell)
+    private String sheetName;
+    private long lastCommittedRow;
+    private long byteOffset = -1L;
     private CheckpointStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -37,6 +42,9 @@ public class ProcessingCheckpoint implements Serializable {
         this.totalRows = builder.totalRows;
         this.processedRows = builder.processedRows;
         this.lastCheckpointRow = builder.lastCheckpointRow;
+        this.sheetName = builder.sheetName;
+        this.lastCommittedRow = builder.lastCommittedRow;
+        this.byteOffset = builder.byteOffset;
         this.status = builder.status;
         this.createdAt = builder.createdAt;
         this.updatedAt = builder.updatedAt;
@@ -88,6 +96,30 @@ public class ProcessingCheckpoint implements Serializable {
         this.lastCheckpointRow = lastCheckpointRow;
     }
     
+    public String getSheetName() {
+        return sheetName;
+    }
+    
+    public void setSheetName(String sheetName) {
+        this.sheetName = sheetName;
+    }
+    
+    public long getLastCommittedRow() {
+        return lastCommittedRow;
+    }
+    
+    public void setLastCommittedRow(long lastCommittedRow) {
+        this.lastCommittedRow = lastCommittedRow;
+    }
+    
+    public long getByteOffset() {
+        return byteOffset;
+    }
+    
+    public void setByteOffset(long byteOffset) {
+        this.byteOffset = byteOffset;
+    }
+    
     public CheckpointStatus getStatus() {
         return status;
     }
@@ -181,6 +213,8 @@ public class ProcessingCheckpoint implements Serializable {
                 ", fileName='" + fileName + '\'' +
                 ", totalRows=" + totalRows +
                 ", processedRows=" + processedRows +
+                ", sheetName='" + sheetName + '\'' +
+                ", lastCommittedRow=" + lastCommittedRow +
                 ", status=" + status +
                 ", progressPercentage=" + String.format("%.2f", getProgressPercentage()) + "%" +
                 '}';
@@ -195,6 +229,9 @@ public class ProcessingCheckpoint implements Serializable {
         private long totalRows;
         private long processedRows = 0L;
         private long lastCheckpointRow = 0L;
+        private String sheetName;
+        private long lastCommittedRow = 0L;
+        private long byteOffset = -1L;
         private CheckpointStatus status = CheckpointStatus.ACTIVE;
         private LocalDateTime createdAt = LocalDateTime.now();
         private LocalDateTime updatedAt;
@@ -229,6 +266,21 @@ public class ProcessingCheckpoint implements Serializable {
             return this;
         }
         
+        public Builder sheetName(String sheetName) {
+            this.sheetName = sheetName;
+            return this;
+        }
+        
+        public Builder lastCommittedRow(long lastCommittedRow) {
+            this.lastCommittedRow = lastCommittedRow;
+            return this;
+        }
+        
+        public Builder byteOffset(long byteOffset) {
+            this.byteOffset = byteOffset;
+            return this;
+        }
+        
         public Builder status(CheckpointStatus status) {
             this.status = status;
             return this;
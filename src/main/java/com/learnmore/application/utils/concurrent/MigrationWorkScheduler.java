@@ -0,0 +1,334 @@
+package com.learnmore.application.utils.concurrent;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool worker dùng chung cho toàn bộ migration (batch của parallel read, validate/insert từng sheet)
+ *
+ * - Số thread cố định: min(số core, DB pool - dự phòng), mỗi task thường giữ một connection
+ * - Mỗi job có hàng đợi riêng; worker lấy task theo weighted round-robin giữa các job đang có task
+ *   (job HIGH lấy 4 task mỗi lượt, NORMAL 2, LOW 1) nên một upload lớn không chiếm hết pool
+ * - Mười upload cùng lúc vẫn chỉ dùng đúng số thread này, phần còn lại xếp hàng
+ *
+ * Metrics (Actuator /actuator/metrics): migration.workers.queued, .active, .jobs, .size,
+ * .completed và timer migration.workers.queue.wait.
+ *
+ * Task không được chờ task khác của chính pool này (pool bị chiếm hết sẽ deadlock).
+ */
+@Slf4j
+@Component
+public class MigrationWorkScheduler {
+
+    /**
+     * Share of the pool a job gets while other jobs are queued (tasks taken per round-robin turn)
+     */
+    public enum Priority {
+        HIGH(4), NORMAL(2), LOW(1);
+
+        private final int weight;
+
+        Priority(int weight) {
+            this.weight = weight;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+    }
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+    // Pool owning the current thread, null on threads that are not migration workers
+    private static final ThreadLocal<MigrationWorkScheduler> CURRENT_POOL = new ThreadLocal<>();
+
+    private final int workerCount;
+    private final List<Thread> workers = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    // Jobs with queued tasks, and the round-robin ring over them (guarded by lock)
+    private final Map<String, JobQueue> queues = new HashMap<>();
+    private final ArrayDeque<JobQueue> ring = new ArrayDeque<>();
+    private volatile int queuedTasks;
+    private volatile int queuedJobs;
+    private volatile boolean shutdown;
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final Timer queueWait;
+
+    @Autowired
+    public MigrationWorkScheduler(@Value("${application.migration.workers.max-threads:0}") int maxThreads,
+                                  @Value("${application.migration.workers.db-connection-reserve:2}") int dbConnectionReserve,
+                                  ObjectProvider<DataSource> dataSource,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this(workerCount(maxThreads, Runtime.getRuntime().availableProcessors(),
+                        dbPoolSize(dataSource.getIfAvailable()), dbConnectionReserve),
+                meterRegistry.getIfAvailable());
+    }
+
+    /**
+     * Standalone pool (tests, code running outside Spring)
+     */
+    public MigrationWorkScheduler(int workerCount) {
+        this(workerCount, null);
+    }
+
+    MigrationWorkScheduler(int workerCount, MeterRegistry meterRegistry) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("workerCount must be >= 1");
+        }
+        this.workerCount = workerCount;
+        int pool = POOL_SEQUENCE.incrementAndGet();
+        for (int i = 1; i <= workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "migration-worker-" + pool + "-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        if (meterRegistry != null) {
+            Gauge.builder("migration.workers.queued", this, scheduler -> scheduler.queuedTasks)
+                    .description("Tasks waiting for a migration worker, over all jobs")
+                    .register(meterRegistry);
+            Gauge.builder("migration.workers.jobs", this, scheduler -> scheduler.queuedJobs)
+                    .description("Jobs with tasks waiting for a migration worker")
+                    .register(meterRegistry);
+            Gauge.builder("migration.workers.active", activeTasks, AtomicInteger::get)
+                    .description("Migration workers running a task")
+                    .register(meterRegistry);
+            Gauge.builder("migration.workers.size", this, MigrationWorkScheduler::getWorkerCount)
+                    .description("Migration worker threads")
+                    .register(meterRegistry);
+            FunctionCounter.builder("migration.workers.completed", completedTasks, AtomicLong::get)
+                    .description("Tasks run by migration workers")
+                    .register(meterRegistry);
+            this.queueWait = Timer.builder("migration.workers.queue.wait")
+                    .description("Time a task waited for a migration worker")
+                    .register(meterRegistry);
+        } else {
+            this.queueWait = null;
+        }
+        log.info("Migration worker pool started with {} threads", workerCount);
+    }
+
+    /**
+     * Worker count: configured value, else min(cores, DB pool - reserve), at least 2
+     */
+    static int workerCount(int maxThreads, int cores, int dbPoolSize, int dbConnectionReserve) {
+        if (maxThreads > 0) {
+            return maxThreads;
+        }
+        return Math.max(2, Math.min(cores, dbPoolSize - dbConnectionReserve));
+    }
+
+    private static int dbPoolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0) {
+            return hikari.getMaximumPoolSize();
+        }
+        return HIKARI_DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * Executor whose tasks are queued under the given job and share the pool fairly with other jobs
+     */
+    public Executor executorFor(String jobId, Priority priority) {
+        String key = jobId != null ? jobId : "anonymous";
+        Priority effective = priority != null ? priority : Priority.NORMAL;
+        return task -> submit(key, effective, task);
+    }
+
+    public void submit(String jobId, Priority priority, Runnable task) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("Migration worker pool is shut down");
+            }
+            JobQueue queue = queues.get(jobId);
+            if (queue == null) {
+                queue = new JobQueue(jobId);
+                queues.put(jobId, queue);
+                ring.addLast(queue);
+                queue.credit = priority.getWeight();
+            }
+            queue.weight = priority.getWeight();
+            queue.tasks.addLast(new QueuedTask(task, System.nanoTime()));
+            queuedTasks++;
+            queuedJobs = queues.size();
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * True on this pool's worker threads: code running there must not submit work here and wait for it
+     */
+    public boolean isWorkerThread() {
+        return CURRENT_POOL.get() == this;
+    }
+
+    public int getQueuedTasks() {
+        return queuedTasks;
+    }
+
+    public int getActiveTasks() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Queued tasks per job, in round-robin order (for monitoring)
+     */
+    public Map<String, Integer> getQueuedByJob() {
+        lock.lock();
+        try {
+            Map<String, Integer> snapshot = new LinkedHashMap<>();
+            for (JobQueue queue : ring) {
+                snapshot.put(queue.jobId, queue.tasks.size());
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting tasks, let the workers finish what is queued, interrupt them after the timeout
+     */
+    @PreDestroy
+    public void shutdown() {
+        shutdown(60, TimeUnit.SECONDS);
+    }
+
+    public void shutdown(long timeout, TimeUnit unit) {
+        lock.lock();
+        try {
+            shutdown = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            for (Thread worker : workers) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs > 0) {
+                    worker.join(remainingMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long stillRunning = workers.stream().filter(Thread::isAlive).count();
+        if (stillRunning > 0) {
+            log.warn("{} migration workers still busy after {} {}, interrupting ({} tasks queued)",
+                    stillRunning, timeout, unit, queuedTasks);
+            workers.forEach(Thread::interrupt);
+        } else {
+            log.info("Migration worker pool shut down");
+        }
+    }
+
+    private void runWorker() {
+        CURRENT_POOL.set(this);
+        while (true) {
+            QueuedTask next;
+            try {
+                next = take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (next == null) {
+                return;
+            }
+            if (queueWait != null) {
+                queueWait.record(System.nanoTime() - next.queuedAt, TimeUnit.NANOSECONDS);
+            }
+            try {
+                next.task.run();
+            } catch (Throwable t) {
+                log.error("Uncaught exception in migration worker task: {}", t.getMessage(), t);
+            } finally {
+                completedTasks.incrementAndGet();
+                activeTasks.decrementAndGet();
+            }
+            // A cancelled task may leave the interrupt flag set: clear it so the worker stays in the pool,
+            // unless the interrupt came from shutdown()
+            if (Thread.interrupted() && shutdown) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Next task by weighted round-robin: the job at the head of the ring runs up to its weight
+     * in tasks, then moves to the back; null once shut down and drained
+     */
+    private QueuedTask take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (ring.isEmpty()) {
+                if (shutdown) {
+                    return null;
+                }
+                workAvailable.await();
+            }
+            JobQueue queue = ring.peekFirst();
+            QueuedTask task = queue.tasks.pollFirst();
+            queuedTasks--;
+            activeTasks.incrementAndGet(); // Under the lock: a task is always either queued or active
+            if (queue.tasks.isEmpty()) {
+                ring.pollFirst();
+                queues.remove(queue.jobId);
+                queuedJobs = queues.size();
+            } else if (--queue.credit <= 0) {
+                queue.credit = queue.weight;
+                ring.addLast(ring.pollFirst());
+            }
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class JobQueue {
+        private final String jobId;
+        private final ArrayDeque<QueuedTask> tasks = new ArrayDeque<>();
+        private int weight;
+        private int credit;
+
+        JobQueue(String jobId) {
+            this.jobId = jobId;
+        }
+    }
+
+    private record QueuedTask(Runnable task, long queuedAt) {
+    }
+}
@@ -1,5 +1,8 @@
 package com.learnmore.application.utils.config;
 
+import com.learnmore.application.utils.checkpoint.CheckpointRecorder;
+import com.learnmore.application.utils.concurrent.MigrationWorkScheduler;
+import com.learnmore.application.utils.sax.WorkbookSession;
 import com.learnmore.application.utils.validation.ValidationRule;
 import java.util.*;
 
@@ -34,6 +37,8 @@ public class ExcelConfig {
     private Set<String> requiredFields = new HashSet<>();
     private Set<String> uniqueFields = new HashSet<>();
     private Map<String, ValidationRule> fieldValidationRules = new HashMap<>();
+    // Column projection: field names / header names to bind (empty = all mapped columns)
+    private Set<String> projectedColumns = new HashSet<>();
     private List<ValidationRule> globalValidationRules = new ArrayList<>();
     
     // Performance tuning - Production optimized values
@@ -59,6 +64,7 @@ public class ExcelConfig {
 
     // Row count validation - PERFORMANCE OPTIMIZED
     private int maxRows = 0; // Maximum rows to process (0 = no limit). Validated during streaming.
+    private int rowLimit = 0; // Stop parsing after this many data rows (0 = no limit); no error, unlike maxRows
     
     // Range validation - REMOVED: Use field-specific ValidationRule instead
     // Example: config.addFieldValidation("score", new NumericRangeValidator(0.0, 100.0))
@@ -67,6 +73,13 @@ public class ExcelConfig {
     private int startRow = 0; // 0-based index for header row
     private boolean autoSizeColumns = true; // Default auto-size columns for better presentation
     private String jobId; // Job ID for tracking processing tasks
+    private MigrationWorkScheduler.Priority jobPriority = MigrationWorkScheduler.Priority.NORMAL; // Share of the shared worker pool
+    private MigrationWorkScheduler workScheduler; // Sheet/chunk/row workers run here under jobId; null = reader creates its own pool
+
+    // Resumable reads: checkpoint per committed batch, skip rows already committed by a previous run
+    private CheckpointRecorder checkpointRecorder;
+    private int resumeAfterRow = 0; // Sheet row number (1-based) of the last committed row; 0 = from start
+    private WorkbookSession workbookSession; // Workbook already opened for the job; readers use it instead of spooling the stream
     
     // POI Performance Optimizations - Based on benchmark analysis
     private boolean disableAutoSizing = false; // Major performance impact for large datasets
@@ -78,6 +91,7 @@ public class ExcelConfig {
 
     // Multi-Sheet Support
     private boolean readAllSheets = false; // Read all sheets or just first
+    private int maxConcurrentSheets = 1; // Sheets parsed at the same time by TrueStreamingMultiSheetProcessor
     private List<String> sheetNames; // Specific sheet names to read
     private int sheetCount = 1; // Number of sheets processed (tracked during execution)
 
@@ -99,6 +113,80 @@ public class ExcelConfig {
     // Optional: Fully qualified class name used for output schema when data list is empty
     private String outputBeanClassName;
 
+    // Sheet XML parsing engine for SAX readers
+    private ParseEngine parseEngine = ParseEngine.POI_SAX;
+
+    // Intra-sheet parallel parsing (row-range chunks parsed on threadPoolSize threads)
+    private boolean parallelSheetParsing = false;
+    private int parallelChunkRows = 5_000; // Rows per chunk
+
+    // Row conversion pipeline: parse thread only captures raw cells, threadPoolSize workers bind/convert/validate
+    private boolean parallelRowConversion = false;
+    private int conversionBlockRows = 1_000; // Raw rows handed to a worker at once
+
+    // Shared strings table storage for SAX readers
+    private SharedStringsStore sharedStringsStore = SharedStringsStore.IN_MEMORY;
+    private int sharedStringsCacheSize = 10_000; // Hot strings kept in heap (FILE_BACKED only)
+
+    // Storage of values seen by the streaming unique-field check
+    private UniqueValueStore uniqueValueStore = UniqueValueStore.FINGERPRINT;
+
+    // FAST engine: numeric cells bind to numeric/date fields from the raw value (no DataFormatter text)
+    private boolean typedCellValues = true;
+
+    // Ring buffer between SAX thread and batch workers (ParallelReadStrategy)
+    private int ringBufferSize = 0; // Slots in flight; 0 = 2 × worker threads
+    private boolean recycleRowObjects = false; // Reuse DTO instances once their batch is released
+    // Batches committed in file order (OrderedBatchProcessor.commit), prepared in parallel
+    private boolean orderedDelivery = false;
+    private int reorderWindow = 0; // Batches prepared ahead of the oldest uncommitted one; 0 = ring size
+
+    // Adaptive batch sizing: batchSize is only the starting point, AdaptiveBatchSizer tracks consumer latency / heap
+    private boolean adaptiveBatchSizing = false;
+    private long targetBatchLatencyMs = 200; // Consumer time per batch to aim for (e.g. one JDBC flush)
+    private int minBatchSize = 100;
+    private int maxBatchSize = 50_000;
+
+    // Read strategy picked by ReadStrategySelector's cost model (row/cell estimate, cores, heap, history)
+    // instead of priority alone
+    private boolean costBasedStrategySelection = false;
+
+    /**
+     * Sheet XML parsing engine used by the SAX-based readers
+     * POI_SAX: XSSFSheetXMLHandler (JAXP SAX) - default
+     * FAST: FastSheetTokenizer - byte-level tokenizer, no per-cell String for cell references;
+     *       numeric cells of number/date fields bind from the raw value (typedCellValues)
+     */
+    public enum ParseEngine {
+        POI_SAX,
+        FAST
+    }
+
+    /**
+     * How the streaming readers remember values of uniqueFields
+     * STRINGS: HashSet of "field:value" strings (~100 bytes / value)
+     * FINGERPRINT: 64-bit fingerprint table (16 bytes / slot) + temp-file side store for exact confirmation (default)
+     * FINGERPRINT_OFF_HEAP: same, slot table in a direct buffer
+     */
+    public enum UniqueValueStore {
+        STRINGS,
+        FINGERPRINT,
+        FINGERPRINT_OFF_HEAP
+    }
+
+    /**
+     * Where the SAX readers keep the shared strings table (sharedStrings.xml)
+     * IN_MEMORY: XSSFReader.getSharedStringsTable() - whole SST in heap (default)
+     * FILE_BACKED: FileBackedSharedStrings - spilled to a temp file, offset index + LRU in heap
+     * LAZY: LazySharedStrings - parsed on demand, only up to the highest index referenced so far
+     *       (preview / rowLimit reads that stop before the end of the sheet)
+     */
+    public enum SharedStringsStore {
+        IN_MEMORY,
+        FILE_BACKED,
+        LAZY
+    }
+
     public ExcelConfig() {
         // Default constructor
     }
@@ -257,6 +345,17 @@ public class ExcelConfig {
             return this;
         }
 
+        /**
+         * Stop parsing once this many data rows have been read (rows after it are never parsed)
+         */
+        public Builder rowLimit(int rowLimit) {
+            if (rowLimit < 0) {
+                throw new IllegalArgumentException("rowLimit must not be negative");
+            }
+            config.rowLimit = rowLimit;
+            return this;
+        }
+
         // REMOVED: enableRangeValidation, minValue, maxValue
         // Use field-specific validation instead:
         // config.addFieldValidation("fieldName", new NumericRangeValidator(min, max))
@@ -307,6 +406,49 @@ public class ExcelConfig {
             return this;
         }
 
+        public Builder jobPriority(MigrationWorkScheduler.Priority jobPriority) {
+            if (jobPriority == null) {
+                throw new IllegalArgumentException("jobPriority must not be null");
+            }
+            config.jobPriority = jobPriority;
+            return this;
+        }
+
+        /**
+         * Run concurrent sheets, parse chunks and row conversion on the shared pool (queued under jobId)
+         * instead of a thread pool per read
+         */
+        public Builder workScheduler(MigrationWorkScheduler workScheduler) {
+            config.workScheduler = workScheduler;
+            return this;
+        }
+
+        public Builder checkpointRecorder(CheckpointRecorder recorder) {
+            config.checkpointRecorder = recorder;
+            return this;
+        }
+
+        /**
+         * Data rows up to this sheet row number (1-based, as in rowNum) are skipped before their cells are
+         * bound or converted (ProcessingCheckpoint.lastCommittedRow of the interrupted run)
+         */
+        public Builder resumeAfterRow(int row) {
+            if (row < 0) {
+                throw new IllegalArgumentException("resumeAfterRow must not be negative");
+            }
+            config.resumeAfterRow = row;
+            return this;
+        }
+
+        /**
+         * Read from this session's package, styles and shared strings; the InputStream handed to the
+         * reader is then not spooled again (caller keeps ownership and closes the session)
+         */
+        public Builder workbookSession(WorkbookSession session) {
+            config.workbookSession = session;
+            return this;
+        }
+
         // Multi-Sheet Support Builder Methods
         public Builder readAllSheets(boolean readAllSheets) {
             config.readAllSheets = readAllSheets;
@@ -367,6 +509,153 @@ public class ExcelConfig {
             return this;
         }
 
+        public Builder parseEngine(ParseEngine parseEngine) {
+            config.parseEngine = parseEngine != null ? parseEngine : ParseEngine.POI_SAX;
+            return this;
+        }
+
+        /**
+         * Parse up to this many sheets at once (multi-sheet reads); 1 = one sheet after another
+         */
+        public Builder maxConcurrentSheets(int maxConcurrentSheets) {
+            if (maxConcurrentSheets < 1) {
+                throw new IllegalArgumentException("maxConcurrentSheets must be at least 1");
+            }
+            config.maxConcurrentSheets = maxConcurrentSheets;
+            return this;
+        }
+
+        public Builder parallelSheetParsing(boolean enabled) {
+            config.parallelSheetParsing = enabled;
+            return this;
+        }
+
+        public Builder parallelChunkRows(int rows) {
+            if (rows <= 0) {
+                throw new IllegalArgumentException("parallelChunkRows must be positive");
+            }
+            config.parallelChunkRows = rows;
+            return this;
+        }
+
+        public Builder parallelRowConversion(boolean enabled) {
+            config.parallelRowConversion = enabled;
+            return this;
+        }
+
+        public Builder conversionBlockRows(int rows) {
+            if (rows <= 0) {
+                throw new IllegalArgumentException("conversionBlockRows must be positive");
+            }
+            config.conversionBlockRows = rows;
+            return this;
+        }
+
+        public Builder sharedStringsStore(SharedStringsStore store) {
+            config.sharedStringsStore = store != null ? store : SharedStringsStore.IN_MEMORY;
+            return this;
+        }
+
+        public Builder sharedStringsCacheSize(int size) {
+            if (size < 0) {
+                throw new IllegalArgumentException("sharedStringsCacheSize must not be negative");
+            }
+            config.sharedStringsCacheSize = size;
+            return this;
+        }
+
+        /**
+         * Bind only these columns (field name or header name); other columns are not converted or set.
+         * Required/unique/validated fields are always bound so their checks keep working.
+         */
+        public Builder columns(String... columns) {
+            config.projectedColumns.addAll(Arrays.asList(columns));
+            return this;
+        }
+
+        public Builder columns(Set<String> columns) {
+            config.projectedColumns.addAll(columns);
+            return this;
+        }
+
+        public Builder uniqueValueStore(UniqueValueStore store) {
+            config.uniqueValueStore = store != null ? store : UniqueValueStore.FINGERPRINT;
+            return this;
+        }
+
+        public Builder typedCellValues(boolean enabled) {
+            config.typedCellValues = enabled;
+            return this;
+        }
+
+        public Builder ringBufferSize(int slots) {
+            if (slots < 0) {
+                throw new IllegalArgumentException("ringBufferSize must not be negative");
+            }
+            config.ringBufferSize = slots;
+            return this;
+        }
+
+        /**
+         * Row objects are reused after the consumer returns: consumers must not keep them
+         */
+        public Builder recycleRowObjects(boolean enabled) {
+            config.recycleRowObjects = enabled;
+            return this;
+        }
+
+        /**
+         * Deliver batches to the consumer in file order (ParallelReadStrategy).
+         * An OrderedBatchProcessor still prepares batches in parallel; a plain consumer runs one batch at a time.
+         */
+        public Builder orderedDelivery(boolean enabled) {
+            config.orderedDelivery = enabled;
+            return this;
+        }
+
+        public Builder reorderWindow(int batches) {
+            if (batches < 0) {
+                throw new IllegalArgumentException("reorderWindow must not be negative");
+            }
+            config.reorderWindow = batches;
+            return this;
+        }
+
+        /**
+         * Grow or shrink batches at runtime to keep each consumer call near targetBatchLatencyMs,
+         * backing off when heap usage crosses memoryThreshold. batchSize is the first batch.
+         */
+        public Builder adaptiveBatchSizing(boolean enabled) {
+            config.adaptiveBatchSizing = enabled;
+            return this;
+        }
+
+        public Builder targetBatchLatencyMs(long latencyMs) {
+            if (latencyMs <= 0) {
+                throw new IllegalArgumentException("targetBatchLatencyMs must be positive");
+            }
+            config.targetBatchLatencyMs = latencyMs;
+            return this;
+        }
+
+        public Builder batchSizeRange(int minBatchSize, int maxBatchSize) {
+            if (minBatchSize <= 0 || maxBatchSize < minBatchSize) {
+                throw new IllegalArgumentException("batchSizeRange requires 0 < min <= max");
+            }
+            config.minBatchSize = minBatchSize;
+            config.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Let ReadStrategySelector estimate each strategy's time and in-flight memory for this file
+         * and pick the cheapest one that fits, rather than the highest priority.
+         */
+        public Builder costBasedStrategySelection(boolean enabled) {
+            config.costBasedStrategySelection = enabled;
+            return this;
+        }
+
         public ExcelConfig build() {
             return config;
         }
@@ -437,6 +726,10 @@ public class ExcelConfig {
         return new HashMap<>(fieldValidationRules);
     }
     
+    public Set<String> getProjectedColumns() {
+        return new HashSet<>(projectedColumns);
+    }
+    
     public List<ValidationRule> getGlobalValidationRules() {
         return new ArrayList<>(globalValidationRules);
     }
@@ -458,6 +751,86 @@ public class ExcelConfig {
         this.outputBeanClassName = outputBeanClassName;
     }
 
+    public ParseEngine getParseEngine() {
+        return parseEngine;
+    }
+
+    public void setParseEngine(ParseEngine parseEngine) {
+        this.parseEngine = parseEngine != null ? parseEngine : ParseEngine.POI_SAX;
+    }
+
+    public boolean isParallelSheetParsing() {
+        return parallelSheetParsing;
+    }
+
+    public int getParallelChunkRows() {
+        return parallelChunkRows;
+    }
+
+    public boolean isParallelRowConversion() {
+        return parallelRowConversion;
+    }
+
+    public int getConversionBlockRows() {
+        return conversionBlockRows;
+    }
+
+    public SharedStringsStore getSharedStringsStore() {
+        return sharedStringsStore;
+    }
+
+    public void setSharedStringsStore(SharedStringsStore sharedStringsStore) {
+        this.sharedStringsStore = sharedStringsStore != null ? sharedStringsStore : SharedStringsStore.IN_MEMORY;
+    }
+
+    public int getSharedStringsCacheSize() {
+        return sharedStringsCacheSize;
+    }
+
+    public UniqueValueStore getUniqueValueStore() {
+        return uniqueValueStore;
+    }
+
+    public boolean isTypedCellValues() {
+        return typedCellValues;
+    }
+
+    public int getRingBufferSize() {
+        return ringBufferSize;
+    }
+
+    public boolean isRecycleRowObjects() {
+        return recycleRowObjects;
+    }
+
+    public boolean isOrderedDelivery() {
+        return orderedDelivery;
+    }
+
+    public int getReorderWindow() {
+        return reorderWindow;
+    }
+
+    public boolean isAdaptiveBatchSizing() {
+        return adaptiveBatchSizing;
+    }
+
+    public long getTargetBatchLatencyMs() {
+        return targetBatchLatencyMs;
+    }
+
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public boolean isCostBasedStrategySelection() {
+        return costBasedStrategySelection;
+    }
+
     // REMOVED getters: isUseStreamingParser, isEnableDataTypeCache, isEnableReflectionCache
     // REMOVED getters: isEnableRangeValidation, getMinValue, getMaxValue
     // Reason: Caching is always enabled internally, range validation moved to ValidationRule
@@ -540,11 +913,39 @@ public class ExcelConfig {
         return maxRows;
     }
 
+    public int getRowLimit() {
+        return rowLimit;
+    }
+
     public String getJobId() {
         return jobId;
     }
+
+    public MigrationWorkScheduler.Priority getJobPriority() {
+        return jobPriority;
+    }
+
+    public MigrationWorkScheduler getWorkScheduler() {
+        return workScheduler;
+    }
+
+    public CheckpointRecorder getCheckpointRecorder() {
+        return checkpointRecorder;
+    }
+
+    public int getResumeAfterRow() {
+        return resumeAfterRow;
+    }
+
+    public WorkbookSession getWorkbookSession() {
+        return workbookSession;
+    }
     
     // Setters (if needed for dynamic configuration)
+    public void setWorkbookSession(WorkbookSession workbookSession) {
+        this.workbookSession = workbookSession;
+    }
+
     public void setBatchSize(int batchSize) {
         this.batchSize = batchSize;
     }
@@ -618,6 +1019,10 @@ public class ExcelConfig {
         return readAllSheets;
     }
 
+    public int getMaxConcurrentSheets() {
+        return maxConcurrentSheets;
+    }
+
     public List<String> getSheetNames() {
         return sheetNames;
     }
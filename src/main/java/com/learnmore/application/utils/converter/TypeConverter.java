@@ -77,6 +77,7 @@ public class TypeConverter {
     /**
      * Convert string value to target type
      */
+    @SuppressWarnings("unchecked")
     public <T> T convert(String value, Class<T> targetType) {
         if (value == null) {
             return null;
@@ -89,7 +90,8 @@ public class TypeConverter {
         Object cachedResult = conversionCache.get(cacheKey);
         if (cachedResult != null) {
             cacheHits++;
-            return targetType.cast(cachedResult);
+            // Class.cast() rejects wrappers for primitive targets (int.class.cast(Integer) fails)
+            return (T) cachedResult;
         }
         
         try {
@@ -342,6 +344,13 @@ public class TypeConverter {
         converterMap.put(targetType, value -> converter.apply(value));
         logger.info("Registered custom converter for type: {}", targetType.getSimpleName());
     }
+
+    /**
+     * Whether a custom converter overrides the built-in parsing for a type
+     */
+    public boolean hasCustomConverter(Class<?> targetType) {
+        return converterMap.containsKey(targetType);
+    }
     
     /**
      * Check if a value can be converted to target type
@@ -0,0 +1,477 @@
+package com.learnmore.application.utils.reflection;
+
+import com.learnmore.application.utils.ExcelColumn;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Generated bean binder: setter/getter objects sinh bằng LambdaMetafactory, đánh index theo slot
+ *
+ * MethodHandleMapper.setFieldValue tra map theo tên rồi gọi MethodHandle.invoke với Object boxed
+ * cho MỖI cell. BeanBinder làm việc đó một lần cho mỗi DTO class:
+ * - Mỗi field có một slot (thứ tự khai báo); tên field và @ExcelColumn.name đều resolve về slot
+ * - Setter/getter là class sinh sẵn (LambdaMetafactory → hidden class) gọi thẳng setX()/getX()
+ *   nên JIT inline được như code viết tay
+ * - Field primitive có IntSetter/LongSetter/DoubleSetter/BooleanSetter: set không boxing
+ * - Constructor no-arg là Supplier sinh sẵn
+ *
+ * Field không có setter/getter public (không theo convention Lombok) fallback về MethodHandle
+ * trên field, vẫn đánh index theo slot.
+ *
+ * @param <T> Bean type
+ */
+@Slf4j
+public final class BeanBinder<T> {
+
+    private static final Map<Class<?>, BeanBinder<?>> BINDER_CACHE = new ConcurrentHashMap<>();
+
+    private static final MethodType OBJECT_SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<T> beanClass;
+    private final Supplier<T> constructor;
+    private final String[] fieldNames;
+    private final Class<?>[] fieldTypes;
+    private final ObjectSetter[] setters;
+    private final Object[] primitiveSetters;
+    private final Getter[] getters;
+    // Value of each slot in a freshly constructed bean (immutable values only), used by reset()
+    private final Object[] resetValues;
+    private final Map<String, Integer> slotsByName;
+    private final int generatedCount;
+
+    /**
+     * Get or create cached binder for a class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanBinder<T> forClass(Class<T> beanClass) {
+        return (BeanBinder<T>) BINDER_CACHE.computeIfAbsent(beanClass, BeanBinder::new);
+    }
+
+    private BeanBinder(Class<T> beanClass) {
+        this.beanClass = beanClass;
+        MethodHandles.Lookup lookup = lookupFor(beanClass);
+
+        List<Field> fields = new ArrayList<>();
+        for (Field field : beanClass.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                fields.add(field);
+            }
+        }
+
+        int slotCount = fields.size();
+        this.fieldNames = new String[slotCount];
+        this.fieldTypes = new Class<?>[slotCount];
+        this.setters = new ObjectSetter[slotCount];
+        this.primitiveSetters = new Object[slotCount];
+        this.getters = new Getter[slotCount];
+        this.resetValues = new Object[slotCount];
+        this.slotsByName = new HashMap<>();
+
+        int generated = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            Field field = fields.get(slot);
+            fieldNames[slot] = field.getName();
+            fieldTypes[slot] = field.getType();
+            resetValues[slot] = field.getType().isPrimitive()
+                    ? Array.get(Array.newInstance(field.getType(), 1), 0) : null;
+            slotsByName.put(field.getName(), slot);
+
+            ExcelColumn annotation = field.getAnnotation(ExcelColumn.class);
+            if (annotation != null && !annotation.name().isEmpty()) {
+                slotsByName.putIfAbsent(annotation.name(), slot);
+            }
+
+            Method setterMethod = findSetter(beanClass, field);
+            Method getterMethod = findGetter(beanClass, field);
+            if (lookup != null && setterMethod != null && getterMethod != null) {
+                try {
+                    setters[slot] = generateSetter(lookup, setterMethod, field.getType());
+                    primitiveSetters[slot] = generatePrimitiveSetter(lookup, setterMethod, field.getType());
+                    getters[slot] = generateGetter(lookup, getterMethod);
+                    generated++;
+                    continue;
+                } catch (Throwable e) {
+                    log.debug("Cannot generate binder for {}.{}: {}",
+                            beanClass.getSimpleName(), field.getName(), e.getMessage());
+                }
+            }
+            bindWithFieldHandles(slot, field);
+        }
+
+        this.constructor = createConstructor(lookup);
+        this.generatedCount = generated;
+        captureInitialValues();
+
+        log.debug("Created BeanBinder for {}: {} slots, {} generated, {} MethodHandle fallback",
+                beanClass.getSimpleName(), slotCount, generated, slotCount - generated);
+    }
+
+    /**
+     * Create new instance via the generated constructor
+     */
+    public T newInstance() {
+        return constructor.get();
+    }
+
+    /**
+     * Reset mọi field về giá trị của một instance mới tạo để dùng lại instance (recycled row)
+     * Giá trị khởi tạo immutable (primitive, String, wrapper, enum, java.time) được giữ;
+     * field khởi tạo bằng object mutable (new ArrayList<>()...) bị reset về null
+     */
+    public void reset(T bean) {
+        for (int slot = 0; slot < setters.length; slot++) {
+            setters[slot].set(bean, resetValues[slot]);
+        }
+    }
+
+    /**
+     * Slot of a field by Java field name or @ExcelColumn name
+     *
+     * @return Slot index hoặc -1 nếu không có field
+     */
+    public int slot(String name) {
+        Integer slot = slotsByName.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    public boolean hasField(String name) {
+        return slotsByName.containsKey(name);
+    }
+
+    public int getSlotCount() {
+        return fieldNames.length;
+    }
+
+    /**
+     * Number of slots bound through generated classes (the rest use MethodHandle fallback)
+     */
+    public int getGeneratedCount() {
+        return generatedCount;
+    }
+
+    public String getFieldName(int slot) {
+        return fieldNames[slot];
+    }
+
+    public Class<?> getFieldType(int slot) {
+        return fieldTypes[slot];
+    }
+
+    public Class<T> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * Setter nhận Object; field primitive sẽ unbox (null → NullPointerException)
+     */
+    public ObjectSetter setter(int slot) {
+        return setters[slot];
+    }
+
+    public Getter getter(int slot) {
+        return getters[slot];
+    }
+
+    public IntSetter intSetter(int slot) {
+        return primitiveSetter(slot, int.class, IntSetter.class);
+    }
+
+    public LongSetter longSetter(int slot) {
+        return primitiveSetter(slot, long.class, LongSetter.class);
+    }
+
+    public DoubleSetter doubleSetter(int slot) {
+        return primitiveSetter(slot, double.class, DoubleSetter.class);
+    }
+
+    public BooleanSetter booleanSetter(int slot) {
+        return primitiveSetter(slot, boolean.class, BooleanSetter.class);
+    }
+
+    /**
+     * Convenience: set by name (one map lookup); prefer resolving the slot once
+     */
+    public void set(T bean, String name, Object value) {
+        int slot = slot(name);
+        if (slot >= 0) {
+            setters[slot].set(bean, value);
+        }
+    }
+
+    /**
+     * Convenience: get by name (one map lookup); prefer resolving the slot once
+     */
+    public Object get(T bean, String name) {
+        int slot = slot(name);
+        return slot >= 0 ? getters[slot].get(bean) : null;
+    }
+
+    private <S> S primitiveSetter(int slot, Class<?> primitiveType, Class<S> setterType) {
+        if (fieldTypes[slot] != primitiveType) {
+            throw new IllegalArgumentException("Field " + fieldNames[slot] + " of " + beanClass.getSimpleName()
+                    + " is " + fieldTypes[slot].getSimpleName() + ", not " + primitiveType.getName());
+        }
+        return setterType.cast(primitiveSetters[slot]);
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Generation
+    // ---------------------------------------------------------------------------------------------
+
+    private static MethodHandles.Lookup lookupFor(Class<?> beanClass) {
+        try {
+            // Full-privilege lookup in the bean's package: generated classes are defined next to the bean
+            return MethodHandles.privateLookupIn(beanClass, MethodHandles.lookup());
+        } catch (IllegalAccessException | RuntimeException e) {
+            log.debug("No private lookup for {}, using MethodHandle fallback: {}",
+                    beanClass.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static ObjectSetter generateSetter(MethodHandles.Lookup lookup, Method setterMethod,
+                                               Class<?> fieldType) throws Throwable {
+        MethodHandle impl = lookup.unreflect(setterMethod);
+        MethodType instantiated = MethodType.methodType(void.class, setterMethod.getDeclaringClass(), box(fieldType));
+        return (ObjectSetter) metafactory(lookup, "set", ObjectSetter.class, OBJECT_SETTER_TYPE, impl, instantiated);
+    }
+
+    private static Object generatePrimitiveSetter(MethodHandles.Lookup lookup, Method setterMethod,
+                                                  Class<?> fieldType) throws Throwable {
+        Class<?> setterType = primitiveSetterType(fieldType);
+        if (setterType == null) {
+            return null;
+        }
+        MethodHandle impl = lookup.unreflect(setterMethod);
+        MethodType samType = MethodType.methodType(void.class, Object.class, fieldType);
+        MethodType instantiated = MethodType.methodType(void.class, setterMethod.getDeclaringClass(), fieldType);
+        return metafactory(lookup, "set", setterType, samType, impl, instantiated);
+    }
+
+    private static Getter generateGetter(MethodHandles.Lookup lookup, Method getterMethod) throws Throwable {
+        MethodHandle impl = lookup.unreflect(getterMethod);
+        MethodType instantiated = MethodType.methodType(box(getterMethod.getReturnType()),
+                getterMethod.getDeclaringClass());
+        return (Getter) metafactory(lookup, "get", Getter.class, GETTER_TYPE, impl, instantiated);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Supplier<T> createConstructor(MethodHandles.Lookup lookup) {
+        try {
+            if (lookup != null) {
+                MethodHandle impl = lookup.findConstructor(beanClass, MethodType.methodType(void.class));
+                return (Supplier<T>) metafactory(lookup, "get", Supplier.class,
+                        MethodType.methodType(Object.class), impl, MethodType.methodType(beanClass));
+            }
+        } catch (Throwable e) {
+            log.debug("Cannot generate constructor for {}: {}", beanClass.getSimpleName(), e.getMessage());
+        }
+
+        MethodHandle handle;
+        try {
+            var declared = beanClass.getDeclaredConstructor();
+            declared.setAccessible(true);
+            handle = MethodHandles.lookup().unreflectConstructor(declared).asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            // Class không có no-arg constructor: chỉ báo lỗi khi thực sự cần tạo instance
+            return () -> {
+                throw new IllegalStateException("No default constructor found for " + beanClass.getName(), e);
+            };
+        }
+        return () -> {
+            try {
+                return (T) handle.invokeExact();
+            } catch (Throwable t) {
+                throw new RuntimeException("Failed to create instance", t);
+            }
+        };
+    }
+
+    private static Object metafactory(MethodHandles.Lookup lookup, String methodName, Class<?> functionalInterface,
+                                      MethodType samType, MethodHandle impl, MethodType instantiated) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, methodName,
+                MethodType.methodType(functionalInterface), samType, impl, instantiated);
+        return site.getTarget().invoke();
+    }
+
+    /**
+     * Fallback: MethodHandle trên field (asType về signature Object cố định để dùng invokeExact)
+     */
+    private void bindWithFieldHandles(int slot, Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle setter = lookup.unreflectSetter(field).asType(OBJECT_SETTER_TYPE);
+            MethodHandle getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            setters[slot] = (bean, value) -> {
+                try {
+                    setter.invokeExact(bean, value);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IllegalStateException("Failed to set field " + field.getName(), t);
+                }
+            };
+            getters[slot] = bean -> {
+                try {
+                    return (Object) getter.invokeExact(bean);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IllegalStateException("Failed to get field " + field.getName(), t);
+                }
+            };
+            primitiveSetters[slot] = fallbackPrimitiveSetter(field.getType(), setters[slot]);
+        } catch (IllegalAccessException | RuntimeException e) {
+            log.warn("Failed to bind field {} of {}: {}", field.getName(), beanClass.getSimpleName(), e.getMessage());
+            setters[slot] = (bean, value) -> { };
+            getters[slot] = bean -> null;
+        }
+    }
+
+    private static Object fallbackPrimitiveSetter(Class<?> fieldType, ObjectSetter setter) {
+        if (fieldType == int.class) {
+            return (IntSetter) (bean, value) -> setter.set(bean, value);
+        } else if (fieldType == long.class) {
+            return (LongSetter) (bean, value) -> setter.set(bean, value);
+        } else if (fieldType == double.class) {
+            return (DoubleSetter) (bean, value) -> setter.set(bean, value);
+        } else if (fieldType == boolean.class) {
+            return (BooleanSetter) (bean, value) -> setter.set(bean, value);
+        }
+        return null;
+    }
+
+    private static Class<?> primitiveSetterType(Class<?> fieldType) {
+        if (fieldType == int.class) {
+            return IntSetter.class;
+        } else if (fieldType == long.class) {
+            return LongSetter.class;
+        } else if (fieldType == double.class) {
+            return DoubleSetter.class;
+        } else if (fieldType == boolean.class) {
+            return BooleanSetter.class;
+        }
+        return null;
+    }
+
+    /**
+     * Lombok convention: setX(type) (return type bất kỳ, hỗ trợ chained setter)
+     */
+    private static Method findSetter(Class<?> beanClass, Field field) {
+        try {
+            Method method = beanClass.getMethod("set" + capitalize(field.getName()), field.getType());
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lombok convention: getX(), hoặc isX() cho boolean primitive
+     */
+    private static Method findGetter(Class<?> beanClass, Field field) {
+        String suffix = capitalize(field.getName());
+        List<String> candidates = field.getType() == boolean.class
+                ? List.of("is" + suffix, "get" + suffix)
+                : List.of("get" + suffix);
+        for (String name : candidates) {
+            try {
+                Method method = beanClass.getMethod(name);
+                if (!Modifier.isStatic(method.getModifiers()) && method.getReturnType() == field.getType()) {
+                    return method;
+                }
+            } catch (NoSuchMethodException ignored) {
+                // try next candidate
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Field initializer values of a prototype instance, for reset()
+     */
+    private void captureInitialValues() {
+        T prototype;
+        try {
+            prototype = constructor.get();
+        } catch (RuntimeException e) {
+            return; // No default constructor: JVM defaults
+        }
+        for (int slot = 0; slot < resetValues.length; slot++) {
+            try {
+                Object value = getters[slot].get(prototype);
+                if (value != null && (fieldTypes[slot].isPrimitive() || isImmutableValue(value))) {
+                    resetValues[slot] = value;
+                }
+            } catch (RuntimeException e) {
+                log.debug("Cannot read initial value of {}.{}: {}",
+                        beanClass.getSimpleName(), fieldNames[slot], e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isImmutableValue(Object value) {
+        return value instanceof String || value instanceof Number && value.getClass().getName().startsWith("java.lang.")
+                || value instanceof Boolean || value instanceof Character || value instanceof Enum<?>
+                || value instanceof java.time.temporal.TemporalAccessor || value instanceof java.math.BigDecimal;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static Class<?> box(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Functional interfaces implemented by the generated classes
+    // ---------------------------------------------------------------------------------------------
+
+    @FunctionalInterface
+    public interface ObjectSetter {
+        void set(Object bean, Object value);
+    }
+
+    @FunctionalInterface
+    public interface IntSetter {
+        void set(Object bean, int value);
+    }
+
+    @FunctionalInterface
+    public interface LongSetter {
+        void set(Object bean, long value);
+    }
+
+    @FunctionalInterface
+    public interface DoubleSetter {
+        void set(Object bean, double value);
+    }
+
+    @FunctionalInterface
+    public interface BooleanSetter {
+        void set(Object bean, boolean value);
+    }
+
+    @FunctionalInterface
+    public interface Getter {
+        Object get(Object bean);
+    }
+}
@@ -100,6 +100,23 @@ public class MethodHandleMapper<T> {
         return accessor != null ? accessor.fieldType : null;
     }
     
+    /**
+     * Get raw setter handle for a field name (used by compiled column binding plans
+     * to resolve the accessor once instead of looking it up per cell)
+     */
+    public MethodHandle getSetterHandle(String fieldName) {
+        FieldAccessor accessor = fieldAccessors.get(fieldName);
+        return accessor != null ? accessor.setter : null;
+    }
+
+    /**
+     * Get raw getter handle for a field or Excel column name (resolved once by batch writers)
+     */
+    public MethodHandle getGetterHandle(String fieldName) {
+        FieldAccessor accessor = fieldAccessors.get(fieldName);
+        return accessor != null ? accessor.getter : null;
+    }
+
     /**
      * Check if field exists
      */
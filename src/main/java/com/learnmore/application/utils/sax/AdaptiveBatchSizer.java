@@ -0,0 +1,233 @@
+package com.learnmore.application.utils.sax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Điều chỉnh batch size lúc chạy theo latency của consumer và áp lực heap
+ *
+ * - Mỗi batch xong, consumer báo (rows, thời gian) → latency/row được làm mượt (EWMA)
+ * - Size kế tiếp nhắm tới targetLatency: size = target / latencyPerRow, mỗi lần đổi tối đa ×2 hoặc ÷2,
+ *   bỏ qua thay đổi < 10% để không dao động
+ * - Heap còn sống sau GC (collection usage của old/tenured pool) vượt heapThresholdMB hoặc 80% max
+ *   trong 2 lần đo liên tiếp (hoặc backOff() được gọi) → giảm một nửa, và không tăng lại trong vài batch
+ *   kế tiếp. Used heap thô bao gồm cả rác chưa thu nên không dùng; áp lực chỉ hết khi xuống dưới
+ *   90% threshold / 70% max (hysteresis)
+ * - Luôn nằm trong [minSize, maxSize]
+ *
+ * Producer đọc currentSize() khi bắt đầu batch mới; recordBatch() có thể gọi từ worker thread.
+ */
+@Slf4j
+public final class AdaptiveBatchSizer {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final MemoryPoolMXBean TENURED = findTenuredPool();
+    private static final double SMOOTHING = 0.3;
+    private static final double DEAD_BAND = 0.10;
+    private static final int HOLD_AFTER_BACK_OFF = 3;
+    private static final int PRESSURE_CONFIRMATIONS = 2;
+    private static final double HIGH_HEAP_RATIO = 0.8;
+    private static final double LOW_HEAP_RATIO = 0.7;
+    private static final double LOW_THRESHOLD_RATIO = 0.9;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long targetNanos;
+    private final long heapThresholdBytes;
+    private final Supplier<MemoryUsage> liveHeap;
+
+    private volatile int currentSize;
+    private volatile boolean pressure;
+
+    // Guarded by this
+    private double nanosPerRow = -1;
+    private int holdBatches;
+    private int pressureReadings;
+    private long batches;
+    private long rows;
+    private long totalNanos;
+    private long adjustments;
+    private long backOffs;
+    private int smallestSize;
+    private int largestSize;
+
+    /**
+     * @param initialSize Size of the first batch (clamped to [minSize, maxSize])
+     * @param minSize Smallest batch
+     * @param maxSize Largest batch
+     * @param targetLatencyMs Consumer time per batch to aim for
+     * @param heapThresholdMB Heap usage that forces a back-off; 0 = latency only
+     */
+    public AdaptiveBatchSizer(int initialSize, int minSize, int maxSize, long targetLatencyMs, long heapThresholdMB) {
+        this(initialSize, minSize, maxSize, targetLatencyMs, heapThresholdMB, AdaptiveBatchSizer::tenuredAfterLastGc);
+    }
+
+    /**
+     * @param liveHeap Heap usage after the last collection (test hook)
+     */
+    AdaptiveBatchSizer(int initialSize, int minSize, int maxSize, long targetLatencyMs, long heapThresholdMB,
+                       Supplier<MemoryUsage> liveHeap) {
+        if (minSize <= 0 || maxSize < minSize || targetLatencyMs <= 0) {
+            throw new IllegalArgumentException("Require 0 < minSize <= maxSize and targetLatencyMs > 0");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.heapThresholdBytes = Math.max(0, heapThresholdMB) * 1024L * 1024L;
+        this.liveHeap = liveHeap;
+        this.currentSize = clamp(initialSize);
+        this.smallestSize = currentSize;
+        this.largestSize = currentSize;
+    }
+
+    /**
+     * Rows to put in the next batch
+     */
+    public int currentSize() {
+        return currentSize;
+    }
+
+    /**
+     * One batch went through the consumer: fold its latency in and pick the next size
+     */
+    public synchronized void recordBatch(int batchRows, long elapsedNanos) {
+        if (batchRows <= 0) {
+            return;
+        }
+        batches++;
+        rows += batchRows;
+        totalNanos += elapsedNanos;
+
+        double perRow = (double) Math.max(1, elapsedNanos) / batchRows;
+        nanosPerRow = nanosPerRow < 0 ? perRow : nanosPerRow * (1 - SMOOTHING) + perRow * SMOOTHING;
+
+        int size = currentSize;
+        int next;
+        if (pressure || heapPressureConfirmed()) {
+            pressure = false;
+            pressureReadings = 0;
+            next = clamp(size / 2);
+            holdBatches = HOLD_AFTER_BACK_OFF;
+            if (next != size) {
+                backOffs++;
+                log.debug("Heap pressure: batch size {} -> {}", size, next);
+            }
+        } else {
+            long target = (long) (targetNanos / nanosPerRow);
+            if (holdBatches > 0) {
+                holdBatches--;
+                target = Math.min(target, size);
+            }
+            next = clamp((int) Math.max(size / 2, Math.min((long) size * 2, target)));
+            if (Math.abs(next - size) < size * DEAD_BAND) {
+                next = size;
+            }
+        }
+        if (next != size) {
+            adjustments++;
+            currentSize = next;
+            smallestSize = Math.min(smallestSize, next);
+            largestSize = Math.max(largestSize, next);
+        }
+    }
+
+    /**
+     * Memory pressure seen outside the sizer: the next recorded batch shrinks the size
+     */
+    public void backOff() {
+        pressure = true;
+    }
+
+    public synchronized long getRecordedBatches() {
+        return batches;
+    }
+
+    public synchronized int getSmallestSize() {
+        return smallestSize;
+    }
+
+    public synchronized int getLargestSize() {
+        return largestSize;
+    }
+
+    /**
+     * Average rows per recorded batch
+     */
+    public synchronized int getAverageSize() {
+        return batches > 0 ? (int) (rows / batches) : currentSize;
+    }
+
+    public synchronized long getAverageLatencyMs() {
+        return batches > 0 ? TimeUnit.NANOSECONDS.toMillis(totalNanos / batches) : 0;
+    }
+
+    public synchronized long getAdjustments() {
+        return adjustments;
+    }
+
+    public synchronized long getBackOffs() {
+        return backOffs;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("AdaptiveBatchSizer{current=%d, range=%d-%d, avg=%d rows/%d ms, adjustments=%d, backOffs=%d}",
+                currentSize, smallestSize, largestSize, getAverageSize(), getAverageLatencyMs(), adjustments, backOffs);
+    }
+
+    /**
+     * Live heap above the threshold or 80% of max for PRESSURE_CONFIRMATIONS readings in a row;
+     * a reading between the low and high marks neither confirms nor clears the pressure
+     */
+    private boolean heapPressureConfirmed() {
+        MemoryUsage heap = liveHeap.get();
+        if (heap == null || heap.getUsed() <= 0) {
+            pressureReadings = 0; // Pool not collected yet: no evidence of a large live set
+            return false;
+        }
+        long used = heap.getUsed();
+        long max = heap.getMax() > 0 ? heap.getMax() : MEMORY.getHeapMemoryUsage().getMax();
+        boolean high = (heapThresholdBytes > 0 && used > heapThresholdBytes)
+                || (max > 0 && used >= max * HIGH_HEAP_RATIO);
+        boolean low = (heapThresholdBytes <= 0 || used < heapThresholdBytes * LOW_THRESHOLD_RATIO)
+                && (max <= 0 || used < max * LOW_HEAP_RATIO);
+        if (high) {
+            pressureReadings++;
+        } else if (low) {
+            pressureReadings = 0;
+        }
+        return pressureReadings >= PRESSURE_CONFIRMATIONS;
+    }
+
+    /**
+     * Old/tenured pool usage right after its last collection (null if the collector has no such pool)
+     */
+    private static MemoryUsage tenuredAfterLastGc() {
+        return TENURED != null ? TENURED.getCollectionUsage() : null;
+    }
+
+    /**
+     * Eden and survivor pools support no usage threshold; the old generation (or the single
+     * heap pool of ZGC/Shenandoah) supports both usage and collection-usage thresholds
+     */
+    private static MemoryPoolMXBean findTenuredPool() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()
+                    && pool.isCollectionUsageThresholdSupported()) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+}
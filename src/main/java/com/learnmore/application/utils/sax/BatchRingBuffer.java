@@ -0,0 +1,674 @@
+package com.learnmore.application.utils.sax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Bounded ring buffer (Disruptor-style, sequence-based) giữa SAX thread và batch workers
+ *
+ * - Một producer (SAX thread): claim() slot kế tiếp, đổ row vào slot.rows(), publish()
+ * - Tối đa N worker: mỗi worker lấy sequence kế tiếp (work-queue), xử lý batch rồi release slot.
+ *   Worker là drain task trên một Executor (riêng hoặc dùng chung giữa nhiều ring): chạy khi có
+ *   batch đã publish, thoát khi hết việc → không giữ thread khi rảnh
+ * - Slot chỉ được claim lại khi worker đã release → backpressure tự nhiên, bộ nhớ trần
+ *   cố định = capacity × batchSize rows
+ * - limitInFlightBytes(): số batch in-flight còn bị giới hạn theo kích thước batch đo được
+ *   (bytes producer allocate khi đổ batch), producer chờ khi vượt budget
+ * - deliverInOrder(): prepare chạy song song trên worker, commit chạy lần lượt theo sequence
+ *   (reorder buffer); slot chỉ release sau commit → số batch chờ commit ≤ capacity (reorder window)
+ * - Batch container (ArrayList) của mỗi slot được dùng lại; nếu bật recycleRows, các row object
+ *   của batch cũ được trả lại producer qua slot.pollRecycled() để dùng cho batch mới
+ *
+ * Consumer KHÔNG được giữ list (hoặc row object khi recycleRows) sau khi accept() trả về.
+ * Lỗi của consumer được ghi nhận (getFailureCount / getFirstFailure), các batch khác vẫn chạy.
+ *
+ * @param <T> Row type
+ */
+@Slf4j
+public final class BatchRingBuffer<T> implements AutoCloseable {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 50_000L;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    // Reorder buffer markers: nothing to commit for the batch
+    private static final Object EMPTY_BATCH = new Object();
+    private static final Object FAILED_BATCH = new Object();
+
+    private final int capacity;
+    private final int mask;
+    private final Slot<T>[] slots;
+    // Sequence last published into / released from each slot
+    private final AtomicLongArray published;
+    private final AtomicLongArray released;
+    private final AtomicLong workSequence = new AtomicLong(-1);
+    private final AtomicLong releasedCount = new AtomicLong();
+    private final Consumer<List<T>> consumer;
+    private final boolean recycleRows;
+    private final int workerCount;
+    private final Executor executor;
+    // Dedicated pool created by the thread-name constructor (shut down on close)
+    private final ExecutorService ownedExecutor;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private final AtomicLong processedBatches = new AtomicLong();
+    private final AtomicLong processedRecords = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    // Producer-only state
+    private long nextSequence = 0;
+    private volatile long lastPublished = -1;
+    // Last published sequence once finish() is called
+    private volatile long endSequence = Long.MAX_VALUE;
+
+    // Memory-aware admission (limitInFlightBytes): producer measures, claim() waits
+    private long inFlightBudgetBytes = 0;
+    private volatile int admissionLimit;
+    private volatile long averageBatchBytes = 0;
+    private long claimAllocatedBytes = -1;
+    private final AtomicLong stallNanos = new AtomicLong();
+    private final AtomicLong stallCount = new AtomicLong();
+    private volatile int peakQueueDepth;
+    private volatile boolean aborted = false;
+    private volatile boolean yieldBetweenBatches = false;
+    // Told the sequence of each slot whose batch completed without error (worker thread)
+    private volatile LongConsumer completionListener;
+    // Told the size and consumer (or commit) time of every processed batch
+    private volatile AdaptiveBatchSizer batchSizer;
+
+    // Ordered delivery (deliverInOrder): prepared results wait per slot until every earlier batch is committed
+    private Function<List<T>, ?> prepareStage;
+    private Consumer<Object> commitStage;
+    private Object[] preparedResults;
+    private AtomicLongArray prepared;
+    private volatile long nextCommit = 0;
+    private final ReentrantLock commitLock = new ReentrantLock();
+
+    /**
+     * Ring with its own pool of workerCount daemon threads
+     *
+     * @param capacity Số slot (làm tròn lên lũy thừa của 2)
+     * @param batchSize Kích thước batch dự kiến (capacity ban đầu của container)
+     * @param workerCount Số worker thread
+     * @param recycleRows Trả row object của batch đã xử lý lại cho producer
+     * @param threadNamePrefix Tiền tố tên worker thread
+     * @param consumer Batch consumer, gọi trên worker thread
+     */
+    public BatchRingBuffer(int capacity, int batchSize, int workerCount, boolean recycleRows,
+                           String threadNamePrefix, Consumer<List<T>> consumer) {
+        this(capacity, batchSize, workerCount, recycleRows, null, dedicatedPool(workerCount, threadNamePrefix), consumer);
+    }
+
+    /**
+     * Ring whose workers run on a shared executor (at most workerCount of them at a time)
+     *
+     * @param executor Shared pool; a worker holds one of its threads only while batches are waiting
+     */
+    public BatchRingBuffer(int capacity, int batchSize, int workerCount, boolean recycleRows,
+                           Executor executor, Consumer<List<T>> consumer) {
+        this(capacity, batchSize, workerCount, recycleRows, executor, null, consumer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BatchRingBuffer(int capacity, int batchSize, int workerCount, boolean recycleRows,
+                            Executor sharedExecutor, ExecutorService ownedExecutor, Consumer<List<T>> consumer) {
+        if (capacity <= 0 || workerCount <= 0) {
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+            }
+            throw new IllegalArgumentException("capacity and workerCount must be positive");
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1 == 0 ? 1 : (capacity - 1) << 1);
+        this.mask = this.capacity - 1;
+        this.admissionLimit = this.capacity;
+        this.consumer = consumer;
+        this.recycleRows = recycleRows;
+        this.workerCount = workerCount;
+        this.ownedExecutor = ownedExecutor;
+        this.executor = ownedExecutor != null ? ownedExecutor : sharedExecutor;
+        this.slots = new Slot[this.capacity];
+        this.published = new AtomicLongArray(this.capacity);
+        this.released = new AtomicLongArray(this.capacity);
+        int initialRows = Math.max(16, Math.min(batchSize, 65_536));
+        for (int i = 0; i < this.capacity; i++) {
+            slots[i] = new Slot<>(initialRows, recycleRows);
+            published.set(i, i - this.capacity);
+            released.set(i, i - this.capacity);
+        }
+        log.debug("BatchRingBuffer started: {} slots, {} workers ({}), recycleRows={}",
+                this.capacity, workerCount, ownedExecutor != null ? "dedicated" : "shared pool", recycleRows);
+    }
+
+    private static ExecutorService dedicatedPool(int workerCount, String threadNamePrefix) {
+        AtomicInteger threadSequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, workerCount), r -> {
+            Thread worker = new Thread(r, threadNamePrefix + "-" + threadSequence.getAndIncrement());
+            worker.setDaemon(true);
+            return worker;
+        });
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Producer side (single thread)
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Claim the next slot; blocks while every slot is still being processed, or while the
+     * in-flight batches use the whole limitInFlightBytes budget (backpressure)
+     */
+    public Slot<T> claim() {
+        long sequence = nextSequence;
+        int index = (int) (sequence & mask);
+        long wrapPoint = sequence - capacity;
+        int tries = 0;
+        long stallStart = 0;
+        while (released.get(index) < wrapPoint || sequence - releasedCount.get() >= admissionLimit) {
+            if (aborted) {
+                throw new IllegalStateException("Batch ring buffer was closed");
+            }
+            if (stallStart == 0) {
+                stallStart = System.nanoTime();
+                stallCount.incrementAndGet();
+            }
+            tries = idle(tries);
+        }
+        if (stallStart != 0) {
+            stallNanos.addAndGet(System.nanoTime() - stallStart);
+        }
+        Slot<T> slot = slots[index];
+        slot.prepare(sequence);
+        nextSequence = sequence + 1;
+        if (inFlightBudgetBytes > 0) {
+            claimAllocatedBytes = allocatedBytes();
+        }
+        return slot;
+    }
+
+    /**
+     * Make a filled slot visible to the workers
+     */
+    public void publish(Slot<T> slot) {
+        if (inFlightBudgetBytes > 0 && !slot.rows.isEmpty()) {
+            measureBatch(allocatedBytes() - claimAllocatedBytes);
+        }
+        published.set((int) (slot.sequence & mask), slot.sequence);
+        lastPublished = slot.sequence;
+        int depth = getQueueDepth();
+        if (depth > peakQueueDepth) {
+            peakQueueDepth = depth;
+        }
+        startWorker();
+    }
+
+    /**
+     * No more batches: workers exit once everything published so far is processed
+     */
+    public void finish() {
+        endSequence = nextSequence - 1;
+        checkDone();
+    }
+
+    /**
+     * Wait until all published batches are processed (call finish() first)
+     *
+     * @return false on timeout
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit);
+    }
+
+    /**
+     * Stop the workers; batches not yet taken are dropped (no-op after normal completion)
+     */
+    @Override
+    public void close() {
+        if (done.getCount() != 0) {
+            aborted = true;
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Cap in-flight batches (published, not yet released) so that their measured size stays within
+     * budgetBytes. Batch size = bytes allocated by the producer thread between claim() and publish()
+     * (an upper bound of what the batch retains), smoothed over batches. Call before the first claim().
+     *
+     * @param budgetBytes In-flight budget; 0 = slot count only. Ignored if the JVM cannot measure allocation.
+     */
+    public void limitInFlightBytes(long budgetBytes) {
+        if (budgetBytes > 0 && allocatedBytes() < 0) {
+            log.debug("Thread allocation measurement unavailable, in-flight batches bounded by slot count only");
+            return;
+        }
+        this.inFlightBudgetBytes = Math.max(0, budgetBytes);
+    }
+
+    /**
+     * Shared fair executor: a worker hands its thread back after every batch and re-queues itself
+     * while batches are waiting, so batches of concurrent reads interleave instead of one read
+     * holding a thread until its ring runs dry. Call before the first publish().
+     */
+    public void yieldBetweenBatches() {
+        this.yieldBetweenBatches = true;
+    }
+
+    /**
+     * Listener called on the worker thread with a slot's sequence once its consumer returned normally
+     * (also for empty slots). Register before the first publish().
+     */
+    public void onBatchCompleted(LongConsumer listener) {
+        this.completionListener = listener;
+    }
+
+    /**
+     * Report each batch's consumer time to the sizer the producer takes its batch size from
+     * (in ordered mode the commit stage is timed). Register before the first publish().
+     */
+    public void adaptBatchSize(AdaptiveBatchSizer sizer) {
+        this.batchSizer = sizer;
+    }
+
+    /**
+     * Ordered delivery: workers run prepare in parallel, commit runs one batch at a time in sequence
+     * order (on whichever worker completes the contiguous prefix). The constructor's consumer is not
+     * used. A slot is released only after its commit, so at most capacity batches are prepared ahead
+     * of the oldest uncommitted one. Call before the first publish().
+     *
+     * @param prepare Parallel stage; a failure skips the batch's commit (counted as a failed batch)
+     * @param commit Ordered stage, never concurrent
+     */
+    @SuppressWarnings("unchecked")
+    public <R> void deliverInOrder(Function<List<T>, R> prepare, Consumer<R> commit) {
+        this.prepareStage = prepare;
+        this.commitStage = (Consumer<Object>) commit;
+        this.preparedResults = new Object[capacity];
+        this.prepared = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            prepared.set(i, i - capacity);
+        }
+    }
+
+    public boolean isOrdered() {
+        return commitStage != null;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Published batches not yet taken by a worker
+     */
+    public int getQueueDepth() {
+        return (int) Math.max(0, lastPublished - workSequence.get());
+    }
+
+    public int getPeakQueueDepth() {
+        return peakQueueDepth;
+    }
+
+    /**
+     * Published batches not yet released (queued + being processed)
+     */
+    public int getInFlightBatches() {
+        return (int) Math.max(0, lastPublished + 1 - releasedCount.get());
+    }
+
+    /**
+     * Current limit on in-flight batches (slot count unless limitInFlightBytes is active)
+     */
+    public int getAdmissionLimit() {
+        return admissionLimit;
+    }
+
+    /**
+     * Smoothed batch size measured for admission, 0 if not measured
+     */
+    public long getAverageBatchBytes() {
+        return averageBatchBytes;
+    }
+
+    /**
+     * Total time the producer waited in claim()
+     */
+    public long getStallTimeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(stallNanos.get());
+    }
+
+    public long getStallCount() {
+        return stallCount.get();
+    }
+
+    public long getProcessedBatches() {
+        return processedBatches.get();
+    }
+
+    public long getProcessedRecords() {
+        return processedRecords.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public Throwable getFirstFailure() {
+        return firstFailure.get();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Worker side
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Start a worker if published batches are waiting and fewer than workerCount are running
+     */
+    private void startWorker() {
+        int active;
+        while ((active = activeWorkers.get()) < workerCount) {
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                try {
+                    executor.execute(this::runWorker);
+                } catch (RejectedExecutionException e) {
+                    activeWorkers.decrementAndGet();
+                    log.warn("Batch worker rejected by executor: {}", e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    private void runWorker() {
+        while (true) {
+            long sequence = take();
+            if (sequence < 0) {
+                activeWorkers.decrementAndGet();
+                // A batch published after take() gave up but before the decrement saw workerCount
+                // active workers and started none: pick it up again instead of leaving it stranded
+                if (aborted || !hasWaitingBatch() || !rejoin()) {
+                    return;
+                }
+                continue;
+            }
+            if (commitStage != null) {
+                prepare(sequence);
+            } else {
+                process(sequence);
+            }
+            if (yieldBetweenBatches && hasWaitingBatch() && requeueWorker()) {
+                return; // Still counted in activeWorkers: the re-queued task continues this worker
+            }
+        }
+    }
+
+    private boolean requeueWorker() {
+        try {
+            executor.execute(this::runWorker);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false; // Keep draining on this thread
+        }
+    }
+
+    /**
+     * Take the next published sequence, or -1 if none is waiting
+     */
+    private long take() {
+        while (!aborted) {
+            long current = workSequence.get();
+            long sequence = current + 1;
+            if (published.get((int) (sequence & mask)) != sequence) {
+                return -1;
+            }
+            if (workSequence.compareAndSet(current, sequence)) {
+                return sequence;
+            }
+        }
+        return -1;
+    }
+
+    private boolean hasWaitingBatch() {
+        long sequence = workSequence.get() + 1;
+        return published.get((int) (sequence & mask)) == sequence;
+    }
+
+    private boolean rejoin() {
+        int active;
+        while ((active = activeWorkers.get()) < workerCount) {
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void process(long sequence) {
+        int index = (int) (sequence & mask);
+        Slot<T> slot = slots[index];
+        int size = slot.rows.size();
+        try {
+            // Empty slots (published at end of stream) are released without a callback
+            if (size > 0) {
+                long started = System.nanoTime();
+                consumer.accept(slot.rows);
+                recordLatency(size, started);
+                processedBatches.incrementAndGet();
+                processedRecords.addAndGet(size);
+            }
+            LongConsumer listener = completionListener;
+            if (listener != null) {
+                listener.accept(sequence);
+            }
+        } catch (Throwable t) {
+            recordFailure(t, size);
+        } finally {
+            release(slot, index, sequence);
+        }
+    }
+
+    /**
+     * Ordered mode: run the parallel stage, park the result, then commit whatever prefix is complete
+     */
+    private void prepare(long sequence) {
+        int index = (int) (sequence & mask);
+        Slot<T> slot = slots[index];
+        int size = slot.rows.size();
+        Object result = EMPTY_BATCH;
+        if (size > 0) {
+            try {
+                result = prepareStage.apply(slot.rows);
+            } catch (Throwable t) {
+                recordFailure(t, size);
+                result = FAILED_BATCH;
+            }
+        }
+        preparedResults[index] = result;
+        prepared.set(index, sequence);
+        drainCommits();
+    }
+
+    /**
+     * Commit prepared batches in sequence order. Only one worker drains at a time; the others just
+     * park their result and leave. After unlocking, the drainer re-checks the next sequence so a
+     * result parked while it held the lock is not left behind.
+     */
+    private void drainCommits() {
+        while (commitLock.tryLock()) {
+            try {
+                long sequence = nextCommit;
+                while (prepared.get((int) (sequence & mask)) == sequence) {
+                    commit(sequence);
+                    nextCommit = ++sequence;
+                }
+            } finally {
+                commitLock.unlock();
+            }
+            long next = nextCommit;
+            if (prepared.get((int) (next & mask)) != next) {
+                return;
+            }
+        }
+    }
+
+    private void commit(long sequence) {
+        int index = (int) (sequence & mask);
+        Slot<T> slot = slots[index];
+        int size = slot.rows.size();
+        Object result = preparedResults[index];
+        preparedResults[index] = null;
+        try {
+            if (result == FAILED_BATCH) {
+                return;
+            }
+            if (result != EMPTY_BATCH) {
+                long started = System.nanoTime();
+                commitStage.accept(result);
+                recordLatency(size, started);
+                processedBatches.incrementAndGet();
+                processedRecords.addAndGet(size);
+            }
+            LongConsumer listener = completionListener;
+            if (listener != null) {
+                listener.accept(sequence);
+            }
+        } catch (Throwable t) {
+            recordFailure(t, size);
+        } finally {
+            release(slot, index, sequence);
+        }
+    }
+
+    private void recordLatency(int size, long startedNanos) {
+        AdaptiveBatchSizer sizer = batchSizer;
+        if (sizer != null) {
+            sizer.recordBatch(size, System.nanoTime() - startedNanos);
+        }
+    }
+
+    private void recordFailure(Throwable t, int size) {
+        failureCount.incrementAndGet();
+        firstFailure.compareAndSet(null, t);
+        log.error("Error processing batch in ring buffer (batch size: {}): {}", size, t.getMessage(), t);
+    }
+
+    private void release(Slot<T> slot, int index, long sequence) {
+        if (!recycleRows) {
+            // Drop row references now rather than when the slot is claimed again
+            slot.rows.clear();
+        }
+        released.set(index, sequence);
+        releasedCount.incrementAndGet();
+        checkDone();
+    }
+
+    private void checkDone() {
+        if (releasedCount.get() == endSequence + 1) {
+            done.countDown();
+        }
+    }
+
+    /**
+     * Producer thread: fold one batch measurement into the average and recompute the admission limit
+     */
+    private void measureBatch(long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        long average = averageBatchBytes == 0 ? bytes : (averageBatchBytes * 3 + bytes) / 4;
+        averageBatchBytes = average;
+        admissionLimit = (int) Math.max(1, Math.min(capacity, inFlightBudgetBytes / average));
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or -1 if the JVM does not support it
+     */
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static int idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return tries + 1;
+    }
+
+    /**
+     * One reusable batch container
+     */
+    public static final class Slot<T> {
+        private final ArrayList<T> rows;
+        private final ArrayList<T> recycled;
+        private long sequence;
+
+        private Slot(int initialRows, boolean recycleRows) {
+            this.rows = new ArrayList<>(initialRows);
+            this.recycled = recycleRows ? new ArrayList<>(initialRows) : null;
+        }
+
+        private void prepare(long sequence) {
+            this.sequence = sequence;
+            if (recycled != null) {
+                // Rows of the previous lap become instances the producer may reuse
+                for (int i = 0; i < rows.size(); i++) {
+                    recycled.add(rows.get(i));
+                }
+            }
+            rows.clear();
+        }
+
+        /**
+         * Ring sequence of the batch being filled (0, 1, 2... in publish order)
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Batch container to fill (producer only, between claim() and publish())
+         */
+        public List<T> rows() {
+            return rows;
+        }
+
+        /**
+         * A row object released by the consumer of this slot's previous batch, or null
+         */
+        public T pollRecycled() {
+            if (recycled == null || recycled.isEmpty()) {
+                return null;
+            }
+            return recycled.remove(recycled.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,540 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.utils.ExcelColumn;
+import com.learnmore.application.utils.converter.TypeConverter;
+import com.learnmore.application.utils.reflection.BeanBinder;
+import com.learnmore.application.utils.reflection.MethodHandleMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Compiled column-index binding plan cho TrueStreamingSAXProcessor
+ *
+ * Header row được compile MỘT LẦN thành mảng dense theo column index.
+ * Mỗi phần tử giữ sẵn field name, setter sinh sẵn (BeanBinder), converter và cell-format plan,
+ * nên mỗi data cell sau header chỉ tốn một lần truy cập mảng:
+ * - Không duyệt headerMapping
+ * - Không regex trên header name
+ * - Không reflection (getDeclaredFields) per cell
+ * - Không MethodHandle.invoke boxed: setter là class sinh bằng LambdaMetafactory,
+ *   field primitive (int/long/double) được parse và set không boxing
+ *
+ * Typed raw-value path (FAST engine): numeric cell bind thẳng vào field số/ngày từ giá trị double
+ * (bindNumber / dateValue), bỏ qua DataFormatter → text → TypeConverter. Quyết định column nào
+ * nhận raw value được tính lúc compile (field type, cellFormat, custom converter).
+ *
+ * Field resolution giữ nguyên thứ tự ưu tiên của processor cũ:
+ * 1. Header là tên field Java (camelCase) → dùng trực tiếp
+ * 2. Header là @ExcelColumn.name → resolve về field name thật
+ * 3. Fallback: header được MethodHandleMapper nhận diện (backward compatibility)
+ *
+ * @param <T> Bean type được bind
+ */
+@Slf4j
+public final class ColumnBindingPlan<T> {
+
+    private static final ColumnBinding[] EMPTY = new ColumnBinding[0];
+
+    private final ColumnBinding[] bindings;
+    private final int boundColumnCount;
+
+    private ColumnBindingPlan(ColumnBinding[] bindings, int boundColumnCount) {
+        this.bindings = bindings;
+        this.boundColumnCount = boundColumnCount;
+    }
+
+    /**
+     * Compile header mapping (header name → column index) thành binding plan
+     *
+     * @param headerMapping Header name → 0-based column index, as collected from the header row
+     * @param beanClass Target bean class
+     * @param mapper MethodHandleMapper của bean class
+     * @param typeConverter Converter dùng cho các field không phải String
+     * @return Compiled plan (never null, có thể rỗng)
+     */
+    public static <T> ColumnBindingPlan<T> compile(Map<String, Integer> headerMapping,
+                                                   Class<T> beanClass,
+                                                   MethodHandleMapper<T> mapper,
+                                                   TypeConverter typeConverter) {
+        return compile(headerMapping, beanClass, mapper, typeConverter, null);
+    }
+
+    /**
+     * Compile với column projection: chỉ column có field name hoặc header name nằm trong projection
+     * được bind. Column còn lại không có binding → FAST engine không capture cell (không resolve
+     * shared string), không convert, không gọi setter.
+     *
+     * @param projection Field names / header names cần bind (null hoặc rỗng = tất cả)
+     */
+    public static <T> ColumnBindingPlan<T> compile(Map<String, Integer> headerMapping,
+                                                   Class<T> beanClass,
+                                                   MethodHandleMapper<T> mapper,
+                                                   TypeConverter typeConverter,
+                                                   Set<String> projection) {
+        if (headerMapping == null || headerMapping.isEmpty()) {
+            return new ColumnBindingPlan<>(EMPTY, 0);
+        }
+
+        // One reflection pass: field name / Excel column name → (field, annotation)
+        Map<String, Field> fieldsByExcelName = new HashMap<>();
+        Map<String, ExcelColumn> annotationsByFieldName = new HashMap<>();
+        for (Field field : beanClass.getDeclaredFields()) {
+            ExcelColumn annotation = field.getAnnotation(ExcelColumn.class);
+            if (annotation != null) {
+                annotationsByFieldName.put(field.getName(), annotation);
+                if (!annotation.name().isEmpty()) {
+                    fieldsByExcelName.putIfAbsent(annotation.name(), field);
+                }
+            }
+        }
+
+        BeanBinder<T> binder = BeanBinder.forClass(beanClass);
+
+        int maxColumn = -1;
+        for (Integer colIndex : headerMapping.values()) {
+            maxColumn = Math.max(maxColumn, colIndex);
+        }
+
+        boolean projected = projection != null && !projection.isEmpty();
+        ColumnBinding[] bindings = new ColumnBinding[maxColumn + 1];
+        int bound = 0;
+
+        for (Map.Entry<String, Integer> entry : headerMapping.entrySet()) {
+            String headerName = entry.getKey();
+            int colIndex = entry.getValue();
+
+            String fieldName = resolveFieldName(headerName, mapper, fieldsByExcelName);
+            if (fieldName == null) {
+                log.debug("Header '{}' at column {} has no matching field in {}",
+                        headerName, colIndex, beanClass.getSimpleName());
+                continue;
+            }
+
+            if (projected && !projection.contains(fieldName) && !projection.contains(headerName)) {
+                continue;
+            }
+
+            Class<?> fieldType = mapper.getFieldType(fieldName);
+            int slot = binder.slot(fieldName);
+            if (fieldType == null || slot < 0) {
+                continue;
+            }
+
+            ExcelColumn annotation = annotationsByFieldName.get(fieldName);
+            if (annotation == null) {
+                Field byExcelName = fieldsByExcelName.get(fieldName);
+                annotation = byExcelName != null ? byExcelName.getAnnotation(ExcelColumn.class) : null;
+            }
+            ExcelColumn.CellFormatType cellFormat = annotation != null
+                    ? annotation.cellFormat()
+                    : ExcelColumn.CellFormatType.GENERAL;
+
+            bindings[colIndex] = new ColumnBinding(
+                    colIndex,
+                    headerName,
+                    fieldName,
+                    fieldType,
+                    binder,
+                    slot,
+                    cellFormat,
+                    fieldType == String.class && isIdentifierFieldName(fieldName),
+                    createConverter(fieldType, typeConverter),
+                    !typeConverter.hasCustomConverter(fieldType)
+            );
+            bound++;
+        }
+
+        log.debug("Compiled column binding plan for {}: {} of {} header columns bound",
+                beanClass.getSimpleName(), bound, headerMapping.size());
+
+        return new ColumnBindingPlan<>(bindings, bound);
+    }
+
+    /**
+     * O(1) lookup binding cho column index
+     *
+     * @return Binding hoặc null nếu column không được map
+     */
+    public ColumnBinding binding(int colIndex) {
+        return colIndex >= 0 && colIndex < bindings.length ? bindings[colIndex] : null;
+    }
+
+    /**
+     * Number of header columns that resolved to a bean field
+     */
+    public int getBoundColumnCount() {
+        return boundColumnCount;
+    }
+
+    /**
+     * Width of the dense binding array (highest header column index + 1)
+     */
+    public int getWidth() {
+        return bindings.length;
+    }
+
+    /**
+     * Bound columns in sheet column order
+     */
+    public List<ColumnBinding> getBindings() {
+        List<ColumnBinding> bound = new ArrayList<>(boundColumnCount);
+        for (ColumnBinding binding : bindings) {
+            if (binding != null) {
+                bound.add(binding);
+            }
+        }
+        return bound;
+    }
+
+    private static String resolveFieldName(String headerName, MethodHandleMapper<?> mapper,
+                                           Map<String, Field> fieldsByExcelName) {
+        // Step 1: header is a direct field name (camelCase pattern)
+        if (mapper.hasField(headerName) && isFieldNamePattern(headerName)) {
+            return headerName;
+        }
+
+        // Step 2: resolve Excel column name to actual field name via annotation
+        Field field = fieldsByExcelName.get(headerName);
+        if (field != null && mapper.hasField(field.getName())) {
+            return field.getName();
+        }
+
+        // Step 3: fallback to header name if mapper knows it (backward compatibility)
+        if (mapper.hasField(headerName)) {
+            return headerName;
+        }
+        return null;
+    }
+
+    private static Function<String, Object> createConverter(Class<?> fieldType, TypeConverter typeConverter) {
+        if (fieldType == String.class) {
+            // Values reaching the converter are already trimmed by smart cell processing
+            return value -> value;
+        }
+        return value -> typeConverter.convert(value, fieldType);
+    }
+
+    /**
+     * Plain integer text ("123", "-45") parsed without allocation; anything else (decimals
+     * to truncate, exponents, junk) goes through TypeConverter so semantics stay identical
+     */
+    static int parseInt(String value, Function<String, Object> converter) {
+        long parsed = parseDigits(value, 9);
+        return parsed != Long.MIN_VALUE ? (int) parsed : ((Number) converter.apply(value)).intValue();
+    }
+
+    static long parseLong(String value, Function<String, Object> converter) {
+        long parsed = parseDigits(value, 18);
+        return parsed != Long.MIN_VALUE ? parsed : ((Number) converter.apply(value)).longValue();
+    }
+
+    static double parseDouble(String value, Function<String, Object> converter) {
+        // TypeConverter only special-cases a trailing '%'; everything else is Double.parseDouble
+        return value.endsWith("%") ? ((Number) converter.apply(value)).doubleValue() : Double.parseDouble(value);
+    }
+
+    /**
+     * Optional '-' followed by 1..maxDigits ASCII digits, or Long.MIN_VALUE if the text is not that shape
+     */
+    private static long parseDigits(String value, int maxDigits) {
+        int length = value.length();
+        int start = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        if (length == start || length - start > maxDigits) {
+            return Long.MIN_VALUE;
+        }
+        long result = 0;
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return Long.MIN_VALUE;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return start == 1 ? -result : result;
+    }
+
+    /**
+     * Check if a string matches Java field name pattern (camelCase, no spaces, no special chars)
+     */
+    static boolean isFieldNamePattern(String name) {
+        if (name == null || name.isEmpty()) {
+            return false;
+        }
+        char first = name.charAt(0);
+        if (!(Character.isLetter(first) && first < 128) && first != '_') {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9') || c == '_';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Name-based identifier detection (CMND, phone, tax code, account...)
+     * Evaluated once per column at compile time instead of once per cell
+     */
+    static boolean isIdentifierFieldName(String fieldName) {
+        String normalized = normalizeFieldName(fieldName);
+        return normalized.contains("identity") ||
+               normalized.contains("identitycard") ||
+               normalized.contains("cmnd") ||
+               normalized.contains("cccd") ||
+               normalized.contains("passport") ||
+               normalized.contains("phone") ||
+               normalized.contains("phonenumber") ||
+               normalized.contains("mobile") ||
+               normalized.contains("tax") ||
+               normalized.contains("taxcode") ||
+               normalized.contains("mst") ||
+               normalized.contains("account") ||
+               normalized.contains("accountnumber") ||
+               normalized.contains("code") ||
+               (normalized.contains("number") && normalized.contains("card"));
+    }
+
+    /**
+     * Normalize field name: remove diacritics (Vietnamese accents), spaces, convert to lowercase
+     * Example: "Số CMND" → "socmnd"
+     */
+    static String normalizeFieldName(String fieldName) {
+        if (fieldName == null || fieldName.isEmpty()) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(fieldName, Normalizer.Form.NFD);
+        normalized = normalized.replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+        return normalized.toLowerCase().replaceAll("\\s+", "");
+    }
+
+    /**
+     * Pre-resolved binding cho một column
+     */
+    public static final class ColumnBinding {
+        private final int columnIndex;
+        private final String headerName;
+        private final String fieldName;
+        private final Class<?> fieldType;
+        private final BeanBinder.ObjectSetter setter;
+        private final BeanBinder.IntSetter intSetter;
+        private final BeanBinder.LongSetter longSetter;
+        private final BeanBinder.DoubleSetter doubleSetter;
+        private final ExcelColumn.CellFormatType cellFormat;
+        private final boolean identifierByName;
+        private final boolean dateField;
+        private final Function<String, Object> converter;
+        private final boolean builtInParsing;
+        // Typed raw-value path eligibility (numeric cells only)
+        private final boolean rawNumbers;
+        private final boolean rawDates;
+
+        ColumnBinding(int columnIndex, String headerName, String fieldName, Class<?> fieldType,
+                      BeanBinder<?> binder, int slot, ExcelColumn.CellFormatType cellFormat,
+                      boolean identifierByName, Function<String, Object> converter,
+                      boolean builtInParsing) {
+            this.columnIndex = columnIndex;
+            this.headerName = headerName;
+            this.fieldName = fieldName;
+            this.fieldType = fieldType;
+            this.setter = binder.setter(slot);
+            this.intSetter = builtInParsing && fieldType == int.class ? binder.intSetter(slot) : null;
+            this.longSetter = builtInParsing && fieldType == long.class ? binder.longSetter(slot) : null;
+            this.doubleSetter = builtInParsing && fieldType == double.class ? binder.doubleSetter(slot) : null;
+            this.cellFormat = cellFormat;
+            this.identifierByName = identifierByName;
+            this.dateField = fieldType == java.time.LocalDate.class ||
+                             fieldType == java.time.LocalDateTime.class ||
+                             fieldType == java.util.Date.class;
+            this.converter = converter;
+            this.builtInParsing = builtInParsing;
+            // IDENTIFIER/TEXT columns keep the formatted text (leading zeros, custom formats)
+            boolean textFormat = cellFormat == ExcelColumn.CellFormatType.IDENTIFIER
+                    || cellFormat == ExcelColumn.CellFormatType.TEXT;
+            this.rawNumbers = builtInParsing && !textFormat && cellFormat != ExcelColumn.CellFormatType.DATE
+                    && isRawNumberType(fieldType);
+            this.rawDates = builtInParsing && !textFormat && cellFormat != ExcelColumn.CellFormatType.NUMBER
+                    && (dateField || fieldType == java.sql.Date.class || fieldType == java.sql.Timestamp.class);
+        }
+
+        private static boolean isRawNumberType(Class<?> type) {
+            return type == int.class || type == Integer.class || type == long.class || type == Long.class
+                    || type == double.class || type == Double.class || type == float.class || type == Float.class
+                    || type == BigDecimal.class;
+        }
+
+        /**
+         * Convert processed cell text to the field type
+         */
+        public Object convert(String processedValue) {
+            return converter.apply(processedValue);
+        }
+
+        /**
+         * Set converted value on the instance via the generated setter
+         */
+        public void set(Object instance, Object value) {
+            setter.set(instance, value);
+        }
+
+        /**
+         * Convert and set in one step; int/long/double fields are parsed and set without boxing
+         */
+        public void bind(Object instance, String processedValue) {
+            if (intSetter != null) {
+                intSetter.set(instance, parseInt(processedValue, converter));
+            } else if (longSetter != null) {
+                longSetter.set(instance, parseLong(processedValue, converter));
+            } else if (doubleSetter != null) {
+                doubleSetter.set(instance, parseDouble(processedValue, converter));
+            } else {
+                setter.set(instance, converter.apply(processedValue));
+            }
+        }
+
+        /**
+         * Numeric cells of this column may bind from the raw value (bindNumber)
+         */
+        public boolean bindsRawNumbers() {
+            return rawNumbers;
+        }
+
+        /**
+         * Numeric cells of this column are Excel serial dates (dateValue)
+         */
+        public boolean bindsRawDates() {
+            return rawDates;
+        }
+
+        /**
+         * Raw value converts to the field type without loss: whole and in range for int/long,
+         * finite for float. Otherwise the caller binds the formatted text (TypeConverter rules).
+         */
+        public boolean fitsNumber(double value) {
+            if (fieldType == int.class || fieldType == Integer.class) {
+                return value == Math.rint(value) && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+            } else if (fieldType == long.class || fieldType == Long.class) {
+                // 2^63 itself is not a long; every double below it is
+                return value == Math.rint(value) && value >= -0x1p63 && value < 0x1p63;
+            } else if (fieldType == float.class || fieldType == Float.class) {
+                return Math.abs(value) <= Float.MAX_VALUE;
+            }
+            return true;
+        }
+
+        /**
+         * Set a raw numeric cell value
+         *
+         * @throws ArithmeticException if the value does not fit the field (see fitsNumber)
+         */
+        public void bindNumber(Object instance, double value) {
+            if (intSetter != null) {
+                intSetter.set(instance, exactInt(value));
+            } else if (longSetter != null) {
+                longSetter.set(instance, exactLong(value));
+            } else if (doubleSetter != null) {
+                doubleSetter.set(instance, value);
+            } else {
+                setter.set(instance, numberValue(value));
+            }
+        }
+
+        /**
+         * Raw numeric cell value boxed to the field type
+         */
+        public Object numberValue(double value) {
+            if (fieldType == int.class || fieldType == Integer.class) {
+                return exactInt(value);
+            } else if (fieldType == long.class || fieldType == Long.class) {
+                return exactLong(value);
+            } else if (fieldType == float.class || fieldType == Float.class) {
+                if (!fitsNumber(value)) {
+                    throw new ArithmeticException("float overflow: " + value);
+                }
+                return (float) value;
+            } else if (fieldType == BigDecimal.class) {
+                return BigDecimal.valueOf(value);
+            }
+            return value;
+        }
+
+        static int exactInt(double value) {
+            if (value != Math.rint(value)) {
+                throw new ArithmeticException("not an integer: " + value);
+            }
+            // Out-of-range doubles saturate to Long.MIN/MAX_VALUE, which toIntExact rejects
+            return Math.toIntExact((long) value);
+        }
+
+        static long exactLong(double value) {
+            if (value != Math.rint(value) || value < -0x1p63 || value >= 0x1p63) {
+                throw new ArithmeticException("not a long: " + value);
+            }
+            return (long) value;
+        }
+
+        /**
+         * Excel serial date → field type (LocalDate, LocalDateTime, Date, java.sql.Date, Timestamp)
+         *
+         * @return Converted value, or null if the number is outside the Excel date range
+         */
+        public Object dateValue(double serialDate) {
+            // Excel dates range from 1 to 2958465 (year 1900 to 9999)
+            if (serialDate < 1 || serialDate >= 3000000) {
+                return null;
+            }
+            java.time.LocalDateTime dateTime = DateUtil.getLocalDateTime(serialDate);
+            if (fieldType == java.time.LocalDateTime.class) {
+                return dateTime;
+            } else if (fieldType == java.time.LocalDate.class) {
+                return dateTime.toLocalDate();
+            } else if (fieldType == java.sql.Date.class) {
+                return java.sql.Date.valueOf(dateTime.toLocalDate());
+            } else if (fieldType == java.sql.Timestamp.class) {
+                return java.sql.Timestamp.valueOf(dateTime);
+            }
+            return java.util.Date.from(dateTime.atZone(java.time.ZoneId.systemDefault()).toInstant());
+        }
+
+        /**
+         * Parse as int with the field's conversion rules (no boxing unless a custom converter is registered)
+         */
+        public int convertInt(String processedValue) {
+            return builtInParsing ? parseInt(processedValue, converter)
+                    : ((Number) converter.apply(processedValue)).intValue();
+        }
+
+        public long convertLong(String processedValue) {
+            return builtInParsing ? parseLong(processedValue, converter)
+                    : ((Number) converter.apply(processedValue)).longValue();
+        }
+
+        public double convertDouble(String processedValue) {
+            return builtInParsing ? parseDouble(processedValue, converter)
+                    : ((Number) converter.apply(processedValue)).doubleValue();
+        }
+
+        public int getColumnIndex() { return columnIndex; }
+        public String getHeaderName() { return headerName; }
+        public String getFieldName() { return fieldName; }
+        public Class<?> getFieldType() { return fieldType; }
+        public ExcelColumn.CellFormatType getCellFormat() { return cellFormat; }
+        public boolean hasExplicitCellFormat() { return cellFormat != ExcelColumn.CellFormatType.GENERAL; }
+        public boolean isIdentifierByName() { return identifierByName; }
+        public boolean isDateField() { return dateField; }
+    }
+}
@@ -0,0 +1,484 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.utils.reflection.BeanBinder;
+import com.learnmore.application.utils.sax.ColumnBindingPlan.ColumnBinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar batch output cho TrueStreamingSAXProcessor (thay cho List&lt;T&gt; bean)
+ *
+ * Mỗi cột được bind (theo ColumnBindingPlan) lưu trong mảng riêng:
+ * - int / Integer → int[], long / Long → long[], double / Double → double[]
+ * - boolean / Boolean → bitmap
+ * - String → dictionary-encoded (int[] code + dictionary của batch)
+ * - Kiểu khác (LocalDate, BigDecimal, enum...) → Object[]
+ * - Null bitmap cho mọi cột (cell trống hoặc convert lỗi = null, giống field bean để default)
+ *
+ * Mảng được dùng lại giữa các batch: consumer KHÔNG được giữ batch (hoặc RowView) sau khi
+ * accept() trả về - copy giá trị hoặc gọi toBeans() nếu cần giữ lại.
+ *
+ * row(i) / toBean(i) là accessor tương thích cho code vẫn làm việc theo từng row.
+ *
+ * @param <T> Bean type mô tả schema (dùng cho toBean)
+ */
+public final class ColumnarBatch<T> {
+
+    public enum ColumnType { INT, LONG, DOUBLE, BOOLEAN, STRING, OBJECT }
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final BeanBinder<T> binder;
+    private final int columnCount;
+    private final ColumnBinding[] bindings;
+    private final ColumnType[] types;
+    private final int[] beanSlots;
+    private final int[] columnsBySheetIndex;
+    private final Map<String, Integer> columnsByName;
+    private final int rowNumSlot;
+
+    private final int[][] ints;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private final Object[][] objects;
+    private final long[][] booleans;
+    private final long[][] present;
+    private final StringDictionary[] dictionaries;
+
+    private int[] rowNums;
+    private int capacity;
+    private int size;
+
+    ColumnarBatch(ColumnBindingPlan<T> plan, BeanBinder<T> binder, int initialCapacity) {
+        this.binder = binder;
+        List<ColumnBinding> bound = plan.getBindings();
+        this.columnCount = bound.size();
+        this.bindings = bound.toArray(new ColumnBinding[0]);
+        this.types = new ColumnType[columnCount];
+        this.beanSlots = new int[columnCount];
+        this.columnsBySheetIndex = new int[plan.getWidth()];
+        this.columnsByName = new HashMap<>();
+        this.rowNumSlot = binder.slot("rowNum");
+        Arrays.fill(columnsBySheetIndex, -1);
+
+        this.capacity = Math.max(MIN_CAPACITY, initialCapacity);
+        this.rowNums = new int[capacity];
+        this.ints = new int[columnCount][];
+        this.longs = new long[columnCount][];
+        this.doubles = new double[columnCount][];
+        this.objects = new Object[columnCount][];
+        this.booleans = new long[columnCount][];
+        this.present = new long[columnCount][];
+        this.dictionaries = new StringDictionary[columnCount];
+
+        for (int c = 0; c < columnCount; c++) {
+            ColumnBinding binding = bindings[c];
+            types[c] = columnTypeOf(binding.getFieldType());
+            beanSlots[c] = binder.slot(binding.getFieldName());
+            columnsBySheetIndex[binding.getColumnIndex()] = c;
+            columnsByName.putIfAbsent(binding.getFieldName(), c);
+            present[c] = new long[words(capacity)];
+            switch (types[c]) {
+                case INT -> ints[c] = new int[capacity];
+                case LONG -> longs[c] = new long[capacity];
+                case DOUBLE -> doubles[c] = new double[capacity];
+                case BOOLEAN -> booleans[c] = new long[words(capacity)];
+                case STRING -> {
+                    ints[c] = new int[capacity];
+                    dictionaries[c] = new StringDictionary();
+                }
+                case OBJECT -> objects[c] = new Object[capacity];
+            }
+        }
+    }
+
+    static ColumnType columnTypeOf(Class<?> fieldType) {
+        if (fieldType == int.class || fieldType == Integer.class) {
+            return ColumnType.INT;
+        } else if (fieldType == long.class || fieldType == Long.class) {
+            return ColumnType.LONG;
+        } else if (fieldType == double.class || fieldType == Double.class) {
+            return ColumnType.DOUBLE;
+        } else if (fieldType == boolean.class || fieldType == Boolean.class) {
+            return ColumnType.BOOLEAN;
+        } else if (fieldType == String.class) {
+            return ColumnType.STRING;
+        }
+        return ColumnType.OBJECT;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Writer (processor side)
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Begin the row at index size(); overwrites whatever a discarded row left there
+     */
+    void startRow(int rowNum) {
+        if (size == capacity) {
+            grow();
+        }
+        rowNums[size] = rowNum;
+        int word = size >>> 6;
+        long mask = ~(1L << size);
+        for (int c = 0; c < columnCount; c++) {
+            present[c][word] &= mask;
+        }
+    }
+
+    /**
+     * Convert the processed cell text with the column's binding and store it in the pending row
+     */
+    void set(ColumnBinding binding, String processedValue) {
+        int c = columnsBySheetIndex[binding.getColumnIndex()];
+        if (c < 0) {
+            return;
+        }
+        int row = size;
+        switch (types[c]) {
+            case INT -> ints[c][row] = binding.convertInt(processedValue);
+            case LONG -> longs[c][row] = binding.convertLong(processedValue);
+            case DOUBLE -> doubles[c][row] = binding.convertDouble(processedValue);
+            case BOOLEAN -> {
+                Object value = binding.convert(processedValue);
+                if (value == null) {
+                    return;
+                }
+                setBit(booleans[c], row, (Boolean) value);
+            }
+            case STRING -> {
+                Object value = binding.convert(processedValue);
+                if (value == null) {
+                    return;
+                }
+                ints[c][row] = dictionaries[c].encode((String) value);
+            }
+            case OBJECT -> {
+                Object value = binding.convert(processedValue);
+                if (value == null) {
+                    return;
+                }
+                objects[c][row] = value;
+            }
+        }
+        present[c][row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * Typed raw-value path: numeric cell value for a column with binding.bindsRawNumbers()
+     */
+    void setNumber(ColumnBinding binding, double value) {
+        int c = columnsBySheetIndex[binding.getColumnIndex()];
+        if (c < 0) {
+            return;
+        }
+        int row = size;
+        switch (types[c]) {
+            case INT -> ints[c][row] = ColumnBinding.exactInt(value);
+            case LONG -> longs[c][row] = ColumnBinding.exactLong(value);
+            case DOUBLE -> doubles[c][row] = value;
+            case OBJECT -> objects[c][row] = binding.numberValue(value);
+            default -> {
+                return;
+            }
+        }
+        present[c][row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * Typed raw-value path: already converted value (e.g. a date from its Excel serial number)
+     */
+    void setValue(ColumnBinding binding, Object value) {
+        int c = columnsBySheetIndex[binding.getColumnIndex()];
+        if (c < 0 || value == null || types[c] != ColumnType.OBJECT) {
+            return;
+        }
+        objects[c][size] = value;
+        present[c][size >>> 6] |= 1L << size;
+    }
+
+    /**
+     * Commit the pending row
+     */
+    void commitRow() {
+        size++;
+    }
+
+    /**
+     * Reset for the next batch, keeping the arrays
+     */
+    void clear() {
+        for (int c = 0; c < columnCount; c++) {
+            if (objects[c] != null) {
+                Arrays.fill(objects[c], 0, size, null);
+            }
+            if (dictionaries[c] != null) {
+                dictionaries[c].clear();
+            }
+        }
+        size = 0;
+    }
+
+    private void grow() {
+        int newCapacity = capacity * 2;
+        rowNums = Arrays.copyOf(rowNums, newCapacity);
+        for (int c = 0; c < columnCount; c++) {
+            present[c] = Arrays.copyOf(present[c], words(newCapacity));
+            if (ints[c] != null) {
+                ints[c] = Arrays.copyOf(ints[c], newCapacity);
+            }
+            if (longs[c] != null) {
+                longs[c] = Arrays.copyOf(longs[c], newCapacity);
+            }
+            if (doubles[c] != null) {
+                doubles[c] = Arrays.copyOf(doubles[c], newCapacity);
+            }
+            if (objects[c] != null) {
+                objects[c] = Arrays.copyOf(objects[c], newCapacity);
+            }
+            if (booleans[c] != null) {
+                booleans[c] = Arrays.copyOf(booleans[c], words(newCapacity));
+            }
+        }
+        capacity = newCapacity;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Reader (consumer side)
+    // ---------------------------------------------------------------------------------------------
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Column of a bean field, or -1 if the sheet has no column bound to it
+     */
+    public int getColumnIndex(String fieldName) {
+        Integer column = columnsByName.get(fieldName);
+        return column != null ? column : -1;
+    }
+
+    public String getFieldName(int column) {
+        return bindings[column].getFieldName();
+    }
+
+    public String getHeaderName(int column) {
+        return bindings[column].getHeaderName();
+    }
+
+    public Class<?> getFieldType(int column) {
+        return bindings[column].getFieldType();
+    }
+
+    public ColumnType getColumnType(int column) {
+        return types[column];
+    }
+
+    /**
+     * 1-based Excel row number of a batch row (same value the bean's rowNum field gets)
+     */
+    public int getRowNum(int row) {
+        checkRow(row);
+        return rowNums[row];
+    }
+
+    public boolean isNull(int row, int column) {
+        checkRow(row);
+        return (present[column][row >>> 6] & (1L << row)) == 0;
+    }
+
+    public int getInt(int row, int column) {
+        checkType(column, ColumnType.INT);
+        checkRow(row);
+        return ints[column][row];
+    }
+
+    public long getLong(int row, int column) {
+        checkType(column, ColumnType.LONG);
+        checkRow(row);
+        return longs[column][row];
+    }
+
+    public double getDouble(int row, int column) {
+        checkType(column, ColumnType.DOUBLE);
+        checkRow(row);
+        return doubles[column][row];
+    }
+
+    public boolean getBoolean(int row, int column) {
+        checkType(column, ColumnType.BOOLEAN);
+        checkRow(row);
+        return (booleans[column][row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Dictionary code of a string cell (index into getDictionary(column)); -1 if null
+     */
+    public int getStringCode(int row, int column) {
+        checkType(column, ColumnType.STRING);
+        return isNull(row, column) ? -1 : ints[column][row];
+    }
+
+    /**
+     * Distinct values of a string column in this batch, indexed by code
+     */
+    public List<String> getDictionary(int column) {
+        checkType(column, ColumnType.STRING);
+        return dictionaries[column].view();
+    }
+
+    public String getString(int row, int column) {
+        int code = getStringCode(row, column);
+        return code < 0 ? null : dictionaries[column].values.get(code);
+    }
+
+    /**
+     * Boxed value of any column (null if the cell was empty); for compatibility paths only
+     */
+    public Object getObject(int row, int column) {
+        if (isNull(row, column)) {
+            return null;
+        }
+        return switch (types[column]) {
+            case INT -> ints[column][row];
+            case LONG -> longs[column][row];
+            case DOUBLE -> doubles[column][row];
+            case BOOLEAN -> getBoolean(row, column);
+            case STRING -> dictionaries[column].values.get(ints[column][row]);
+            case OBJECT -> objects[column][row];
+        };
+    }
+
+    /**
+     * Row-oriented view over one batch row (valid until the batch is handed back)
+     */
+    public RowView row(int row) {
+        checkRow(row);
+        return new RowView(row);
+    }
+
+    /**
+     * Materialise one row as a bean, exactly as the List&lt;T&gt; output would have produced it
+     */
+    public T toBean(int row) {
+        checkRow(row);
+        T bean = binder.newInstance();
+        if (rowNumSlot >= 0) {
+            binder.setter(rowNumSlot).set(bean, rowNums[row]);
+        }
+        for (int c = 0; c < columnCount; c++) {
+            if (beanSlots[c] >= 0 && !isNull(row, c)) {
+                binder.setter(beanSlots[c]).set(bean, getObject(row, c));
+            }
+        }
+        return bean;
+    }
+
+    public List<T> toBeans() {
+        List<T> beans = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            beans.add(toBean(row));
+        }
+        return beans;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of batch size " + size);
+        }
+    }
+
+    private void checkType(int column, ColumnType expected) {
+        if (types[column] != expected) {
+            throw new IllegalStateException("Column " + getFieldName(column) + " is " + types[column]
+                    + ", not " + expected);
+        }
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static void setBit(long[] bits, int index, boolean value) {
+        if (value) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * One batch row seen as field name → value
+     */
+    public final class RowView {
+        private final int row;
+
+        private RowView(int row) {
+            this.row = row;
+        }
+
+        public int getRowNum() {
+            return rowNums[row];
+        }
+
+        /**
+         * Field value, or null if the cell was empty or the sheet has no such column
+         */
+        public Object get(String fieldName) {
+            if ("rowNum".equals(fieldName) && rowNumSlot >= 0) {
+                return rowNums[row];
+            }
+            int column = getColumnIndex(fieldName);
+            return column >= 0 ? getObject(row, column) : null;
+        }
+
+        public boolean isNull(String fieldName) {
+            return get(fieldName) == null;
+        }
+
+        public T toBean() {
+            return ColumnarBatch.this.toBean(row);
+        }
+    }
+
+    /**
+     * Per-batch string dictionary; the backing list and map are reused across batches
+     */
+    private static final class StringDictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        List<String> view() {
+            return Collections.unmodifiableList(values);
+        }
+
+        void clear() {
+            values.clear();
+            codes.clear();
+        }
+    }
+}
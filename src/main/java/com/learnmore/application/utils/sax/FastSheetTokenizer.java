@@ -0,0 +1,755 @@
+package com.learnmore.application.utils.sax;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation-free tokenizer cho sheetN.xml (alternative to XSSFSheetXMLHandler)
+ *
+ * Đọc trực tiếp byte stream của sheet part, không qua SAX/JAXP:
+ * - Buffer đọc và buffer value được reuse cho toàn bộ sheet
+ * - Cell reference ("AB12") được decode số học thành column index, không tạo String
+ * - Giá trị được trao cho handler ở dạng raw (shared-string index, numeric text, style index)
+ * - Column không cần thiết (wantsCell == false) được bỏ qua mà không copy value
+ * - Dừng ngay tại &lt;/sheetData&gt; (không đọc mergeCells, conditional formatting...)
+ *
+ * Semantics theo XSSFSheetXMLHandler:
+ * - Row number 0-based, thiếu r → row trước + 1
+ * - Thiếu cell r → column trước + 1
+ * - Chỉ emit cell có &lt;v&gt; hoặc &lt;is&gt; (cell rỗng không emit)
+ * - Inline string ghép tất cả &lt;t&gt; trong &lt;is&gt; (kể cả &lt;rPh&gt;, giống POI)
+ *
+ * Not thread-safe: one tokenizer per parsing thread.
+ */
+public final class FastSheetTokenizer {
+
+    // Raw cell types (mapped from the t attribute)
+    public static final byte TYPE_NUMBER = 'n';
+    public static final byte TYPE_SHARED_STRING = 's';
+    public static final byte TYPE_INLINE_STRING = 'i';
+    public static final byte TYPE_FORMULA_STRING = 'f';
+    public static final byte TYPE_BOOLEAN = 'b';
+    public static final byte TYPE_ERROR = 'e';
+    public static final byte TYPE_DATE = 'd';
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    // Element ids
+    private static final int EL_OTHER = 0;
+    private static final int EL_ROW = 1;
+    private static final int EL_C = 2;
+    private static final int EL_V = 3;
+    private static final int EL_IS = 4;
+    private static final int EL_T = 5;
+    private static final int EL_SHEET_DATA = 6;
+
+    private static final byte[] NAME_ROW = ascii("row");
+    private static final byte[] NAME_C = ascii("c");
+    private static final byte[] NAME_V = ascii("v");
+    private static final byte[] NAME_IS = ascii("is");
+    private static final byte[] NAME_T = ascii("t");
+    private static final byte[] NAME_SHEET_DATA = ascii("sheetData");
+    private static final byte[] NAME_R = ascii("r");
+    private static final byte[] NAME_S = ascii("s");
+
+    /**
+     * Receiver of raw cells. Row numbers and column indexes are 0-based.
+     */
+    public interface RawSheetHandler {
+
+        void startRow(int rowNum);
+
+        /**
+         * Called before a cell's value is captured. Returning false skips the cell without copying its value.
+         */
+        default boolean wantsCell(int colIndex) {
+            return true;
+        }
+
+        /**
+         * @param value Reused buffer - only valid for the duration of the call
+         */
+        void cell(int colIndex, byte cellType, int styleIndex, RawValue value);
+
+        void endRow(int rowNum);
+
+        default void endSheet() {
+        }
+    }
+
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private long bufferStart; // Stream offset of buffer[0]
+    private InputStream input;
+
+    private final byte[] nameBuffer = new byte[64];
+    private int nameLength;
+    private final byte[] typeBuffer = new byte[10];
+    private final byte[] entityBuffer = new byte[12];
+    private final RawValue value = new RawValue();
+
+    // Parse state
+    private RawSheetHandler handler;
+    private int rowNum;
+    private int nextRowNum;
+    private int colIndex;
+    private byte cellType;
+    private int styleIndex;
+    private boolean cellWanted;
+    private boolean hasValue;
+    private boolean inCell;
+    private boolean inInline;
+    private boolean capturing;
+    private boolean pendingCarriageReturn;
+
+    public FastSheetTokenizer() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public FastSheetTokenizer(int bufferSize) {
+        this.buffer = new byte[Math.max(bufferSize, 1024)];
+    }
+
+    /**
+     * Tokenize one sheet part and push raw cells to the handler
+     *
+     * @param sheetStream Uncompressed sheetN.xml stream (not closed by this method)
+     * @param rawHandler Receiver of rows and raw cells
+     */
+    public void parse(InputStream sheetStream, RawSheetHandler rawHandler) throws IOException {
+        parse(sheetStream, rawHandler, 0);
+    }
+
+    /**
+     * Tokenize a row-range fragment of a sheet part (see ParallelSheetChunkParser)
+     *
+     * @param firstRowNum Row number assumed for a leading &lt;row&gt; without r attribute
+     */
+    public void parse(InputStream sheetStream, RawSheetHandler rawHandler, int firstRowNum) throws IOException {
+        this.input = sheetStream;
+        this.handler = rawHandler;
+        this.position = 0;
+        this.limit = 0;
+        this.bufferStart = 0;
+        this.rowNum = firstRowNum - 1;
+        this.nextRowNum = firstRowNum;
+        this.inCell = false;
+        this.inInline = false;
+        this.capturing = false;
+        this.pendingCarriageReturn = false;
+
+        try {
+            int b;
+            while ((b = read()) != -1) {
+                if (b != '<') {
+                    if (capturing) {
+                        capture(b);
+                    }
+                    continue;
+                }
+
+                b = read();
+                if (b == '/') {
+                    int terminator = readName(read());
+                    int element = elementId();
+                    if (terminator != '>') {
+                        skipTo('>');
+                    }
+                    if (endElement(element)) {
+                        break;
+                    }
+                } else if (b == '?') {
+                    skipTo('>');
+                } else if (b == '!') {
+                    skipDeclaration();
+                } else {
+                    int terminator = readName(b);
+                    int element = elementId();
+                    startElement(element, terminator);
+                }
+            }
+            handler.endSheet();
+        } finally {
+            this.input = null;
+            this.handler = null;
+        }
+    }
+
+    // ========== Element handling ==========
+
+    private void startElement(int element, int terminator) throws IOException {
+        switch (element) {
+            case EL_ROW: {
+                int rowAttr = -1;
+                boolean selfClosing = false;
+                int b = terminator;
+                while (true) {
+                    b = skipWhitespace(b);
+                    if (b == '>') break;
+                    if (b == '/') { skipTo('>'); selfClosing = true; break; }
+                    b = readName(b);
+                    int quote = readAttributeStart(b);
+                    if (nameEquals(NAME_R)) {
+                        rowAttr = readIntAttribute(quote);
+                    } else {
+                        skipTo(quote);
+                    }
+                    b = read();
+                }
+                rowNum = rowAttr > 0 ? rowAttr - 1 : nextRowNum;
+                colIndex = -1;
+                handler.startRow(rowNum);
+                if (selfClosing) {
+                    endRow();
+                }
+                return;
+            }
+            case EL_C: {
+                int column = -1;
+                cellType = TYPE_NUMBER;
+                styleIndex = -1;
+                boolean selfClosing = false;
+                int b = terminator;
+                while (true) {
+                    b = skipWhitespace(b);
+                    if (b == '>') break;
+                    if (b == '/') { skipTo('>'); selfClosing = true; break; }
+                    b = readName(b);
+                    int quote = readAttributeStart(b);
+                    if (nameEquals(NAME_R)) {
+                        column = readColumnAttribute(quote);
+                    } else if (nameEquals(NAME_T)) {
+                        cellType = readTypeAttribute(quote);
+                    } else if (nameEquals(NAME_S)) {
+                        styleIndex = readIntAttribute(quote);
+                    } else {
+                        skipTo(quote);
+                    }
+                    b = read();
+                }
+                colIndex = column >= 0 ? column : colIndex + 1;
+                hasValue = false;
+                if (!selfClosing) {
+                    inCell = true;
+                    cellWanted = handler.wantsCell(colIndex);
+                }
+                return;
+            }
+            default:
+                break;
+        }
+
+        boolean selfClosing = skipAttributes(terminator);
+        if (selfClosing || !inCell) {
+            return;
+        }
+        switch (element) {
+            case EL_V:
+                hasValue = true;
+                if (cellWanted) {
+                    value.reset();
+                    capturing = true;
+                }
+                break;
+            case EL_IS:
+                hasValue = true;
+                inInline = true;
+                value.reset();
+                break;
+            case EL_T:
+                if (inInline && cellWanted) {
+                    capturing = true;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return true when parsing should stop (end of sheetData)
+     */
+    private boolean endElement(int element) {
+        switch (element) {
+            case EL_V:
+            case EL_T:
+                capturing = false;
+                pendingCarriageReturn = false;
+                return false;
+            case EL_IS:
+                inInline = false;
+                return false;
+            case EL_C:
+                if (inCell && hasValue && cellWanted) {
+                    handler.cell(colIndex, cellType, styleIndex, value);
+                }
+                inCell = false;
+                capturing = false;
+                return false;
+            case EL_ROW:
+                endRow();
+                return false;
+            case EL_SHEET_DATA:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void endRow() {
+        handler.endRow(rowNum);
+        nextRowNum = rowNum + 1;
+    }
+
+    private int elementId() {
+        switch (nameLength) {
+            case 1:
+                if (nameBuffer[0] == 'c') return EL_C;
+                if (nameBuffer[0] == 'v') return EL_V;
+                if (nameBuffer[0] == 't') return EL_T;
+                return EL_OTHER;
+            case 2:
+                return nameEquals(NAME_IS) ? EL_IS : EL_OTHER;
+            case 3:
+                return nameEquals(NAME_ROW) ? EL_ROW : EL_OTHER;
+            case 9:
+                return nameEquals(NAME_SHEET_DATA) ? EL_SHEET_DATA : EL_OTHER;
+            default:
+                return EL_OTHER;
+        }
+    }
+
+    // ========== Attribute decoding ==========
+
+    /**
+     * Skip to '=' and opening quote, return the quote character
+     */
+    private int readAttributeStart(int b) throws IOException {
+        while (b != '=') {
+            if (b == -1) throw new EOFException("Unexpected end of sheet XML in attribute");
+            b = read();
+        }
+        b = read();
+        while (b != '"' && b != '\'') {
+            if (b == -1) throw new EOFException("Unexpected end of sheet XML in attribute");
+            b = read();
+        }
+        return b;
+    }
+
+    private int readIntAttribute(int quote) throws IOException {
+        int result = 0;
+        boolean any = false;
+        int b;
+        while ((b = read()) != quote) {
+            if (b == -1) throw new EOFException("Unexpected end of sheet XML in attribute");
+            if (b >= '0' && b <= '9') {
+                result = result * 10 + (b - '0');
+                any = true;
+            }
+        }
+        return any ? result : -1;
+    }
+
+    /**
+     * "AB12" → 27 (letters only, digits ignored)
+     */
+    private int readColumnAttribute(int quote) throws IOException {
+        int column = 0;
+        int b;
+        while ((b = read()) != quote) {
+            if (b == -1) throw new EOFException("Unexpected end of sheet XML in attribute");
+            if (b >= 'A' && b <= 'Z') {
+                column = column * 26 + (b - 'A' + 1);
+            } else if (b >= 'a' && b <= 'z') {
+                column = column * 26 + (b - 'a' + 1);
+            }
+        }
+        return column - 1;
+    }
+
+    private byte readTypeAttribute(int quote) throws IOException {
+        int length = 0;
+        int b;
+        while ((b = read()) != quote) {
+            if (b == -1) throw new EOFException("Unexpected end of sheet XML in attribute");
+            if (length < typeBuffer.length) {
+                typeBuffer[length] = (byte) b;
+            }
+            length++;
+        }
+        if (length == 1) {
+            switch (typeBuffer[0]) {
+                case 's': return TYPE_SHARED_STRING;
+                case 'b': return TYPE_BOOLEAN;
+                case 'e': return TYPE_ERROR;
+                case 'd': return TYPE_DATE;
+                default: return TYPE_NUMBER;
+            }
+        }
+        if (length == 3 && typeBuffer[0] == 's' && typeBuffer[1] == 't' && typeBuffer[2] == 'r') {
+            return TYPE_FORMULA_STRING;
+        }
+        if (length == 9 && typeBuffer[0] == 'i' && typeBuffer[6] == 'S') {
+            return TYPE_INLINE_STRING; // inlineStr
+        }
+        return TYPE_NUMBER;
+    }
+
+    /**
+     * @return true if the tag is self-closing
+     */
+    private boolean skipAttributes(int b) throws IOException {
+        int quote = 0;
+        int previous = 0;
+        while (true) {
+            if (b == -1) throw new EOFException("Unexpected end of sheet XML in tag");
+            if (quote != 0) {
+                if (b == quote) quote = 0;
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                return previous == '/';
+            }
+            previous = b;
+            b = read();
+        }
+    }
+
+    // ========== Names ==========
+
+    /**
+     * Read an element/attribute name starting with b; namespace prefix is dropped.
+     *
+     * @return The byte that terminated the name
+     */
+    private int readName(int b) throws IOException {
+        nameLength = 0;
+        while (b != -1 && b != '>' && b != '/' && b != '=' && !isWhitespace(b)) {
+            if (b == ':') {
+                nameLength = 0; // drop prefix (e.g. x:row)
+            } else {
+                if (nameLength < nameBuffer.length) {
+                    nameBuffer[nameLength] = (byte) b;
+                }
+                nameLength++;
+            }
+            b = read();
+        }
+        return b;
+    }
+
+    private boolean nameEquals(byte[] expected) {
+        if (nameLength != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (nameBuffer[i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ========== Text capture ==========
+
+    private void capture(int b) throws IOException {
+        if (b == '&') {
+            captureEntity();
+            return;
+        }
+        // XML end-of-line normalization: \r\n and lone \r become \n
+        if (b == '\r') {
+            value.append('\n');
+            pendingCarriageReturn = true;
+            return;
+        }
+        if (b == '\n' && pendingCarriageReturn) {
+            pendingCarriageReturn = false;
+            return;
+        }
+        pendingCarriageReturn = false;
+        value.append(b);
+    }
+
+    private void captureEntity() throws IOException {
+        pendingCarriageReturn = false;
+        int length = 0;
+        int b;
+        while ((b = read()) != ';') {
+            if (b == -1) throw new EOFException("Unexpected end of sheet XML in entity");
+            if (length < entityBuffer.length) {
+                entityBuffer[length] = (byte) b;
+            }
+            length++;
+        }
+        if (length > entityBuffer.length) {
+            return; // malformed; drop
+        }
+
+        if (length > 1 && entityBuffer[0] == '#') {
+            int codePoint = 0;
+            if (entityBuffer[1] == 'x' || entityBuffer[1] == 'X') {
+                for (int i = 2; i < length; i++) {
+                    codePoint = codePoint * 16 + Character.digit(entityBuffer[i], 16);
+                }
+            } else {
+                for (int i = 1; i < length; i++) {
+                    codePoint = codePoint * 10 + (entityBuffer[i] - '0');
+                }
+            }
+            value.appendCodePoint(codePoint);
+            return;
+        }
+
+        if (length == 3 && entityBuffer[0] == 'a' && entityBuffer[1] == 'm' && entityBuffer[2] == 'p') {
+            value.append('&');
+        } else if (length == 2 && entityBuffer[0] == 'l' && entityBuffer[1] == 't') {
+            value.append('<');
+        } else if (length == 2 && entityBuffer[0] == 'g' && entityBuffer[1] == 't') {
+            value.append('>');
+        } else if (length == 4 && entityBuffer[0] == 'q') {
+            value.append('"');
+        } else if (length == 4 && entityBuffer[0] == 'a') {
+            value.append('\'');
+        }
+    }
+
+    /**
+     * Skip "&lt;!-- --&gt;", DOCTYPE, or copy CDATA content when capturing
+     */
+    private void skipDeclaration() throws IOException {
+        int b = read();
+        if (b == '-') {
+            read(); // second '-'
+            int dashes = 0;
+            while ((b = read()) != -1) {
+                if (b == '-') {
+                    dashes++;
+                } else if (b == '>' && dashes >= 2) {
+                    return;
+                } else {
+                    dashes = 0;
+                }
+            }
+            return;
+        }
+        if (b == '[') {
+            for (int i = 0; i < 6; i++) {
+                read(); // "CDATA["
+            }
+            int brackets = 0;
+            while ((b = read()) != -1) {
+                if (b == ']') {
+                    brackets++;
+                    continue;
+                }
+                if (b == '>' && brackets >= 2) {
+                    flushBrackets(brackets - 2);
+                    return;
+                }
+                flushBrackets(brackets);
+                brackets = 0;
+                if (capturing) {
+                    value.append(b);
+                }
+            }
+            return;
+        }
+        skipTo('>');
+    }
+
+    private void flushBrackets(int count) {
+        if (capturing) {
+            for (int i = 0; i < count; i++) {
+                value.append(']');
+            }
+        }
+    }
+
+    /**
+     * Bytes of the current stream consumed so far; inside endRow() this is the offset just after &lt;/row&gt;
+     */
+    public long getByteOffset() {
+        return bufferStart + position;
+    }
+
+    // ========== Low-level input ==========
+
+    private int read() throws IOException {
+        if (position < limit) {
+            return buffer[position++] & 0xFF;
+        }
+        return fill();
+    }
+
+    private int fill() throws IOException {
+        bufferStart += limit;
+        int count;
+        do {
+            count = input.read(buffer, 0, buffer.length);
+        } while (count == 0);
+        if (count < 0) {
+            position = 0;
+            limit = 0;
+            return -1;
+        }
+        limit = count;
+        position = 1;
+        return buffer[0] & 0xFF;
+    }
+
+    private void skipTo(int target) throws IOException {
+        int b;
+        while ((b = read()) != target) {
+            if (b == -1) {
+                return;
+            }
+        }
+    }
+
+    private int skipWhitespace(int b) throws IOException {
+        while (isWhitespace(b)) {
+            b = read();
+        }
+        if (b == -1) throw new EOFException("Unexpected end of sheet XML in tag");
+        return b;
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reusable raw value buffer (UTF-8 bytes of the cell's v/t text)
+     */
+    public static final class RawValue {
+        private byte[] data = new byte[256];
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        void append(int b) {
+            if (length == data.length) {
+                byte[] grown = new byte[data.length * 2];
+                System.arraycopy(data, 0, grown, 0, length);
+                data = grown;
+            }
+            data[length++] = (byte) b;
+        }
+
+        void appendCodePoint(int codePoint) {
+            if (codePoint < 0x80) {
+                append(codePoint);
+            } else if (codePoint < 0x800) {
+                append(0xC0 | (codePoint >> 6));
+                append(0x80 | (codePoint & 0x3F));
+            } else if (codePoint < 0x10000) {
+                append(0xE0 | (codePoint >> 12));
+                append(0x80 | ((codePoint >> 6) & 0x3F));
+                append(0x80 | (codePoint & 0x3F));
+            } else {
+                append(0xF0 | (codePoint >> 18));
+                append(0x80 | ((codePoint >> 12) & 0x3F));
+                append(0x80 | ((codePoint >> 6) & 0x3F));
+                append(0x80 | (codePoint & 0x3F));
+            }
+        }
+
+        /**
+         * Load bytes captured earlier (RawRowBlock replay)
+         */
+        void load(byte[] source, int offset, int count) {
+            if (count > data.length) {
+                data = new byte[Math.max(count, data.length * 2)];
+            }
+            System.arraycopy(source, offset, data, 0, count);
+            length = count;
+        }
+
+        void copyTo(byte[] target, int offset) {
+            System.arraycopy(data, 0, target, offset, length);
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public boolean isEmpty() {
+            return length == 0;
+        }
+
+        public byte byteAt(int index) {
+            return data[index];
+        }
+
+        /**
+         * Parse as non-negative int without allocating (shared-string index, etc.)
+         *
+         * @throws NumberFormatException if the value is not a plain integer
+         */
+        public int parseInt() {
+            int start = 0;
+            int end = length;
+            while (start < end && isWhitespace(data[start])) start++;
+            while (end > start && isWhitespace(data[end - 1])) end--;
+            if (start == end) {
+                throw new NumberFormatException("Empty value");
+            }
+            int result = 0;
+            for (int i = start; i < end; i++) {
+                int digit = data[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new NumberFormatException("Not an integer: " + this);
+                }
+                result = result * 10 + digit;
+            }
+            return result;
+        }
+
+        /**
+         * Parse a numeric cell value; plain integers (up to 15 digits) are parsed without allocating
+         *
+         * @throws NumberFormatException if the value is not a number
+         */
+        public double parseDouble() {
+            int start = length > 0 && data[0] == '-' ? 1 : 0;
+            if (length > start && length - start <= 15) {
+                long result = 0;
+                int i = start;
+                for (; i < length; i++) {
+                    int digit = data[i] - '0';
+                    if (digit < 0 || digit > 9) {
+                        break;
+                    }
+                    result = result * 10 + digit;
+                }
+                if (i == length) {
+                    return start == 1 ? -result : result;
+                }
+            }
+            return Double.parseDouble(asAsciiString());
+        }
+
+        /**
+         * Numeric text (ASCII) without UTF-8 decoding
+         */
+        public String asAsciiString() {
+            return new String(data, 0, length, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(data, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
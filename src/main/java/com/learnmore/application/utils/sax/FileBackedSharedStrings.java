@@ -0,0 +1,269 @@
+package com.learnmore.application.utils.sax;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared strings table lưu ngoài heap cho workbook rất lớn
+ *
+ * Thay vì XSSFReader.getSharedStringsTable() (load toàn bộ SST thành XMLBeans objects trong heap):
+ * - sharedStrings.xml được stream một lần, mỗi &lt;si&gt; ghi ra temp file dạng UTF-8
+ * - Heap chỉ giữ offset index (8 bytes / string) + LRU nhỏ cho các string hay dùng
+ * - Temp file được memory-map (≤ 2GB) hoặc đọc positional, resolve theo index khi cần
+ *
+ * Text giống SharedStringsTable: ghép các run &lt;t&gt;, bỏ phonetic run &lt;rPh&gt;, decode _xHHHH_.
+ * Thread-safe cho đọc đồng thời (intra-sheet parallel parsing). Phải close() để xoá temp file.
+ */
+@Slf4j
+public final class FileBackedSharedStrings implements SharedStrings, Closeable {
+
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final long[] offsets; // offsets[i]..offsets[i+1] = bytes of string i
+    private final int uniqueCount;
+    private final int count;
+    private final Map<Integer, String> cache;
+
+    private FileBackedSharedStrings(Path file, long[] offsets, int uniqueCount, int count, int cacheSize)
+            throws IOException {
+        this.file = file;
+        this.offsets = offsets;
+        this.uniqueCount = uniqueCount;
+        this.count = count;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        this.mapped = size <= Integer.MAX_VALUE ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
+        int capacity = Math.max(0, cacheSize);
+        this.cache = new LinkedHashMap<>(Math.min(capacity, 1024) + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Spill a sharedStrings.xml part to a temp file and index it
+     *
+     * @param sharedStringsXml SST part stream, may be null (workbook without shared strings)
+     * @param cacheSize Number of hot entries kept in heap
+     */
+    public static FileBackedSharedStrings load(InputStream sharedStringsXml, int cacheSize) throws IOException {
+        Path file = Files.createTempFile("excel-sst-", ".bin");
+        try {
+            SpillHandler handler = new SpillHandler();
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+                handler.out = out;
+                if (sharedStringsXml != null) {
+                    XMLReader xmlReader = XMLHelper.newXMLReader();
+                    xmlReader.setContentHandler(handler);
+                    xmlReader.parse(new InputSource(sharedStringsXml));
+                }
+            }
+
+            long[] offsets = Arrays.copyOf(handler.offsets, handler.size + 1);
+            int count = handler.count >= 0 ? handler.count : handler.size;
+            log.debug("Spilled {} shared strings ({} bytes) to {}", handler.size, handler.position, file);
+            return new FileBackedSharedStrings(file, offsets, handler.size, count, cacheSize);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        } catch (Exception e) {
+            Files.deleteIfExists(file);
+            throw new IOException("Failed to read shared strings table", e);
+        }
+    }
+
+    /**
+     * Plain text of shared string idx (fast path, no XSSFRichTextString allocation)
+     */
+    public String getString(int idx) {
+        String raw = getRaw(idx);
+        return raw.indexOf("_x") >= 0 ? new XSSFRichTextString(raw).getString() : raw;
+    }
+
+    @Override
+    public RichTextString getItemAt(int idx) {
+        return new XSSFRichTextString(getRaw(idx));
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return uniqueCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (cache) {
+            cache.clear();
+        }
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    private String getRaw(int idx) {
+        if (idx < 0 || idx >= uniqueCount) {
+            throw new IndexOutOfBoundsException("Shared string index " + idx + " out of range [0, " + uniqueCount + ")");
+        }
+        Integer key = idx;
+        synchronized (cache) {
+            String cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String value = read(idx);
+        synchronized (cache) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    private String read(int idx) {
+        long start = offsets[idx];
+        int length = (int) (offsets[idx + 1] - start);
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        if (mapped != null) {
+            // Absolute bulk get: does not touch the buffer position → safe for concurrent readers
+            mapped.get((int) start, bytes, 0, length);
+        } else {
+            try {
+                ByteBuffer target = ByteBuffer.wrap(bytes);
+                long position = start;
+                while (target.hasRemaining()) {
+                    int read = channel.read(target, position);
+                    if (read < 0) {
+                        throw new IOException("Unexpected end of shared strings file");
+                    }
+                    position += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Streams &lt;si&gt; entries to the temp file, recording offsets
+     */
+    private static final class SpillHandler extends DefaultHandler {
+        private OutputStream out;
+        private long[] offsets = new long[1024];
+        private int size;
+        private long position;
+        private int count = -1;
+
+        private final StringBuilder text = new StringBuilder();
+        private boolean inString;
+        private boolean inText;
+        private boolean inPhonetic;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "sst": {
+                    String countValue = attributes.getValue("count");
+                    String uniqueValue = attributes.getValue("uniqueCount");
+                    if (countValue != null) {
+                        count = Integer.parseInt(countValue);
+                    }
+                    if (uniqueValue != null) {
+                        offsets = new long[Math.max(Integer.parseInt(uniqueValue) + 1, 16)];
+                    }
+                    break;
+                }
+                case "si":
+                    inString = true;
+                    text.setLength(0);
+                    break;
+                case "rPh":
+                    inPhonetic = true;
+                    break;
+                case "t":
+                    inText = inString && !inPhonetic;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "si":
+                    inString = false;
+                    write();
+                    break;
+                case "rPh":
+                    inPhonetic = false;
+                    break;
+                case "t":
+                    inText = false;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        private void write() throws SAXException {
+            if (size + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                out.write(bytes);
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+            offsets[size] = position;
+            position += bytes.length;
+            size++;
+            offsets[size] = position;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.learnmore.application.utils.sax;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared strings table parse theo nhu cầu (pull parser)
+ *
+ * sharedStrings.xml chỉ được đọc tới &lt;si&gt; có index lớn nhất đã được hỏi:
+ * preview / rowLimit read dừng sớm thì phần SST chỉ được dùng bởi các row phía sau không bao giờ
+ * được inflate hay parse. Excel / POI ghi SST theo thứ tự xuất hiện đầu tiên, nên các row đầu sheet
+ * thường chỉ tham chiếu phần đầu của table.
+ *
+ * Text giống SharedStringsTable: ghép các run &lt;t&gt;, bỏ phonetic run &lt;rPh&gt;, decode _xHHHH_.
+ * Thread-safe (synchronized). Phải close() để đóng stream của SST part.
+ */
+@Slf4j
+public final class LazySharedStrings implements SharedStrings, Closeable {
+
+    private final InputStream source;
+    private final XMLStreamReader reader;
+    private final List<String> strings = new ArrayList<>();
+    private final StringBuilder text = new StringBuilder();
+    private int count = -1;
+    private int uniqueCount = -1;
+    private boolean exhausted;
+
+    private LazySharedStrings(InputStream source) throws IOException {
+        this.source = source;
+        if (source == null) {
+            this.reader = null;
+            this.exhausted = true;
+            return;
+        }
+        try {
+            this.reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(source);
+            readTableHeader();
+        } catch (XMLStreamException e) {
+            source.close();
+            throw new IOException("Failed to open shared strings table", e);
+        }
+    }
+
+    /**
+     * @param sharedStringsXml SST part stream (owned and closed by this table), may be null
+     */
+    public static LazySharedStrings open(InputStream sharedStringsXml) throws IOException {
+        return new LazySharedStrings(sharedStringsXml);
+    }
+
+    /**
+     * Plain text of shared string idx (fast path, no XSSFRichTextString allocation)
+     */
+    public synchronized String getString(int idx) {
+        String raw = getRaw(idx);
+        return raw.indexOf("_x") >= 0 ? new XSSFRichTextString(raw).getString() : raw;
+    }
+
+    @Override
+    public synchronized RichTextString getItemAt(int idx) {
+        return new XSSFRichTextString(getRaw(idx));
+    }
+
+    @Override
+    public synchronized int getCount() {
+        return count >= 0 ? count : strings.size();
+    }
+
+    @Override
+    public synchronized int getUniqueCount() {
+        return uniqueCount >= 0 ? uniqueCount : strings.size();
+    }
+
+    /**
+     * Number of &lt;si&gt; entries parsed so far
+     */
+    public synchronized int getParsedCount() {
+        return strings.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        exhausted = true;
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                log.debug("Failed to close shared strings reader: {}", e.getMessage());
+            }
+            source.close();
+        }
+    }
+
+    private String getRaw(int idx) {
+        if (idx < 0) {
+            throw new IndexOutOfBoundsException("Shared string index " + idx + " is negative");
+        }
+        try {
+            while (idx >= strings.size() && !exhausted) {
+                readNext();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to read shared strings table", e);
+        }
+        if (idx >= strings.size()) {
+            throw new IndexOutOfBoundsException("Shared string index " + idx + " out of range [0, " + strings.size() + ")");
+        }
+        return strings.get(idx);
+    }
+
+    private void readTableHeader() throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && "sst".equals(reader.getLocalName())) {
+                String countValue = reader.getAttributeValue(null, "count");
+                String uniqueValue = reader.getAttributeValue(null, "uniqueCount");
+                count = countValue != null ? Integer.parseInt(countValue) : -1;
+                uniqueCount = uniqueValue != null ? Integer.parseInt(uniqueValue) : -1;
+                return;
+            }
+        }
+        exhausted = true;
+    }
+
+    /**
+     * Parse the next &lt;si&gt; entry (or reach the end of the table)
+     */
+    private void readNext() throws XMLStreamException {
+        boolean inString = false;
+        boolean inText = false;
+        boolean inPhonetic = false;
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    switch (reader.getLocalName()) {
+                        case "si":
+                            inString = true;
+                            text.setLength(0);
+                            break;
+                        case "rPh":
+                            inPhonetic = true;
+                            break;
+                        case "t":
+                            inText = inString && !inPhonetic;
+                            break;
+                        default:
+                            break;
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (inText) {
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    switch (reader.getLocalName()) {
+                        case "si":
+                            strings.add(text.toString());
+                            return;
+                        case "rPh":
+                            inPhonetic = false;
+                            break;
+                        case "t":
+                            inText = false;
+                            break;
+                        default:
+                            break;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        exhausted = true;
+        log.debug("Shared strings table fully parsed: {} strings", strings.size());
+    }
+}
@@ -0,0 +1,430 @@
+package com.learnmore.application.utils.sax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Intra-sheet parallel parsing theo row-range chunks
+ *
+ * Luồng xử lý:
+ * 1. Caller thread đọc sheet XML (đã inflate) và cắt tại ranh giới &lt;row&gt; thành các chunk N rows
+ * 2. Chunk đầu tiên (chứa header) được parse ngay trên caller thread → header plan có sẵn cho các chunk sau
+ * 3. Các chunk tiếp theo được tokenize + bind song song trên worker pool
+ * 4. Kết quả được trả về sink THEO ĐÚNG THỨ TỰ chunk, luôn trên caller thread
+ *    → batch ordering, duplicate check và maxRows giữ nguyên semantics tuần tự
+ *
+ * Số chunk in-flight bị giới hạn (2 × parallelism) nên memory bị chặn trên:
+ * splitter block trên chunk cũ nhất khi window đầy.
+ *
+ * Có shared executor (MigrationWorkScheduler của job) thì chunk chạy trên pool đó, không tạo pool riêng.
+ * Caller thread chờ chunk nên không được là worker của chính executor đó.
+ */
+@Slf4j
+public final class ParallelSheetChunkParser {
+
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
+    private final Executor sharedExecutor;
+    private final int parallelism;
+    private final int chunkRows;
+    private final int firstChunkRows;
+
+    /**
+     * Parses one row-range chunk. Row numbers in the chunk start at firstRowNum unless rows carry r attributes.
+     */
+    @FunctionalInterface
+    public interface ChunkTask<R> {
+        R parse(InputStream chunk, int firstRowNum) throws Exception;
+    }
+
+    /**
+     * Receives chunk results in sheet order, on the calling thread
+     */
+    @FunctionalInterface
+    public interface ChunkSink<R> {
+        void accept(R result) throws Exception;
+    }
+
+    /**
+     * @param parallelism Worker threads
+     * @param chunkRows Rows per chunk
+     * @param firstChunkRows Minimum rows in the first chunk (must cover the header row)
+     */
+    public ParallelSheetChunkParser(int parallelism, int chunkRows, int firstChunkRows) {
+        this(null, parallelism, chunkRows, firstChunkRows);
+    }
+
+    /**
+     * @param sharedExecutor Pool running the chunk tasks (parallelism then only bounds the chunks in flight);
+     *                       null = a pool of parallelism threads per parse
+     */
+    public ParallelSheetChunkParser(Executor sharedExecutor, int parallelism, int chunkRows, int firstChunkRows) {
+        this.sharedExecutor = sharedExecutor;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkRows = Math.max(1, chunkRows);
+        this.firstChunkRows = Math.max(this.chunkRows, firstChunkRows);
+    }
+
+    /**
+     * @param sheetStream Uncompressed sheetN.xml stream
+     * @param firstChunkTask Parses the first chunk on the calling thread
+     * @param chunkTask Parses subsequent chunks on worker threads
+     * @param sink Ordered consumer of chunk results
+     */
+    public <R> void parse(InputStream sheetStream,
+                          ChunkTask<R> firstChunkTask,
+                          ChunkTask<R> chunkTask,
+                          ChunkSink<R> sink) throws Exception {
+        RowChunkSplitter splitter = new RowChunkSplitter(sheetStream, chunkRows, firstChunkRows);
+
+        RowChunk first = splitter.next();
+        if (first == null) {
+            return;
+        }
+        sink.accept(firstChunkTask.parse(first.stream(), first.firstRowNum));
+
+        ExecutorService ownPool = sharedExecutor == null ? newPool() : null;
+        Executor executor = ownPool != null ? ownPool : sharedExecutor;
+
+        Deque<Future<R>> inFlight = new ArrayDeque<>();
+        int maxInFlight = parallelism * 2;
+        int chunks = 1;
+
+        try {
+            RowChunk chunk;
+            while ((chunk = splitter.next()) != null) {
+                RowChunk task = chunk;
+                FutureTask<R> future = new FutureTask<>(() -> chunkTask.parse(task.stream(), task.firstRowNum));
+                inFlight.addLast(future);
+                executor.execute(future);
+                chunks++;
+
+                // Deliver finished chunks in order; block on the oldest one when the window is full
+                while (!inFlight.isEmpty()
+                        && (inFlight.size() >= maxInFlight || inFlight.peekFirst().isDone())) {
+                    sink.accept(await(inFlight.pollFirst()));
+                }
+            }
+
+            while (!inFlight.isEmpty()) {
+                sink.accept(await(inFlight.pollFirst()));
+            }
+        } catch (Exception e) {
+            inFlight.forEach(future -> future.cancel(true));
+            throw e;
+        } finally {
+            if (ownPool != null) {
+                ownPool.shutdownNow();
+            }
+        }
+
+        log.debug("Parsed sheet in {} chunks ({} rows/chunk) on {} threads{}", chunks, chunkRows, parallelism,
+                sharedExecutor != null ? " of the shared pool" : "");
+    }
+
+    private ExecutorService newPool() {
+        int poolId = POOL_SEQUENCE.incrementAndGet();
+        AtomicInteger threadSequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("sheet-chunk-parser-" + poolId + "-" + threadSequence.incrementAndGet());
+            return thread;
+        });
+    }
+
+    private static <R> R await(Future<R> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Row-range fragment of the sheet XML
+     */
+    static final class RowChunk {
+        final byte[] data;
+        final int length;
+        final int firstRowNum;
+
+        RowChunk(byte[] data, int length, int firstRowNum) {
+            this.data = data;
+            this.length = length;
+            this.firstRowNum = firstRowNum;
+        }
+
+        InputStream stream() {
+            return new ByteArrayInputStream(data, 0, length);
+        }
+    }
+
+    /**
+     * Cắt sheet XML tại start tag &lt;row&gt; (hỗ trợ namespace prefix), dừng tại &lt;/sheetData&gt;
+     *
+     * Chunk đầu tiên giữ cả phần trước sheetData (worksheet, cols...) - tokenizer bỏ qua các element đó.
+     * Row number của chunk được tính giống tokenizer (r attribute, thiếu r → row trước + 1).
+     */
+    static final class RowChunkSplitter {
+        private static final int STATE_TEXT = 0;
+        private static final int STATE_TAG_START = 1;
+        private static final int STATE_NAME = 2;
+        private static final int STATE_ROW_ATTRS = 3;
+        private static final int STATE_ROW_QUOTED = 4;
+        private static final int STATE_ROW_R = 5;
+        private static final int STATE_ROW_EQ = 6;
+        private static final int STATE_ROW_VALUE = 7;
+
+        private final InputStream input;
+        private final int chunkRows;
+        private final int firstChunkRows;
+        private final byte[] readBuffer = new byte[64 * 1024];
+        private int position;
+        private int limit;
+
+        private byte[] carry;
+        private int carryLength;
+        private int carryRowNum;
+        private boolean first = true;
+        private boolean finished;
+        private int lastChunkSize = 256 * 1024;
+
+        // Scanner state (persists across chunks: a cut happens in the middle of a row tag)
+        private int state = STATE_TEXT;
+        private boolean endTag;
+        private final byte[] name = new byte[16];
+        private int nameLength;
+        private int quote;
+        private boolean afterWhitespace;
+        private int rowAttr;
+        private int lastRowNum = -1;
+
+        RowChunkSplitter(InputStream input, int chunkRows, int firstChunkRows) {
+            this.input = input;
+            this.chunkRows = chunkRows;
+            this.firstChunkRows = firstChunkRows;
+        }
+
+        RowChunk next() throws IOException {
+            if (finished) {
+                return null;
+            }
+
+            int rowLimit = first ? firstChunkRows : chunkRows;
+            byte[] data = new byte[Math.max(lastChunkSize + lastChunkSize / 4, 1024)];
+            int length = 0;
+            int rowsInChunk = 0;
+            int firstRowNum = lastRowNum + 1;
+            int tagStart = 0;
+
+            if (carry != null) {
+                if (carryLength > data.length) {
+                    data = Arrays.copyOf(data, carryLength * 2);
+                }
+                System.arraycopy(carry, 0, data, 0, carryLength);
+                length = carryLength;
+                rowsInChunk = 1;
+                firstRowNum = carryRowNum;
+                carry = null;
+            }
+
+            int b;
+            while ((b = read()) != -1) {
+                if (length == data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+
+                switch (state) {
+                    case STATE_TEXT:
+                        if (b == '<') {
+                            tagStart = length;
+                            state = STATE_TAG_START;
+                        }
+                        break;
+
+                    case STATE_TAG_START:
+                        if (b == '/') {
+                            endTag = true;
+                            nameLength = 0;
+                            state = STATE_NAME;
+                        } else if (b == '!' || b == '?') {
+                            state = STATE_TEXT;
+                        } else {
+                            endTag = false;
+                            name[0] = (byte) b;
+                            nameLength = 1;
+                            state = STATE_NAME;
+                        }
+                        break;
+
+                    case STATE_NAME:
+                        if (b == ':') {
+                            nameLength = 0;
+                        } else if (b == '>' || b == '/' || isWhitespace(b)) {
+                            if (!endTag && isName("row")) {
+                                if (rowsInChunk >= rowLimit) {
+                                    // Cut before this row; its tag start moves to the next chunk
+                                    carryLength = length - tagStart + 1;
+                                    carry = new byte[Math.max(carryLength, 64)];
+                                    System.arraycopy(data, tagStart, carry, 0, length - tagStart);
+                                    carry[carryLength - 1] = (byte) b;
+                                    carryRowNum = lastRowNum + 1;
+                                    beginRowTag(b);
+                                    return emit(data, tagStart, firstRowNum);
+                                }
+                                if (rowsInChunk == 0) {
+                                    firstRowNum = lastRowNum + 1;
+                                }
+                                rowsInChunk++;
+                                beginRowTag(b);
+                            } else if (endTag && isName("sheetData")) {
+                                finished = true;
+                                return rowsInChunk > 0 || first ? emit(data, tagStart, firstRowNum) : null;
+                            } else {
+                                state = STATE_TEXT;
+                            }
+                        } else if (nameLength < name.length) {
+                            name[nameLength++] = (byte) b;
+                        } else {
+                            nameLength = name.length + 1; // too long to matter
+                        }
+                        break;
+
+                    default:
+                        scanRowAttributes(b);
+                        break;
+                }
+                data[length++] = (byte) b;
+            }
+
+            finished = true;
+            return rowsInChunk > 0 || (first && length > 0) ? emit(data, length, firstRowNum) : null;
+        }
+
+        private void beginRowTag(int b) {
+            rowAttr = -1;
+            if (b == '>' || b == '/') {
+                endRowTag();
+            } else {
+                state = STATE_ROW_ATTRS;
+                afterWhitespace = true;
+            }
+        }
+
+        private void endRowTag() {
+            lastRowNum = rowAttr > 0 ? rowAttr - 1 : lastRowNum + 1;
+            state = STATE_TEXT;
+        }
+
+        /**
+         * Track the r attribute of the current row start tag
+         */
+        private void scanRowAttributes(int b) {
+            switch (state) {
+                case STATE_ROW_QUOTED:
+                    if (b == quote) {
+                        state = STATE_ROW_ATTRS;
+                        afterWhitespace = false;
+                    }
+                    return;
+                case STATE_ROW_VALUE:
+                    if (b == quote) {
+                        state = STATE_ROW_ATTRS;
+                        afterWhitespace = false;
+                    } else if (b >= '0' && b <= '9') {
+                        rowAttr = Math.max(rowAttr, 0) * 10 + (b - '0');
+                    }
+                    return;
+                case STATE_ROW_R:
+                    if (b == '=') {
+                        state = STATE_ROW_EQ;
+                        return;
+                    }
+                    if (isWhitespace(b)) {
+                        return;
+                    }
+                    break;
+                case STATE_ROW_EQ:
+                    if (b == '"' || b == '\'') {
+                        quote = b;
+                        state = STATE_ROW_VALUE;
+                        return;
+                    }
+                    if (isWhitespace(b)) {
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            // STATE_ROW_ATTRS (or an unexpected byte in r=)
+            state = STATE_ROW_ATTRS;
+            if (b == '>' || b == '/') {
+                endRowTag();
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+                state = STATE_ROW_QUOTED;
+            } else if (b == 'r' && afterWhitespace) {
+                state = STATE_ROW_R;
+            }
+            afterWhitespace = isWhitespace(b);
+        }
+
+        private RowChunk emit(byte[] data, int length, int firstRowNum) {
+            first = false;
+            lastChunkSize = length;
+            return new RowChunk(data, length, firstRowNum);
+        }
+
+        private boolean isName(String expected) {
+            if (nameLength != expected.length()) {
+                return false;
+            }
+            for (int i = 0; i < nameLength; i++) {
+                if (name[i] != expected.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isWhitespace(int b) {
+            return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+        }
+
+        private int read() throws IOException {
+            if (position < limit) {
+                return readBuffer[position++] & 0xFF;
+            }
+            int count;
+            do {
+                count = input.read(readBuffer, 0, readBuffer.length);
+            } while (count == 0);
+            if (count < 0) {
+                return -1;
+            }
+            limit = count;
+            position = 1;
+            return readBuffer[0] & 0xFF;
+        }
+    }
+}
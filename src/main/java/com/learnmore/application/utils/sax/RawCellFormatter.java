@@ -0,0 +1,170 @@
+package com.learnmore.application.utils.sax;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+import java.util.Arrays;
+
+/**
+ * Format raw cells from FastSheetTokenizer into the same text XSSFSheetXMLHandler would produce
+ *
+ * Giữ nguyên semantics của XSSFSheetXMLHandler (formulasNotResults = false):
+ * - "s"         → shared string
+ * - inlineStr   → text (decode _xHHHH_ escapes như XSSFRichTextString)
+ * - "b"         → TRUE / FALSE
+ * - "e"         → "ERROR:" + value
+ * - "str"       → raw formula result text
+ * - số          → DataFormatter.formatRawCellContents theo style (style 0 nếu không có s)
+ *
+ * Format index/string được resolve một lần cho mỗi style index và cache lại.
+ */
+@Slf4j
+public final class RawCellFormatter {
+
+    private final StylesTable stylesTable;
+    private final SharedStrings sharedStrings;
+    private final DataFormatter dataFormatter;
+
+    // Per style index cache (index -1 → default style 0)
+    private short[] formatIndexes = new short[0];
+    private String[] formatStrings = new String[0];
+    private boolean[] resolved = new boolean[0];
+    private boolean[] dateFormats = new boolean[0];
+
+    public RawCellFormatter(StylesTable stylesTable, SharedStrings sharedStrings, DataFormatter dataFormatter) {
+        this.stylesTable = stylesTable;
+        this.sharedStrings = sharedStrings;
+        this.dataFormatter = dataFormatter != null ? dataFormatter : new DataFormatter();
+    }
+
+    /**
+     * @return Formatted value, or null if a shared-string index could not be read
+     */
+    public String format(byte cellType, int styleIndex, FastSheetTokenizer.RawValue value) {
+        switch (cellType) {
+            case FastSheetTokenizer.TYPE_SHARED_STRING:
+                return sharedString(value);
+
+            case FastSheetTokenizer.TYPE_INLINE_STRING: {
+                String text = value.toString();
+                return text.contains("_x") ? new XSSFRichTextString(text).toString() : text;
+            }
+
+            case FastSheetTokenizer.TYPE_BOOLEAN:
+                return !value.isEmpty() && value.byteAt(0) == '0' ? "FALSE" : "TRUE";
+
+            case FastSheetTokenizer.TYPE_ERROR:
+                return "ERROR:" + value;
+
+            case FastSheetTokenizer.TYPE_FORMULA_STRING:
+                return value.toString();
+
+            default:
+                return formatNumber(styleIndex, value);
+        }
+    }
+
+    private String sharedString(FastSheetTokenizer.RawValue value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (sharedStrings == null) {
+            return value.toString();
+        }
+        try {
+            if (sharedStrings instanceof FileBackedSharedStrings fileBacked) {
+                return fileBacked.getString(value.parseInt());
+            }
+            if (sharedStrings instanceof LazySharedStrings lazy) {
+                return lazy.getString(value.parseInt());
+            }
+            return sharedStrings.getItemAt(value.parseInt()).getString();
+        } catch (NumberFormatException e) {
+            log.error("Failed to parse SST index '{}': {}", value, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Whether numeric cells with this style display as a date/time (format id + format string,
+     * resolved once per style index)
+     */
+    public boolean isDateFormatted(int styleIndex) {
+        int slot = styleIndex < 0 ? 0 : styleIndex;
+        resolveFormat(slot, styleIndex >= 0);
+        return dateFormats[slot];
+    }
+
+    private String formatNumber(int styleIndex, FastSheetTokenizer.RawValue value) {
+        String number = value.asAsciiString();
+        if (number.isEmpty()) {
+            return number;
+        }
+
+        int slot = styleIndex < 0 ? 0 : styleIndex;
+        String formatString = resolveFormat(slot, styleIndex >= 0);
+        if (formatString == null) {
+            return number;
+        }
+        try {
+            return dataFormatter.formatRawCellContents(Double.parseDouble(number), formatIndexes[slot], formatString);
+        } catch (NumberFormatException e) {
+            // ISO dates (t="d") and malformed numbers pass through unchanged
+            return number;
+        }
+    }
+
+    private String resolveFormat(int slot, boolean explicitStyle) {
+        if (slot < resolved.length && resolved[slot]) {
+            return formatStrings[slot];
+        }
+        ensureCapacity(slot);
+
+        String formatString = null;
+        short formatIndex = -1;
+        XSSFCellStyle style = lookupStyle(slot, explicitStyle);
+        if (style != null) {
+            formatIndex = style.getDataFormat();
+            formatString = style.getDataFormatString();
+            if (formatString == null) {
+                formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+            }
+        }
+
+        formatIndexes[slot] = formatIndex;
+        formatStrings[slot] = formatString;
+        dateFormats[slot] = formatString != null && DateUtil.isADateFormat(formatIndex, formatString);
+        resolved[slot] = true;
+        return formatString;
+    }
+
+    private XSSFCellStyle lookupStyle(int slot, boolean explicitStyle) {
+        if (stylesTable == null) {
+            return null;
+        }
+        if (!explicitStyle && stylesTable.getNumCellStyles() == 0) {
+            return null;
+        }
+        if (slot >= stylesTable.getNumCellStyles()) {
+            return null;
+        }
+        return stylesTable.getStyleAt(slot);
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < resolved.length) {
+            return;
+        }
+        int size = Math.max(slot + 1, resolved.length * 2);
+        formatIndexes = Arrays.copyOf(formatIndexes, size);
+        formatStrings = Arrays.copyOf(formatStrings, size);
+        resolved = Arrays.copyOf(resolved, size);
+        dateFormats = Arrays.copyOf(dateFormats, size);
+    }
+}
@@ -0,0 +1,108 @@
+package com.learnmore.application.utils.sax;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Block of raw rows captured on the parse thread, replayed later on a conversion worker
+ *
+ * Chỉ lưu những gì tokenizer đưa ra: column index, cell type, style index và bytes của value
+ * (shared-string index chưa resolve, numeric text chưa format). Tất cả nằm trong vài array
+ * primitive dùng chung cho cả block → không có object nào cho mỗi cell.
+ *
+ * Not thread-safe: filled by one thread, then handed over (happens-before via the executor).
+ */
+final class RawRowBlock {
+
+    private int rowCount;
+    private int[] rowNums = new int[64];
+    private int[] rowCellEnds = new int[64];
+
+    private int cellCount;
+    private int[] colIndexes = new int[512];
+    private byte[] cellTypes = new byte[512];
+    private int[] styleIndexes = new int[512];
+    private int[] valueEnds = new int[512];
+
+    private int byteCount;
+    private byte[] bytes = new byte[8192];
+
+    void startRow(int rowNum) {
+        if (rowCount == rowNums.length) {
+            rowNums = Arrays.copyOf(rowNums, rowCount * 2);
+            rowCellEnds = Arrays.copyOf(rowCellEnds, rowCount * 2);
+        }
+        rowNums[rowCount] = rowNum;
+        rowCellEnds[rowCount] = cellCount;
+        rowCount++;
+    }
+
+    /**
+     * FAST engine cell: value bytes are copied out of the tokenizer's reused buffer
+     */
+    void addCell(int colIndex, byte cellType, int styleIndex, FastSheetTokenizer.RawValue value) {
+        ensureBytes(value.length());
+        value.copyTo(bytes, byteCount);
+        byteCount += value.length();
+        endCell(colIndex, cellType, styleIndex);
+    }
+
+    /**
+     * POI_SAX cell: already formatted, replayed as plain text
+     */
+    void addText(int colIndex, String formattedValue) {
+        byte[] text = formattedValue.getBytes(StandardCharsets.UTF_8);
+        ensureBytes(text.length);
+        System.arraycopy(text, 0, bytes, byteCount, text.length);
+        byteCount += text.length;
+        endCell(colIndex, FastSheetTokenizer.TYPE_FORMULA_STRING, -1);
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Push the captured rows to a handler exactly as the tokenizer did
+     */
+    void replay(FastSheetTokenizer.RawSheetHandler handler) {
+        FastSheetTokenizer.RawValue value = new FastSheetTokenizer.RawValue();
+        int cell = 0;
+        int valueStart = 0;
+        for (int row = 0; row < rowCount; row++) {
+            int rowNum = rowNums[row];
+            int cellEnd = row + 1 < rowCount ? rowCellEnds[row + 1] : cellCount;
+            handler.startRow(rowNum);
+            for (; cell < cellEnd; cell++) {
+                int valueEnd = valueEnds[cell];
+                if (handler.wantsCell(colIndexes[cell])) {
+                    value.load(bytes, valueStart, valueEnd - valueStart);
+                    handler.cell(colIndexes[cell], cellTypes[cell], styleIndexes[cell], value);
+                }
+                valueStart = valueEnd;
+            }
+            handler.endRow(rowNum);
+        }
+    }
+
+    private void endCell(int colIndex, byte cellType, int styleIndex) {
+        if (cellCount == colIndexes.length) {
+            int capacity = cellCount * 2;
+            colIndexes = Arrays.copyOf(colIndexes, capacity);
+            cellTypes = Arrays.copyOf(cellTypes, capacity);
+            styleIndexes = Arrays.copyOf(styleIndexes, capacity);
+            valueEnds = Arrays.copyOf(valueEnds, capacity);
+        }
+        colIndexes[cellCount] = colIndex;
+        cellTypes[cellCount] = cellType;
+        styleIndexes[cellCount] = styleIndex;
+        valueEnds[cellCount] = byteCount;
+        cellCount++;
+    }
+
+    private void ensureBytes(int additional) {
+        if (byteCount + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + additional));
+        }
+    }
+}
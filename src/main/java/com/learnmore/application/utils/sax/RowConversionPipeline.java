@@ -0,0 +1,124 @@
+package com.learnmore.application.utils.sax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker pool giữa parse thread và phần xử lý batch, trả kết quả theo đúng thứ tự submit
+ *
+ * Parse thread chỉ tokenize và submit từng block raw row; bind, convert và validation chạy trên
+ * worker. Kết quả luôn được giao cho sink trên parse thread, theo thứ tự block → batch ordering,
+ * duplicate check, maxRows và checkpoint giữ nguyên semantics tuần tự.
+ *
+ * Số block in-flight bị giới hạn (2 × parallelism): submit block trên block cũ nhất khi window đầy,
+ * nên parse thread không chạy trước worker quá xa.
+ *
+ * Có shared executor thì block chạy trên pool đó (không tạo pool riêng); parse thread chờ block
+ * nên không được là worker của chính executor đó.
+ *
+ * @param <R> Result of one block
+ */
+@Slf4j
+final class RowConversionPipeline<R> implements AutoCloseable {
+
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
+    /**
+     * Receives block results in submission order, on the submitting thread
+     */
+    @FunctionalInterface
+    interface ResultSink<R> {
+        void accept(R result) throws Exception;
+    }
+
+    private final Executor executor;
+    private final ExecutorService ownPool; // null when running on a shared executor
+    private final ResultSink<R> sink;
+    private final Deque<Future<R>> inFlight = new ArrayDeque<>();
+    private final int maxInFlight;
+    private long blocks;
+
+    RowConversionPipeline(int parallelism, ResultSink<R> sink) {
+        this(null, parallelism, sink);
+    }
+
+    /**
+     * @param sharedExecutor Pool running the blocks (parallelism then only bounds the blocks in flight);
+     *                       null = a pool of parallelism threads owned by this pipeline
+     */
+    RowConversionPipeline(Executor sharedExecutor, int parallelism, ResultSink<R> sink) {
+        int threads = Math.max(1, parallelism);
+        if (sharedExecutor != null) {
+            this.ownPool = null;
+            this.executor = sharedExecutor;
+        } else {
+            int poolId = POOL_SEQUENCE.incrementAndGet();
+            AtomicInteger threadSequence = new AtomicInteger();
+            this.ownPool = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r);
+                thread.setDaemon(true);
+                thread.setName("row-converter-" + poolId + "-" + threadSequence.incrementAndGet());
+                return thread;
+            });
+            this.executor = ownPool;
+        }
+        this.sink = sink;
+        this.maxInFlight = threads * 2;
+    }
+
+    /**
+     * Submit a block, then deliver every finished block at the head of the window
+     * (blocks on the oldest one when the window is full)
+     */
+    void submit(Callable<R> task) throws Exception {
+        FutureTask<R> future = new FutureTask<>(task);
+        inFlight.addLast(future);
+        executor.execute(future);
+        blocks++;
+        while (!inFlight.isEmpty()
+                && (inFlight.size() >= maxInFlight || inFlight.peekFirst().isDone())) {
+            sink.accept(await(inFlight.pollFirst()));
+        }
+    }
+
+    /**
+     * Wait for and deliver all remaining blocks
+     */
+    void finish() throws Exception {
+        while (!inFlight.isEmpty()) {
+            sink.accept(await(inFlight.pollFirst()));
+        }
+        log.debug("Converted {} row blocks", blocks);
+    }
+
+    @Override
+    public void close() {
+        inFlight.forEach(future -> future.cancel(true));
+        inFlight.clear();
+        if (ownPool != null) {
+            ownPool.shutdownNow();
+        }
+    }
+
+    private static <R> R await(Future<R> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.utils.config.ExcelConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Mở shared strings table theo ExcelConfig.sharedStringsStore
+ *
+ * IN_MEMORY: XSSFReader.getSharedStringsTable() như trước
+ * FILE_BACKED: FileBackedSharedStrings - caller phải gọi closeQuietly() sau khi parse xong
+ * LAZY: LazySharedStrings - giữ stream của SST part mở, caller cũng phải gọi closeQuietly()
+ */
+@Slf4j
+public final class SharedStringsLoader {
+
+    private SharedStringsLoader() {
+    }
+
+    public static SharedStrings load(XSSFReader xssfReader, ExcelConfig config) throws Exception {
+        if (config.getSharedStringsStore() == ExcelConfig.SharedStringsStore.LAZY) {
+            return LazySharedStrings.open(xssfReader.getSharedStringsData());
+        }
+        if (config.getSharedStringsStore() != ExcelConfig.SharedStringsStore.FILE_BACKED) {
+            return xssfReader.getSharedStringsTable();
+        }
+        try (InputStream sstData = xssfReader.getSharedStringsData()) {
+            FileBackedSharedStrings strings = FileBackedSharedStrings.load(sstData, config.getSharedStringsCacheSize());
+            log.info("Using file-backed shared strings table: {} unique strings", strings.getUniqueCount());
+            return strings;
+        }
+    }
+
+    /**
+     * Release temp file / open part stream of a file-backed or lazy table (no-op for in-memory tables)
+     */
+    public static void closeQuietly(SharedStrings sharedStrings) {
+        if (sharedStrings instanceof FileBackedSharedStrings || sharedStrings instanceof LazySharedStrings) {
+            try {
+                ((Closeable) sharedStrings).close();
+            } catch (IOException e) {
+                log.warn("Failed to close shared strings table: {}", e.getMessage());
+            }
+        }
+    }
+}
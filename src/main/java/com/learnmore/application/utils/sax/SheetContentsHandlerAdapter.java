@@ -0,0 +1,53 @@
+package com.learnmore.application.utils.sax;
+
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+
+/**
+ * Bridge FastSheetTokenizer → existing XSSFSheetXMLHandler.SheetContentsHandler implementations
+ *
+ * Cho phép các handler positional (vd: SheetIngestService.IngestHandler) dùng fast engine
+ * mà không phải viết lại. Cell value được format giống hệt XSSFSheetXMLHandler.
+ *
+ * Handler chỉ dùng thứ tự cell (không đọc cellReference) có thể tắt emitCellReferences
+ * để bỏ hẳn việc build String "A1" cho mỗi cell - khi đó cellReference luôn là null.
+ */
+public class SheetContentsHandlerAdapter implements FastSheetTokenizer.RawSheetHandler {
+
+    private final XSSFSheetXMLHandler.SheetContentsHandler delegate;
+    private final RawCellFormatter formatter;
+    private final boolean emitCellReferences;
+    private int currentRow;
+
+    public SheetContentsHandlerAdapter(XSSFSheetXMLHandler.SheetContentsHandler delegate,
+                                       RawCellFormatter formatter,
+                                       boolean emitCellReferences) {
+        this.delegate = delegate;
+        this.formatter = formatter;
+        this.emitCellReferences = emitCellReferences;
+    }
+
+    @Override
+    public void startRow(int rowNum) {
+        currentRow = rowNum;
+        delegate.startRow(rowNum);
+    }
+
+    @Override
+    public void cell(int colIndex, byte cellType, int styleIndex, FastSheetTokenizer.RawValue value) {
+        String cellReference = emitCellReferences
+                ? CellReference.convertNumToColString(colIndex) + (currentRow + 1)
+                : null;
+        delegate.cell(cellReference, formatter.format(cellType, styleIndex, value), null);
+    }
+
+    @Override
+    public void endRow(int rowNum) {
+        delegate.endRow(rowNum);
+    }
+
+    @Override
+    public void endSheet() {
+        delegate.endSheet();
+    }
+}
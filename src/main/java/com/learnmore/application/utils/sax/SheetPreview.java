@@ -0,0 +1,111 @@
+package com.learnmore.application.utils.sax;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Preview của sheet đầu tiên: header, N data row đầu và kiểu dữ liệu phát hiện theo column
+ *
+ * Được TrueStreamingSAXProcessor.preview() điền trong lúc parse; parse dừng ngay khi đủ N row
+ * (ExcelConfig.rowLimit), nên thời gian preview không phụ thuộc kích thước file.
+ * Kiểu column lấy từ cell type + number format của các row đã đọc (FAST engine).
+ *
+ * @param <T> Bean type of the preview rows
+ */
+public final class SheetPreview<T> {
+
+    /**
+     * Kiểu dữ liệu của một column trong các row preview
+     * EMPTY: không có giá trị nào; MIXED: nhiều kiểu khác nhau
+     */
+    public enum ColumnType {
+        EMPTY,
+        TEXT,
+        NUMBER,
+        DATE,
+        BOOLEAN,
+        MIXED;
+
+        static ColumnType of(byte cellType, boolean dateFormatted) {
+            switch (cellType) {
+                case FastSheetTokenizer.TYPE_NUMBER:
+                    return dateFormatted ? DATE : NUMBER;
+                case FastSheetTokenizer.TYPE_DATE:
+                    return DATE;
+                case FastSheetTokenizer.TYPE_BOOLEAN:
+                    return BOOLEAN;
+                default:
+                    return TEXT;
+            }
+        }
+
+        ColumnType merge(ColumnType observed) {
+            return this == EMPTY || this == observed ? observed : MIXED;
+        }
+    }
+
+    private final Map<Integer, String> headers = new TreeMap<>();
+    private ColumnType[] columnTypes = new ColumnType[0];
+    private final List<T> rows = new ArrayList<>();
+    private boolean rowLimitReached;
+
+    /**
+     * Header names in column order
+     */
+    public List<String> getHeaders() {
+        return new ArrayList<>(headers.values());
+    }
+
+    /**
+     * First data rows, in sheet order
+     */
+    public List<T> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Header name → detected type, in column order
+     */
+    public Map<String, ColumnType> getColumnTypes() {
+        Map<String, ColumnType> types = new LinkedHashMap<>();
+        headers.forEach((colIndex, header) -> types.put(header, columnTypes[colIndex]));
+        return types;
+    }
+
+    /**
+     * Whether parsing stopped at the row limit (the sheet may have more rows)
+     */
+    public boolean isRowLimitReached() {
+        return rowLimitReached;
+    }
+
+    void setHeaders(Map<String, Integer> headerMapping) {
+        int width = 0;
+        for (Map.Entry<String, Integer> entry : headerMapping.entrySet()) {
+            headers.put(entry.getValue(), entry.getKey());
+            width = Math.max(width, entry.getValue() + 1);
+        }
+        columnTypes = new ColumnType[width];
+        for (int i = 0; i < width; i++) {
+            columnTypes[i] = ColumnType.EMPTY;
+        }
+    }
+
+    void observe(int colIndex, ColumnType type) {
+        if (colIndex < columnTypes.length) {
+            columnTypes[colIndex] = columnTypes[colIndex].merge(type);
+        }
+    }
+
+    void addRows(List<T> batch) {
+        rows.addAll(batch);
+    }
+
+    void markRowLimitReached() {
+        rowLimitReached = true;
+    }
+}
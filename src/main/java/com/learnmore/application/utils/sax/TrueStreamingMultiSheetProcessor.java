@@ -1,13 +1,14 @@
 package com.learnmore.application.utils.sax;
 
 // Removed dependency on ExcelUtil.MultiSheetResult
+import com.learnmore.application.utils.concurrent.MigrationWorkScheduler;
 import com.learnmore.application.utils.config.ExcelConfig;
 import com.learnmore.application.utils.validation.ExcelEarlyValidator;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
 // Removed unused imports after refactor
+import org.apache.poi.xssf.model.SharedStrings;
 import org.apache.poi.xssf.model.StylesTable;
 // import org.xml.sax.InputSource;
 // import org.xml.sax.XMLReader;
@@ -15,15 +16,33 @@ import org.apache.poi.xssf.model.StylesTable;
 // import javax.xml.parsers.SAXParserFactory;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
  * True streaming multi-sheet processor using SAX
  * Không sử dụng WorkbookFactory.create, xử lý từng sheet với streaming thực sự
+ *
+ * ExcelConfig.maxConcurrentSheets > 1: các sheet được parse đồng thời trên package random-access
+ * (temp file của WorkbookSession). Mỗi sheet có parser/binder (TrueStreamingSAXProcessor) và
+ * DataFormatter riêng; StylesTable và shared strings chỉ đọc nên dùng chung. Consumer của một sheet
+ * luôn được gọi từ một thread tại một thời điểm, nhưng các sheet khác nhau chạy song song.
+ *
+ * ExcelConfig.workScheduler có giá trị: sheet chạy trên pool dùng chung của job (không tạo pool riêng),
+ * tối đa số worker của pool; gọi từ chính một worker của pool đó thì parse tuần tự.
  */
 @Slf4j
 public class TrueStreamingMultiSheetProcessor {
     
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+    
     private final Map<String, Class<?>> sheetClassMap;
     private final Map<String, Consumer<List<?>>> sheetProcessors;
     private final ExcelConfig config;
@@ -41,59 +60,196 @@ public class TrueStreamingMultiSheetProcessor {
      */
     public Map<String, TrueStreamingSAXProcessor.ProcessingResult> processTrueStreaming(InputStream inputStream) 
             throws Exception {
+        WorkbookSession session = config.getWorkbookSession();
+        if (session != null) {
+            return processTrueStreaming(session);
+        }
+        // Spool một lần, early validation và parsing dùng chung temp file (random-access zip)
+        try (WorkbookSource source = WorkbookSource.spool(inputStream)) {
+            return processTrueStreaming(source);
+        }
+    }
+    
+    /**
+     * Process multiple sheets of a workbook already on disk
+     */
+    public Map<String, TrueStreamingSAXProcessor.ProcessingResult> processTrueStreaming(WorkbookSource source) 
+            throws Exception {
+        try (WorkbookSession session = WorkbookSession.open(source)) {
+            return processTrueStreaming(session);
+        }
+    }
+    
+    /**
+     * Process multiple sheets using one opened package: dimension, styles and SST are read once per job
+     */
+    public Map<String, TrueStreamingSAXProcessor.ProcessingResult> processTrueStreaming(WorkbookSession session) 
+            throws Exception {
         
-        Map<String, TrueStreamingSAXProcessor.ProcessingResult> results = new HashMap<>();
-        
-        // Early validation cho toàn bộ file
+        // Early validation cho toàn bộ file (dimension đã cache trong session)
         ExcelEarlyValidator.EarlyValidationResult earlyResult = 
-            ExcelEarlyValidator.validateRecordCount(inputStream, config.getMaxErrorsBeforeAbort(), 1);
+            ExcelEarlyValidator.validateRecordCount(session, config.getMaxErrorsBeforeAbort(), 1);
         
         if (!earlyResult.isValid()) {
             log.error("Multi-sheet file failed early validation: {}", earlyResult.getErrorMessage());
             throw new RuntimeException("File too large: " + earlyResult.getErrorMessage());
         }
         
-        log.info("Multi-sheet early validation passed. Processing {} sheets with true streaming...", 
-                sheetClassMap.size());
+        XSSFReader xssfReader = session.getReader();
+        SharedStrings sharedStrings = session.getSharedStrings(config);
+        StylesTable stylesTable = session.getStylesTable();
         
-        try (OPCPackage opcPackage = OPCPackage.open(inputStream)) {
-            XSSFReader xssfReader = new XSSFReader(opcPackage);
-            org.apache.poi.xssf.model.SharedStringsTable sharedStringsTable = 
-                (org.apache.poi.xssf.model.SharedStringsTable) xssfReader.getSharedStringsTable();
-            StylesTable stylesTable = xssfReader.getStylesTable();
-            
-            XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        int concurrency = Math.min(config.getMaxConcurrentSheets(), sheetClassMap.size());
+        MigrationWorkScheduler scheduler = config.getWorkScheduler();
+        if (scheduler != null) {
+            // This thread waits on the sheets: never from one of the pool's own workers
+            concurrency = scheduler.isWorkerThread() ? 1 : Math.min(concurrency, scheduler.getWorkerCount());
+        }
+        log.info("Multi-sheet early validation passed. Processing {} sheets with true streaming ({} at a time)...", 
+                sheetClassMap.size(), Math.max(1, concurrency));
+        
+        XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        
+        if (concurrency <= 1) {
+            Map<String, TrueStreamingSAXProcessor.ProcessingResult> results = new LinkedHashMap<>();
             DataFormatter dataFormatter = new DataFormatter();
-            
             while (sheetIterator.hasNext()) {
                 try (InputStream sheetStream = sheetIterator.next()) {
                     String sheetName = sheetIterator.getSheetName();
-                    Class<?> beanClass = sheetClassMap.get(sheetName);
-                    Consumer<List<?>> sheetProcessor = sheetProcessors.get(sheetName);
-                    
-                    if (beanClass == null || sheetProcessor == null) {
-                        log.warn("Sheet '{}' not configured for processing, skipping", sheetName);
-                        continue;
+                    if (isConfigured(sheetName)) {
+                        results.put(sheetName, processSheet(sheetName, sheetStream, stylesTable, sharedStrings, dataFormatter));
                     }
-                    
-                    log.info("Processing sheet '{}' with class {}", sheetName, beanClass.getSimpleName());
-                    
-                    // Create true streaming processor for this sheet
-                    TrueStreamingSAXProcessor<?> processor = createProcessorForSheet(
-                        beanClass, sheetProcessor, config);
-                    
-                    // Process sheet với true streaming
-                    TrueStreamingSAXProcessor.ProcessingResult result = 
-                        processSheetWithSAX(sheetStream, processor, stylesTable, sharedStringsTable, dataFormatter);
-                    
-                    results.put(sheetName, result);
-                    
-                    log.info("Completed sheet '{}': {}", sheetName, result);
                 }
             }
+            return results;
         }
         
-        return results;
+        return processConcurrently(sheetIterator, concurrency, stylesTable, sharedStrings);
+    }
+    
+    /**
+     * Sheets parsed on up to `concurrency` threads, of the shared pool when configured
+     *
+     * The iterator (and so the package's part lookup) stays on the calling thread: each sheet's stream
+     * is opened here and handed to its task, which only reads and closes it. Zip entries of a package
+     * opened from a file are read with positioned reads, so streams of different sheets do not contend.
+     * A sheet's stream is opened only once a thread is free for it, so at most `concurrency` are open.
+     * First failure cancels the other sheets and is rethrown, as in the sequential loop.
+     */
+    private Map<String, TrueStreamingSAXProcessor.ProcessingResult> processConcurrently(
+            XSSFReader.SheetIterator sheetIterator,
+            int concurrency,
+            StylesTable stylesTable,
+            SharedStrings sharedStrings) throws Exception {
+        
+        MigrationWorkScheduler scheduler = config.getWorkScheduler();
+        ExecutorService ownPool = scheduler == null ? newPool(concurrency) : null;
+        Executor executor = ownPool != null
+                ? ownPool
+                : scheduler.executorFor(config.getJobId(), config.getJobPriority());
+        
+        // Workbook order, so results come back in the same order as the sequential path
+        Map<String, Future<TrueStreamingSAXProcessor.ProcessingResult>> futures = new LinkedHashMap<>();
+        Semaphore threads = new Semaphore(concurrency);
+        List<InputStream> opened = new ArrayList<>();
+        try {
+            while (sheetIterator.hasNext()) {
+                threads.acquire();
+                InputStream sheetStream = sheetIterator.next();
+                String sheetName = sheetIterator.getSheetName();
+                if (!isConfigured(sheetName)) {
+                    sheetStream.close();
+                    threads.release();
+                    continue;
+                }
+                opened.add(sheetStream);
+                FutureTask<TrueStreamingSAXProcessor.ProcessingResult> future = new FutureTask<>(() -> {
+                    try (InputStream stream = sheetStream) {
+                        // DataFormatter caches formats in plain maps: one per thread
+                        return processSheet(sheetName, stream, stylesTable, sharedStrings, new DataFormatter());
+                    } finally {
+                        threads.release();
+                    }
+                });
+                futures.put(sheetName, future);
+                executor.execute(future);
+            }
+            
+            Map<String, TrueStreamingSAXProcessor.ProcessingResult> results = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<TrueStreamingSAXProcessor.ProcessingResult>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), await(entry.getValue()));
+            }
+            return results;
+        } catch (Exception e) {
+            futures.values().forEach(future -> future.cancel(true));
+            throw e;
+        } finally {
+            if (ownPool != null) {
+                ownPool.shutdownNow();
+            }
+            // Streams of tasks cancelled before they started
+            for (InputStream stream : opened) {
+                try {
+                    stream.close();
+                } catch (Exception ignored) {
+                    // already closed by its task, or nothing left to release
+                }
+            }
+        }
+    }
+    
+    private static ExecutorService newPool(int threads) {
+        int poolId = POOL_SEQUENCE.incrementAndGet();
+        AtomicInteger threadSequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("multi-sheet-parser-" + poolId + "-" + threadSequence.incrementAndGet());
+            return thread;
+        });
+    }
+    
+    private boolean isConfigured(String sheetName) {
+        if (sheetClassMap.get(sheetName) == null || sheetProcessors.get(sheetName) == null) {
+            log.warn("Sheet '{}' not configured for processing, skipping", sheetName);
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Parse one sheet with its own processor (binder, batch, counters)
+     */
+    private TrueStreamingSAXProcessor.ProcessingResult processSheet(String sheetName,
+                                                                    InputStream sheetStream,
+                                                                    StylesTable stylesTable,
+                                                                    SharedStrings sharedStrings,
+                                                                    DataFormatter dataFormatter) throws Exception {
+        Class<?> beanClass = sheetClassMap.get(sheetName);
+        log.info("Processing sheet '{}' with class {}", sheetName, beanClass.getSimpleName());
+        
+        // Create true streaming processor for this sheet
+        TrueStreamingSAXProcessor<?> processor = createProcessorForSheet(
+            beanClass, sheetProcessors.get(sheetName), config);
+        
+        // Process sheet với true streaming
+        TrueStreamingSAXProcessor.ProcessingResult result = 
+            processSheetWithSAX(sheetStream, processor, stylesTable, sharedStrings, dataFormatter);
+        
+        log.info("Completed sheet '{}': {}", sheetName, result);
+        return result;
+    }
+    
+    private static <R> R await(Future<R> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw new RuntimeException(cause);
+        }
     }
     
     /**
@@ -177,10 +333,10 @@ public class TrueStreamingMultiSheetProcessor {
             InputStream sheetStream,
             TrueStreamingSAXProcessor<?> processor,
             StylesTable stylesTable,
-            org.apache.poi.xssf.model.SharedStringsTable sharedStringsTable,
+            SharedStrings sharedStrings,
             DataFormatter dataFormatter) throws Exception {
         
         // Use processor's new method to process sheet stream with shared resources
-        return processor.processSheetStream(sheetStream, stylesTable, sharedStringsTable, dataFormatter);
+        return processor.processSheetStream(sheetStream, stylesTable, sharedStrings, dataFormatter);
     }
 }
\ No newline at end of file
@@ -1,28 +1,32 @@
 package com.learnmore.application.utils.sax;
 
 import com.learnmore.application.utils.ExcelColumn;
+import com.learnmore.application.utils.checkpoint.CheckpointRecorder;
+import com.learnmore.application.utils.concurrent.MigrationWorkScheduler;
+import com.learnmore.application.utils.sax.ColumnBindingPlan.ColumnBinding;
 import com.learnmore.application.utils.config.ExcelConfig;
 import com.learnmore.application.utils.converter.TypeConverter;
+import com.learnmore.application.utils.reflection.BeanBinder;
 import com.learnmore.application.utils.reflection.MethodHandleMapper;
+import com.learnmore.application.utils.validation.UniqueValueSet;
 import com.learnmore.application.utils.validation.ValidationRule;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.SharedStrings;
 import org.apache.poi.xssf.model.StylesTable;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 
 import javax.xml.parsers.SAXParserFactory;
 import java.io.InputStream;
-import java.lang.reflect.Field;
-import java.text.Normalizer;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
@@ -38,11 +42,25 @@ public class TrueStreamingSAXProcessor<T> {
     private final List<ValidationRule> validationRules;
     private final TypeConverter typeConverter;
     private final Consumer<List<T>> batchProcessor;
+    private final Consumer<ColumnarBatch<T>> columnarBatchProcessor;
+    private final BatchRingBuffer<T> ringBuffer;
+    private final SheetPreview<T> preview;
+    private final CheckpointRecorder checkpointRecorder;
+    private final AdaptiveBatchSizer batchSizer;
     private final MethodHandleMapper<T> methodHandleMapper;
+    private final BeanBinder<T> beanBinder;
+    private final BeanBinder.IntSetter rowNumIntSetter;
+    private final BeanBinder.ObjectSetter rowNumSetter;
+    // config.getUniqueFields() present on the bean, resolved once (index = field id in the UniqueValueSet)
+    private final String[] uniqueFields;
+    // Columns to bind (config.getProjectedColumns() + fields the validations read); empty = all
+    private final Set<String> projectedColumns;
     
-    // Cache for ExcelColumn annotations per field name
-    private final Map<String, ExcelColumn> fieldAnnotationCache = new ConcurrentHashMap<>();
-
+    // Marks "row in progress" in columnar mode, where no bean is created
+    private static final Object COLUMNAR_ROW = new Object();
+    // Marks "row being captured raw" when conversion runs on the worker pool (parallelRowConversion)
+    private static final Object RAW_ROW = new Object();
+    private static final int MAX_INITIAL_COLUMNAR_CAPACITY = 8192;
     
     // Statistics
     private final AtomicLong totalProcessed = new AtomicLong(0);
@@ -52,99 +70,170 @@ public class TrueStreamingSAXProcessor<T> {
     public TrueStreamingSAXProcessor(Class<T> beanClass, ExcelConfig config, 
                                    List<ValidationRule> validationRules, 
                                    Consumer<List<T>> batchProcessor) {
+        this(beanClass, config, validationRules, batchProcessor, null, null, null);
+    }
+    
+    /**
+     * Columnar output mode: batches are delivered as a reused ColumnarBatch instead of List&lt;T&gt;
+     * (no bean per row). The consumer must not keep the batch after accept() returns.
+     */
+    public static <T> TrueStreamingSAXProcessor<T> columnar(Class<T> beanClass, ExcelConfig config,
+                                                             List<ValidationRule> validationRules,
+                                                             Consumer<ColumnarBatch<T>> batchProcessor) {
+        return new TrueStreamingSAXProcessor<>(beanClass, config, validationRules, null, batchProcessor, null, null);
+    }
+    
+    /**
+     * Pipelined mode: rows are written straight into ring buffer slots and published to its workers
+     * (no per-batch copy). With config.recycleRowObjects, beans of released batches are reused.
+     * The caller owns the ring buffer: finish() and awaitCompletion() after processing.
+     */
+    public static <T> TrueStreamingSAXProcessor<T> pipelined(Class<T> beanClass, ExcelConfig config,
+                                                              List<ValidationRule> validationRules,
+                                                              BatchRingBuffer<T> ringBuffer) {
+        return new TrueStreamingSAXProcessor<>(beanClass, config, validationRules, null, null, ringBuffer, null);
+    }
+    
+    /**
+     * Preview mode: rows, headers and detected column types are collected into the preview.
+     * Use with config.rowLimit so parsing stops after the first rows; an empty sheet is not an error.
+     */
+    public static <T> TrueStreamingSAXProcessor<T> preview(Class<T> beanClass, ExcelConfig config,
+                                                            SheetPreview<T> preview) {
+        return new TrueStreamingSAXProcessor<>(beanClass, config, new ArrayList<>(), preview::addRows, null, null, preview);
+    }
+    
+    private TrueStreamingSAXProcessor(Class<T> beanClass, ExcelConfig config,
+                                      List<ValidationRule> validationRules,
+                                      Consumer<List<T>> batchProcessor,
+                                      Consumer<ColumnarBatch<T>> columnarBatchProcessor,
+                                      BatchRingBuffer<T> ringBuffer,
+                                      SheetPreview<T> preview) {
         this.beanClass = beanClass;
         this.config = config;
         this.validationRules = validationRules != null ? validationRules : new ArrayList<>();
         this.typeConverter = TypeConverter.getInstance();
         this.batchProcessor = batchProcessor;
+        this.columnarBatchProcessor = columnarBatchProcessor;
+        this.ringBuffer = ringBuffer;
+        this.preview = preview;
+        this.checkpointRecorder = config.getCheckpointRecorder();
+        if (ringBuffer != null && checkpointRecorder != null) {
+            // Ring slots commit on worker threads, possibly out of order
+            ringBuffer.onBatchCompleted(checkpointRecorder::committed);
+        }
+        this.batchSizer = config.isAdaptiveBatchSizing()
+                ? new AdaptiveBatchSizer(config.getBatchSize(), config.getMinBatchSize(), config.getMaxBatchSize(),
+                        config.getTargetBatchLatencyMs(), config.getMemoryThresholdMB())
+                : null;
+        if (ringBuffer != null && batchSizer != null) {
+            // Consumer latency is measured on the ring workers
+            ringBuffer.adaptBatchSize(batchSizer);
+        }
         this.methodHandleMapper = MethodHandleMapper.forClass(beanClass);
+        this.beanBinder = BeanBinder.forClass(beanClass);
+        int rowNumSlot = beanBinder.slot("rowNum");
+        this.rowNumSetter = rowNumSlot >= 0 ? beanBinder.setter(rowNumSlot) : null;
+        this.rowNumIntSetter = rowNumSlot >= 0 && beanBinder.getFieldType(rowNumSlot) == int.class
+                ? beanBinder.intSetter(rowNumSlot) : null;
+        this.uniqueFields = config.getUniqueFields().stream()
+                .filter(beanBinder::hasField)
+                .sorted()
+                .toArray(String[]::new);
+        this.projectedColumns = resolveProjection(config);
         this.startTime = System.currentTimeMillis();
         
-        // Pre-cache ExcelColumn annotations for all fields
-        initializeAnnotationCache();
-        
-        log.info("Initialized TrueStreamingSAXProcessor with MethodHandle optimization for class: {}", 
-                 beanClass.getSimpleName());
+        log.info("Initialized TrueStreamingSAXProcessor with generated bean binder for class: {} ({}/{} fields generated)", 
+                 beanClass.getSimpleName(), beanBinder.getGeneratedCount(), beanBinder.getSlotCount());
     }
     
     /**
-     * Pre-cache ExcelColumn annotations for all fields to avoid repeated reflection
+     * Projection cộng thêm các field mà validation đọc (required / unique / field rules),
+     * để narrow read không làm sai kết quả validation
      */
-    private void initializeAnnotationCache() {
-        try {
-            for (Field field : beanClass.getDeclaredFields()) {
-                ExcelColumn annotation = field.getAnnotation(ExcelColumn.class);
-                if (annotation != null) {
-                    fieldAnnotationCache.put(field.getName(), annotation);
-                    // Also cache by Excel column name
-                    if (!annotation.name().isEmpty()) {
-                        fieldAnnotationCache.put(annotation.name(), annotation);
-                    }
-                }
-            }
-            log.debug("Cached {} ExcelColumn annotations for class {}", 
-                     fieldAnnotationCache.size(), beanClass.getSimpleName());
-        } catch (Exception e) {
-            log.warn("Failed to initialize annotation cache: {}", e.getMessage());
+    private static Set<String> resolveProjection(ExcelConfig config) {
+        Set<String> projection = config.getProjectedColumns();
+        if (!projection.isEmpty()) {
+            projection.addAll(config.getRequiredFields());
+            projection.addAll(config.getUniqueFields());
+            projection.addAll(config.getFieldValidationRules().keySet());
         }
+        return projection;
     }
     
     /**
-     * Get ExcelColumn annotation for a field name
+     * Process Excel với true streaming - không tích lũy kết quả
      */
-    private ExcelColumn getExcelColumnAnnotation(String fieldName) {
-        return fieldAnnotationCache.get(fieldName);
+    public ProcessingResult processExcelStreamTrue(InputStream inputStream) throws Exception {
+        // Job đã mở workbook (ExcelConfig.workbookSession): dùng lại package/styles/SST, stream không cần spool
+        WorkbookSession session = config.getWorkbookSession();
+        if (session != null) {
+            return processExcelStreamTrue(session);
+        }
+        // Spool một lần ra temp file, đọc zip random-access thay vì giải nén toàn bộ vào heap
+        try (WorkbookSource source = WorkbookSource.spool(inputStream)) {
+            return processExcelStreamTrue(source);
+        }
     }
     
     /**
-     * Process Excel với true streaming - không tích lũy kết quả
+     * Process first sheet of a workbook already on disk
+     * Only workbook.xml, styles, shared strings and the first sheet are inflated
      */
-    public ProcessingResult processExcelStreamTrue(InputStream inputStream) throws Exception {
+    public ProcessingResult processExcelStreamTrue(WorkbookSource source) throws Exception {
+        try (WorkbookSession session = WorkbookSession.open(source)) {
+            return processExcelStreamTrue(session);
+        }
+    }
+    
+    /**
+     * Process first sheet using the package, styles and shared strings cached by the session
+     */
+    public ProcessingResult processExcelStreamTrue(WorkbookSession session) throws Exception {
         
-        try (OPCPackage opcPackage = OPCPackage.open(inputStream)) {
-            XSSFReader xssfReader = new XSSFReader(opcPackage);
-            org.apache.poi.xssf.model.SharedStringsTable sharedStringsTable = 
-                (org.apache.poi.xssf.model.SharedStringsTable) xssfReader.getSharedStringsTable();
-            StylesTable stylesTable = xssfReader.getStylesTable();
-            
-            // True streaming content handler - xử lý từng batch ngay
-            TrueStreamingContentHandler contentHandler = new TrueStreamingContentHandler();
-            
-            // Setup SAX parser with proper date formatting
-            XMLReader xmlReader = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
-            
-            // Create DataFormatter with proper date formatting
-            DataFormatter dataFormatter = new DataFormatter();
-            dataFormatter.setUseCachedValuesForFormulaCells(false);
-            
-            XSSFSheetXMLHandler sheetHandler = new XSSFSheetXMLHandler(
-                stylesTable, sharedStringsTable, contentHandler, dataFormatter, false
-            );
-            xmlReader.setContentHandler(sheetHandler);
-            
-            // Process first sheet với true streaming
-            XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        XSSFReader xssfReader = session.getReader();
+        SharedStrings sharedStrings = session.getSharedStrings(config);
+        StylesTable stylesTable = session.getStylesTable();
+        
+        // True streaming content handler - xử lý từng batch ngay
+        TrueStreamingContentHandler contentHandler = new TrueStreamingContentHandler();
+        
+        // Create DataFormatter with proper date formatting
+        DataFormatter dataFormatter = new DataFormatter();
+        dataFormatter.setUseCachedValuesForFormulaCells(false);
+        
+        // Process first sheet với true streaming
+        XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        try {
             if (sheetIterator.hasNext()) {
                 try (InputStream sheetStream = sheetIterator.next()) {
-                    xmlReader.parse(new InputSource(sheetStream));
+                    if (checkpointRecorder != null) {
+                        checkpointRecorder.sheetOpened(sheetIterator.getSheetName());
+                    }
+                    parseSheet(sheetStream, stylesTable, sharedStrings, dataFormatter, contentHandler);
                 }
             }
             
             // Flush remaining batch
             contentHandler.flushRemainingBatch();
+        } finally {
+            contentHandler.closeRowPipeline();
+            contentHandler.releaseUniqueValues();
         }
         
         long processingTime = System.currentTimeMillis() - startTime;
         
         // Throw if no data rows were processed
-        if (totalProcessed.get() == 0) {
+        if (totalProcessed.get() == 0 && preview == null && config.getResumeAfterRow() == 0) {
             throw new RuntimeException("Tập không có dữ liệu");
         }
         
+        logBatchSizing();
         return new ProcessingResult(
             totalProcessed.get(), 
             totalErrors.get(), 
-            processingTime
+            processingTime,
+            batchSizer
         );
     }
     
@@ -155,55 +244,324 @@ public class TrueStreamingSAXProcessor<T> {
     public ProcessingResult processSheetStream(
             InputStream sheetStream,
             StylesTable stylesTable,
-            org.apache.poi.xssf.model.SharedStringsTable sharedStringsTable,
+            SharedStrings sharedStrings,
             DataFormatter dataFormatter) throws Exception {
         
         // True streaming content handler - xử lý từng batch ngay
         TrueStreamingContentHandler contentHandler = new TrueStreamingContentHandler();
         
-        // Setup SAX parser
-        XMLReader xmlReader = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
-        
-        XSSFSheetXMLHandler sheetHandler = new XSSFSheetXMLHandler(
-            stylesTable, sharedStringsTable, contentHandler, dataFormatter, false
-        );
-        xmlReader.setContentHandler(sheetHandler);
-        
-        // Process sheet stream directly
-        xmlReader.parse(new InputSource(sheetStream));
-        
-        // Flush remaining batch
-        contentHandler.flushRemainingBatch();
+        try {
+            // Process sheet stream directly
+            parseSheet(sheetStream, stylesTable, sharedStrings, dataFormatter, contentHandler);
+            
+            // Flush remaining batch
+            contentHandler.flushRemainingBatch();
+        } finally {
+            contentHandler.closeRowPipeline();
+            contentHandler.releaseUniqueValues();
+        }
         
         long processingTime = System.currentTimeMillis() - startTime;
         
         // Throw if no data rows were processed
-        if (totalProcessed.get() == 0) {
+        if (totalProcessed.get() == 0 && preview == null && config.getResumeAfterRow() == 0) {
             throw new RuntimeException("Tập không có dữ liệu");
         }
         
+        logBatchSizing();
         return new ProcessingResult(
             totalProcessed.get(), 
             totalErrors.get(), 
-            processingTime
+            processingTime,
+            batchSizer
         );
     }
     
-    // fieldMapping removed; MethodHandleMapper handles both Excel column names and direct field names
+    private void logBatchSizing() {
+        if (batchSizer != null && ringBuffer == null) {
+            log.info("Adaptive batch sizing: {}", batchSizer);
+        }
+    }
+    
+    /**
+     * Parse one sheet part with the engine selected by ExcelConfig.parseEngine
+     */
+    private void parseSheet(InputStream sheetStream,
+                            StylesTable stylesTable,
+                            SharedStrings sharedStrings,
+                            DataFormatter dataFormatter,
+                            TrueStreamingContentHandler contentHandler) throws Exception {
+        try {
+            parseSheetUntilLimit(sheetStream, stylesTable, sharedStrings, dataFormatter, contentHandler);
+        } catch (RowLimitReached stop) {
+            onRowLimitReached();
+        } catch (SAXException e) {
+            if (!(e.getException() instanceof RowLimitReached)) {
+                throw e;
+            }
+            onRowLimitReached();
+        }
+    }
+    
+    private void onRowLimitReached() {
+        // ✅ Early termination: rest of the sheet part (and of a lazy SST) is never read
+        log.debug("Row limit {} reached, sheet parsing stopped", config.getRowLimit());
+        if (preview != null) {
+            preview.markRowLimitReached();
+        }
+    }
+    
+    private void parseSheetUntilLimit(InputStream sheetStream,
+                                      StylesTable stylesTable,
+                                      SharedStrings sharedStrings,
+                                      DataFormatter dataFormatter,
+                                      TrueStreamingContentHandler contentHandler) throws Exception {
+        // Chunk workers bind detached beans, so columnar mode always parses on this thread;
+        // a row limit stops after a few rows, so chunks would only be wasted work
+        if (config.isParallelSheetParsing() && canUseWorkers() && columnarBatchProcessor == null
+                && config.getRowLimit() == 0) {
+            parseSheetParallel(sheetStream, stylesTable, sharedStrings, dataFormatter, contentHandler);
+            return;
+        }
+        
+        // Parse thread only tokenizes; binding, conversion and validation move to worker threads
+        if (config.isParallelRowConversion() && canUseWorkers() && columnarBatchProcessor == null
+                && config.getRowLimit() == 0) {
+            contentHandler.startRowPipeline(stylesTable, sharedStrings);
+        }
+        
+        if (config.getParseEngine() == ExcelConfig.ParseEngine.FAST) {
+            // ✅ Byte-level tokenizer: column index decoded arithmetically, unmapped columns skipped
+            contentHandler.useRawCellFormatter(new RawCellFormatter(stylesTable, sharedStrings, dataFormatter));
+            FastSheetTokenizer tokenizer = new FastSheetTokenizer();
+            contentHandler.tokenizer = tokenizer;
+            tokenizer.parse(sheetStream, contentHandler);
+            return;
+        }
+        
+        XMLReader xmlReader = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
+        XSSFSheetXMLHandler sheetHandler = new XSSFSheetXMLHandler(
+            stylesTable, sharedStrings, contentHandler, dataFormatter, false
+        );
+        xmlReader.setContentHandler(sheetHandler);
+        xmlReader.parse(new InputSource(sheetStream));
+    }
+    
+    /**
+     * Chunk/row workers are allowed: more than one thread configured, and this thread is not itself a worker
+     * of the shared pool (it would wait on tasks queued behind it → parse sequentially instead)
+     */
+    private boolean canUseWorkers() {
+        MigrationWorkScheduler scheduler = config.getWorkScheduler();
+        return config.getThreadPoolSize() > 1 && (scheduler == null || !scheduler.isWorkerThread());
+    }
+    
+    /**
+     * Shared pool of the job, null → the chunk parser / row pipeline creates its own threadPoolSize pool
+     */
+    private Executor sharedWorkers() {
+        MigrationWorkScheduler scheduler = config.getWorkScheduler();
+        return scheduler != null ? scheduler.executorFor(config.getJobId(), config.getJobPriority()) : null;
+    }
+    
+    /**
+     * Tasks in flight are bounded by the threads that can actually run them
+     */
+    private int workerParallelism() {
+        MigrationWorkScheduler scheduler = config.getWorkScheduler();
+        return scheduler != null
+                ? Math.min(config.getThreadPoolSize(), scheduler.getWorkerCount())
+                : config.getThreadPoolSize();
+    }
+    
+    /**
+     * Intra-sheet parallel parsing: header chunk on this thread, row-range chunks on worker threads,
+     * merged back in sheet order so validations, duplicate checks and maxRows stay sequential.
+     * Chunks are always tokenized by FastSheetTokenizer (output identical to POI SAX).
+     */
+    private void parseSheetParallel(InputStream sheetStream,
+                                    StylesTable stylesTable,
+                                    SharedStrings sharedStrings,
+                                    DataFormatter dataFormatter,
+                                    TrueStreamingContentHandler contentHandler) throws Exception {
+        contentHandler.useRawCellFormatter(new RawCellFormatter(stylesTable, sharedStrings, dataFormatter));
+        ThreadLocal<FastSheetTokenizer> tokenizers = ThreadLocal.withInitial(FastSheetTokenizer::new);
+        
+        ParallelSheetChunkParser chunkParser = new ParallelSheetChunkParser(
+                sharedWorkers(), workerParallelism(), config.getParallelChunkRows(), config.getStartRow() + 1);
+        
+        chunkParser.<ParsedChunk<T>>parse(sheetStream,
+                // Header + leading rows: processed directly by the main handler
+                (chunk, firstRowNum) -> {
+                    tokenizers.get().parse(chunk, contentHandler, firstRowNum);
+                    return null;
+                },
+                // Later chunks: bind into detached instances with the compiled header plan
+                (chunk, firstRowNum) -> {
+                    TrueStreamingContentHandler worker = contentHandler.forkForChunk();
+                    // DataFormatter is not thread-safe → one per chunk
+                    worker.useRawCellFormatter(new RawCellFormatter(stylesTable, sharedStrings, new DataFormatter()));
+                    tokenizers.get().parse(chunk, worker, firstRowNum);
+                    return worker.parsedChunk;
+                },
+                parsed -> {
+                    if (parsed != null) {
+                        for (int i = 0; i < parsed.size(); i++) {
+                            contentHandler.acceptRow(parsed.rows.get(i), parsed.rowNums[i]);
+                        }
+                    }
+                });
+    }
+    
+    /**
+     * Thrown from the row callbacks once config.rowLimit rows were read, to abort the sheet parse
+     */
+    private static final class RowLimitReached extends RuntimeException {
+        RowLimitReached() {
+            super(null, null, false, false);
+        }
+    }
+    
+    /**
+     * Rows bound by a chunk worker, in sheet order
+     */
+    private static final class ParsedChunk<T> {
+        private final List<T> rows = new ArrayList<>();
+        private int[] rowNums = new int[256];
+        
+        void add(T row, int rowNum) {
+            if (rows.size() == rowNums.length) {
+                rowNums = Arrays.copyOf(rowNums, rowNums.length * 2);
+            }
+            rowNums[rows.size()] = rowNum;
+            rows.add(row);
+        }
+        
+        int size() {
+            return rows.size();
+        }
+    }
+    
+    // fieldMapping removed; header row is compiled into a ColumnBindingPlan (see TrueStreamingContentHandler.endRow)
     
     /**
      * True streaming content handler - xử lý batch ngay, không tích lũy
      */
-    private class TrueStreamingContentHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+    private class TrueStreamingContentHandler
+            implements XSSFSheetXMLHandler.SheetContentsHandler, FastSheetTokenizer.RawSheetHandler {
         
-        private final List<T> currentBatch = new ArrayList<>();
+        private final List<T> pendingBatch = new ArrayList<>();
+        // Pipelined mode: points at the claimed ring slot's container instead of pendingBatch
+        private List<T> currentBatch = pendingBatch;
+        private BatchRingBuffer.Slot<T> currentSlot;
+        // Checkpoint position of the batch being filled (sequence used when no ring buffer)
+        private long batchSequence;
+        private int lastBatchRow;
+        private long lastBatchOffset = -1L;
+        private FastSheetTokenizer tokenizer;
+        // Columnar mode only: created from the compiled header plan, reused for every batch
+        private ColumnarBatch<T> columnarBatch;
         private final Map<String, Integer> headerMapping = new HashMap<>();
-        private final Set<String> seenUniqueValues = new HashSet<>();
+        // Created on first unique check (ExcelConfig.uniqueValueStore), released after the sheet
+        private UniqueValueSet uniqueValues;
         private final AtomicLong errorCount = new AtomicLong(0);
+        private ColumnBindingPlan<T> bindingPlan;
         private Object currentInstance;
         private int currentRowNum = 0;
         private boolean headerProcessed = false;
         private boolean rowHasValue = false;
+        private RawCellFormatter rawCellFormatter;
+        // Non-null for chunk workers: completed rows are collected instead of validated/batched
+        private final ParsedChunk<T> parsedChunk;
+        // parallelRowConversion: data rows are captured into rawRows and converted on the pipeline workers
+        private RowConversionPipeline<ParsedChunk<T>> rowPipeline;
+        private RawRowBlock rawRows;
+        private ThreadLocal<RawCellFormatter> workerFormatters;
+        
+        TrueStreamingContentHandler() {
+            this.parsedChunk = null;
+        }
+        
+        private TrueStreamingContentHandler(ColumnBindingPlan<T> bindingPlan, boolean headerProcessed) {
+            this.bindingPlan = bindingPlan;
+            this.headerProcessed = headerProcessed;
+            this.parsedChunk = new ParsedChunk<>();
+        }
+        
+        /**
+         * Worker handler for a row-range chunk, sharing the (immutable) compiled header plan
+         */
+        TrueStreamingContentHandler forkForChunk() {
+            return new TrueStreamingContentHandler(bindingPlan, headerProcessed);
+        }
+        
+        void useRawCellFormatter(RawCellFormatter rawCellFormatter) {
+            this.rawCellFormatter = rawCellFormatter;
+        }
+        
+        /**
+         * Capture data rows raw and convert them on threadPoolSize workers, delivered back in sheet order
+         */
+        void startRowPipeline(StylesTable stylesTable, SharedStrings sharedStrings) {
+            // DataFormatter is not thread-safe → one formatter (and style cache) per worker thread
+            workerFormatters = ThreadLocal.withInitial(
+                    () -> new RawCellFormatter(stylesTable, sharedStrings, new DataFormatter()));
+            rawRows = new RawRowBlock();
+            rowPipeline = new RowConversionPipeline<>(sharedWorkers(), workerParallelism(), converted -> {
+                for (int i = 0; i < converted.size(); i++) {
+                    acceptRow(converted.rows.get(i), converted.rowNums[i], true);
+                }
+            });
+        }
+        
+        /**
+         * Worker thread: bind + convert a raw block with a detached handler, then run the row-local validations
+         */
+        private ParsedChunk<T> convertRawRows(RawRowBlock block) {
+            TrueStreamingContentHandler worker = forkForChunk();
+            worker.useRawCellFormatter(workerFormatters.get());
+            block.replay(worker);
+            ParsedChunk<T> converted = worker.parsedChunk;
+            for (int i = 0; i < converted.size(); i++) {
+                worker.runRowValidations(converted.rows.get(i), converted.rowNums[i]);
+            }
+            return converted;
+        }
+        
+        private void submitRawRows() {
+            RawRowBlock block = rawRows;
+            rawRows = new RawRowBlock();
+            try {
+                rowPipeline.submit(() -> convertRawRows(block));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Row conversion failed: " + e.getMessage(), e);
+            }
+        }
+        
+        private void finishRowPipeline() {
+            if (rowPipeline == null) {
+                return;
+            }
+            if (rawRows.rowCount() > 0) {
+                submitRawRows();
+            }
+            try {
+                rowPipeline.finish();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Row conversion failed: " + e.getMessage(), e);
+            }
+        }
+        
+        void closeRowPipeline() {
+            if (rowPipeline != null) {
+                rowPipeline.close();
+                rowPipeline = null;
+            }
+        }
         
         @Override
         public void startRow(int rowNum) {
@@ -214,17 +572,35 @@ public class TrueStreamingSAXProcessor<T> {
                 return;
             }
             
-            // Create new instance for data rows using MethodHandle (5x faster)
+            // Resume: rows committed by a previous run are skipped before any cell is captured or bound
+            if (headerProcessed && rowNum + 1 <= config.getResumeAfterRow()) {
+                currentInstance = null;
+                return;
+            }
+            
+            // Create new instance for data rows using the generated constructor
             if (headerProcessed) {
                 rowHasValue = false;
+                if (rowPipeline != null) {
+                    // Conversion pipeline: only the raw cells are kept on this thread
+                    rawRows.startRow(rowNum);
+                    currentInstance = RAW_ROW;
+                    return;
+                }
+                if (columnarBatch != null) {
+                    // Columnar mode: the pending row lives in the batch arrays, no bean
+                    columnarBatch.startRow(rowNum + 1);
+                    currentInstance = COLUMNAR_ROW;
+                    return;
+                }
                 try {
-                    currentInstance = methodHandleMapper.createInstance();
+                    currentInstance = newRowInstance();
                     
-                    // Set rowNum if field exists
-                    @SuppressWarnings("unchecked")
-                    T typedInstance = (T) currentInstance;
-                    if (methodHandleMapper.hasField("rowNum")) {
-                        methodHandleMapper.setFieldValue(typedInstance, "rowNum", rowNum + 1);
+                    // Set rowNum if field exists (không boxing nếu field là int)
+                    if (rowNumIntSetter != null) {
+                        rowNumIntSetter.set(currentInstance, rowNum + 1);
+                    } else if (rowNumSetter != null) {
+                        rowNumSetter.set(currentInstance, rowNum + 1);
                     }
                     
                 } catch (Exception e) {
@@ -240,9 +616,106 @@ public class TrueStreamingSAXProcessor<T> {
             if (currentRowNum < config.getStartRow()) {
                 return;
             }
+            handleCell(getColumnIndex(cellReference), formattedValue);
+        }
+        
+        /**
+         * Fast engine: skip capture of cells that cannot be used (pre-header rows, unmapped columns)
+         */
+        @Override
+        public boolean wantsCell(int colIndex) {
+            if (currentRowNum < config.getStartRow()) {
+                return false;
+            }
+            if (!headerProcessed) {
+                return currentRowNum == config.getStartRow();
+            }
+            // Preview: unbound columns are still captured for column type detection
+            return currentInstance != null && (bindingPlan.binding(colIndex) != null || preview != null);
+        }
+        
+        @Override
+        public void cell(int colIndex, byte cellType, int styleIndex, FastSheetTokenizer.RawValue value) {
+            if (currentInstance == RAW_ROW) {
+                rawRows.addCell(colIndex, cellType, styleIndex, value);
+                return;
+            }
+            if (preview != null && headerProcessed && currentInstance != null && !value.isEmpty()) {
+                preview.observe(colIndex, SheetPreview.ColumnType.of(cellType,
+                        cellType == FastSheetTokenizer.TYPE_NUMBER && rawCellFormatter.isDateFormatted(styleIndex)));
+            }
+            // ✅ Typed path: numeric cell → numeric/date field without DataFormatter text and re-parsing
+            if (cellType == FastSheetTokenizer.TYPE_NUMBER && headerProcessed && currentInstance != null
+                    && config.isTypedCellValues()) {
+                ColumnBinding binding = bindingPlan.binding(colIndex);
+                if (binding != null && bindRawNumber(binding, styleIndex, value)) {
+                    return;
+                }
+            }
+            handleCell(colIndex, rawCellFormatter.format(cellType, styleIndex, value));
+        }
+        
+        /**
+         * Bind a numeric cell from its raw value: serial number → date field, number → numeric field
+         *
+         * @return false to fall back to the formatted-text path (non-numeric text, out-of-range
+         *         serial date, date-formatted cell in a numeric field, decimal or out-of-range
+         *         value for an integral field)
+         */
+        private boolean bindRawNumber(ColumnBinding binding, int styleIndex, FastSheetTokenizer.RawValue value) {
+            boolean date = binding.bindsRawDates();
+            if (value.isEmpty() || !(date || binding.bindsRawNumbers())) {
+                return false;
+            }
+            if (!date && rawCellFormatter.isDateFormatted(styleIndex)) {
+                return false;
+            }
             
-            int colIndex = getColumnIndex(cellReference);
+            double number;
+            try {
+                number = value.parseDouble();
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (!date && !binding.fitsNumber(number)) {
+                return false;
+            }
+            Object dateValue = date ? binding.dateValue(number) : null;
+            if (date && dateValue == null) {
+                return false;
+            }
+            rowHasValue = true;
             
+            try {
+                if (columnarBatch != null) {
+                    if (date) {
+                        columnarBatch.setValue(binding, dateValue);
+                    } else {
+                        columnarBatch.setNumber(binding, number);
+                    }
+                } else if (date) {
+                    binding.set(currentInstance, dateValue);
+                } else {
+                    binding.bindNumber(currentInstance, number);
+                }
+            } catch (Throwable e) {
+                log.debug("Failed to set field {} with raw value '{}': {}",
+                        binding.getFieldName(), value, e.getMessage());
+                // Same as processDataCell: field stays null, the consumer sees the cell as invalid
+                if (currentInstance instanceof UnconvertedCellAware holder) {
+                    holder.putUnconvertedCell(binding.getFieldName(),
+                            rawCellFormatter.format(FastSheetTokenizer.TYPE_NUMBER, styleIndex, value));
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public void endSheet() {
+            // Remaining batch is flushed explicitly by the caller
+        }
+        
+        private void handleCell(int colIndex, String formattedValue) {
             // Process header row
             if (currentRowNum == config.getStartRow() && !headerProcessed) {
                 if (formattedValue != null && !formattedValue.trim().isEmpty()) {
@@ -252,7 +725,11 @@ public class TrueStreamingSAXProcessor<T> {
             }
             
             // Process data rows
-            if (headerProcessed && currentInstance != null) {
+            if (currentInstance == RAW_ROW) {
+                if (formattedValue != null && bindingPlan.binding(colIndex) != null) {
+                    rawRows.addText(colIndex, formattedValue);
+                }
+            } else if (headerProcessed && currentInstance != null) {
                 processDataCell(colIndex, formattedValue);
             }
         }
@@ -262,60 +739,222 @@ public class TrueStreamingSAXProcessor<T> {
             // Mark header as processed
             if (rowNum == config.getStartRow() && !headerProcessed) {
                 headerProcessed = true;
-                log.debug("Header processed with {} columns", headerMapping.size());
+                // ✅ Compile header once: column index → accessor/converter/cell-format plan
+                bindingPlan = ColumnBindingPlan.compile(headerMapping, beanClass, methodHandleMapper,
+                        typeConverter, projectedColumns);
+                if (columnarBatchProcessor != null && parsedChunk == null) {
+                    columnarBatch = new ColumnarBatch<>(bindingPlan, beanBinder,
+                            Math.min(config.getBatchSize(), MAX_INITIAL_COLUMNAR_CAPACITY));
+                }
+                if (preview != null && parsedChunk == null) {
+                    preview.setHeaders(headerMapping);
+                }
+                log.debug("Header processed with {} columns ({} bound to fields)",
+                        headerMapping.size(), bindingPlan.getBoundColumnCount());
                 return;
             }
 
             // Process completed data row
+            if (currentInstance == RAW_ROW) {
+                currentInstance = null;
+                if (rawRows.rowCount() >= config.getConversionBlockRows()) {
+                    submitRawRows();
+                }
+                return;
+            }
             if (headerProcessed && currentInstance != null) {
-                try {
-                    // Skip completely empty data rows
-                    if (!rowHasValue) {
-                        log.debug("Skipping empty row {}", rowNum);
-                        currentInstance = null;
-                        return;
-                    }
-                    // ✅ INLINE maxRows VALIDATION (during streaming, NO buffering)
-                    if (config.getMaxRows() > 0) {
-                        int dataRowsProcessed = (int) totalProcessed.get() + 1; // +1 for current row
-                        if (dataRowsProcessed > config.getMaxRows()) {
-                            throw new RuntimeException(String.format(
-                                "Số lượng bản ghi trong file (%d) vượt quá giới hạn cho phép (%d). " +
-                                "Vui lòng chia nhỏ file hoặc tăng giới hạn xử lý.",
-                                dataRowsProcessed, config.getMaxRows()));
-                        }
-                    }
+                // Skip completely empty data rows
+                if (!rowHasValue) {
+                    log.debug("Skipping empty row {}", rowNum);
+                    currentInstance = null;
+                    return;
+                }
+                if (columnarBatch != null) {
+                    currentInstance = null;
+                    acceptColumnarRow(rowNum);
+                    return;
+                }
+                
+                @SuppressWarnings("unchecked")
+                T typedInstance = (T) currentInstance;
+                currentInstance = null;
+                
+                if (parsedChunk != null) {
+                    parsedChunk.add(typedInstance, rowNum);
+                } else {
+                    acceptRow(typedInstance, rowNum);
+                }
+            }
+        }
+        
+        void acceptRow(T typedInstance, int rowNum) {
+            acceptRow(typedInstance, rowNum, false);
+        }
+        
+        /**
+         * maxRows check, validations and batching for a completed row (always in sheet order)
+         *
+         * @param rowValidated Row-local validations already ran on a conversion worker (unique check still runs here)
+         */
+        void acceptRow(T typedInstance, int rowNum, boolean rowValidated) {
+            try {
+                // ✅ INLINE maxRows VALIDATION (during streaming, NO buffering)
+                checkMaxRows();
 
-                    // Run validations
-                    runValidations(currentInstance, rowNum);
+                // Run validations
+                if (rowValidated) {
+                    checkUniqueFields(typedInstance, rowNum);
+                } else {
+                    runValidations(typedInstance, rowNum);
+                }
 
-                    // Add to current batch
-                    @SuppressWarnings("unchecked")
-                    T typedInstance = (T) currentInstance;
-                    currentBatch.add(typedInstance);
-                    totalProcessed.incrementAndGet();
+                // Add to current batch (ring slot container in pipelined mode)
+                ensureSlot();
+                currentBatch.add(typedInstance);
+                totalProcessed.incrementAndGet();
+                markBatchPosition(rowNum);
 
-                    // Process batch khi đủ size
-                    if (currentBatch.size() >= config.getBatchSize()) {
-                        processBatch();
-                    }
+                // Process batch khi đủ size
+                if (currentBatch.size() >= batchLimit()) {
+                    processBatch();
+                }
 
-                    // Progress tracking - respects config.enableProgressTracking and configurable interval
-                    if (config.isEnableProgressTracking() &&
-                        totalProcessed.get() % config.getProgressReportInterval() == 0) {
-                        log.info("Processed {} rows in streaming mode", totalProcessed.get());
-                    }
+                // Progress tracking - respects config.enableProgressTracking and configurable interval
+                if (config.isEnableProgressTracking() &&
+                    totalProcessed.get() % config.getProgressReportInterval() == 0) {
+                    log.info("Processed {} rows in streaming mode", totalProcessed.get());
+                }
 
-                } catch (Exception e) {
-                    totalErrors.incrementAndGet();
-                    log.warn("Error processing row {}: {}", rowNum, e.getMessage());
-                    // Re-throw if it's a maxRows violation (don't continue processing)
-                    if (e.getMessage() != null && e.getMessage().contains("vượt quá giới hạn")) {
-                        throw new RuntimeException(e);
-                    }
+            } catch (Exception e) {
+                totalErrors.incrementAndGet();
+                log.warn("Error processing row {}: {}", rowNum, e.getMessage());
+                // Re-throw if it's a maxRows violation (don't continue processing)
+                if (e.getMessage() != null && e.getMessage().contains("vượt quá giới hạn")) {
+                    throw new RuntimeException(e);
+                }
+            }
+            stopAtRowLimit();
+        }
+        
+        /**
+         * Rows per batch: fixed batchSize, or the adaptive sizer's current choice
+         */
+        private int batchLimit() {
+            return batchSizer != null ? batchSizer.currentSize() : config.getBatchSize();
+        }
+        
+        /**
+         * Pipelined mode: claim the next ring slot if none is being filled (blocks when the ring is full)
+         */
+        private void ensureSlot() {
+            if (ringBuffer != null && currentSlot == null) {
+                currentSlot = ringBuffer.claim();
+                currentBatch = currentSlot.rows();
+            }
+        }
+        
+        /**
+         * New bean, or a reset bean released by the consumer of the slot being filled
+         */
+        private Object newRowInstance() {
+            if (ringBuffer != null && config.isRecycleRowObjects() && parsedChunk == null) {
+                ensureSlot();
+                T recycled = currentSlot.pollRecycled();
+                if (recycled != null) {
+                    beanBinder.reset(recycled);
+                    return recycled;
                 }
+            }
+            return beanBinder.newInstance();
+        }
+        
+        /**
+         * Columnar counterpart of acceptRow: the pending row is committed into the reused batch
+         */
+        private void acceptColumnarRow(int rowNum) {
+            try {
+                checkMaxRows();
 
-                currentInstance = null;
+                columnarBatch.commitRow();
+                if (hasRowValidations()) {
+                    runValidations(columnarBatch.row(columnarBatch.size() - 1), rowNum);
+                }
+                totalProcessed.incrementAndGet();
+                markBatchPosition(rowNum);
+
+                if (columnarBatch.size() >= batchLimit()) {
+                    processColumnarBatch();
+                }
+
+                if (config.isEnableProgressTracking() &&
+                    totalProcessed.get() % config.getProgressReportInterval() == 0) {
+                    log.info("Processed {} rows in streaming mode (columnar)", totalProcessed.get());
+                }
+
+            } catch (Exception e) {
+                totalErrors.incrementAndGet();
+                log.warn("Error processing row {}: {}", rowNum, e.getMessage());
+                if (e.getMessage() != null && e.getMessage().contains("vượt quá giới hạn")) {
+                    throw new RuntimeException(e);
+                }
+            }
+            stopAtRowLimit();
+        }
+        
+        /**
+         * Remember the last row added to the batch: becomes the checkpoint once the batch is committed
+         */
+        private void markBatchPosition(int rowNum) {
+            if (checkpointRecorder != null) {
+                lastBatchRow = rowNum + 1;
+                // With the conversion pipeline the tokenizer is already past the row: offset unknown
+                lastBatchOffset = tokenizer != null && rowPipeline == null ? tokenizer.getByteOffset() : -1L;
+            }
+        }
+        
+        private void stopAtRowLimit() {
+            if (config.getRowLimit() > 0 && totalProcessed.get() >= config.getRowLimit()) {
+                throw new RowLimitReached();
+            }
+        }
+        
+        private void checkMaxRows() {
+            if (config.getMaxRows() > 0) {
+                int dataRowsProcessed = (int) totalProcessed.get() + 1; // +1 for current row
+                if (dataRowsProcessed > config.getMaxRows()) {
+                    throw new RuntimeException(String.format(
+                        "Số lượng bản ghi trong file (%d) vượt quá giới hạn cho phép (%d). " +
+                        "Vui lòng chia nhỏ file hoặc tăng giới hạn xử lý.",
+                        dataRowsProcessed, config.getMaxRows()));
+                }
+            }
+        }
+        
+        private boolean hasRowValidations() {
+            return !config.getRequiredFields().isEmpty() || !config.getUniqueFields().isEmpty()
+                    || !config.getFieldValidationRules().isEmpty() || !config.getGlobalValidationRules().isEmpty();
+        }
+        
+        /**
+         * Hand the columnar batch to the consumer, then reset it for reuse
+         */
+        private void processColumnarBatch() {
+            if (columnarBatch == null || columnarBatch.isEmpty()) {
+                return;
+            }
+            int batchSize = columnarBatch.size();
+            long sequence = dispatchCheckpoint(batchSequence++, batchSize);
+            try {
+                long started = System.nanoTime();
+                columnarBatchProcessor.accept(columnarBatch);
+                recordLatency(batchSize, started);
+                commitCheckpoint(sequence);
+                log.debug("Processed columnar batch of {} records", batchSize);
+            } catch (Exception e) {
+                log.error("Error processing batch: {}", e.getMessage(), e);
+                totalErrors.addAndGet(batchSize);
+            } finally {
+                columnarBatch.clear();
             }
         }
         
@@ -323,13 +962,29 @@ public class TrueStreamingSAXProcessor<T> {
          * Process current batch và clear ngay để tiếp tục streaming
          */
         private void processBatch() {
+            if (currentSlot != null) {
+                // Pipelined mode: publish the slot in place, no copy
+                int batchSize = currentBatch.size();
+                if (batchSize > 0) {
+                    dispatchCheckpoint(currentSlot.getSequence(), batchSize);
+                }
+                ringBuffer.publish(currentSlot);
+                currentSlot = null;
+                currentBatch = pendingBatch;
+                log.debug("Published batch of {} records to ring buffer", batchSize);
+                return;
+            }
             if (!currentBatch.isEmpty() && batchProcessor != null) {
                 try {
                     // Tạo copy để xử lý
                     List<T> batchToProcess = new ArrayList<>(currentBatch);
+                    long sequence = dispatchCheckpoint(batchSequence++, batchToProcess.size());
                     
                     // Process batch ngay lập tức
+                    long started = System.nanoTime();
                     batchProcessor.accept(batchToProcess);
+                    recordLatency(batchToProcess.size(), started);
+                    commitCheckpoint(sequence);
                     
                     // Clear batch để tiếp tục streaming
                     currentBatch.clear();
@@ -344,43 +999,83 @@ public class TrueStreamingSAXProcessor<T> {
             }
         }
         
+        private void recordLatency(int batchSize, long startedNanos) {
+            if (batchSizer != null) {
+                batchSizer.recordBatch(batchSize, System.nanoTime() - startedNanos);
+            }
+        }
+        
+        private long dispatchCheckpoint(long sequence, int batchSize) {
+            if (checkpointRecorder != null) {
+                checkpointRecorder.dispatched(sequence, lastBatchRow, lastBatchOffset, batchSize);
+            }
+            return sequence;
+        }
+        
+        private void commitCheckpoint(long sequence) {
+            if (checkpointRecorder != null) {
+                checkpointRecorder.committed(sequence);
+            }
+        }
+        
+        /**
+         * Free the unique value store (temp file / off-heap table) once the sheet is done
+         */
+        void releaseUniqueValues() {
+            if (uniqueValues != null) {
+                log.debug("Unique check tracked {} values (~{} KB)", uniqueValues.size(), uniqueValues.memoryBytes() / 1024);
+                uniqueValues.close();
+                uniqueValues = null;
+            }
+        }
+        
         /**
          * Flush remaining batch cuối file
          */
         public void flushRemainingBatch() {
+            finishRowPipeline();
+            if (columnarBatch != null && !columnarBatch.isEmpty()) {
+                log.info("Flushing final columnar batch of {} records", columnarBatch.size());
+                processColumnarBatch();
+            }
             if (!currentBatch.isEmpty()) {
                 log.info("Flushing final batch of {} records", currentBatch.size());
                 processBatch();
+            } else if (currentSlot != null) {
+                // Slot claimed for a trailing blank row: publish it empty so the ring sequence has no gap
+                processBatch();
             }
         }
         
         private void processDataCell(int colIndex, String formattedValue) {
-            // Find field by column index
-            String fieldName = findFieldNameByColumnIndex(colIndex);
-            if (fieldName == null) {
+            // ✅ O(1) binding lookup from the compiled header plan
+            ColumnBinding binding = bindingPlan.binding(colIndex);
+            if (binding == null) {
                 return;
             }
 
-            try {
-                // Get field type using MethodHandle mapper
-                Class<?> fieldType = methodHandleMapper.getFieldType(fieldName);
-                if (fieldType != null) {
-                    // Convert and set value using MethodHandle (5x faster)
-                    if (formattedValue != null && !formattedValue.trim().isEmpty()) {
-                        rowHasValue = true;
-                    }
-
-                    // ✅ SMART PROCESSING: Auto-detect cell type and normalize
-                    String processedValue = smartProcessCellValue(formattedValue, fieldName, fieldType);
-                    Object convertedValue = typeConverter.convert(processedValue, fieldType);
+            if (formattedValue == null || formattedValue.isBlank()) {
+                // Blank cells leave the field at its default (TypeConverter rejects empty input)
+                return;
+            }
+            rowHasValue = true;
 
-                    @SuppressWarnings("unchecked")
-                    T typedInstance = (T) currentInstance;
-                    methodHandleMapper.setFieldValue(typedInstance, fieldName, convertedValue);
+            try {
+                // ✅ SMART PROCESSING: Auto-detect cell type and normalize
+                String processedValue = smartProcessCellValue(formattedValue, binding);
+                if (columnarBatch != null) {
+                    columnarBatch.set(binding, processedValue);
+                } else {
+                    binding.bind(currentInstance, processedValue);
                 }
 
-            } catch (Exception e) {
-                log.debug("Failed to set field {} with value '{}': {}", fieldName, formattedValue, e.getMessage());
+            } catch (Throwable e) {
+                log.debug("Failed to set field {} with value '{}': {}",
+                        binding.getFieldName(), formattedValue, e.getMessage());
+                // Field stays null: keep the cell text so the consumer can report it as invalid, not missing
+                if (currentInstance instanceof UnconvertedCellAware holder) {
+                    holder.putUnconvertedCell(binding.getFieldName(), formattedValue);
+                }
             }
         }
 
@@ -393,25 +1088,25 @@ public class TrueStreamingSAXProcessor<T> {
          * 3. Date formats (Excel serial date parsing)
          * 4. Regular numbers
          */
-        private String smartProcessCellValue(String rawValue, String fieldName, Class<?> fieldType) {
+        private String smartProcessCellValue(String rawValue, ColumnBinding binding) {
             if (rawValue == null || rawValue.trim().isEmpty()) {
                 return rawValue;
             }
 
             String value = rawValue.trim();
+            Class<?> fieldType = binding.getFieldType();
 
-            // ✅ Step 1: Check cellFormat from @ExcelColumn annotation (highest priority)
-            ExcelColumn annotation = getExcelColumnAnnotation(fieldName);
-            if (annotation != null && annotation.cellFormat() != ExcelColumn.CellFormatType.GENERAL) {
-                return processByCellFormat(value, annotation.cellFormat(), fieldType);
+            // ✅ Step 1: Check cellFormat from @ExcelColumn annotation (highest priority, resolved at compile time)
+            if (binding.hasExplicitCellFormat()) {
+                return processByCellFormat(value, binding.getCellFormat(), fieldType);
             }
 
             // ✅ Step 2: Auto-detect based on fieldType and patterns (fallback)
-            if (isIdentifierField(fieldName, fieldType, value)) {
+            if (isIdentifierField(binding, value)) {
                 return normalizeIdentifierValue(value);
             }
 
-            if (isDateField(fieldType)) {
+            if (binding.isDateField()) {
                 return normalizeDateValue(value, fieldType);
             }
 
@@ -446,38 +1141,18 @@ public class TrueStreamingSAXProcessor<T> {
 
         /**
          * Check if field is an identifier (should be treated as String)
-         * Uses normalized field name matching and value-based detection as fallback
+         * Name-based matching is pre-computed in the binding plan; value-based detection is the fallback
          */
-        private boolean isIdentifierField(String fieldName, Class<?> fieldType, String value) {
-            if (fieldType != String.class) {
+        private boolean isIdentifierField(ColumnBinding binding, String value) {
+            if (binding.getFieldType() != String.class) {
                 return false;  // Only String fields can be identifiers
             }
 
-            // ✅ Step 1: Normalize field name (remove diacritics, spaces, convert to lowercase)
-            String normalizedFieldName = normalizeFieldName(fieldName);
-
-            // ✅ Step 2: Check patterns on normalized name
-            boolean matchesPattern = normalizedFieldName.contains("identity") ||
-                                   normalizedFieldName.contains("identitycard") ||
-                                   normalizedFieldName.contains("cmnd") ||
-                                   normalizedFieldName.contains("cccd") ||
-                                   normalizedFieldName.contains("passport") ||
-                                   normalizedFieldName.contains("phone") ||
-                                   normalizedFieldName.contains("phonenumber") ||
-                                   normalizedFieldName.contains("mobile") ||
-                                   normalizedFieldName.contains("tax") ||
-                                   normalizedFieldName.contains("taxcode") ||
-                                   normalizedFieldName.contains("mst") ||
-                                   normalizedFieldName.contains("account") ||
-                                   normalizedFieldName.contains("accountnumber") ||
-                                   normalizedFieldName.contains("code") ||
-                                   (normalizedFieldName.contains("number") && normalizedFieldName.contains("card"));
-
-            if (matchesPattern) {
+            if (binding.isIdentifierByName()) {
                 return true;
             }
 
-            // ✅ Step 3: Fallback - Value-based detection
+            // ✅ Fallback - Value-based detection
             // If fieldName doesn't match but value looks like an identifier
             if (value != null && !value.trim().isEmpty()) {
                 return looksLikeIdentifierValue(value);
@@ -486,25 +1161,6 @@ public class TrueStreamingSAXProcessor<T> {
             return false;
         }
 
-        /**
-         * Normalize field name: remove diacritics (Vietnamese accents), spaces, convert to lowercase
-         * Example: "Số CMND" → "socmnd"
-         */
-        private String normalizeFieldName(String fieldName) {
-            if (fieldName == null || fieldName.isEmpty()) {
-                return "";
-            }
-
-            // Remove diacritics (Vietnamese accents)
-            String normalized = Normalizer.normalize(fieldName, Normalizer.Form.NFD);
-            normalized = normalized.replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
-
-            // Convert to lowercase and remove spaces
-            normalized = normalized.toLowerCase().replaceAll("\\s+", "");
-
-            return normalized;
-        }
-
         /**
          * Check if a value looks like an identifier based on its characteristics
          * Used as fallback when fieldName doesn't match identifier patterns
@@ -532,13 +1188,13 @@ public class TrueStreamingSAXProcessor<T> {
 
             // ✅ Check for long numeric strings (likely identifiers like CMND, phone)
             // CMND: 9-12 digits, Phone: 10-11 digits, Tax code: 10-13 digits
-            if (trimmed.matches("\\d{9,15}")) {
+            if (isDigits(trimmed, 9, 15)) {
                 log.debug("Detected identifier by length pattern: {}", value);
                 return true;
             }
 
             // ✅ Check for values with trailing ".0" (Excel number formatting issue)
-            if (trimmed.matches("\\d+\\.0+")) {
+            if (isIntegerWithZeroFraction(trimmed)) {
                 log.debug("Detected identifier by .0 pattern: {}", value);
                 return true;
             }
@@ -572,22 +1228,13 @@ public class TrueStreamingSAXProcessor<T> {
             }
 
             // ✅ Remove trailing ".0" from values like "123456.0"
-            if (value.matches("\\d+\\.0+")) {
+            if (isIntegerWithZeroFraction(value)) {
                 return value.substring(0, value.indexOf('.'));
             }
 
             return value;
         }
 
-        /**
-         * Check if field is a date type
-         */
-        private boolean isDateField(Class<?> fieldType) {
-            return fieldType == java.time.LocalDate.class ||
-                   fieldType == java.time.LocalDateTime.class ||
-                   fieldType == java.util.Date.class;
-        }
-
         /**
          * Normalize date values - Parse Excel serial date to ISO format
          * This approach handles ALL date formats by converting Excel serial date to actual date
@@ -596,7 +1243,7 @@ public class TrueStreamingSAXProcessor<T> {
         private String normalizeDateValue(String value, Class<?> fieldType) {
             // ✅ Step 1: Try to parse as Excel serial date (most reliable method)
             // Excel serial dates are numbers (integer or decimal for time)
-            if (value.matches("\\d+\\.?\\d*") && !value.contains("/") && !value.contains("-")) {
+            if (isUnsignedDecimal(value)) {
                 try {
                     double serialDate = Double.parseDouble(value);
                     // Excel dates typically range from 1 to 2958465 (year 1900 to 9999)
@@ -818,71 +1465,20 @@ public class TrueStreamingSAXProcessor<T> {
             return null;
         }
         
-        /**
-         * Find actual field name by column index
-         * Always returns the actual Java field name, not Excel column name
-         */
-        private String findFieldNameByColumnIndex(int colIndex) {
-            for (Map.Entry<String, Integer> entry : headerMapping.entrySet()) {
-                if (entry.getValue().equals(colIndex)) {
-                    String headerName = entry.getKey();
-                    
-                    // Step 1: Check if headerName is a direct field name (camelCase pattern)
-                    if (methodHandleMapper.hasField(headerName) && isFieldNamePattern(headerName)) {
-                        return headerName;
-                    }
-                    
-                    // Step 2: Resolve Excel column name to actual field name via annotation
-                    String actualFieldName = resolveExcelColumnToFieldName(headerName);
-                    if (actualFieldName != null && methodHandleMapper.hasField(actualFieldName)) {
-                        return actualFieldName;
-                    }
-                    
-                    // Step 3: Fallback to headerName if mapper knows it (for backward compatibility)
-                    if (methodHandleMapper.hasField(headerName)) {
-                        return headerName;
-                    }
-                }
-            }
-            return null;
-        }
-        
-        /**
-         * Check if a string matches Java field name pattern (camelCase, no spaces, no special chars)
-         */
-        private boolean isFieldNamePattern(String name) {
-            if (name == null || name.isEmpty()) {
-                return false;
-            }
-            // Field names are typically camelCase, no spaces, no special characters except underscore
-            return name.matches("^[a-zA-Z_][a-zA-Z0-9_]*$");
+        private void runValidations(Object instance, int rowNum) {
+            runRowValidations(instance, rowNum);
+            checkUniqueFields(instance, rowNum);
         }
         
         /**
-         * Resolve Excel column name to actual Java field name by checking ExcelColumn annotations
+         * Validations that only read the row itself (safe on conversion workers)
          */
-        private String resolveExcelColumnToFieldName(String excelColumnName) {
-            try {
-                for (Field field : beanClass.getDeclaredFields()) {
-                    ExcelColumn annotation = field.getAnnotation(ExcelColumn.class);
-                    if (annotation != null && excelColumnName.equals(annotation.name())) {
-                        return field.getName();
-                    }
-                }
-            } catch (Exception e) {
-                log.debug("Failed to resolve Excel column '{}' to field name: {}", excelColumnName, e.getMessage());
-            }
-            return null;
-        }
-        
-        private void runValidations(Object instance, int rowNum) {
+        private void runRowValidations(Object instance, int rowNum) {
             try {
                 // Required fields validation
                 for (String requiredField : config.getRequiredFields()) {
-                    if (methodHandleMapper.hasField(requiredField)) {
-                        @SuppressWarnings("unchecked")
-                        T typedInstance = (T) instance;
-                        Object value = methodHandleMapper.getFieldValue(typedInstance, requiredField);
+                    if (beanBinder.hasField(requiredField)) {
+                        Object value = fieldValue(instance, requiredField);
                         if (value == null || (value instanceof String && ((String) value).trim().isEmpty())) {
                             log.warn("Required field '{}' is empty at row {}", requiredField, rowNum);
                             errorCount.incrementAndGet();
@@ -890,33 +1486,12 @@ public class TrueStreamingSAXProcessor<T> {
                     }
                 }
                 
-                // Unique fields validation (simple memory-based check for current batch)
-                for (String uniqueField : config.getUniqueFields()) {
-                    if (methodHandleMapper.hasField(uniqueField)) {
-                        @SuppressWarnings("unchecked")
-                        T typedInstance = (T) instance;
-                        Object value = methodHandleMapper.getFieldValue(typedInstance, uniqueField);
-                        if (value != null) {
-                            String key = uniqueField + ":" + value.toString();
-                            if (seenUniqueValues.contains(key)) {
-                                log.warn("Duplicate value '{}' for unique field '{}' at row {}", 
-                                        value, uniqueField, rowNum);
-                                errorCount.incrementAndGet();
-                            } else {
-                                seenUniqueValues.add(key);
-                            }
-                        }
-                    }
-                }
-                
                 // Custom field validation rules
                 for (Map.Entry<String, ValidationRule> entry : config.getFieldValidationRules().entrySet()) {
                     String fieldName = entry.getKey();
                     ValidationRule rule = entry.getValue();
-                    if (methodHandleMapper.hasField(fieldName)) {
-                        @SuppressWarnings("unchecked")
-                        T typedInstance = (T) instance;
-                        Object value = methodHandleMapper.getFieldValue(typedInstance, fieldName);
+                    if (beanBinder.hasField(fieldName)) {
+                        Object value = fieldValue(instance, fieldName);
                         if (value != null) {
                             var result = rule.validate(fieldName, value, rowNum, 0);
                             if (!result.isValid()) {
@@ -928,9 +1503,11 @@ public class TrueStreamingSAXProcessor<T> {
                     }
                 }
                 
-                // Global validation rules
+                // Global validation rules (rules expect a bean: columnar rows are materialised only here)
+                Object globalTarget = instance instanceof ColumnarBatch<?>.RowView view && !config.getGlobalValidationRules().isEmpty()
+                        ? view.toBean() : instance;
                 for (ValidationRule rule : config.getGlobalValidationRules()) {
-                    var result = rule.validate("global", instance, rowNum, 0);
+                    var result = rule.validate("global", globalTarget, rowNum, 0);
                     if (!result.isValid()) {
                         log.warn("Global validation failed for instance at row {}: {}", rowNum, result.getErrorMessage());
                         errorCount.incrementAndGet();
@@ -943,16 +1520,114 @@ public class TrueStreamingSAXProcessor<T> {
             }
         }
         
+        /**
+         * Unique fields validation (whole file, values kept in a UniqueValueSet) - sheet order, parse thread only
+         */
+        private void checkUniqueFields(Object instance, int rowNum) {
+            try {
+                for (int fieldId = 0; fieldId < uniqueFields.length; fieldId++) {
+                    String uniqueField = uniqueFields[fieldId];
+                    Object value = fieldValue(instance, uniqueField);
+                    if (value != null) {
+                        if (uniqueValues == null) {
+                            uniqueValues = UniqueValueSet.create(config.getUniqueValueStore(), 0);
+                        }
+                        if (!uniqueValues.add(fieldId, value.toString())) {
+                            log.warn("Duplicate value '{}' for unique field '{}' at row {}", 
+                                    value, uniqueField, rowNum);
+                            errorCount.incrementAndGet();
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Validation error at row {}: {}", rowNum, e.getMessage());
+                errorCount.incrementAndGet();
+            }
+        }
+        
+        /**
+         * Field value of a bean or of a columnar row view
+         */
+        @SuppressWarnings("unchecked")
+        private Object fieldValue(Object instance, String fieldName) {
+            if (instance instanceof ColumnarBatch<?>.RowView view) {
+                return view.get(fieldName);
+            }
+            return beanBinder.get((T) instance, fieldName);
+        }
+        
         private int getColumnIndex(String cellReference) {
-            // Extract column index from cell reference (e.g., "A1" -> 0, "B1" -> 1)
-            String colRef = cellReference.replaceAll("\\d", "");
+            // Extract column index from cell reference (e.g., "A1" -> 0, "B1" -> 1) without regex
             int colIndex = 0;
-            for (int i = 0; i < colRef.length(); i++) {
-                colIndex = colIndex * 26 + (colRef.charAt(i) - 'A' + 1);
+            for (int i = 0; i < cellReference.length(); i++) {
+                char c = cellReference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                colIndex = colIndex * 26 + (c - 'A' + 1);
             }
             return colIndex - 1;
         }
     }
+
+    /**
+     * Equivalent of value.matches("\\d{min,max}") without regex
+     */
+    private static boolean isDigits(String value, int minLength, int maxLength) {
+        int length = value.length();
+        if (length < minLength || length > maxLength) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Equivalent of value.matches("\\d+\\.0+") without regex (e.g. "123456.0")
+     */
+    private static boolean isIntegerWithZeroFraction(String value) {
+        int dot = value.indexOf('.');
+        if (dot <= 0 || dot == value.length() - 1) {
+            return false;
+        }
+        for (int i = 0; i < dot; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        for (int i = dot + 1; i < value.length(); i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Equivalent of value.matches("\\d+\\.?\\d*") without regex (Excel serial date candidates)
+     */
+    private static boolean isUnsignedDecimal(String value) {
+        int length = value.length();
+        if (length == 0 || value.charAt(0) < '0' || value.charAt(0) > '9') {
+            return false;
+        }
+        boolean seenDot = false;
+        for (int i = 1; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
     
     /**
      * Result class for true streaming processing
@@ -961,16 +1636,50 @@ public class TrueStreamingSAXProcessor<T> {
         private final long processedRecords;
         private final long errorCount;
         private final long processingTimeMs;
+        private final AdaptiveBatchSizer batchSizer;
+        private final String readStrategy;
+        private final String strategyDecision;
         
         public ProcessingResult(long processedRecords, long errorCount, long processingTimeMs) {
+            this(processedRecords, errorCount, processingTimeMs, null);
+        }
+        
+        public ProcessingResult(long processedRecords, long errorCount, long processingTimeMs,
+                                AdaptiveBatchSizer batchSizer) {
+            this(processedRecords, errorCount, processingTimeMs, batchSizer, null, null);
+        }
+        
+        private ProcessingResult(long processedRecords, long errorCount, long processingTimeMs,
+                                 AdaptiveBatchSizer batchSizer, String readStrategy, String strategyDecision) {
             this.processedRecords = processedRecords;
             this.errorCount = errorCount;
             this.processingTimeMs = processingTimeMs;
+            this.batchSizer = batchSizer;
+            this.readStrategy = readStrategy;
+            this.strategyDecision = strategyDecision;
+        }
+        
+        /**
+         * Same result, tagged with the read strategy that produced it and why it was chosen
+         */
+        public ProcessingResult withReadStrategy(String readStrategy, String strategyDecision) {
+            return new ProcessingResult(processedRecords, errorCount, processingTimeMs, batchSizer,
+                    readStrategy, strategyDecision);
         }
         
         public long getProcessedRecords() { return processedRecords; }
         public long getErrorCount() { return errorCount; }
         public long getProcessingTimeMs() { return processingTimeMs; }
+        /**
+         * Batch sizes chosen during the read (null unless config.adaptiveBatchSizing);
+         * complete once every batch has been processed
+         */
+        public AdaptiveBatchSizer getBatchSizer() { return batchSizer; }
+        /**
+         * Read strategy name and selection summary (null unless config.costBasedStrategySelection)
+         */
+        public String getReadStrategy() { return readStrategy; }
+        public String getStrategyDecision() { return strategyDecision; }
         public double getRecordsPerSecond() { 
             return processingTimeMs > 0 ? (processedRecords * 1000.0) / processingTimeMs : 0; 
         }
@@ -0,0 +1,18 @@
+package com.learnmore.application.utils.sax;
+
+/**
+ * Bean giữ lại text gốc của ô không convert được sang kiểu field
+ *
+ * TrueStreamingSAXProcessor để field đó null và gọi putUnconvertedCell, nhờ vậy consumer (ví dụ
+ * staging writer) vẫn ghi được giá trị sai thay vì NULL và validation báo "sai định dạng"
+ * thay vì "thiếu giá trị".
+ */
+public interface UnconvertedCellAware {
+
+    void putUnconvertedCell(String fieldName, String cellText);
+
+    /**
+     * Text gốc của ô, null nếu field convert được (hoặc ô trống)
+     */
+    String getUnconvertedCell(String fieldName);
+}
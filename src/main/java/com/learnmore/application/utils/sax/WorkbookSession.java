@@ -0,0 +1,235 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.utils.config.ExcelConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Một workbook đã mở, dùng chung cho toàn bộ job (validate → discover → template check → ingest)
+ *
+ * Spool upload một lần (WorkbookSource), mở package một lần và cache những gì các bước sau cần:
+ * - Danh sách sheet theo thứ tự workbook
+ * - Dimension ref từng sheet (chỉ đọc tới &lt;dimension&gt;/&lt;sheetData&gt; rồi dừng)
+ * - StylesTable và shared strings table
+ *
+ * Session được truyền tường minh: overload nhận WorkbookSession (validator, multi-sheet processor)
+ * hoặc ExcelConfig.workbookSession cho các read strategy (chỉ nhận InputStream). Stream không mang
+ * theo session - bọc lại stream (BufferedInputStream...) không được làm mất session một cách im lặng.
+ *
+ * Thread-safe cho các accessor. close() giải phóng package, shared strings và temp file (nếu sở hữu).
+ */
+@Slf4j
+public final class WorkbookSession implements Closeable {
+
+    private final WorkbookSource source;
+    private final boolean ownsSource;
+
+    private OPCPackage opcPackage;
+    private XSSFReader reader;
+    private List<String> sheetNames;
+    private Map<String, String> dimensionRefs;
+    private StylesTable stylesTable;
+    private final Map<ExcelConfig.SharedStringsStore, SharedStrings> sharedStrings =
+            new EnumMap<>(ExcelConfig.SharedStringsStore.class);
+    private boolean closed;
+
+    private WorkbookSession(WorkbookSource source, boolean ownsSource) {
+        this.source = source;
+        this.ownsSource = ownsSource;
+    }
+
+    /**
+     * Spool stream ra temp file và mở session (temp file bị xoá khi close())
+     */
+    public static WorkbookSession open(InputStream inputStream) throws IOException {
+        return new WorkbookSession(WorkbookSource.spool(inputStream), true);
+    }
+
+    public static WorkbookSession open(byte[] fileBytes) throws IOException {
+        return open(new java.io.ByteArrayInputStream(fileBytes));
+    }
+
+    /**
+     * Mở session trên source có sẵn (caller vẫn sở hữu source)
+     */
+    public static WorkbookSession open(WorkbookSource source) {
+        return new WorkbookSession(source, false);
+    }
+
+    public WorkbookSource getSource() {
+        return source;
+    }
+
+    public synchronized OPCPackage getPackage() throws IOException {
+        ensureOpen();
+        if (opcPackage == null) {
+            opcPackage = source.openPackage();
+        }
+        return opcPackage;
+    }
+
+    public synchronized XSSFReader getReader() throws Exception {
+        if (reader == null) {
+            reader = new XSSFReader(getPackage());
+        }
+        return reader;
+    }
+
+    public synchronized List<String> getSheetNames() throws Exception {
+        if (sheetNames == null) {
+            List<String> names = new ArrayList<>();
+            XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) getReader().getSheetsData();
+            while (iterator.hasNext()) {
+                try (InputStream ignored = iterator.next()) {
+                    names.add(iterator.getSheetName());
+                }
+            }
+            sheetNames = Collections.unmodifiableList(names);
+        }
+        return sheetNames;
+    }
+
+    /**
+     * Dimension ref ("A1:Z1000") of every sheet in workbook order; null value if a sheet has none
+     */
+    public synchronized Map<String, String> getDimensionRefs() throws Exception {
+        if (dimensionRefs == null) {
+            Map<String, String> refs = new LinkedHashMap<>();
+            XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) getReader().getSheetsData();
+            while (iterator.hasNext()) {
+                try (InputStream sheetStream = iterator.next()) {
+                    refs.put(iterator.getSheetName(), readDimensionRef(sheetStream));
+                }
+            }
+            dimensionRefs = Collections.unmodifiableMap(refs);
+        }
+        return dimensionRefs;
+    }
+
+    public synchronized StylesTable getStylesTable() throws Exception {
+        if (stylesTable == null) {
+            stylesTable = getReader().getStylesTable();
+        }
+        return stylesTable;
+    }
+
+    /**
+     * Shared strings table in the store requested by config, loaded once per store
+     */
+    public synchronized SharedStrings getSharedStrings(ExcelConfig config) throws Exception {
+        XSSFReader xssfReader = getReader();
+        SharedStrings strings = sharedStrings.get(config.getSharedStringsStore());
+        if (strings == null) {
+            strings = SharedStringsLoader.load(xssfReader, config);
+            sharedStrings.put(config.getSharedStringsStore(), strings);
+        }
+        return strings;
+    }
+
+    /**
+     * Open one sheet's XML by name, or null if the workbook has no such sheet
+     */
+    public InputStream openSheet(String sheetName) throws Exception {
+        XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) getReader().getSheetsData();
+        while (iterator.hasNext()) {
+            InputStream sheetStream = iterator.next();
+            if (sheetName.equals(iterator.getSheetName())) {
+                return sheetStream;
+            }
+            sheetStream.close();
+        }
+        return null;
+    }
+
+    /**
+     * Re-read the spooled file (for APIs that need the raw bytes, e.g. MultiSheetReadStrategy)
+     */
+    public InputStream newInputStream() throws IOException {
+        ensureOpen();
+        return Files.newInputStream(source.getPath());
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        sharedStrings.values().forEach(SharedStringsLoader::closeQuietly);
+        sharedStrings.clear();
+        stylesTable = null;
+        reader = null;
+        WorkbookSource.release(opcPackage);
+        opcPackage = null;
+        if (ownsSource) {
+            source.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Workbook session is closed");
+        }
+    }
+
+    private static String readDimensionRef(InputStream sheetStream) throws Exception {
+        DimensionHandler handler = new DimensionHandler();
+        XMLReader xmlReader = XMLHelper.newXMLReader();
+        xmlReader.setContentHandler(handler);
+        try {
+            xmlReader.parse(new InputSource(sheetStream));
+        } catch (StopParsingException ignored) {
+            // <dimension> found or <sheetData> reached - no need to read the rows
+        }
+        return handler.dimensionRef;
+    }
+
+    /**
+     * Reads &lt;dimension ref&gt; and stops before the sheet data
+     */
+    private static final class DimensionHandler extends DefaultHandler {
+        private String dimensionRef;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes)
+                throws SAXException {
+            if ("dimension".equals(localName)) {
+                dimensionRef = attributes.getValue("ref");
+                throw new StopParsingException();
+            }
+            if ("sheetData".equals(localName)) {
+                throw new StopParsingException();
+            }
+        }
+    }
+
+    private static final class StopParsingException extends SAXException {
+        StopParsingException() {
+            super("stop");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.learnmore.application.utils.sax;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Workbook .xlsx đọc bằng random-access zip thay vì OPCPackage.open(InputStream)
+ *
+ * OPCPackage.open(InputStream) giải nén toàn bộ zip vào heap (~3x file size khi kèm readAllBytes()).
+ * WorkbookSource spool upload ra temp file một lần, sau đó mỗi consumer mở package trên file
+ * (ZipFile - central directory) và chỉ giải nén các entry cần đọc → heap gần như hằng số.
+ *
+ * Package mở bằng openPackage() là READ-only: giải phóng bằng release() (revert), không dùng close().
+ */
+@Slf4j
+public final class WorkbookSource implements Closeable {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final boolean temporary;
+
+    private WorkbookSource(Path path, boolean temporary) {
+        this.path = path;
+        this.temporary = temporary;
+    }
+
+    /**
+     * Copy stream vào temp file, xoá khi close()
+     */
+    public static WorkbookSource spool(InputStream inputStream) throws IOException {
+        Path file = Files.createTempFile("excel-upload-", ".xlsx");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        log.debug("Spooled workbook to {} ({} bytes)", file, Files.size(file));
+        return new WorkbookSource(file, true);
+    }
+
+    /**
+     * Wrap file có sẵn trên đĩa (không xoá khi close())
+     */
+    public static WorkbookSource of(Path file) {
+        return new WorkbookSource(file, false);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSize() throws IOException {
+        return Files.size(path);
+    }
+
+    /**
+     * Open package read-only on the zip central directory; entries are inflated on demand
+     */
+    public OPCPackage openPackage() throws IOException {
+        try {
+            return OPCPackage.open(path.toFile(), PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Invalid Excel package: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Release a package opened by openPackage() without trying to save it
+     */
+    public static void release(OPCPackage opcPackage) {
+        if (opcPackage != null) {
+            opcPackage.revert();
+        }
+    }
+
+    /**
+     * Sheet names in workbook order (reads workbook.xml only)
+     */
+    public List<String> getSheetNames() throws Exception {
+        List<String> names = new ArrayList<>();
+        OPCPackage opcPackage = openPackage();
+        try {
+            XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) new XSSFReader(opcPackage).getSheetsData();
+            while (iterator.hasNext()) {
+                try (InputStream ignored = iterator.next()) {
+                    names.add(iterator.getSheetName());
+                }
+            }
+        } finally {
+            release(opcPackage);
+        }
+        return names;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (temporary) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
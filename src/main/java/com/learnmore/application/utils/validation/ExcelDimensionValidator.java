@@ -1,17 +1,10 @@
 package com.learnmore.application.utils.validation;
 
 import com.learnmore.application.utils.exception.ExcelProcessException;
+import com.learnmore.application.utils.sax.WorkbookSession;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.eventusermodel.XSSFReader;
 
-import org.xml.sax.Attributes;
-import org.xml.sax.InputSource;
-import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.DefaultHandler;
-
-import javax.xml.parsers.SAXParserFactory;
 import java.io.BufferedInputStream;
 import java.io.InputStream;
 
@@ -41,9 +34,22 @@ public class ExcelDimensionValidator {
     public static int validateRowCount(InputStream inputStream, int maxRows, int startRow)
             throws ExcelProcessException {
 
+        // ✅ Spool to temp file, read only the first sheet's <dimension> (random-access zip)
+        try (WorkbookSession spooled = WorkbookSession.open(inputStream)) {
+            return validateRowCount(spooled, maxRows, startRow);
+        } catch (java.io.IOException e) {
+            throw new ExcelProcessException("Không thể đọc dimension từ Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Kiểm tra số lượng bản ghi của sheet đầu tiên, dùng dimension đã cache trong session
+     */
+    public static int validateRowCount(WorkbookSession session, int maxRows, int startRow)
+            throws ExcelProcessException {
+
         try {
-            // ✅ STREAMING: Read dimension directly from stream (no buffering)
-            DimensionInfo dimensionInfo = readDimension(inputStream);
+            DimensionInfo dimensionInfo = readDimension(session);
 
             // Calculate actual data rows (excluding header rows)
             int totalRows = dimensionInfo.getLastRow() - dimensionInfo.getFirstRow() + 1;
@@ -92,12 +98,31 @@ public class ExcelDimensionValidator {
     public static java.util.Map<String, Integer> validateAllSheets(InputStream inputStream, int maxRowsPerSheet, int startRow)
             throws ExcelProcessException {
 
+        try (WorkbookSession spooled = WorkbookSession.open(inputStream)) {
+            return validateAllSheets(spooled, maxRowsPerSheet, startRow);
+        } catch (java.io.IOException e) {
+            throw new ExcelProcessException("Không thể đọc dimension từ các sheet: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Validate row counts for ALL sheets using the dimensions cached by the session
+     *
+     * @param session Workbook session of the upload
+     * @param maxRowsPerSheet maximum rows allowed per sheet
+     * @param startRow row bắt đầu đọc dữ liệu (0-based)
+     * @return Map of sheet name to data row count
+     * @throws ExcelProcessException if any sheet exceeds the limit
+     */
+    public static java.util.Map<String, Integer> validateAllSheets(WorkbookSession session, int maxRowsPerSheet, int startRow)
+            throws ExcelProcessException {
+
         try {
             java.util.Map<String, Integer> sheetRowCounts = new java.util.HashMap<>();
             java.util.List<String> violatingSheets = new java.util.ArrayList<>();
 
             // Read all sheet dimensions
-            java.util.Map<String, DimensionInfo> allDimensions = readAllSheetDimensions(inputStream);
+            java.util.Map<String, DimensionInfo> allDimensions = readAllSheetDimensions(session);
 
             for (java.util.Map.Entry<String, DimensionInfo> entry : allDimensions.entrySet()) {
                 String sheetName = entry.getKey();
@@ -136,73 +161,38 @@ public class ExcelDimensionValidator {
     }
 
     /**
-     * ✅ STREAMING OPTIMIZED: Read dimension directly from stream without loading into memory
-     *
-     * BEFORE FIX: byte[] streamData = inputStream.readAllBytes(); // ❌ 500MB-2GB in memory!
-     * AFTER FIX: Direct streaming via OPCPackage.open(inputStream) // ✅ Constant ~8MB
-     *
-     * WARNING: This method consumes the inputStream and closes it
+     * Dimension of the first sheet (session reads only up to <dimension>, then stops)
      */
-    private static DimensionInfo readDimension(InputStream inputStream) throws Exception {
-        // ✅ OPTIMIZED: Open OPCPackage directly from stream (NO memory buffering)
-        try (OPCPackage opcPackage = OPCPackage.open(inputStream)) {
-
-            XSSFReader xssfReader = new XSSFReader(opcPackage);
-
-            // Read first sheet dimension
-            XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
-            if (sheetIterator.hasNext()) {
-                try (InputStream sheetInputStream = sheetIterator.next()) {
-                    return parseDimensionFromSheet(sheetInputStream);
-                }
-            }
-
+    private static DimensionInfo readDimension(WorkbookSession session) throws Exception {
+        java.util.Map<String, String> dimensionRefs = session.getDimensionRefs();
+        if (dimensionRefs.isEmpty()) {
             throw new ExcelProcessException("Không tìm thấy sheet nào trong Excel file");
         }
+        return toDimensionInfo(dimensionRefs.values().iterator().next());
     }
 
     /**
      * Read dimensions from ALL sheets in Excel file
      */
-    private static java.util.Map<String, DimensionInfo> readAllSheetDimensions(InputStream inputStream) throws Exception {
+    private static java.util.Map<String, DimensionInfo> readAllSheetDimensions(WorkbookSession session) throws Exception {
         java.util.Map<String, DimensionInfo> dimensionMap = new java.util.LinkedHashMap<>();
 
-        // ✅ OPTIMIZED: Open OPCPackage directly from stream (NO memory buffering)
-        try (OPCPackage opcPackage = OPCPackage.open(inputStream)) {
-            XSSFReader xssfReader = new XSSFReader(opcPackage);
-
-            // Iterate through all sheets
-            XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
-            while (sheetIterator.hasNext()) {
-                try (InputStream sheetInputStream = sheetIterator.next()) {
-                    String sheetName = sheetIterator.getSheetName();
-                    DimensionInfo dimensionInfo = parseDimensionFromSheet(sheetInputStream);
-                    dimensionMap.put(sheetName, dimensionInfo);
-                }
-            }
+        for (java.util.Map.Entry<String, String> entry : session.getDimensionRefs().entrySet()) {
+            dimensionMap.put(entry.getKey(), toDimensionInfo(entry.getValue()));
+        }
 
-            if (dimensionMap.isEmpty()) {
-                throw new ExcelProcessException("Không tìm thấy sheet nào trong Excel file");
-            }
+        if (dimensionMap.isEmpty()) {
+            throw new ExcelProcessException("Không tìm thấy sheet nào trong Excel file");
         }
 
         return dimensionMap;
     }
-    
-    private static DimensionInfo parseDimensionFromSheet(InputStream sheetInputStream) throws Exception {
-        DimensionHandler handler = new DimensionHandler();
-        
-        SAXParserFactory saxFactory = SAXParserFactory.newInstance();
-        XMLReader xmlReader = saxFactory.newSAXParser().getXMLReader();
-        xmlReader.setContentHandler(handler);
-        
-        xmlReader.parse(new InputSource(sheetInputStream));
-        
-        if (handler.getDimensionRef() == null) {
+
+    private static DimensionInfo toDimensionInfo(String dimensionRef) {
+        if (dimensionRef == null) {
             throw new ExcelProcessException("Không tìm thấy dimension trong Excel sheet");
         }
-        
-        return parseDimensionRef(handler.getDimensionRef());
+        return parseDimensionRef(dimensionRef);
     }
     
     private static DimensionInfo parseDimensionRef(String dimensionRef) {
@@ -226,24 +216,6 @@ public class ExcelDimensionValidator {
         }
     }
     
-    /**
-     * SAX Handler để đọc dimension từ XML sheet
-     */
-    private static class DimensionHandler extends DefaultHandler {
-        private String dimensionRef;
-        
-        @Override
-        public void startElement(String uri, String localName, String qName, Attributes attributes) {
-            if ("dimension".equals(qName)) {
-                dimensionRef = attributes.getValue("ref");
-            }
-        }
-        
-        public String getDimensionRef() {
-            return dimensionRef;
-        }
-    }
-    
     /**
      * Class chứa thông tin dimension của Excel sheet
      */
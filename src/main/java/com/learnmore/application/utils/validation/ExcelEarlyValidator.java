@@ -1,15 +1,10 @@
 package com.learnmore.application.utils.validation;
 
 import com.learnmore.application.utils.exception.ExcelProcessException;
+import com.learnmore.application.utils.sax.WorkbookSession;
+import com.learnmore.application.utils.sax.WorkbookSource;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.openxml4j.opc.OPCPackage;
-import org.apache.poi.xssf.eventusermodel.XSSFReader;
-import org.xml.sax.Attributes;
-import org.xml.sax.InputSource;
-import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.DefaultHandler;
 
-import javax.xml.parsers.SAXParserFactory;
 import java.io.InputStream;
 
 /**
@@ -35,84 +30,118 @@ public class ExcelEarlyValidator {
             
             inputStream.mark(Integer.MAX_VALUE);
             
-            DimensionInfo dimensionInfo = readDimensionFast(inputStream);
+            // Spool ra temp file thay vì readAllBytes() + OPCPackage.open(InputStream)
+            EarlyValidationResult result;
+            try (WorkbookSource source = WorkbookSource.spool(inputStream)) {
+                result = validateRecordCount(source, maxAllowedRecords, headerRows);
+            }
             
             // Reset stream để có thể sử dụng tiếp
             inputStream.reset();
             
-            // Calculate actual data rows
-            int totalRows = dimensionInfo.getLastRow() - dimensionInfo.getFirstRow() + 1;
-            int dataRows = Math.max(0, totalRows - headerRows);
-            
-            EarlyValidationResult result = new EarlyValidationResult(
-                dimensionInfo, dataRows, totalRows, maxAllowedRecords
-            );
-            
-            log.info("Early validation: Dimension {}, Total rows: {}, Data rows: {}, Max allowed: {}", 
-                    dimensionInfo.getDimensionRef(), totalRows, dataRows, maxAllowedRecords);
-            
-            // Validate against limit
-            if (dataRows > maxAllowedRecords) {
-                result.setValid(false);
-                result.setErrorMessage(String.format(
-                    "Record count (%d) exceeds maximum allowed (%d). " +
-                    "Consider splitting the file or increasing the limit.", 
-                    dataRows, maxAllowedRecords));
-            }
-            
             return result;
             
+        } catch (ExcelProcessException e) {
+            throw e;
         } catch (Exception e) {
             throw new ExcelProcessException("Early validation failed: " + e.getMessage(), e);
         }
     }
     
     /**
-     * Đọc nhanh dimension info từ sheet đầu tiên
-     * Chỉ parse thẻ <dimension> để lấy ref="A1:Z10000" 
+     * Kiểm tra sớm số lượng records trên workbook đã spool ra file
+     * Chỉ giải nén sheet đầu tiên, không cần mark/reset stream
      */
-    private static DimensionInfo readDimensionFast(InputStream inputStream) throws Exception {
+    public static EarlyValidationResult validateRecordCount(
+            WorkbookSource source, int maxAllowedRecords, int headerRows) 
+            throws ExcelProcessException {
         
-        // Tạo copy của stream để tránh việc đóng stream gốc
-        byte[] streamData = inputStream.readAllBytes();
+        try (WorkbookSession session = WorkbookSession.open(source)) {
+            return validateRecordCount(session, maxAllowedRecords, headerRows);
+        } catch (java.io.IOException e) {
+            throw new ExcelProcessException("Early validation failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Kiểm tra sớm số lượng records dùng dimension đã cache trong session (sheet đầu tiên)
+     */
+    public static EarlyValidationResult validateRecordCount(
+            WorkbookSession session, int maxAllowedRecords, int headerRows) 
+            throws ExcelProcessException {
         
-        try (java.io.ByteArrayInputStream copyStream = new java.io.ByteArrayInputStream(streamData);
-             OPCPackage opcPackage = OPCPackage.open(copyStream)) {
-            
-            XSSFReader xssfReader = new XSSFReader(opcPackage);
-            
-            // Get first sheet
-            XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
-            if (!sheetIterator.hasNext()) {
-                throw new ExcelProcessException("No sheets found in Excel file");
-            }
-            
-            try (InputStream sheetStream = sheetIterator.next()) {
-                return parseDimensionFromSheet(sheetStream);
-            }
+        try {
+            return evaluate(readDimensionFast(session), maxAllowedRecords, headerRows);
+        } catch (Exception e) {
+            throw new ExcelProcessException("Early validation failed: " + e.getMessage(), e);
         }
     }
     
     /**
-     * Parse dimension từ sheet XML sử dụng SAX
-     * Chỉ đọc thẻ <dimension ref="A1:Z10000"> và stop ngay
+     * Kiểm tra số lượng records của từng sheet (thứ tự workbook) từ dimension đã cache trong session
+     * Sheet không có thẻ <dimension> bị bỏ qua
      */
-    private static DimensionInfo parseDimensionFromSheet(InputStream sheetStream) throws Exception {
+    public static java.util.Map<String, EarlyValidationResult> validateAllSheets(
+            WorkbookSession session, int maxAllowedRecords, int headerRows)
+            throws ExcelProcessException {
         
-        DimensionHandler handler = new DimensionHandler();
+        try {
+            java.util.Map<String, EarlyValidationResult> results = new java.util.LinkedHashMap<>();
+            for (java.util.Map.Entry<String, String> sheet : session.getDimensionRefs().entrySet()) {
+                if (sheet.getValue() != null) {
+                    results.put(sheet.getKey(),
+                            evaluate(parseDimensionRef(sheet.getValue()), maxAllowedRecords, headerRows));
+                }
+            }
+            return results;
+        } catch (ExcelProcessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExcelProcessException("Early validation failed: " + e.getMessage(), e);
+        }
+    }
+    
+    private static EarlyValidationResult evaluate(DimensionInfo dimensionInfo, int maxAllowedRecords, int headerRows) {
+        // Calculate actual data rows
+        int totalRows = dimensionInfo.getLastRow() - dimensionInfo.getFirstRow() + 1;
+        int dataRows = Math.max(0, totalRows - headerRows);
         
-        SAXParserFactory saxFactory = SAXParserFactory.newInstance();
-        XMLReader xmlReader = saxFactory.newSAXParser().getXMLReader();
-        xmlReader.setContentHandler(handler);
+        EarlyValidationResult result = new EarlyValidationResult(
+            dimensionInfo, dataRows, totalRows, maxAllowedRecords
+        );
+        
+        log.info("Early validation: Dimension {}, Total rows: {}, Data rows: {}, Max allowed: {}", 
+                dimensionInfo.getDimensionRef(), totalRows, dataRows, maxAllowedRecords);
+        
+        // Validate against limit
+        if (dataRows > maxAllowedRecords) {
+            result.setValid(false);
+            result.setErrorMessage(String.format(
+                "Record count (%d) exceeds maximum allowed (%d). " +
+                "Consider splitting the file or increasing the limit.", 
+                dataRows, maxAllowedRecords));
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Đọc nhanh dimension info từ sheet đầu tiên
+     * Session chỉ parse tới thẻ <dimension> (ref="A1:Z10000") rồi dừng, kết quả được cache
+     */
+    private static DimensionInfo readDimensionFast(WorkbookSession session) throws Exception {
         
-        // Parse chỉ để tìm dimension tag
-        xmlReader.parse(new InputSource(sheetStream));
+        java.util.Map<String, String> dimensionRefs = session.getDimensionRefs();
+        if (dimensionRefs.isEmpty()) {
+            throw new ExcelProcessException("No sheets found in Excel file");
+        }
         
-        if (handler.getDimensionRef() == null) {
+        String dimensionRef = dimensionRefs.values().iterator().next();
+        if (dimensionRef == null) {
             throw new ExcelProcessException("No dimension found in Excel sheet");
         }
         
-        return parseDimensionRef(handler.getDimensionRef());
+        return parseDimensionRef(dimensionRef);
     }
     
     /**
@@ -139,28 +168,6 @@ public class ExcelEarlyValidator {
         }
     }
     
-    /**
-     * SAX Handler để đọc dimension và stop ngay
-     */
-    private static class DimensionHandler extends DefaultHandler {
-        private String dimensionRef;
-        private boolean foundDimension = false;
-        
-        @Override
-        public void startElement(String uri, String localName, String qName, Attributes attributes) {
-            if ("dimension".equals(qName)) {
-                dimensionRef = attributes.getValue("ref");
-                foundDimension = true;
-                // Could throw SAXException here to stop parsing immediately
-                // but for simplicity, let it continue
-            }
-        }
-        
-        public String getDimensionRef() {
-            return dimensionRef;
-        }
-    }
-    
     /**
      * Dimension info class
      */
@@ -1,6 +1,7 @@
 package com.learnmore.application.utils.validation;
 
 import com.learnmore.application.utils.ExcelColumn;
+import com.learnmore.application.utils.sax.WorkbookSession;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -40,25 +41,56 @@ public class ExcelReflectionTemplateValidator {
         List<ValidationWarning> warnings = new ArrayList<>();
         
         try (Workbook workbook = new XSSFWorkbook(inputStream)) {
-            
-            // 1. Validate số lượng sheet
-            validateSheetCount(workbook, errors);
-            
-            // 2. Validate từng sheet
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                Sheet sheet = workbook.getSheetAt(i);
-                validateSheet(sheet, errors, warnings);
-            }
-            
+            validateWorkbook(workbook, errors, warnings);
         } catch (Exception e) {
-            log.error("Error during Excel template validation", e);
-            errors.add(ValidationError.of(
-                "FILE_ERROR", 
-                "Không thể đọc file Excel: " + e.getMessage(),
-                0, 0, "FILE", "FileReadError"
-            ));
+            addFileError(e, errors);
+        }
+        
+        return buildResult(errors, warnings);
+    }
+    
+    /**
+     * Validate template trên package đã mở của WorkbookSession (không giải nén lại file)
+     *
+     * Workbook không được close: close() sẽ đóng package dùng chung của session.
+     */
+    public TemplateValidationResult validate(WorkbookSession session) {
+        log.info("Starting Excel template validation for class: {} (shared workbook session)", targetClass.getSimpleName());
+        
+        List<ValidationError> errors = new ArrayList<>();
+        List<ValidationWarning> warnings = new ArrayList<>();
+        
+        try {
+            Workbook workbook = new XSSFWorkbook(session.getPackage());
+            validateWorkbook(workbook, errors, warnings);
+        } catch (Exception e) {
+            addFileError(e, errors);
         }
         
+        return buildResult(errors, warnings);
+    }
+    
+    private void validateWorkbook(Workbook workbook, List<ValidationError> errors, List<ValidationWarning> warnings) {
+        // 1. Validate số lượng sheet
+        validateSheetCount(workbook, errors);
+        
+        // 2. Validate từng sheet
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+            Sheet sheet = workbook.getSheetAt(i);
+            validateSheet(sheet, errors, warnings);
+        }
+    }
+    
+    private void addFileError(Exception e, List<ValidationError> errors) {
+        log.error("Error during Excel template validation", e);
+        errors.add(ValidationError.of(
+            "FILE_ERROR", 
+            "Không thể đọc file Excel: " + e.getMessage(),
+            0, 0, "FILE", "FileReadError"
+        ));
+    }
+    
+    private TemplateValidationResult buildResult(List<ValidationError> errors, List<ValidationWarning> warnings) {
         boolean isValid = errors.isEmpty();
         log.info("Excel template validation completed. Valid: {}, Errors: {}, Warnings: {}", 
                 isValid, errors.size(), warnings.size());
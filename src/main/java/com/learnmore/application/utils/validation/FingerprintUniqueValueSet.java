@@ -0,0 +1,259 @@
+package com.learnmore.application.utils.validation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Unique-value set dạng open addressing trên fingerprint 64-bit
+ *
+ * Thay HashSet&lt;String&gt; "field:value" (~100 bytes / value, giữ suốt cả file):
+ * - Mỗi value chiếm một slot 16 bytes: fingerprint 64-bit của (fieldId, UTF-8 value) + offset
+ *   của bản ghi trong side store
+ * - Bảng slot là LongBuffer: heap (long[]) hoặc off-heap (direct ByteBuffer)
+ * - Side store là temp file append-only (fieldId, length, UTF-8 bytes), chỉ đọc lại khi
+ *   fingerprint trùng để xác nhận chính xác → va chạm hash không bao giờ báo duplicate sai
+ *
+ * Linear probing, load factor ≤ 0.75; fingerprint 0 đánh dấu slot trống.
+ */
+@Slf4j
+public final class FingerprintUniqueValueSet implements UniqueValueSet {
+
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 26; // 16 bytes × 2^26 = 1GB table
+    private static final int RECORD_HEADER = 8; // fieldId + length
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final boolean offHeap;
+    private LongBuffer table; // [fingerprint, offset] per slot
+    private int capacity;
+    private int mask;
+    private long size;
+
+    // Side store: records before 'flushed' are in the file, the rest in writeBuffer
+    private Path file;
+    private FileChannel channel;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    private ByteBuffer readBuffer = ByteBuffer.allocate(256);
+    private long flushed;
+
+    /**
+     * @param expectedValues Sizing hint (0 if unknown); the table grows as needed
+     * @param offHeap Keep the slot table in a direct buffer instead of the heap
+     */
+    public FingerprintUniqueValueSet(long expectedValues, boolean offHeap) {
+        this.offHeap = offHeap;
+        long wanted = Math.max(MIN_CAPACITY, expectedValues + expectedValues / 3 + 1);
+        allocate((int) Math.min(MAX_CAPACITY, Long.highestOneBit(wanted - 1) << 1));
+    }
+
+    @Override
+    public boolean add(int fieldId, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long fingerprint = fingerprint(fieldId, bytes);
+
+        int slot = (int) fingerprint & mask;
+        while (true) {
+            long existing = table.get(slot << 1);
+            if (existing == 0) {
+                table.put(slot << 1, fingerprint);
+                table.put((slot << 1) + 1, append(fieldId, bytes));
+                size++;
+                if (size * 4 >= (long) capacity * 3) {
+                    grow();
+                }
+                return true;
+            }
+            if (existing == fingerprint && matches(table.get((slot << 1) + 1), fieldId, bytes)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) capacity * 16 + writeBuffer.capacity() + readBuffer.capacity();
+    }
+
+    /**
+     * Bytes written to the side store (temp file + write buffer)
+     */
+    public long sideStoreBytes() {
+        return flushed + writeBuffer.position();
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    @Override
+    public void close() {
+        table = null;
+        if (channel != null) {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete unique value store {}: {}", file, e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Slot table
+    // ---------------------------------------------------------------------------------------------
+
+    private void allocate(int newCapacity) {
+        this.capacity = newCapacity;
+        this.mask = newCapacity - 1;
+        this.table = offHeap
+                ? ByteBuffer.allocateDirect(newCapacity * 16).asLongBuffer()
+                : LongBuffer.wrap(new long[newCapacity * 2]);
+    }
+
+    private void grow() {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Unique value set is full (" + size + " values)");
+        }
+        LongBuffer old = table;
+        int oldCapacity = capacity;
+        allocate(oldCapacity * 2);
+        // Rehash from fingerprints only: the side store is not touched
+        for (int i = 0; i < oldCapacity; i++) {
+            long fingerprint = old.get(i << 1);
+            if (fingerprint != 0) {
+                int slot = (int) fingerprint & mask;
+                while (table.get(slot << 1) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table.put(slot << 1, fingerprint);
+                table.put((slot << 1) + 1, old.get((i << 1) + 1));
+            }
+        }
+        log.debug("Unique value set grown to {} slots ({} values)", capacity, size);
+    }
+
+    /**
+     * FNV-1a over (fieldId, UTF-8 bytes) finished with the MurmurHash3 fmix64 avalanche
+     */
+    static long fingerprint(int fieldId, byte[] bytes) {
+        long h = 0xcbf29ce484222325L ^ (fieldId * 0x9E3779B97F4A7C15L);
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= bytes.length;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Side store
+    // ---------------------------------------------------------------------------------------------
+
+    private long append(int fieldId, byte[] bytes) {
+        try {
+            if (channel == null) {
+                file = Files.createTempFile("excel-unique-", ".bin");
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            int recordSize = RECORD_HEADER + bytes.length;
+            if (writeBuffer.remaining() < recordSize) {
+                flush();
+            }
+            long offset = flushed + writeBuffer.position();
+            if (recordSize > writeBuffer.capacity()) {
+                // Oversized value: written straight to the file
+                ByteBuffer record = ByteBuffer.allocate(recordSize);
+                record.putInt(fieldId).putInt(bytes.length).put(bytes).flip();
+                writeFully(record, flushed);
+                flushed += recordSize;
+            } else {
+                writeBuffer.putInt(fieldId).putInt(bytes.length).put(bytes);
+            }
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write unique value store", e);
+        }
+    }
+
+    private boolean matches(long offset, int fieldId, byte[] bytes) {
+        ByteBuffer record;
+        int start;
+        if (offset >= flushed) {
+            // Still in the write buffer
+            record = writeBuffer;
+            start = (int) (offset - flushed);
+        } else {
+            record = read(offset, RECORD_HEADER + bytes.length);
+            start = 0;
+        }
+        if (record.getInt(start) != fieldId || record.getInt(start + 4) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (record.get(start + RECORD_HEADER + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read up to length bytes at offset (a shorter record fails the header check)
+     */
+    private ByteBuffer read(long offset, int length) {
+        if (readBuffer.capacity() < length) {
+            readBuffer = ByteBuffer.allocate(Math.max(length, readBuffer.capacity() * 2));
+        }
+        readBuffer.clear();
+        readBuffer.limit((int) Math.min(length, flushed - offset));
+        try {
+            while (readBuffer.hasRemaining()) {
+                if (channel.read(readBuffer, offset + readBuffer.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read unique value store", e);
+        }
+        if (readBuffer.position() < RECORD_HEADER) {
+            throw new IllegalStateException("Truncated unique value record at offset " + offset);
+        }
+        return readBuffer;
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        int length = writeBuffer.remaining();
+        writeFully(writeBuffer, flushed);
+        flushed += length;
+        writeBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.learnmore.application.utils.validation;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Legacy unique-value tracking: one "field:value" String per tracked value (~100 bytes each)
+ */
+public final class StringUniqueValueSet implements UniqueValueSet {
+
+    // Rough estimate: key String + backing array + HashMap.Node (64-bit JVM, compressed oops)
+    private static final int BYTES_PER_ENTRY_ESTIMATE = 100;
+
+    private final Set<String> values = new HashSet<>();
+
+    @Override
+    public boolean add(int fieldId, String value) {
+        return values.add(fieldId + ":" + value);
+    }
+
+    @Override
+    public long size() {
+        return values.size();
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) values.size() * BYTES_PER_ENTRY_ESTIMATE;
+    }
+
+    @Override
+    public void close() {
+        values.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package com.learnmore.application.utils.validation;
+
+import com.learnmore.application.utils.config.ExcelConfig;
+
+import java.io.Closeable;
+
+/**
+ * Values already seen by the streaming unique-field check, namespaced by field
+ *
+ * Không thread-safe: dùng trên SAX thread (validations chạy tuần tự theo thứ tự sheet).
+ * Phải close() để giải phóng temp file / off-heap memory.
+ */
+public interface UniqueValueSet extends Closeable {
+
+    /**
+     * Record (fieldId, value)
+     *
+     * @return true if the value is new for this field, false if it was seen before
+     */
+    boolean add(int fieldId, String value);
+
+    /**
+     * Number of tracked values (all fields)
+     */
+    long size();
+
+    /**
+     * Approximate memory retained by the set (heap and off-heap), for logging
+     */
+    long memoryBytes();
+
+    @Override
+    void close();
+
+    /**
+     * Create the set selected by ExcelConfig.uniqueValueStore
+     *
+     * @param expectedValues Sizing hint (0 if unknown)
+     */
+    static UniqueValueSet create(ExcelConfig.UniqueValueStore store, long expectedValues) {
+        return switch (store) {
+            case STRINGS -> new StringUniqueValueSet();
+            case FINGERPRINT -> new FingerprintUniqueValueSet(expectedValues, false);
+            case FINGERPRINT_OFF_HEAP -> new FingerprintUniqueValueSet(expectedValues, true);
+        };
+    }
+}
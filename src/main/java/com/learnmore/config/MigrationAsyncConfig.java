@@ -1,5 +1,7 @@
 package com.learnmore.config;
 
+import com.learnmore.application.utils.checkpoint.CheckpointManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -26,4 +28,18 @@ public class MigrationAsyncConfig {
         executor.initialize();
         return executor;
     }
+    
+    /**
+     * Ingest checkpoints: saved after every committed batch so an interrupted job can resume.
+     * The directory must survive a pod restart (persistent volume) for resume to work.
+     */
+    @Bean
+    public CheckpointManager ingestCheckpointManager(
+            @Value("${application.excel.checkpoint-directory:${java.io.tmpdir}/excel-checkpoints}") String directory) {
+        return CheckpointManager.builder()
+                .checkpointDirectory(directory)
+                .checkpointInterval(1)
+                .enableCompression(true) // Java serialization: the plain ObjectMapper cannot write LocalDateTime
+                .build();
+    }
 }
@@ -6,6 +6,7 @@ import com.learnmore.application.service.migration.ExcelIngestService;
 import com.learnmore.application.service.EnhancedExcelTemplateValidationService;
 import com.learnmore.application.utils.validation.TemplateValidationResult;
 import com.learnmore.application.utils.exception.ExcelProcessException;
+import com.learnmore.application.utils.sax.WorkbookSession;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -136,14 +137,21 @@ public class MigrationController {
                     ));
         }
         
+        // ✅ One WorkbookSession per upload: early validation, template validation and ingest
+        // share one spooled file and one opened package (unzipped once instead of per step)
+        WorkbookSession session = null;
+        boolean handedOff = false;
         try {
+            try (var uploadStream = file.getInputStream()) {
+                session = WorkbookSession.open(uploadStream);
+            }
+
             // Fast dimension-based validations (fail fast if possible)
             // - Validate row counts for ALL sheets in Excel file
             // - Each sheet must have at least 1 data row and not exceed 1000 rows
-            // Use a dedicated stream for early validation (will be consumed)
-            try (var earlyStream = file.getInputStream()) {
+            try {
                 Map<String, Integer> sheetRowCounts = com.learnmore.application.utils.validation.ExcelDimensionValidator
-                        .validateAllSheets(earlyStream, 1000, /*startRow (header rows)*/ 1);
+                        .validateAllSheets(session, 1000, /*startRow (header rows)*/ 1);
 
                 // Check if any sheet has no data
                 boolean hasEmptySheet = sheetRowCounts.values().stream().anyMatch(count -> count == 0);
@@ -164,24 +172,23 @@ public class MigrationController {
             }
 
             // Template validation based on @ExcelColumn (fail fast if invalid)
-            try (var validationStream = file.getInputStream()) {
-                TemplateValidationResult templateResult = enhancedExcelTemplateValidationService
-                        .validateMigrationExcel(validationStream);
-                if (!templateResult.isValid()) {
-                    String firstError = (templateResult.getErrors() != null && !templateResult.getErrors().isEmpty())
-                            ? templateResult.getErrors().get(0).getMessage()
-                            : "Template không hợp lệ";
-                    throw new ExcelProcessException("File không đúng template: " + firstError);
-                }
+            TemplateValidationResult templateResult = enhancedExcelTemplateValidationService
+                    .validateMigrationExcel(session);
+            if (!templateResult.isValid()) {
+                String firstError = (templateResult.getErrors() != null && !templateResult.getErrors().isEmpty())
+                        ? templateResult.getErrors().get(0).getMessage()
+                        : "Template không hợp lệ";
+                throw new ExcelProcessException("File không đúng template: " + firstError);
             }
 
-            // Start async migration
+            // Start async migration - the async job owns and closes the session
             migrationOrchestrationService.performFullMigrationAsync(
-                    file.getInputStream(), 
+                    session, 
                     file.getOriginalFilename(), 
                     createdBy,
                     maxRows
             );
+            handedOff = true;
             
             return ResponseEntity.accepted()
                     .body(Map.of(
@@ -204,6 +211,18 @@ public class MigrationController {
             log.error("Failed to start async migration: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to start migration: " + e.getMessage()));
+        } finally {
+            if (session != null && !handedOff) {
+                closeQuietly(session);
+            }
+        }
+    }
+
+    private void closeQuietly(WorkbookSession session) {
+        try {
+            session.close();
+        } catch (IOException e) {
+            log.warn("Failed to close workbook session: {}", e.getMessage());
         }
     }
     
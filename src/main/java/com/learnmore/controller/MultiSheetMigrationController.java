@@ -2,6 +2,7 @@ package com.learnmore.controller;
 
 import com.learnmore.application.dto.migration.MigrationStartRequest;
 import com.learnmore.application.service.multisheet.AsyncMigrationJobService;
+import com.learnmore.application.service.multisheet.JobAdmissionScheduler;
 import com.learnmore.application.service.multisheet.MultiSheetProcessor;
 import com.learnmore.infrastructure.persistence.entity.MigrationJobSheetEntity;
 import com.learnmore.infrastructure.repository.MigrationJobSheetRepository;
@@ -32,6 +33,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
@@ -50,6 +52,7 @@ public class MultiSheetMigrationController {
 
     private final MultiSheetProcessor multiSheetProcessor;
     private final AsyncMigrationJobService asyncMigrationJobService;
+    private final JobAdmissionScheduler jobAdmissionScheduler;
     private final MigrationJobSheetRepository jobSheetRepository;
 
     // Upload directory configuration (deprecated local storage removed)
@@ -212,13 +215,31 @@ public class MultiSheetMigrationController {
                 log.info("🚀 Submitting async job: {} (in-memory processing)", jobId);
                 
                 // Pass byte array to async service (no file I/O needed)
-                asyncMigrationJobService.processAsyncFromMemory(jobId, fileBytes, file.getOriginalFilename());
+                // Job chờ memory budget nếu node đang bận với các upload khác
+                try {
+                    asyncMigrationJobService.processAsyncFromMemory(jobId, fileBytes, file.getOriginalFilename());
+                } catch (IllegalStateException duplicate) {
+                    // Same jobId submitted concurrently, after the existence check above
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of(
+                            "error", "Job already exists",
+                            "jobId", jobId,
+                            "statusUrl", "/api/migration/multisheet/" + jobId + "/status"
+                        ));
+                }
+                Optional<JobAdmissionScheduler.QueuedJob> queued = asyncMigrationJobService.getQueuedJob(jobId);
                 
                 // Build immediate response (HTTP 202 Accepted)
                 Map<String, Object> response = new HashMap<>();
                 response.put("jobId", jobId);
-                response.put("status", "STARTED");
-                response.put("message", "Migration job submitted successfully (in-memory processing). Use progress endpoint to track status.");
+                if (queued.isPresent()) {
+                    response.put("status", "QUEUED");
+                    response.put("message", "Migration job queued until memory budget is available. Use progress endpoint to track position and status.");
+                    putQueueInfo(response, queued.get());
+                } else {
+                    response.put("status", "STARTED");
+                    response.put("message", "Migration job submitted successfully (in-memory processing). Use progress endpoint to track status.");
+                }
                 response.put("originalFilename", file.getOriginalFilename());
                 response.put("fileSize", file.getSize());
                 response.put("uploadedAt", LocalDateTime.now().toString());
@@ -708,7 +729,18 @@ public class MultiSheetMigrationController {
         List<MigrationJobSheetEntity> sheets = jobSheetRepository.findByJobIdOrderBySheetOrder(jobId);
 
         if (sheets.isEmpty()) {
-            return ResponseEntity.notFound().build();
+            // Job đang chờ memory budget: chưa có sheet tracking, trả vị trí + ETA
+            Optional<JobAdmissionScheduler.QueuedJob> queued = asyncMigrationJobService.getQueuedJob(jobId);
+            if (queued.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("jobId", jobId);
+            response.put("overallStatus", "QUEUED");
+            response.put("isRunning", true);
+            response.put("overallProgress", 0.0);
+            putQueueInfo(response, queued.get());
+            return ResponseEntity.ok(response);
         }
 
         Map<String, Object> response = new HashMap<>();
@@ -927,7 +959,7 @@ public class MultiSheetMigrationController {
      */
     @GetMapping("/{jobId}/status")
     @Operation(summary = "Get overall job status",
-               description = "Returns overall job status: PENDING, STARTED, COMPLETED, COMPLETED_WITH_ERRORS, FAILED, CANCELLED")
+               description = "Returns overall job status: QUEUED, PENDING, STARTED, COMPLETED, COMPLETED_WITH_ERRORS, FAILED, CANCELLED")
     public ResponseEntity<Map<String, Object>> getJobStatus(@PathVariable String jobId) {
         String status = asyncMigrationJobService.getOverallJobStatus(jobId);
         boolean isRunning = asyncMigrationJobService.isJobRunning(jobId);
@@ -937,27 +969,44 @@ public class MultiSheetMigrationController {
         response.put("overallStatus", status);
         response.put("isRunning", isRunning);
         response.put("canCancel", isRunning);
+        asyncMigrationJobService.getQueuedJob(jobId).ifPresent(queued -> putQueueInfo(response, queued));
 
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Get system info (running jobs count)
+     * Get system info (running jobs count, admission queue)
      * GET /api/migration/multisheet/system/info
      */
     @GetMapping("/system/info")
     @Operation(summary = "Get system information",
-               description = "Returns system information including count of running jobs")
+               description = "Returns system information including count of running jobs and the memory-budget queue")
     public ResponseEntity<Map<String, Object>> getSystemInfo() {
         int runningJobsCount = asyncMigrationJobService.getRunningJobCount();
 
         Map<String, Object> response = new HashMap<>();
         response.put("runningJobsCount", runningJobsCount);
+        response.put("maxRunningJobs", jobAdmissionScheduler.getMaxRunningJobs());
+        response.put("memoryBudgetMB", jobAdmissionScheduler.getBudgetMB());
+        response.put("memoryReservedMB", jobAdmissionScheduler.getReservedMB());
+        response.put("queuedJobsCount", jobAdmissionScheduler.getQueuedJobCount());
+        response.put("queuedJobs", jobAdmissionScheduler.getQueue());
         response.put("timestamp", LocalDateTime.now().toString());
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Vị trí hàng đợi + ETA của job đang chờ memory budget
+     */
+    private static void putQueueInfo(Map<String, Object> response, JobAdmissionScheduler.QueuedJob queued) {
+        response.put("queuePosition", queued.getPosition());
+        response.put("estimatedMemoryMB", queued.getFootprintMB());
+        response.put("queuedAt", queued.getQueuedAt().toString());
+        response.put("estimatedWaitSeconds", queued.getEstimatedWaitMs() / 1000);
+        response.put("estimatedStartAt", queued.getEstimatedStartAt().toString());
+    }
+
     /**
      * Calculate overall progress percentage
      */
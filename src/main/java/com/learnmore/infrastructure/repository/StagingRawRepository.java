@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -31,6 +32,12 @@ public interface StagingRawRepository extends JpaRepository<StagingRaw, UUID> {
     @Query("DELETE FROM StagingRaw sr WHERE sr.jobId = :jobId")
     void deleteByJobId(@Param("jobId") String jobId);
     
+    // Resume: drop rows stored after the checkpoint (batches that committed out of order)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StagingRaw sr WHERE sr.jobId = :jobId AND (sr.rowNum IS NULL OR sr.rowNum > :rowNum)")
+    int deleteByJobIdAfterRow(@Param("jobId") String jobId, @Param("rowNum") int rowNum);
+    
     @Query(value = "SELECT sr.* FROM staging_raw sr WHERE sr.job_id = :jobId " +
            "AND sr.parse_errors IS NULL LIMIT :limit OFFSET :offset", nativeQuery = true)
     List<StagingRaw> findValidRecordsPaginated(@Param("jobId") String jobId, 
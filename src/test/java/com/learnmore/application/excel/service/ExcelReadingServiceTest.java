@@ -0,0 +1,70 @@
+package com.learnmore.application.excel.service;
+
+import com.learnmore.application.excel.monitoring.MemoryMonitor;
+import com.learnmore.application.excel.strategy.ReadStrategy;
+import com.learnmore.application.excel.strategy.selector.ReadStrategySelector;
+import com.learnmore.application.utils.checkpoint.CheckpointRecorder;
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch errors are tolerated up to maxErrorsBeforeAbort, except when the read is checkpointed
+ */
+public class ExcelReadingServiceTest {
+
+    private final ReadStrategySelector selector = mock(ReadStrategySelector.class);
+    private final ExcelReadingService service = new ExcelReadingService(selector, mock(MemoryMonitor.class));
+
+    @Test
+    public void testFailedBatchSwallowedWithoutCheckpoint() {
+        List<Throwable> seenByReader = readOneFailingBatch(ExcelConfig.builder().build());
+
+        assertTrue(seenByReader.isEmpty(), "counted by the error tracker, reader continues");
+    }
+
+    @Test
+    public void testFailedBatchReachesReaderWhenCheckpointed() {
+        ExcelConfig config = ExcelConfig.builder()
+                .checkpointRecorder(mock(CheckpointRecorder.class))
+                .build();
+
+        List<Throwable> seenByReader = readOneFailingBatch(config);
+
+        assertEquals(1, seenByReader.size(), "reader must not commit the batch to the checkpoint");
+        assertEquals("insert failed", seenByReader.get(0).getMessage());
+    }
+
+    /**
+     * The strategy stands in for the reader: it records what its batch consumer throws
+     */
+    @SuppressWarnings("unchecked")
+    private List<Throwable> readOneFailingBatch(ExcelConfig config) {
+        List<Throwable> seenByReader = new ArrayList<>();
+        ReadStrategy<String> strategy = mock(ReadStrategy.class);
+        when(strategy.execute(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Consumer<List<String>> consumer = invocation.getArgument(3);
+            try {
+                consumer.accept(List.of("row"));
+            } catch (RuntimeException e) {
+                seenByReader.add(e);
+            }
+            return null;
+        });
+        when(selector.<String>selectStrategy(any())).thenReturn(strategy);
+
+        service.readWithConfig(new ByteArrayInputStream(new byte[0]), String.class, config, batch -> {
+            throw new IllegalStateException("insert failed");
+        });
+        return seenByReader;
+    }
+}
@@ -0,0 +1,133 @@
+package com.learnmore.application.excel.strategy;
+
+import com.learnmore.application.excel.strategy.impl.ReactiveParallelReadStrategy;
+import com.learnmore.application.utils.ExcelColumn;
+import com.learnmore.application.utils.checkpoint.CheckpointRecorder;
+import com.learnmore.application.utils.config.ExcelConfig;
+import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
+import lombok.Data;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The parser must not run ahead of the batch consumers: rows alive at any time stay
+ * O(concurrency × batchSize), not O(file)
+ */
+class ReactiveParallelReadStrategyTest {
+
+    private static final int ROWS = 500_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int CONCURRENCY = 4;
+
+    @Data
+    public static class CountedRow {
+        static final AtomicLong CREATED = new AtomicLong();
+
+        @ExcelColumn(name = "Mã")
+        private String code;
+
+        @ExcelColumn(name = "Số lượng")
+        private Integer quantity;
+
+        public CountedRow() {
+            CREATED.incrementAndGet();
+        }
+    }
+
+    @Test
+    void testParserPausesWhenConsumersAreBusy() throws Exception {
+        byte[] workbook = createWorkbook();
+        CountedRow.CREATED.set(0);
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger blockedConsumers = new AtomicInteger();
+        AtomicLong consumedRows = new AtomicLong();
+
+        ExcelConfig config = ExcelConfig.builder()
+                .batchSize(BATCH_SIZE)
+                .threadPoolSize(CONCURRENCY)
+                .parallelProcessing(true)
+                .parseEngine(ExcelConfig.ParseEngine.FAST)
+                .build();
+
+        ReactiveParallelReadStrategy<CountedRow> strategy = new ReactiveParallelReadStrategy<>();
+        CompletableFuture<TrueStreamingSAXProcessor.ProcessingResult> run = CompletableFuture.supplyAsync(() ->
+                strategy.execute(new ByteArrayInputStream(workbook), CountedRow.class, config, batch -> {
+                    blockedConsumers.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    blockedConsumers.decrementAndGet();
+                    consumedRows.addAndGet(batch.size());
+                }));
+
+        // All consumers busy → no demand → parser must stop
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (blockedConsumers.get() < CONCURRENCY && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(CONCURRENCY, blockedConsumers.get());
+        Thread.sleep(500);
+        long parsedWhileBlocked = CountedRow.CREATED.get();
+        assertTrue(parsedWhileBlocked <= (CONCURRENCY + 2L) * BATCH_SIZE,
+                "parser ran ahead: " + parsedWhileBlocked + " rows bound");
+
+        release.countDown();
+        TrueStreamingSAXProcessor.ProcessingResult result = run.get(5, TimeUnit.MINUTES);
+
+        assertEquals(ROWS, result.getProcessedRecords());
+        assertEquals(ROWS, consumedRows.get());
+        assertEquals(0, result.getErrorCount());
+    }
+
+    @Test
+    void testNotSelectedWhenBatchCompletionIsTracked() {
+        ReactiveParallelReadStrategy<CountedRow> strategy = new ReactiveParallelReadStrategy<>();
+        ExcelConfig checkpointed = ExcelConfig.builder()
+                .parallelProcessing(true)
+                .checkpointRecorder(mock(CheckpointRecorder.class))
+                .build();
+        ExcelConfig adaptive = ExcelConfig.builder()
+                .parallelProcessing(true)
+                .adaptiveBatchSizing(true)
+                .build();
+
+        assertFalse(strategy.supports(checkpointed));
+        assertNull(strategy.getCostProfile(checkpointed));
+        assertFalse(strategy.supports(adaptive));
+        assertNull(strategy.getCostProfile(adaptive));
+        assertTrue(strategy.supports(ExcelConfig.builder().parallelProcessing(true).build()));
+    }
+
+    private static byte[] createWorkbook() throws Exception {
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(1_000); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("Data");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Mã");
+            header.createCell(1).setCellValue("Số lượng");
+            for (int r = 1; r <= ROWS; r++) {
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("M" + r);
+                data.createCell(1).setCellValue(r % 100);
+            }
+            wb.write(out);
+            wb.dispose();
+            return out.toByteArray();
+        }
+    }
+}
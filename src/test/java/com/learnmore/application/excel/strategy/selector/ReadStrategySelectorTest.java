@@ -0,0 +1,181 @@
+package com.learnmore.application.excel.strategy.selector;
+
+import com.learnmore.application.excel.strategy.ReadCostProfile;
+import com.learnmore.application.excel.strategy.ReadStrategy;
+import com.learnmore.application.utils.config.ExcelConfig;
+import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
+import com.learnmore.application.utils.validation.ExcelEarlyValidator.DimensionInfo;
+import com.learnmore.application.utils.validation.ExcelEarlyValidator.EarlyValidationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Cost model: small files stay sequential, large files go parallel when it fits in memory,
+ * measured throughput overrides the model, no estimate falls back to priority
+ */
+public class ReadStrategySelectorTest {
+
+    private static final ReadCostProfile PARALLEL = ReadCostProfile.builder()
+            .workers(4).inFlightBatches(8).scalingEfficiency(0.5).startupMs(20).build();
+
+    private final StubStrategy sequential = new StubStrategy("Sequential", 0, ReadCostProfile.sequential());
+    private final StubStrategy parallel = new StubStrategy("Parallel", 10, PARALLEL);
+    private ReadThroughputHistory history;
+    private SimpleMeterRegistry registry;
+    private ReadStrategySelector selector;
+
+    @BeforeEach
+    public void setUp() {
+        history = new ReadThroughputHistory();
+        registry = new SimpleMeterRegistry();
+        selector = new ReadStrategySelector(List.of(sequential, parallel), history, registry);
+    }
+
+    @Test
+    public void testSmallFileStaysSequential() {
+        ReadStrategyDecision decision = selector.decide(config(1000), estimate(1_000, 10));
+
+        // 10k cells: parallel startup costs more than it saves
+        assertEquals("Sequential", decision.getStrategyName());
+        assertEquals(ReadStrategyDecision.BASIS_COST_MODEL, decision.getBasis());
+        assertEquals(2, decision.getCandidates().size());
+        assertEquals(1, registry.counter("excel.read.strategy.selected",
+                "strategy", "Sequential", "basis", "cost-model").count());
+    }
+
+    @Test
+    public void testLargeFileGoesParallel() {
+        assumeTrue(Runtime.getRuntime().availableProcessors() >= 2, "needs more than one core");
+
+        ReadStrategyDecision decision = selector.decide(config(1000), estimate(1_000_000, 5));
+
+        assertEquals("Parallel", decision.getStrategyName());
+        ReadStrategyDecision.Candidate chosen = candidate(decision, "Parallel");
+        assertTrue(chosen.isFeasible());
+        assertTrue(chosen.getEstimatedMs() < candidate(decision, "Sequential").getEstimatedMs());
+        assertEquals("model", chosen.getThroughputSource());
+    }
+
+    @Test
+    public void testParallelOverMemoryBudgetIsSkipped() {
+        assumeTrue(Runtime.getRuntime().availableProcessors() >= 2, "needs more than one core");
+
+        // One batch = 5000 × 20 × 300 bytes ≈ 29MB; 8 in flight ≈ 229MB over a 100MB budget
+        ExcelConfig config = ExcelConfig.builder().batchSize(5000).memoryThreshold(100).build();
+        ReadStrategyDecision decision = selector.decide(config, estimate(1_000_000, 20));
+
+        assertEquals("Sequential", decision.getStrategyName());
+        assertFalse(candidate(decision, "Parallel").isFeasible());
+        assertTrue(decision.getMemoryBudgetMB() <= 100);
+    }
+
+    @Test
+    public void testMeasuredThroughputOverridesModel() {
+        // Parallel measured slower than the sequential baseline on this host
+        for (int i = 0; i < ReadThroughputHistory.MIN_SAMPLES; i++) {
+            history.record("Parallel", 5_000_000, 20_000);
+        }
+
+        ReadStrategyDecision decision = selector.decide(config(1000), estimate(1_000_000, 5));
+
+        assertEquals("Sequential", decision.getStrategyName());
+        assertEquals("history(3)", candidate(decision, "Parallel").getThroughputSource());
+        assertEquals(50, candidate(decision, "Parallel").getRowsPerSecond(), 0.001);
+    }
+
+    @Test
+    public void testRecordOutcomeFeedsHistoryInCells() {
+        ReadStrategyDecision decision = selector.decide(config(1000), estimate(100_000, 4));
+        TrueStreamingSAXProcessor.ProcessingResult result = new TrueStreamingSAXProcessor.ProcessingResult(100_000, 0, 500);
+
+        for (int i = 0; i < ReadThroughputHistory.MIN_SAMPLES; i++) {
+            selector.recordOutcome(decision, result);
+        }
+
+        assertEquals(800_000, history.cellsPerSecond(decision.getStrategyName()).orElseThrow(), 0.001);
+    }
+
+    @Test
+    public void testFallsBackToPriorityWithoutEstimateOrProfile() {
+        ReadStrategyDecision noEstimate = selector.decide(config(1000), null);
+        assertEquals("Parallel", noEstimate.getStrategyName());
+        assertEquals(ReadStrategyDecision.BASIS_PRIORITY, noEstimate.getBasis());
+
+        // A higher-priority strategy outside the cost model (e.g. multi-sheet) keeps winning
+        StubStrategy multiSheet = new StubStrategy("MultiSheet", 20, null);
+        ReadStrategySelector withUnmodelled = new ReadStrategySelector(List.of(sequential, parallel, multiSheet));
+        ReadStrategyDecision decision = withUnmodelled.decide(config(1000), estimate(1_000_000, 5));
+        assertEquals("MultiSheet", decision.getStrategyName());
+        assertEquals(ReadStrategyDecision.BASIS_PRIORITY, decision.getBasis());
+    }
+
+    private static ExcelConfig config(int batchSize) {
+        return ExcelConfig.builder().batchSize(batchSize).memoryThreshold(10_000).build();
+    }
+
+    private static EarlyValidationResult estimate(int dataRows, int columns) {
+        DimensionInfo dimension = DimensionInfo.builder()
+                .dimensionRef("A1")
+                .firstRow(0)
+                .lastRow(dataRows)
+                .firstCol(0)
+                .lastCol(columns - 1)
+                .totalRows(dataRows + 1)
+                .totalCols(columns)
+                .build();
+        return new EarlyValidationResult(dimension, dataRows, dataRows + 1, Integer.MAX_VALUE);
+    }
+
+    private static ReadStrategyDecision.Candidate candidate(ReadStrategyDecision decision, String name) {
+        return decision.getCandidates().stream()
+                .filter(candidate -> candidate.getStrategyName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static final class StubStrategy implements ReadStrategy<Object> {
+        private final String name;
+        private final int priority;
+        private final ReadCostProfile profile;
+
+        StubStrategy(String name, int priority, ReadCostProfile profile) {
+            this.name = name;
+            this.priority = priority;
+            this.profile = profile;
+        }
+
+        @Override
+        public TrueStreamingSAXProcessor.ProcessingResult execute(InputStream inputStream, Class<Object> beanClass,
+                                                                  ExcelConfig config, Consumer<List<Object>> batchProcessor) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean supports(ExcelConfig config) {
+            return true;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public ReadCostProfile getCostProfile(ExcelConfig config) {
+            return profile;
+        }
+    }
+}
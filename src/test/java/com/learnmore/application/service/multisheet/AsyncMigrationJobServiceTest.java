@@ -0,0 +1,55 @@
+package com.learnmore.application.service.multisheet;
+
+import com.learnmore.infrastructure.repository.MigrationJobSheetRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A jobId already queued or running is rejected without touching the live job
+ */
+public class AsyncMigrationJobServiceTest {
+
+    private final List<Runnable> executed = new ArrayList<>();
+    private final JobAdmissionScheduler admission =
+            new JobAdmissionScheduler(1000, 5, executed::add, System::currentTimeMillis, null);
+    private final AsyncMigrationJobService service = new AsyncMigrationJobService(
+            mock(MultiSheetProcessor.class), mock(MigrationJobSheetRepository.class), admission);
+
+    @Test
+    public void testDuplicateJobIdRejectedBeforeSubmit() {
+        byte[] file = new byte[16];
+        CompletableFuture<MultiSheetProcessor.MultiSheetProcessResult> live =
+                service.processAsyncFromMemory("job-1", file, "a.xlsx");
+
+        assertThrows(IllegalStateException.class, () -> service.processAsyncFromMemory("job-1", file, "b.xlsx"));
+
+        assertEquals(1, executed.size(), "duplicate never reaches the admission scheduler");
+        assertEquals(1, admission.getRunningJobCount());
+        assertTrue(service.isJobRunning("job-1"));
+
+        // The live job still owns its tracking entry: it finishes (here with a failure) and is removed
+        executed.remove(0).run();
+        assertTrue(live.isDone());
+        assertFalse(service.isJobRunning("job-1"));
+
+        service.processAsyncFromMemory("job-1", file, "c.xlsx");
+        assertEquals(1, executed.size(), "the id can be reused once the job is gone");
+    }
+
+    @Test
+    public void testFailedSubmitReleasesJobId() {
+        byte[] file = new byte[16];
+        // Scheduler still holds the id (e.g. the previous run has not released its budget yet)
+        admission.submit("job-2", JobAdmissionScheduler.estimate(file), () -> { }, rejected -> { });
+
+        assertThrows(IllegalStateException.class, () -> service.processAsyncFromMemory("job-2", file, "a.xlsx"));
+
+        assertFalse(service.isJobRunning("job-2"), "failed submit must not leave a tracking entry behind");
+    }
+}
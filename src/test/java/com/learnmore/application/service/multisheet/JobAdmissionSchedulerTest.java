@@ -0,0 +1,214 @@
+package com.learnmore.application.service.multisheet;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Jobs start only while the memory budget allows, the rest queue FIFO with position and ETA
+ */
+public class JobAdmissionSchedulerTest {
+
+    private final List<Runnable> executed = new ArrayList<>();
+    private final List<String> ran = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    public void testJobsQueueWhenBudgetExhausted() {
+        JobAdmissionScheduler scheduler = scheduler(1000, 5);
+
+        assertEquals(0, scheduler.submit("A", estimate(600, 0), job("A"), failure -> fail()));
+        assertEquals(1, scheduler.submit("B", estimate(600, 0), job("B"), failure -> fail()));
+        assertEquals(2, scheduler.submit("C", estimate(100, 0), job("C"), failure -> fail()),
+                "FIFO: a small job does not overtake the queued large one");
+
+        assertEquals(600, scheduler.getReservedMB());
+        assertEquals(1, scheduler.getRunningJobCount());
+        assertEquals(List.of("B", "C"), scheduler.getQueue().stream().map(JobAdmissionScheduler.QueuedJob::getJobId).toList());
+
+        runNext(); // A finishes → B and C fit together
+        assertEquals(List.of("A"), ran);
+        assertEquals(0, scheduler.getQueuedJobCount());
+        assertEquals(700, scheduler.getReservedMB());
+        assertEquals(2, executed.size());
+    }
+
+    @Test
+    public void testOversizedJobRunsAlone() {
+        JobAdmissionScheduler scheduler = scheduler(1000, 5);
+
+        assertEquals(0, scheduler.submit("huge", estimate(5000, 0), job("huge"), failure -> fail()),
+                "a job over the whole budget starts when nothing else runs");
+        assertEquals(1, scheduler.submit("small", estimate(10, 0), job("small"), failure -> fail()));
+
+        runNext();
+        assertEquals(0, scheduler.getQueuedJobCount());
+        assertEquals(10, scheduler.getReservedMB());
+    }
+
+    @Test
+    public void testMaxRunningJobs() {
+        JobAdmissionScheduler scheduler = scheduler(1000, 1);
+
+        scheduler.submit("A", estimate(10, 0), job("A"), failure -> fail());
+        assertEquals(1, scheduler.submit("B", estimate(10, 0), job("B"), failure -> fail()));
+    }
+
+    @Test
+    public void testEtaFromDefaultRateThenMeasuredRate() {
+        JobAdmissionScheduler scheduler = scheduler(1000, 5);
+        scheduler.submit("A", estimate(600, 1000), job("A"), failure -> fail());
+        scheduler.submit("B", estimate(600, 1000), job("B"), failure -> fail());
+        scheduler.submit("C", estimate(600, 1000), job("C"), failure -> fail());
+
+        // Default ~100 rows/sec + 30s: each 1000-row job ~40s
+        List<JobAdmissionScheduler.QueuedJob> queue = scheduler.getQueue();
+        assertEquals(1, queue.get(0).getPosition());
+        assertEquals(40_000, queue.get(0).getEstimatedWaitMs());
+        assertEquals(2, queue.get(1).getPosition());
+        assertEquals(80_000, queue.get(1).getEstimatedWaitMs());
+
+        // A took 10s for 1000 rows → 100 rows/sec measured, B now expected to take 10s
+        now.addAndGet(10_000);
+        runNext();
+        JobAdmissionScheduler.QueuedJob c = scheduler.getQueuedJob("C").orElseThrow();
+        assertEquals(1, c.getPosition());
+        assertEquals(10_000, c.getEstimatedWaitMs());
+        assertTrue(scheduler.getQueuedJob("A").isEmpty());
+    }
+
+    @Test
+    public void testCancelQueuedJob() {
+        JobAdmissionScheduler scheduler = scheduler(1000, 5);
+        scheduler.submit("A", estimate(900, 0), job("A"), failure -> fail());
+        scheduler.submit("B", estimate(900, 0), job("B"), failure -> fail());
+
+        assertTrue(scheduler.cancel("B"));
+        assertFalse(scheduler.cancel("A"), "running jobs are not removed");
+        runNext();
+        assertEquals(List.of("A"), ran);
+        assertEquals(0, scheduler.getReservedMB());
+        assertTrue(executed.isEmpty());
+    }
+
+    @Test
+    public void testRejectedJobReleasesBudget() {
+        JobAdmissionScheduler scheduler = new JobAdmissionScheduler(1000, 5, task -> {
+            throw new RejectedExecutionException("full");
+        }, now::get, null);
+        List<Throwable> failures = new ArrayList<>();
+
+        scheduler.submit("A", estimate(600, 0), job("A"), failures::add);
+
+        assertEquals(1, failures.size());
+        assertEquals(0, scheduler.getReservedMB());
+        assertEquals(0, scheduler.getRunningJobCount());
+    }
+
+    @Test
+    public void testMetricsAndBudget() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JobAdmissionScheduler scheduler = new JobAdmissionScheduler(1000, 5, executed::add, now::get, registry);
+        scheduler.submit("A", estimate(600, 0), job("A"), failure -> fail());
+        scheduler.submit("B", estimate(600, 0), job("B"), failure -> fail());
+
+        assertEquals(1, registry.get("migration.admission.queued").gauge().value());
+        assertEquals(1, registry.get("migration.admission.running").gauge().value());
+        assertEquals(600, registry.get("migration.admission.reserved.mb").gauge().value());
+        assertEquals(1000, registry.get("migration.admission.budget.mb").gauge().value());
+
+        assertEquals(512, JobAdmissionScheduler.budgetMB(512, 4096L * 1024 * 1024), "explicit setting wins");
+        assertEquals(2457, JobAdmissionScheduler.budgetMB(0, 4096L * 1024 * 1024), "60% of max heap");
+    }
+
+    @Test
+    public void testSheetWithoutDimensionUsesExpansionFallback() throws Exception {
+        byte[] measured = workbook(false, false);
+        byte[] oneUnknown = workbook(true, false);
+        byte[] allUnknown = workbook(true, true);
+
+        // Two small sheets: parse estimate ~0MB each, footprint = file size (1MB)
+        assertEquals(1, JobAdmissionScheduler.estimate(measured).footprintMB());
+        assertEquals(3, JobAdmissionScheduler.estimate(measured).dataRows());
+        // A sheet without <dimension> takes its half of the 10 × file fallback instead of 0
+        assertEquals(1 + 5, JobAdmissionScheduler.estimate(oneUnknown).footprintMB());
+        assertEquals(1, JobAdmissionScheduler.estimate(oneUnknown).dataRows(), "rows of sheet B only");
+        assertEquals(1 + 10, JobAdmissionScheduler.estimate(allUnknown).footprintMB());
+
+        assertEquals(4, JobAdmissionScheduler.unknownSheetMB(1, 3), "rounded up");
+        assertEquals(1, JobAdmissionScheduler.unknownSheetMB(1, 50), "at least 1MB");
+    }
+
+    private JobAdmissionScheduler scheduler(long budgetMB, int maxRunningJobs) {
+        return new JobAdmissionScheduler(budgetMB, maxRunningJobs, executed::add, now::get, null);
+    }
+
+    private Runnable job(String name) {
+        return () -> ran.add(name);
+    }
+
+    /**
+     * Run the oldest task handed to the executor
+     */
+    private void runNext() {
+        executed.remove(0).run();
+    }
+
+    /**
+     * Sheets A (2 data rows) and B (1 data row), optionally with the <dimension> element removed
+     */
+    private static byte[] workbook(boolean stripFirst, boolean stripSecond) throws Exception {
+        byte[] xlsx;
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (String name : List.of("A", "B")) {
+                Sheet sheet = wb.createSheet(name);
+                int rows = name.equals("A") ? 3 : 2;
+                for (int r = 0; r < rows; r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue(name + r);
+                    row.createCell(1).setCellValue(r);
+                }
+            }
+            wb.write(out);
+            xlsx = out.toByteArray();
+        }
+
+        ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(xlsx));
+             ZipOutputStream out = new ZipOutputStream(rewritten)) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                byte[] data = in.readAllBytes();
+                String name = entry.getName();
+                if ((stripFirst && name.equals("xl/worksheets/sheet1.xml"))
+                        || (stripSecond && name.equals("xl/worksheets/sheet2.xml"))) {
+                    String xml = new String(data, StandardCharsets.UTF_8).replaceAll("<dimension[^>]*/>", "");
+                    data = xml.getBytes(StandardCharsets.UTF_8);
+                }
+                out.putNextEntry(new ZipEntry(name));
+                out.write(data);
+                out.closeEntry();
+            }
+        }
+        return rewritten.toByteArray();
+    }
+
+    private static JobAdmissionScheduler.JobEstimate estimate(long footprintMB, long dataRows) {
+        return new JobAdmissionScheduler.JobEstimate(footprintMB, dataRows);
+    }
+}
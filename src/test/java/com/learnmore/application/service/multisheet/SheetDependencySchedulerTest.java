@@ -0,0 +1,239 @@
+package com.learnmore.application.service.multisheet;
+
+import com.learnmore.application.config.SheetMigrationConfig;
+import com.learnmore.application.service.multisheet.MultiSheetProcessor.SheetProcessResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Independent sheets run concurrently, dependents start after their prerequisites,
+ * failures skip dependents, cycles are rejected, critical path follows the last finisher
+ */
+public class SheetDependencySchedulerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, String> abandoned = new ConcurrentHashMap<>();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testIndependentSheetsConcurrentDependentAfterPrerequisite() {
+        CountDownLatch independentRunning = new CountDownLatch(2);
+        SheetDependencyScheduler scheduler = new SheetDependencyScheduler(List.of(
+                sheet("HopDong", 1), sheet("CIF", 2), sheet("Tap", 3, "HopDong")));
+
+        SheetDependencyScheduler.Schedule schedule = scheduler.run(task(name -> {
+            if (!name.equals("Tap")) {
+                independentRunning.countDown();
+                await(independentRunning); // both independent sheets in flight together
+            }
+            if (name.equals("HopDong")) {
+                sleep(150);
+            }
+            if (name.equals("Tap")) {
+                assertTrue(started.contains("HopDong"));
+            }
+            return true;
+        }), executor, 10_000, true);
+
+        assertEquals(List.of("HopDong", "CIF", "Tap"), names(schedule.getResults()), "configured order");
+        assertTrue(schedule.getResults().stream().allMatch(SheetProcessResult::isSuccess));
+        assertEquals(List.of("HopDong", "Tap"), schedule.getCriticalPath());
+        assertTrue(schedule.getCriticalPathMs() >= 150);
+        assertNotNull(schedule.getResults().get(2).getWaitTimeMs());
+    }
+
+    @Test
+    public void testFailedPrerequisiteSkipsDependent() {
+        SheetDependencyScheduler scheduler = new SheetDependencyScheduler(List.of(
+                sheet("HopDong", 1), sheet("CIF", 2), sheet("Tap", 3, "HopDong")));
+
+        SheetDependencyScheduler.Schedule schedule = scheduler.run(
+                task(name -> !name.equals("HopDong")), executor, 10_000, true);
+
+        assertFalse(started.contains("Tap"));
+        assertTrue(started.contains("CIF"), "independent sheet still runs");
+        assertEquals("Skipped: prerequisite sheet 'HopDong' failed", abandoned.get("Tap"));
+        assertFalse(schedule.getResults().get(2).isSuccess());
+    }
+
+    @Test
+    public void testDirectExecutorRunsInDependencyOrderAndStopsOnFailure() {
+        // Tap configured first but depends on HopDong
+        SheetDependencyScheduler scheduler = new SheetDependencyScheduler(List.of(
+                sheet("Tap", 1, "HopDong"), sheet("HopDong", 2), sheet("CIF", 3)));
+        assertEquals(List.of("HopDong", "Tap", "CIF"), scheduler.getTopologicalOrder());
+
+        scheduler.run(task(name -> !name.equals("Tap")), Runnable::run, 0, false);
+
+        assertEquals(List.of("HopDong", "Tap"), started);
+        assertEquals("Skipped: stopped after an earlier sheet failed", abandoned.get("CIF"));
+    }
+
+    @Test
+    public void testTimedOutSheetIsAbandoned() {
+        SheetDependencyScheduler scheduler = new SheetDependencyScheduler(List.of(
+                sheet("HopDong", 1), sheet("Tap", 2, "HopDong")));
+
+        scheduler.run(task(name -> {
+            sleep(500);
+            return true;
+        }), executor, 50, true);
+
+        assertEquals("Timeout after 50ms", abandoned.get("HopDong"));
+        assertEquals("Skipped: prerequisite sheet 'HopDong' failed", abandoned.get("Tap"));
+    }
+
+    @Test
+    public void testTimedOutTaskIsInterruptedAndCannotFinish() throws Exception {
+        SheetDependencyScheduler scheduler = new SheetDependencyScheduler(List.of(sheet("HopDong", 1)));
+        CountDownLatch lateFinish = new CountDownLatch(1);
+        List<Boolean> outcome = Collections.synchronizedList(new ArrayList<>());
+
+        scheduler.run(new SheetDependencyScheduler.SheetTask() {
+            @Override
+            public SheetProcessResult run(SheetMigrationConfig.SheetConfig sheet,
+                                          SheetDependencyScheduler.SheetRunControl control) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    outcome.add(true); // interrupted by the timeout
+                }
+                outcome.add(control.finish(() -> fail("late finish must not record COMPLETED")));
+                lateFinish.countDown();
+                return SheetProcessResult.builder().sheetName(sheet.getName()).success(true).build();
+            }
+
+            @Override
+            public SheetProcessResult abandon(SheetMigrationConfig.SheetConfig sheet, String reason) {
+                abandoned.put(sheet.getName(), reason);
+                return SheetProcessResult.error(sheet.getName(), reason);
+            }
+        }, executor, 50, true);
+
+        assertTrue(lateFinish.await(5, TimeUnit.SECONDS));
+        assertEquals("Timeout after 50ms", abandoned.get("HopDong"));
+        assertEquals(List.of(true, false), outcome);
+    }
+
+    @Test
+    public void testTimeoutStartsWhenTaskRuns() {
+        // One worker: C waits ~200ms for A and B, longer than the 180ms timeout, but runs for only 100ms
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            SheetDependencyScheduler scheduler = new SheetDependencyScheduler(List.of(
+                    sheet("A", 1), sheet("B", 2), sheet("C", 3)));
+            SheetDependencyScheduler.Schedule schedule = scheduler.run(task(name -> {
+                sleep(100);
+                return true;
+            }), single, 180, true);
+
+            assertTrue(schedule.getResults().stream().allMatch(SheetProcessResult::isSuccess), abandoned.toString());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailingAbandonDoesNotLoseOtherResults() {
+        SheetDependencyScheduler scheduler = new SheetDependencyScheduler(List.of(
+                sheet("HopDong", 1), sheet("CIF", 2), sheet("Tap", 3, "HopDong")));
+
+        SheetDependencyScheduler.Schedule schedule = scheduler.run(new SheetDependencyScheduler.SheetTask() {
+            @Override
+            public SheetProcessResult run(SheetMigrationConfig.SheetConfig sheet,
+                                          SheetDependencyScheduler.SheetRunControl control) {
+                if (sheet.getName().equals("HopDong")) {
+                    throw new IllegalStateException("boom");
+                }
+                return SheetProcessResult.builder().sheetName(sheet.getName()).success(true).build();
+            }
+
+            @Override
+            public SheetProcessResult abandon(SheetMigrationConfig.SheetConfig sheet, String reason) {
+                throw new IllegalStateException("status table unavailable");
+            }
+        }, executor, 10_000, true);
+
+        assertEquals(List.of("HopDong", "CIF", "Tap"), names(schedule.getResults()));
+        assertFalse(schedule.getResults().get(0).isSuccess());
+        assertTrue(schedule.getResults().get(1).isSuccess());
+        assertEquals("Skipped: prerequisite sheet 'HopDong' failed", schedule.getResults().get(2).getErrorMessage());
+    }
+
+    @Test
+    public void testCycleAndMissingDependencies() {
+        assertThrows(IllegalArgumentException.class, () -> new SheetDependencyScheduler(List.of(
+                sheet("A", 1, "B"), sheet("B", 2, "A"))));
+        assertThrows(IllegalArgumentException.class, () -> new SheetDependencyScheduler(List.of(
+                sheet("A", 1, "A"))));
+
+        // Dependency on a sheet that is not part of the job (absent from the file) is ignored
+        SheetDependencyScheduler scheduler = new SheetDependencyScheduler(List.of(sheet("Tap", 1, "HopDong")));
+        assertEquals(List.of("Tap"), scheduler.getTopologicalOrder());
+    }
+
+    private SheetDependencyScheduler.SheetTask task(java.util.function.Predicate<String> body) {
+        return new SheetDependencyScheduler.SheetTask() {
+            @Override
+            public SheetProcessResult run(SheetMigrationConfig.SheetConfig sheet,
+                                          SheetDependencyScheduler.SheetRunControl control) {
+                started.add(sheet.getName());
+                return SheetProcessResult.builder()
+                        .sheetName(sheet.getName())
+                        .success(body.test(sheet.getName()))
+                        .build();
+            }
+
+            @Override
+            public SheetProcessResult abandon(SheetMigrationConfig.SheetConfig sheet, String reason) {
+                abandoned.put(sheet.getName(), reason);
+                return SheetProcessResult.error(sheet.getName(), reason);
+            }
+        };
+    }
+
+    private static SheetMigrationConfig.SheetConfig sheet(String name, int order, String... dependsOn) {
+        SheetMigrationConfig.SheetConfig sheet = new SheetMigrationConfig.SheetConfig();
+        sheet.setName(name);
+        sheet.setOrder(order);
+        sheet.setDependsOn(List.of(dependsOn));
+        return sheet;
+    }
+
+    private static List<String> names(List<SheetProcessResult> results) {
+        return results.stream().map(SheetProcessResult::getSheetName).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS), "independent sheets not run concurrently");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
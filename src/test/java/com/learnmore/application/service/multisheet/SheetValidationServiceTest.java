@@ -0,0 +1,60 @@
+package com.learnmore.application.service.multisheet;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.ResourceHolderSupport;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each validation step runs under its own deadline, inside (never beyond) the transaction deadline
+ */
+public class SheetValidationServiceTest {
+
+    @Test
+    public void testStepDeadlineNarrowsThenRestoresTransactionDeadline() {
+        ResourceHolderSupport holder = new ResourceHolderSupport() { };
+        holder.setTimeoutInSeconds(1800);
+        Date transactionDeadline = holder.getDeadline();
+
+        Date restore = SheetValidationService.limitStep(holder, 300_000);
+
+        assertEquals(transactionDeadline, restore);
+        assertTrue(holder.getTimeToLiveInMillis() <= 300_000, "statements get the step budget as query timeout");
+
+        SheetValidationService.restoreDeadline(holder, restore);
+        assertTrue(Math.abs(holder.getDeadline().getTime() - transactionDeadline.getTime()) < 1000);
+    }
+
+    @Test
+    public void testStepNeverExtendsTransactionDeadline() {
+        ResourceHolderSupport holder = new ResourceHolderSupport() { };
+        holder.setTimeoutInSeconds(60);
+        Date transactionDeadline = holder.getDeadline();
+
+        SheetValidationService.limitStep(holder, 300_000);
+
+        assertEquals(transactionDeadline, holder.getDeadline());
+    }
+
+    @Test
+    public void testSpentStepBudgetFailsNextStatement() {
+        ResourceHolderSupport holder = new ResourceHolderSupport() { };
+        holder.setTimeoutInSeconds(1800);
+
+        SheetValidationService.limitStep(holder, 0);
+
+        assertThrows(TransactionTimedOutException.class, holder::getTimeToLiveInMillis);
+    }
+
+    @Test
+    public void testNoTransactionTimeoutLeavesHolderUntouched() {
+        ResourceHolderSupport holder = new ResourceHolderSupport() { };
+
+        assertNull(SheetValidationService.limitStep(holder, 300_000));
+        assertNull(SheetValidationService.limitStep(null, 300_000));
+        assertFalse(holder.hasTimeout());
+    }
+}
@@ -0,0 +1,153 @@
+package com.learnmore.application.service.multisheet;
+
+import com.learnmore.application.config.SheetMigrationConfig;
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * One prepared, column-ordered batch insert per DTO batch; row_num continues across batches
+ */
+public class StagingRawBatchWriterTest {
+
+    @Test
+    public void testBatchWrittenWithColumnOrderedInsert() throws SQLException {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+        StagingRawBatchWriter writer = new StagingRawBatchWriter(jdbc, "job-1", sheetConfig(), HopDongDTO.class);
+
+        writer.accept(List.of(contract("HD-1"), contract("HD-2")));
+        writer.accept(List.of(contract("HD-3")));
+
+        assertEquals(2, jdbc.statements.size(), "one JDBC batch per DTO batch");
+        String sql = jdbc.sql;
+        assertTrue(sql.startsWith("INSERT INTO staging_raw_hopd (job_id, row_num, sheet_name, business_key, "
+                + "kho_vpbank_norm, ma_don_vi_norm"), sql);
+        assertTrue(sql.endsWith(", CURRENT_TIMESTAMP)"), sql);
+
+        List<String> columns = columns(sql);
+        PreparedStatement third = jdbc.statements.get(1).get(0);
+        verify(third).setString(1, "job-1");
+        verify(third).setInt(2, 3);
+        verify(third).setString(3, "HSBG_theo_hop_dong");
+        verify(third).setString(parameterIndex(columns, "so_hop_dong_norm"), "HD-3");
+        verify(third).setString(parameterIndex(columns, "so_luong_tap_norm"), "2");
+        verify(third).setString(parameterIndex(columns, "ngay_giai_ngan_norm"), "2024-01-15");
+        verify(third).setNull(parameterIndex(columns, "ten_khach_hang"), Types.VARCHAR);
+
+        assertEquals(3, writer.getWrittenRows());
+        assertEquals(0, writer.getFailedRows());
+    }
+
+    @Test
+    public void testExcelRowAndUnconvertedCellTextWritten() throws SQLException {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+        StagingRawBatchWriter writer = new StagingRawBatchWriter(jdbc, "job-1", sheetConfig(), HopDongDTO.class);
+
+        HopDongDTO badDate = contract("HD-1");
+        badDate.setRowNum(7); // rows 3-6 of the sheet were blank
+        badDate.setDisbursementDate(null);
+        badDate.putUnconvertedCell("disbursementDate", "31/02/2024x");
+        badDate.setFolderQuantity(null);
+        badDate.putUnconvertedCell("folderQuantity", " 1 2a ");
+        writer.accept(List.of(badDate));
+
+        List<String> columns = columns(jdbc.sql);
+        PreparedStatement ps = jdbc.statements.get(0).get(0);
+        verify(ps).setInt(2, 7);
+        verify(ps).setString(parameterIndex(columns, "ngay_giai_ngan_norm"), "31/02/2024x");
+        verify(ps).setString(parameterIndex(columns, "so_luong_tap_norm"), "12a");
+    }
+
+    @Test
+    public void testFailedBatchIsCountedAndRethrown() {
+        JdbcTemplate jdbc = new JdbcTemplate() {
+            @Override
+            public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+        };
+        StagingRawBatchWriter writer = new StagingRawBatchWriter(jdbc, "job-1", sheetConfig(), HopDongDTO.class);
+
+        assertThrows(DataIntegrityViolationException.class, () -> writer.accept(List.of(contract("HD-1"))));
+        assertEquals(0, writer.getWrittenRows());
+        assertEquals(1, writer.getFailedRows());
+        assertEquals("duplicate key", writer.getFirstFailure());
+    }
+
+    @Test
+    public void testUnsafeTableNameRejected() {
+        SheetMigrationConfig.SheetConfig config = sheetConfig();
+        config.setStagingRawTable("staging_raw_hopd; DROP TABLE x");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new StagingRawBatchWriter(new JdbcTemplate(), "job-1", config, HopDongDTO.class));
+    }
+
+    private static SheetMigrationConfig.SheetConfig sheetConfig() {
+        SheetMigrationConfig.SheetConfig config = new SheetMigrationConfig.SheetConfig();
+        config.setName("HSBG_theo_hop_dong");
+        config.setStagingRawTable("staging_raw_hopd");
+        return config;
+    }
+
+    private static HopDongDTO contract(String number) {
+        HopDongDTO dto = new HopDongDTO();
+        dto.setVpbankWarehouse("KHO1");
+        dto.setUnitCode("DV01");
+        dto.setContractNumber(number);
+        dto.setFolderQuantity(2);
+        dto.setDocumentType("HD");
+        dto.setDisbursementDate(LocalDate.of(2024, 1, 15));
+        return dto;
+    }
+
+    private static List<String> columns(String sql) {
+        String list = sql.substring(sql.indexOf('(') + 1, sql.indexOf(')'));
+        return Arrays.stream(list.split(",")).map(String::trim).toList();
+    }
+
+    private static int parameterIndex(List<String> columns, String column) {
+        int index = columns.indexOf(column);
+        assertTrue(index >= 0, "column not written: " + column);
+        return index + 1;
+    }
+
+    /**
+     * Runs the setter against mock statements instead of a database
+     */
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+        private final List<List<PreparedStatement>> statements = new ArrayList<>();
+        private String sql;
+
+        @Override
+        public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) {
+            this.sql = sql;
+            List<PreparedStatement> batch = new ArrayList<>();
+            try {
+                for (int i = 0; i < pss.getBatchSize(); i++) {
+                    PreparedStatement ps = mock(PreparedStatement.class);
+                    pss.setValues(ps, i);
+                    batch.add(ps);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            statements.add(batch);
+            return new int[batch.size()];
+        }
+    }
+}
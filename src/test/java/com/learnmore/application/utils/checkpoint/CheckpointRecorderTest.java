@@ -0,0 +1,95 @@
+package com.learnmore.application.utils.checkpoint;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The checkpoint advances only over the contiguous prefix of committed batches
+ */
+public class CheckpointRecorderTest {
+
+    @TempDir
+    Path checkpointDir;
+
+    @Test
+    public void testOutOfOrderCommitsAdvanceCommittedPrefix() {
+        CheckpointManager manager = CheckpointManager.builder()
+                .checkpointDirectory(checkpointDir.toString())
+                .checkpointInterval(1)
+                .enableCompression(true)
+                .build();
+        ProcessingCheckpoint checkpoint = manager.createCheckpoint("job-1", "data.xlsx", 0);
+        CheckpointRecorder recorder = new CheckpointRecorder(manager, checkpoint, "Sheet1");
+
+        // Header is row 1: batches cover rows 2-101, 102-201, 202-251
+        recorder.dispatched(0, 101, 4_000, 100);
+        recorder.dispatched(1, 201, 8_000, 100);
+        recorder.dispatched(2, 251, 10_000, 50);
+
+        recorder.committed(1);
+        assertEquals(0, checkpoint.getLastCommittedRow(), "batch 0 still in flight");
+        assertEquals(0, checkpoint.getProcessedRows());
+
+        recorder.committed(0);
+        assertEquals(201, checkpoint.getLastCommittedRow());
+        assertEquals(8_000, checkpoint.getByteOffset());
+        assertEquals(200, checkpoint.getProcessedRows());
+
+        recorder.committed(7); // never dispatched: ignored
+        recorder.committed(2);
+        assertEquals(251, checkpoint.getLastCommittedRow());
+        assertEquals(250, checkpoint.getProcessedRows());
+
+        ProcessingCheckpoint saved = manager.loadCheckpoint("job-1");
+        assertNotNull(saved);
+        assertEquals("Sheet1", saved.getSheetName());
+        assertEquals(251, saved.getLastCommittedRow());
+    }
+
+    @Test
+    public void testSheetNameTakenFromWorkbook() throws Exception {
+        CheckpointManager manager = CheckpointManager.builder()
+                .checkpointDirectory(checkpointDir.toString())
+                .checkpointInterval(1)
+                .build();
+        ProcessingCheckpoint checkpoint = manager.createCheckpoint("job-2", "data.xlsx", 0);
+        ExcelConfig config = ExcelConfig.builder()
+                .batchSize(2)
+                .checkpointRecorder(new CheckpointRecorder(manager, checkpoint))
+                .build();
+
+        byte[] workbook;
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            for (int r = 1; r <= 3; r++) {
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("KHO1");
+                data.createCell(1).setCellValue("HD-" + r);
+            }
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+        new TrueStreamingSAXProcessor<>(HopDongDTO.class, config, new ArrayList<>(), batch -> { })
+                .processExcelStreamTrue(new ByteArrayInputStream(workbook));
+
+        assertEquals("HSBG_theo_hop_dong", checkpoint.getSheetName());
+        assertEquals(4, checkpoint.getLastCommittedRow());
+        assertEquals("HSBG_theo_hop_dong", manager.loadCheckpoint("job-2").getSheetName());
+    }
+}
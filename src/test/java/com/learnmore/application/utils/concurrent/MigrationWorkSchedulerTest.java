@@ -0,0 +1,176 @@
+package com.learnmore.application.utils.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Weighted round-robin across jobs, bounded threads, queue metrics, drain on shutdown, workers survive interrupts
+ */
+public class MigrationWorkSchedulerTest {
+
+    private MigrationWorkScheduler scheduler;
+
+    @AfterEach
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testWeightedRoundRobinAcrossJobs() throws Exception {
+        scheduler = new MigrationWorkScheduler(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = blockWorker();
+
+        Executor bigUpload = scheduler.executorFor("job-A", MigrationWorkScheduler.Priority.NORMAL);
+        Executor smallUpload = scheduler.executorFor("job-B", MigrationWorkScheduler.Priority.LOW);
+        for (int i = 1; i <= 6; i++) {
+            String name = "A" + i;
+            bigUpload.execute(() -> order.add(name));
+        }
+        for (int i = 1; i <= 3; i++) {
+            String name = "B" + i;
+            smallUpload.execute(() -> order.add(name));
+        }
+        assertEquals(Map.of("job-A", 6, "job-B", 3), scheduler.getQueuedByJob());
+
+        release.countDown();
+        awaitIdle();
+
+        // NORMAL takes 2 tasks per turn, LOW 1: job-B is not starved behind job-A
+        assertEquals(List.of("A1", "A2", "B1", "A3", "A4", "B2", "A5", "A6", "B3"), order);
+    }
+
+    @Test
+    public void testHighPriorityGetsLargerShare() throws Exception {
+        scheduler = new MigrationWorkScheduler(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = blockWorker();
+
+        Executor normal = scheduler.executorFor("job-A", MigrationWorkScheduler.Priority.NORMAL);
+        Executor high = scheduler.executorFor("job-B", MigrationWorkScheduler.Priority.HIGH);
+        for (int i = 1; i <= 4; i++) {
+            String a = "A" + i;
+            String b = "B" + i;
+            normal.execute(() -> order.add(a));
+            high.execute(() -> order.add(b));
+        }
+
+        release.countDown();
+        awaitIdle();
+
+        assertEquals(List.of("A1", "A2", "B1", "B2", "B3", "B4", "A3", "A4"), order);
+    }
+
+    @Test
+    public void testQueueMetricsRegistered() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scheduler = new MigrationWorkScheduler(1, registry);
+        CountDownLatch release = blockWorker();
+        scheduler.executorFor("job-A", MigrationWorkScheduler.Priority.NORMAL).execute(() -> { });
+        scheduler.executorFor("job-B", MigrationWorkScheduler.Priority.NORMAL).execute(() -> { });
+
+        assertEquals(2, registry.get("migration.workers.queued").gauge().value());
+        assertEquals(2, registry.get("migration.workers.jobs").gauge().value());
+        assertEquals(1, registry.get("migration.workers.active").gauge().value());
+        assertEquals(1, registry.get("migration.workers.size").gauge().value());
+
+        release.countDown();
+        awaitIdle();
+        assertEquals(0, registry.get("migration.workers.queued").gauge().value());
+        assertEquals(3, registry.get("migration.workers.completed").functionCounter().count());
+        assertEquals(3, registry.get("migration.workers.queue.wait").timer().count());
+    }
+
+    @Test
+    public void testShutdownDrainsQueueThenRejects() throws Exception {
+        scheduler = new MigrationWorkScheduler(2);
+        CountDownLatch ran = new CountDownLatch(5);
+        Executor executor = scheduler.executorFor("job-A", MigrationWorkScheduler.Priority.NORMAL);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+                sleep(20);
+                ran.countDown();
+            });
+        }
+
+        scheduler.shutdown(5, TimeUnit.SECONDS);
+
+        assertEquals(0, ran.getCount(), "queued tasks run before the workers stop");
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    }
+
+    @Test
+    public void testInterruptedTaskKeepsWorkerInPool() throws Exception {
+        scheduler = new MigrationWorkScheduler(1);
+        List<Boolean> onWorker = Collections.synchronizedList(new ArrayList<>());
+        // A cancelled task leaves the flag set; the single worker must still run the next task
+        scheduler.submit("job-A", MigrationWorkScheduler.Priority.NORMAL, () -> Thread.currentThread().interrupt());
+        CountDownLatch ran = new CountDownLatch(1);
+        scheduler.submit("job-A", MigrationWorkScheduler.Priority.NORMAL, () -> {
+            onWorker.add(scheduler.isWorkerThread());
+            onWorker.add(Thread.currentThread().isInterrupted());
+            ran.countDown();
+        });
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(true, false), onWorker);
+        assertFalse(scheduler.isWorkerThread(), "caller thread is not a worker");
+    }
+
+    @Test
+    public void testWorkerCountFromCoresAndDbPool() {
+        assertEquals(8, MigrationWorkScheduler.workerCount(0, 8, 20, 2));
+        assertEquals(8, MigrationWorkScheduler.workerCount(0, 16, 10, 2), "bounded by DB connections");
+        assertEquals(2, MigrationWorkScheduler.workerCount(0, 1, 10, 2), "at least 2");
+        assertEquals(5, MigrationWorkScheduler.workerCount(5, 16, 10, 2), "explicit setting wins");
+    }
+
+    /**
+     * Occupy the single worker so that submitted tasks queue up
+     */
+    private CountDownLatch blockWorker() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.submit("blocker", MigrationWorkScheduler.Priority.NORMAL, () -> {
+            running.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((scheduler.getQueuedTasks() > 0 || scheduler.getActiveTasks() > 0)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, scheduler.getQueuedTasks());
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.learnmore.application.utils.reflection;
+
+import com.learnmore.application.dto.migration.ExcelRowDTO;
+import com.learnmore.application.utils.converter.TypeConverter;
+import com.learnmore.application.utils.sax.ColumnBindingPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generated setters/getters (LambdaMetafactory) indexed by slot
+ */
+public class BeanBinderTest {
+
+    public static class PrimitiveRow {
+        private int count;
+        private long total;
+        private double ratio;
+        private boolean active;
+        private String name;
+        private int noAccessors;
+
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+        public long getTotal() { return total; }
+        public PrimitiveRow setTotal(long total) { this.total = total; return this; }
+        public double getRatio() { return ratio; }
+        public void setRatio(double ratio) { this.ratio = ratio; }
+        public boolean isActive() { return active; }
+        public void setActive(boolean active) { this.active = active; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        int noAccessorsValue() { return noAccessors; }
+    }
+
+    @Test
+    public void testLombokDtoBindsByFieldAndExcelName() {
+        BeanBinder<ExcelRowDTO> binder = BeanBinder.forClass(ExcelRowDTO.class);
+        assertSame(binder, BeanBinder.forClass(ExcelRowDTO.class));
+        assertEquals(binder.getSlotCount(), binder.getGeneratedCount(), "@Data setters/getters are all generated");
+
+        int slot = binder.slot("maDonVi");
+        assertEquals(slot, binder.slot("Mã Đơn Vị"));
+        assertEquals(-1, binder.slot("unknown"));
+
+        ExcelRowDTO row = binder.newInstance();
+        binder.setter(slot).set(row, "DV001");
+        binder.setter(binder.slot("soLuongTap")).set(row, 5);
+        binder.set(row, "rowNum", 7);
+
+        assertEquals("DV001", row.getMaDonVi());
+        assertEquals(5, row.getSoLuongTap());
+        assertEquals(7, binder.get(row, "rowNum"));
+        assertEquals("DV001", binder.getter(slot).get(row));
+    }
+
+    @Test
+    public void testPrimitiveSettersAvoidBoxing() {
+        BeanBinder<PrimitiveRow> binder = BeanBinder.forClass(PrimitiveRow.class);
+        PrimitiveRow row = binder.newInstance();
+
+        binder.intSetter(binder.slot("count")).set(row, 42);
+        binder.longSetter(binder.slot("total")).set(row, 9_000_000_000L);
+        binder.doubleSetter(binder.slot("ratio")).set(row, 0.25);
+        binder.booleanSetter(binder.slot("active")).set(row, true);
+        binder.setter(binder.slot("name")).set(row, "A");
+
+        assertEquals(42, row.getCount());
+        assertEquals(9_000_000_000L, row.getTotal(), "chained setter return value is discarded");
+        assertEquals(0.25, row.getRatio());
+        assertTrue(row.isActive());
+        assertEquals(Boolean.TRUE, binder.get(row, "active"));
+        assertEquals("A", row.getName());
+
+        assertThrows(IllegalArgumentException.class, () -> binder.intSetter(binder.slot("total")));
+    }
+
+    @Test
+    public void testFieldWithoutAccessorsFallsBackToMethodHandle() {
+        BeanBinder<PrimitiveRow> binder = BeanBinder.forClass(PrimitiveRow.class);
+        assertEquals(binder.getSlotCount() - 1, binder.getGeneratedCount());
+
+        PrimitiveRow row = binder.newInstance();
+        binder.intSetter(binder.slot("noAccessors")).set(row, 3);
+        assertEquals(3, row.noAccessorsValue());
+        assertEquals(3, binder.get(row, "noAccessors"));
+    }
+
+    public static class InitializedRow {
+        private int count;
+        private boolean valid = true;
+        private String status = "NEW";
+        private List<String> tags = new ArrayList<>();
+
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+        public boolean isValid() { return valid; }
+        public void setValid(boolean valid) { this.valid = valid; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public List<String> getTags() { return tags; }
+        public void setTags(List<String> tags) { this.tags = tags; }
+    }
+
+    @Test
+    public void testResetRestoresImmutableInitialValues() {
+        BeanBinder<InitializedRow> binder = BeanBinder.forClass(InitializedRow.class);
+        InitializedRow row = binder.newInstance();
+        row.setCount(5);
+        row.setValid(false);
+        row.setStatus("DONE");
+
+        binder.reset(row);
+
+        assertEquals(0, row.getCount());
+        assertTrue(row.isValid());
+        assertEquals("NEW", row.getStatus());
+        assertNull(row.getTags(), "mutable initial values are not shared between instances");
+    }
+
+    @Test
+    public void testColumnBindingParsesPrimitivesLikeTypeConverter() {
+        ColumnBindingPlan<PrimitiveRow> plan = ColumnBindingPlan.compile(
+                Map.of("count", 0, "total", 1, "ratio", 2, "active", 3),
+                PrimitiveRow.class, MethodHandleMapper.forClass(PrimitiveRow.class), TypeConverter.getInstance());
+        PrimitiveRow row = new PrimitiveRow();
+
+        plan.binding(0).bind(row, "-17");
+        assertEquals(-17, row.getCount());
+        plan.binding(0).bind(row, "12.9");
+        assertEquals(12, row.getCount(), "decimals are truncated as in TypeConverter");
+
+        plan.binding(1).bind(row, "1234567890123");
+        assertEquals(1234567890123L, row.getTotal());
+
+        plan.binding(2).bind(row, "50%");
+        assertEquals(0.5, row.getRatio());
+
+        plan.binding(3).bind(row, "yes");
+        assertTrue(row.isActive());
+
+        assertThrows(IllegalArgumentException.class, () -> plan.binding(0).bind(row, "abc"));
+    }
+}
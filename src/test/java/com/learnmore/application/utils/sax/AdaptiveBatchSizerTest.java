@@ -0,0 +1,163 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch size follows the consumer latency target, within bounds, and backs off under memory pressure
+ */
+public class AdaptiveBatchSizerTest {
+
+    private static final long MICROS_PER_ROW = 100;
+
+    @Test
+    public void testGrowsTowardTargetInBoundedSteps() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 50, 100_000, 200, 0);
+
+        // 0.1 ms/row → 2000 rows per 200 ms
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int size = sizer.currentSize();
+            sizes.add(size);
+            sizer.recordBatch(size, size * TimeUnit.MICROSECONDS.toNanos(MICROS_PER_ROW));
+        }
+
+        assertEquals(List.of(100, 200, 400, 800, 1600, 2000), sizes.subList(0, 6), "at most ×2 per batch");
+        assertEquals(2000, sizer.currentSize());
+        assertEquals(100, sizer.getSmallestSize());
+        assertEquals(2000, sizer.getLargestSize());
+        assertEquals(5, sizer.getAdjustments(), "stable once on target");
+    }
+
+    @Test
+    public void testShrinksForSlowConsumerAndClampsToRange() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(5000, 300, 10_000, 200, 0);
+
+        // 1 ms/row → 200 rows wanted, but 300 is the floor
+        for (int i = 0; i < 10; i++) {
+            int size = sizer.currentSize();
+            sizer.recordBatch(size, size * TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        assertEquals(300, sizer.currentSize());
+        assertEquals(300, sizer.getSmallestSize());
+        assertEquals(5000, sizer.getLargestSize());
+    }
+
+    @Test
+    public void testBackOffHalvesAndHoldsGrowth() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(4000, 100, 100_000, 200, 0);
+        long fastNanosPerRow = TimeUnit.MICROSECONDS.toNanos(10); // would allow 20k rows
+
+        sizer.backOff();
+        sizer.recordBatch(4000, 4000 * fastNanosPerRow);
+        assertEquals(2000, sizer.currentSize());
+        assertEquals(1, sizer.getBackOffs());
+
+        // No growth during the hold, then growth resumes
+        for (int i = 0; i < 3; i++) {
+            sizer.recordBatch(2000, 2000 * fastNanosPerRow);
+            assertEquals(2000, sizer.currentSize());
+        }
+        sizer.recordBatch(2000, 2000 * fastNanosPerRow);
+        assertEquals(4000, sizer.currentSize());
+    }
+
+    @Test
+    public void testLiveHeapPressureNeedsConfirmationAndClearsBelowLowMark() {
+        long mb = 1024L * 1024L;
+        AtomicReference<MemoryUsage> afterGc = new AtomicReference<>(new MemoryUsage(0, 100 * mb, 1000 * mb, 1000 * mb));
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(4000, 100, 100_000, 200, 500, afterGc::get);
+        long onTarget = TimeUnit.MILLISECONDS.toNanos(200);
+
+        afterGc.set(new MemoryUsage(0, 600 * mb, 1000 * mb, 1000 * mb));
+        sizer.recordBatch(4000, onTarget);
+        assertEquals(4000, sizer.currentSize(), "one reading above the threshold is not pressure yet");
+
+        // Between the low mark (450 MB) and the threshold: neither confirms nor clears
+        afterGc.set(new MemoryUsage(0, 480 * mb, 1000 * mb, 1000 * mb));
+        sizer.recordBatch(4000, onTarget);
+        assertEquals(4000, sizer.currentSize());
+
+        afterGc.set(new MemoryUsage(0, 600 * mb, 1000 * mb, 1000 * mb));
+        sizer.recordBatch(4000, onTarget);
+        assertEquals(2000, sizer.currentSize());
+        assertEquals(1, sizer.getBackOffs());
+
+        // Dropping below the low mark resets the count: a single spike afterwards does not shrink
+        afterGc.set(new MemoryUsage(0, 100 * mb, 1000 * mb, 1000 * mb));
+        sizer.recordBatch(2000, onTarget / 2);
+        afterGc.set(new MemoryUsage(0, 600 * mb, 1000 * mb, 1000 * mb));
+        sizer.recordBatch(2000, onTarget / 2);
+        assertEquals(2000, sizer.currentSize());
+        assertEquals(1, sizer.getBackOffs());
+    }
+
+    @Test
+    public void testProcessorBatchesConvergeOnConsumerLatency() throws Exception {
+        byte[] workbook = createWorkbook(12_000);
+        List<Integer> batchSizes = new ArrayList<>();
+
+        ExcelConfig config = ExcelConfig.builder()
+                .parseEngine(ExcelConfig.ParseEngine.FAST)
+                .batchSize(4000)
+                .adaptiveBatchSizing(true)
+                .targetBatchLatencyMs(20)
+                .batchSizeRange(50, 10_000)
+                .memoryThreshold(0)
+                .build();
+
+        TrueStreamingSAXProcessor<HopDongDTO> processor = new TrueStreamingSAXProcessor<>(
+                HopDongDTO.class, config, new ArrayList<>(), batch -> {
+                    batchSizes.add(batch.size());
+                    // 0.1 ms per row → ~200 rows per 20 ms
+                    busyWait(batch.size() * TimeUnit.MICROSECONDS.toNanos(MICROS_PER_ROW));
+                });
+        TrueStreamingSAXProcessor.ProcessingResult result = processor.processExcelStreamTrue(new ByteArrayInputStream(workbook));
+
+        assertEquals(12_000, result.getProcessedRecords());
+        assertEquals(4000, batchSizes.get(0));
+        assertNotNull(result.getBatchSizer());
+        int last = batchSizes.get(batchSizes.size() - 2); // final batch is the remainder
+        assertTrue(last >= 100 && last <= 400, "converged batch size " + last);
+        assertEquals(12_000, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    private static void busyWait(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static byte[] createWorkbook(int rows) throws Exception {
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(500); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            for (int r = 1; r <= rows; r++) {
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("KHO" + (r % 10));
+                data.createCell(1).setCellValue("HD-" + r);
+            }
+            wb.write(out);
+            wb.dispose();
+            return out.toByteArray();
+        }
+    }
+}
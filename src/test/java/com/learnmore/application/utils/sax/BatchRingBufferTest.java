@@ -0,0 +1,274 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Ring buffer handoff: bounded slots, recycled containers/rows, failures do not stop the pipeline
+ */
+public class BatchRingBufferTest {
+
+    @Test
+    public void testAllBatchesProcessedWithReusedContainers() throws Exception {
+        AtomicLong sum = new AtomicLong();
+        Map<List<Integer>, Boolean> containers = Collections.synchronizedMap(new IdentityHashMap<>());
+
+        try (BatchRingBuffer<Integer> ring = new BatchRingBuffer<>(3, 10, 3, false, "test-ring", batch -> {
+            containers.put(batch, Boolean.TRUE);
+            for (Integer value : batch) {
+                sum.addAndGet(value);
+            }
+        })) {
+            assertEquals(4, ring.getCapacity(), "rounded up to a power of two");
+            for (int b = 0; b < 100; b++) {
+                BatchRingBuffer.Slot<Integer> slot = ring.claim();
+                for (int i = 0; i < 10; i++) {
+                    slot.rows().add(b * 10 + i);
+                }
+                ring.publish(slot);
+            }
+            ring.finish();
+            assertTrue(ring.awaitCompletion(10, TimeUnit.SECONDS));
+
+            assertEquals(100, ring.getProcessedBatches());
+            assertEquals(1000, ring.getProcessedRecords());
+            assertEquals(999L * 1000 / 2, sum.get());
+            assertTrue(containers.size() <= ring.getCapacity(), "one container per slot");
+        }
+    }
+
+    @Test
+    public void testProducerBlocksWhenAllSlotsInFlight() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger published = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+
+        try (BatchRingBuffer<Integer> ring = new BatchRingBuffer<>(2, 1, 4, false, "test-ring", batch -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            consumed.incrementAndGet();
+        })) {
+            for (int b = 0; b < 30; b++) {
+                BatchRingBuffer.Slot<Integer> slot = ring.claim();
+                maxAhead.accumulateAndGet(published.get() - consumed.get(), Math::max);
+                slot.rows().add(b);
+                ring.publish(slot);
+                published.incrementAndGet();
+            }
+            ring.finish();
+            assertTrue(ring.awaitCompletion(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(30, consumed.get());
+        assertTrue(maxInFlight.get() <= 2, "at most capacity batches in flight: " + maxInFlight.get());
+        assertTrue(maxAhead.get() <= 2, "producer never more than capacity ahead: " + maxAhead.get());
+    }
+
+    @Test
+    public void testInFlightBytesBudgetLimitsAdmission() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        try (BatchRingBuffer<byte[]> ring = new BatchRingBuffer<>(8, 4, 4, false, "test-ring", batch -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+        })) {
+            // Budget smaller than one measured batch → one batch in flight at a time
+            ring.limitInFlightBytes(64 * 1024);
+            for (int b = 0; b < 40; b++) {
+                BatchRingBuffer.Slot<byte[]> slot = ring.claim();
+                for (int i = 0; i < 4; i++) {
+                    slot.rows().add(new byte[32 * 1024]);
+                }
+                ring.publish(slot);
+            }
+            ring.finish();
+            assertTrue(ring.awaitCompletion(10, TimeUnit.SECONDS));
+
+            assumeTrue(ring.getAverageBatchBytes() > 0, "thread allocation measurement not supported");
+            assertEquals(1, ring.getAdmissionLimit());
+            assertEquals(1, maxInFlight.get());
+            assertTrue(ring.getStallCount() > 0);
+            assertEquals(40, ring.getProcessedBatches());
+        }
+    }
+
+    @Test
+    public void testRingsShareOneExecutor() throws Exception {
+        ExecutorService shared = Executors.newFixedThreadPool(2);
+        try (BatchRingBuffer<Integer> first = new BatchRingBuffer<>(4, 1, 2, false, shared, batch -> { });
+             BatchRingBuffer<Integer> second = new BatchRingBuffer<>(4, 1, 2, false, shared, batch -> { })) {
+            for (int b = 0; b < 200; b++) {
+                for (BatchRingBuffer<Integer> ring : List.of(first, second)) {
+                    BatchRingBuffer.Slot<Integer> slot = ring.claim();
+                    slot.rows().add(b);
+                    ring.publish(slot);
+                }
+            }
+            first.finish();
+            second.finish();
+            assertTrue(first.awaitCompletion(10, TimeUnit.SECONDS));
+            assertTrue(second.awaitCompletion(10, TimeUnit.SECONDS));
+            assertEquals(200, first.getProcessedBatches());
+            assertEquals(200, second.getProcessedBatches());
+            assertEquals(0, first.getQueueDepth());
+        } finally {
+            shared.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedBatchIsRecordedAndOthersContinue() throws Exception {
+        try (BatchRingBuffer<Integer> ring = new BatchRingBuffer<>(4, 1, 2, false, "test-ring", batch -> {
+            if (batch.get(0) == 3) {
+                throw new IllegalStateException("boom");
+            }
+        })) {
+            for (int b = 0; b < 10; b++) {
+                BatchRingBuffer.Slot<Integer> slot = ring.claim();
+                slot.rows().add(b);
+                ring.publish(slot);
+            }
+            ring.finish();
+            assertTrue(ring.awaitCompletion(10, TimeUnit.SECONDS));
+
+            assertEquals(9, ring.getProcessedBatches());
+            assertEquals(1, ring.getFailureCount());
+            assertEquals("boom", ring.getFirstFailure().getMessage());
+        }
+    }
+
+    @Test
+    public void testOrderedDeliveryCommitsInSequenceWhilePreparingInParallel() throws Exception {
+        AtomicInteger preparing = new AtomicInteger();
+        AtomicInteger maxPreparing = new AtomicInteger();
+        AtomicInteger committing = new AtomicInteger();
+        List<Integer> committed = Collections.synchronizedList(new ArrayList<>());
+        List<Long> completed = Collections.synchronizedList(new ArrayList<>());
+
+        try (BatchRingBuffer<Integer> ring = new BatchRingBuffer<>(8, 1, 4, true, "test-ring", batch -> fail("unordered path"))) {
+            ring.deliverInOrder(batch -> {
+                maxPreparing.accumulateAndGet(preparing.incrementAndGet(), Math::max);
+                try {
+                    // Later batches finish first half of the time
+                    Thread.sleep(batch.get(0) % 2 == 0 ? 4 : 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                preparing.decrementAndGet();
+                if (batch.get(0) == 7) {
+                    throw new IllegalStateException("bad batch");
+                }
+                return batch.get(0);
+            }, (Integer value) -> {
+                assertEquals(1, committing.incrementAndGet(), "commit never concurrent");
+                committed.add(value);
+                committing.decrementAndGet();
+            });
+            ring.onBatchCompleted(completed::add);
+
+            for (int b = 0; b < 60; b++) {
+                BatchRingBuffer.Slot<Integer> slot = ring.claim();
+                slot.rows().add(b);
+                ring.publish(slot);
+            }
+            ring.finish();
+            assertTrue(ring.awaitCompletion(10, TimeUnit.SECONDS));
+
+            List<Integer> expected = new ArrayList<>();
+            for (int b = 0; b < 60; b++) {
+                if (b != 7) {
+                    expected.add(b);
+                }
+            }
+            assertEquals(expected, committed);
+            assertEquals(59, ring.getProcessedBatches());
+            assertEquals(1, ring.getFailureCount());
+            assertTrue(maxPreparing.get() > 1, "prepare stage ran in parallel");
+            for (int i = 1; i < completed.size(); i++) {
+                assertTrue(completed.get(i - 1) < completed.get(i), "listener told in commit order");
+            }
+        }
+    }
+
+    @Test
+    public void testPipelinedProcessorRecyclesRowObjects() throws Exception {
+        byte[] workbook;
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Số hợp đồng");
+            header.createCell(1).setCellValue("Số lượng tập");
+            for (int r = 1; r <= 40; r++) {
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("HD-" + r);
+                if (r % 3 != 0) {
+                    data.createCell(1).setCellValue(r);
+                }
+            }
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+
+        ExcelConfig config = ExcelConfig.builder().batchSize(4).ringBufferSize(2).recycleRowObjects(true).build();
+        Map<String, Integer> values = new ConcurrentHashMap<>();
+        Map<HopDongDTO, Boolean> instances = Collections.synchronizedMap(new IdentityHashMap<>());
+
+        TrueStreamingSAXProcessor.ProcessingResult result;
+        try (BatchRingBuffer<HopDongDTO> ring = new BatchRingBuffer<>(config.getRingBufferSize(),
+                config.getBatchSize(), 2, true, "test-ring", batch -> {
+            for (HopDongDTO row : batch) {
+                instances.put(row, Boolean.TRUE);
+                values.put(row.getContractNumber(),
+                        row.getFolderQuantity() != null ? row.getFolderQuantity() : -1);
+            }
+        })) {
+            result = TrueStreamingSAXProcessor.pipelined(HopDongDTO.class, config, new ArrayList<>(), ring)
+                    .processExcelStreamTrue(new ByteArrayInputStream(workbook));
+            ring.finish();
+            assertTrue(ring.awaitCompletion(10, TimeUnit.SECONDS));
+            assertEquals(10, ring.getProcessedBatches());
+        }
+
+        assertEquals(40, result.getProcessedRecords());
+        assertEquals(40, values.size());
+        for (int r = 1; r <= 40; r++) {
+            // Blank quantity must not leak from the previous use of a recycled row
+            assertEquals(r % 3 != 0 ? r : -1, values.get("HD-" + r), "HD-" + r);
+        }
+        assertTrue(instances.size() <= 2 * 4, "rows reused across laps: " + instances.size());
+    }
+}
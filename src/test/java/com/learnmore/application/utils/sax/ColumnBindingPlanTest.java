@@ -0,0 +1,235 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import com.learnmore.application.utils.converter.TypeConverter;
+import com.learnmore.application.utils.reflection.MethodHandleMapper;
+import lombok.Data;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for compiled header → field binding used by TrueStreamingSAXProcessor
+ */
+public class ColumnBindingPlanTest {
+
+    @Data
+    public static class TypedRow {
+        private int count;
+        private Long total;
+        private Float ratio;
+        private java.util.Date created;
+        private java.sql.Date booked;
+        private java.sql.Timestamp stamped;
+    }
+
+    @Test
+    public void testCompileResolvesExcelNamesAndFieldNames() {
+        Map<String, Integer> headers = new LinkedHashMap<>();
+        headers.put("Kho VPBank", 0);
+        headers.put("Mã đơn vị", 1);
+        headers.put("Ngày giải ngân", 4);
+        headers.put("Cột không tồn tại", 5);
+        headers.put("notes", 7);
+
+        ColumnBindingPlan<HopDongDTO> plan = ColumnBindingPlan.compile(
+                headers, HopDongDTO.class, MethodHandleMapper.forClass(HopDongDTO.class), TypeConverter.getInstance());
+
+        assertEquals(4, plan.getBoundColumnCount());
+        assertEquals(8, plan.getWidth());
+
+        assertEquals("vpbankWarehouse", plan.binding(0).getFieldName());
+        assertEquals("unitCode", plan.binding(1).getFieldName());
+        assertTrue(plan.binding(1).isIdentifierByName(), "unitCode contains 'code' → identifier");
+
+        assertEquals("disbursementDate", plan.binding(4).getFieldName());
+        assertTrue(plan.binding(4).isDateField());
+
+        assertNull(plan.binding(2), "unmapped column gap");
+        assertNull(plan.binding(5), "unknown header");
+        assertEquals("notes", plan.binding(7).getFieldName());
+        assertNull(plan.binding(-1));
+        assertNull(plan.binding(100));
+    }
+
+    @Test
+    public void testStreamingProcessorBindsThroughPlan() throws Exception {
+        byte[] workbook;
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            header.createCell(2).setCellValue("Số lượng tập");
+            header.createCell(3).setCellValue("Ngày giải ngân");
+
+            Row data = sheet.createRow(1);
+            data.createCell(0).setCellValue("KHO01");
+            data.createCell(1).setCellValue("HD-0001");
+            data.createCell(2).setCellValue(3);
+            data.createCell(3).setCellValue("2024-01-15");
+
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+
+        List<HopDongDTO> rows = new ArrayList<>();
+        TrueStreamingSAXProcessor<HopDongDTO> processor = new TrueStreamingSAXProcessor<>(
+                HopDongDTO.class, ExcelConfig.builder().batchSize(10).build(), new ArrayList<>(), rows::addAll);
+
+        TrueStreamingSAXProcessor.ProcessingResult result =
+                processor.processExcelStreamTrue(new ByteArrayInputStream(workbook));
+
+        assertEquals(1, result.getProcessedRecords());
+        HopDongDTO dto = rows.get(0);
+        assertEquals("KHO01", dto.getVpbankWarehouse());
+        assertEquals("HD-0001", dto.getContractNumber());
+        assertEquals(3, dto.getFolderQuantity());
+        assertEquals(LocalDate.of(2024, 1, 15), dto.getDisbursementDate());
+    }
+
+    @Test
+    public void testProjectionBindsOnlyRequestedColumns() throws Exception {
+        byte[] workbook;
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            header.createCell(2).setCellValue("Số lượng tập");
+            header.createCell(3).setCellValue("Ngày giải ngân");
+            for (int r = 1; r <= 5; r++) {
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("KHO" + r);
+                data.createCell(1).setCellValue("HD-" + r);
+                data.createCell(2).setCellValue(r);
+                data.createCell(3).setCellValue("2024-01-15");
+            }
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+
+        // Field name and header name are both accepted; the required field is always bound
+        ExcelConfig config = ExcelConfig.builder()
+                .batchSize(10)
+                .parseEngine(ExcelConfig.ParseEngine.FAST)
+                .columns("contractNumber", "Số lượng tập")
+                .requiredFields("vpbankWarehouse")
+                .build();
+
+        List<HopDongDTO> rows = new ArrayList<>();
+        new TrueStreamingSAXProcessor<>(HopDongDTO.class, config, new ArrayList<>(), rows::addAll)
+                .processExcelStreamTrue(new ByteArrayInputStream(workbook));
+
+        assertEquals(5, rows.size());
+        HopDongDTO dto = rows.get(2);
+        assertEquals("KHO3", dto.getVpbankWarehouse());
+        assertEquals("HD-3", dto.getContractNumber());
+        assertEquals(3, dto.getFolderQuantity());
+        assertNull(dto.getDisbursementDate(), "column outside the projection is not bound");
+
+        Map<String, Integer> headers = new LinkedHashMap<>();
+        headers.put("Kho VPBank", 0);
+        headers.put("Số hợp đồng", 1);
+        headers.put("Ngày giải ngân", 3);
+        ColumnBindingPlan<HopDongDTO> plan = ColumnBindingPlan.compile(headers, HopDongDTO.class,
+                MethodHandleMapper.forClass(HopDongDTO.class), TypeConverter.getInstance(), Set.of("contractNumber"));
+        assertEquals(1, plan.getBoundColumnCount());
+        assertNull(plan.binding(0));
+        assertNull(plan.binding(3));
+    }
+
+    @Test
+    public void testRawNumbersOnlyBindWhenExact() {
+        ColumnBindingPlan<TypedRow> plan = compileTypedRow();
+        ColumnBindingPlan.ColumnBinding count = plan.binding(0);
+        ColumnBindingPlan.ColumnBinding total = plan.binding(1);
+        ColumnBindingPlan.ColumnBinding ratio = plan.binding(2);
+
+        assertTrue(count.fitsNumber(42));
+        assertFalse(count.fitsNumber(2.5), "decimal goes through the text path");
+        assertFalse(count.fitsNumber(3_000_000_000d), "would saturate to Integer.MAX_VALUE");
+        assertTrue(total.fitsNumber(3_000_000_000d));
+        assertFalse(total.fitsNumber(1e19));
+        assertFalse(ratio.fitsNumber(1e39));
+
+        TypedRow row = new TypedRow();
+        count.bindNumber(row, 42);
+        assertEquals(42, row.getCount());
+        assertThrows(ArithmeticException.class, () -> count.bindNumber(row, 3_000_000_000d));
+        assertEquals(42, row.getCount());
+        assertEquals(3_000_000_000L, total.numberValue(3_000_000_000d));
+        assertThrows(ArithmeticException.class, () -> total.numberValue(0.5));
+    }
+
+    @Test
+    public void testSerialDateMatchesDeclaredType() {
+        ColumnBindingPlan<TypedRow> plan = compileTypedRow();
+        double serial = 45306.5; // 2024-01-15 12:00
+        LocalDateTime expected = LocalDateTime.of(2024, 1, 15, 12, 0);
+
+        Object created = plan.binding(3).dateValue(serial);
+        assertEquals(java.util.Date.class, created.getClass());
+        assertEquals(java.util.Date.from(expected.atZone(ZoneId.systemDefault()).toInstant()), created);
+
+        assertTrue(plan.binding(4).bindsRawDates());
+        assertEquals(java.sql.Date.valueOf(expected.toLocalDate()), plan.binding(4).dateValue(serial));
+        assertEquals(java.sql.Timestamp.valueOf(expected), plan.binding(5).dateValue(serial));
+    }
+
+    @Test
+    public void testInexactNumericCellFallsBackToText() throws Exception {
+        byte[] workbook;
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số lượng tập");
+            Row decimal = sheet.createRow(1);
+            decimal.createCell(0).setCellValue("KHO1");
+            decimal.createCell(1).setCellValue(2.5);
+            Row tooLarge = sheet.createRow(2);
+            tooLarge.createCell(0).setCellValue("KHO2");
+            tooLarge.createCell(1).setCellValue(3_000_000_000d);
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+
+        List<HopDongDTO> rows = new ArrayList<>();
+        new TrueStreamingSAXProcessor<>(HopDongDTO.class,
+                ExcelConfig.builder().batchSize(10).typedCellValues(true).build(), new ArrayList<>(), rows::addAll)
+                .processExcelStreamTrue(new ByteArrayInputStream(workbook));
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(0).getFolderQuantity(), "text path truncates as TypeConverter does");
+        assertNull(rows.get(1).getFolderQuantity(), "no silent Integer.MAX_VALUE");
+        assertEquals("3000000000", rows.get(1).getUnconvertedCell("folderQuantity"));
+    }
+
+    private static ColumnBindingPlan<TypedRow> compileTypedRow() {
+        Map<String, Integer> headers = new LinkedHashMap<>();
+        headers.put("count", 0);
+        headers.put("total", 1);
+        headers.put("ratio", 2);
+        headers.put("created", 3);
+        headers.put("booked", 4);
+        headers.put("stamped", 5);
+        return ColumnBindingPlan.compile(
+                headers, TypedRow.class, MethodHandleMapper.forClass(TypedRow.class), TypeConverter.getInstance());
+    }
+}
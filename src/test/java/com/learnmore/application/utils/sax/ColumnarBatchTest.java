@@ -0,0 +1,119 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Columnar output mode: same values as the bean output, without a bean per row
+ */
+public class ColumnarBatchTest {
+
+    private static byte[] workbook;
+
+    @BeforeAll
+    public static void createWorkbook() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            header.createCell(2).setCellValue("Số lượng tập");
+            header.createCell(3).setCellValue("Ngày giải ngân");
+            for (int r = 1; r <= 10; r++) {
+                if (r == 6) {
+                    continue; // blank row is skipped in both modes
+                }
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("KHO" + (r % 2));
+                data.createCell(1).setCellValue("HD-" + r);
+                if (r % 3 != 0) {
+                    data.createCell(2).setCellValue(r);
+                }
+                data.createCell(3).setCellValue("2024-01-" + String.format("%02d", r));
+            }
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+    }
+
+    @Test
+    public void testColumnarValuesMatchBeanOutput() throws Exception {
+        List<HopDongDTO> beans = new ArrayList<>();
+        new TrueStreamingSAXProcessor<>(HopDongDTO.class, ExcelConfig.builder().batchSize(4).build(),
+                new ArrayList<>(), beans::addAll)
+                .processExcelStreamTrue(new ByteArrayInputStream(workbook));
+
+        List<HopDongDTO> fromColumns = new ArrayList<>();
+        Map<ColumnarBatch<HopDongDTO>, Boolean> instances = new IdentityHashMap<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        TrueStreamingSAXProcessor.ProcessingResult result = TrueStreamingSAXProcessor.columnar(
+                HopDongDTO.class, ExcelConfig.builder().batchSize(4).build(), new ArrayList<>(),
+                batch -> {
+                    instances.put(batch, Boolean.TRUE);
+                    batchSizes.add(batch.size());
+                    fromColumns.addAll(batch.toBeans());
+                })
+                .processExcelStreamTrue(new ByteArrayInputStream(workbook));
+
+        assertEquals(9, result.getProcessedRecords());
+        assertEquals(List.of(4, 4, 1), batchSizes);
+        assertEquals(1, instances.size(), "one batch instance reused for every batch");
+        assertEquals(beans, fromColumns);
+    }
+
+    @Test
+    public void testTypedColumnsDictionaryAndNulls() throws Exception {
+        List<String> checked = new ArrayList<>();
+        TrueStreamingSAXProcessor.columnar(HopDongDTO.class, ExcelConfig.builder().batchSize(100).build(),
+                new ArrayList<>(), batch -> {
+                    int warehouse = batch.getColumnIndex("vpbankWarehouse");
+                    int quantity = batch.getColumnIndex("folderQuantity");
+                    int disbursement = batch.getColumnIndex("disbursementDate");
+                    assertEquals(-1, batch.getColumnIndex("customerName"), "no such header in the sheet");
+
+                    assertEquals(ColumnarBatch.ColumnType.STRING, batch.getColumnType(warehouse));
+                    assertEquals(ColumnarBatch.ColumnType.INT, batch.getColumnType(quantity));
+                    assertEquals(ColumnarBatch.ColumnType.OBJECT, batch.getColumnType(disbursement));
+
+                    // 9 rows, 2 distinct warehouse values
+                    assertEquals(9, batch.size());
+                    assertEquals(List.of("KHO1", "KHO0"), batch.getDictionary(warehouse));
+                    assertEquals(0, batch.getStringCode(0, warehouse));
+                    assertEquals("KHO0", batch.getString(1, warehouse));
+
+                    // Row 0 is Excel row 2 (r = 1), row 2 is r = 3 (quantity left blank)
+                    assertEquals(2, batch.getRowNum(0));
+                    assertEquals(1, batch.getInt(0, quantity));
+                    assertTrue(batch.isNull(2, quantity));
+                    assertNull(batch.getObject(2, quantity));
+                    assertEquals(LocalDate.of(2024, 1, 1), batch.getObject(0, disbursement));
+
+                    ColumnarBatch<HopDongDTO>.RowView view = batch.row(5);
+                    assertEquals(8, view.getRowNum(), "blank Excel row 7 skipped");
+                    assertEquals("HD-7", view.get("contractNumber"));
+                    assertNull(view.get("customerName"));
+
+                    assertThrows(IllegalStateException.class, () -> batch.getLong(0, quantity));
+                    assertThrows(IndexOutOfBoundsException.class, () -> batch.getInt(9, quantity));
+                    checked.add("ok");
+                })
+                .processExcelStreamTrue(new ByteArrayInputStream(workbook));
+
+        assertEquals(List.of("ok"), checked);
+    }
+}
@@ -0,0 +1,304 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FastSheetTokenizer must produce exactly what XSSFSheetXMLHandler produces
+ */
+public class FastSheetTokenizerTest {
+
+    private static final String[] TEST_WORKBOOKS = {
+            "/test-data-5-rows.xlsx",
+            "/test-data-100-rows.xlsx",
+            "/test-valid-data.xlsx",
+            "/test-invalid-template.xlsx",
+            "/test-empty-data.xlsx"
+    };
+
+    @Test
+    public void testOutputMatchesPoiOnTestWorkbooks() throws Exception {
+        for (String resource : TEST_WORKBOOKS) {
+            try (InputStream in = getClass().getResourceAsStream(resource)) {
+                assertNotNull(in, "Missing test resource " + resource);
+                assertParity(in.readAllBytes(), resource);
+            }
+        }
+    }
+
+    @Test
+    public void testOutputMatchesPoiOnFormattedCells() throws Exception {
+        byte[] workbook;
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("formats");
+            CellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.createDataFormat().getFormat("dd/MM/yyyy"));
+            CellStyle decimalStyle = wb.createCellStyle();
+            decimalStyle.setDataFormat(wb.createDataFormat().getFormat("#,##0.00"));
+
+            Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue("Tên & <mã> \"A\"");
+            row.createCell(1).setCellValue(45306);
+            row.getCell(1).setCellStyle(dateStyle);
+            row.createCell(2).setCellValue(1234567.891);
+            row.getCell(2).setCellStyle(decimalStyle);
+            row.createCell(3).setCellValue(true);
+            row.createCell(5).setCellValue(123456789012.0);
+            row.createCell(6).setCellFormula("B1+1");
+            row.createCell(27).setCellValue("AB column");
+
+            sheet.createRow(3).createCell(1).setCellValue("Dòng có khoảng trống\nxuống dòng");
+
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+        assertParity(workbook, "formatted cells");
+    }
+
+    @Test
+    public void testHandlesRawXmlVariants() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<x:worksheet xmlns:x=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                + "<!-- comment with <c> inside -->"
+                + "<x:sheetData>"
+                + "<x:row r=\"2\" spans=\"1:3\">"
+                + "<x:c r=\"A2\" t=\"inlineStr\"><x:is><x:t>Ph&#7841;m &amp; </x:t><x:r><x:t xml:space='preserve'>Co</x:t></x:r>"
+                + "</x:is></x:c>"
+                + "<x:c t=\"n\"><x:v>42</x:v></x:c>"
+                + "<x:c r=\"D2\" s=\"0\"/>"
+                + "<x:c t=\"str\"><x:f>A1</x:f><x:v><![CDATA[a]]b]]></x:v></x:c>"
+                + "</x:row>"
+                + "<x:row><x:c r=\"B3\" t=\"b\"><x:v>0</x:v></x:c><x:c r=\"C3\" t=\"e\"><x:v>#N/A</x:v></x:c></x:row>"
+                + "</x:sheetData>"
+                + "<x:row r=\"99\"><x:c r=\"A99\"><x:v>1</x:v></x:c></x:row>"
+                + "</x:worksheet>";
+
+        List<String> events = new ArrayList<>();
+        RawCellFormatter formatter = new RawCellFormatter(null, null, new DataFormatter());
+        new FastSheetTokenizer(1024).parse(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+                new SheetContentsHandlerAdapter(new RecordingHandler(events), formatter, true));
+
+        assertEquals(List.of(
+                "start 1",
+                "A2=Phạm & Co",
+                "B2=42",
+                "E2=a]]b",
+                "end 1",
+                "start 2",
+                "B3=FALSE",
+                "C3=ERROR:#N/A",
+                "end 2",
+                "endSheet"
+        ), events);
+    }
+
+    @Test
+    public void testSkipsUnwantedColumnsWithoutCapture() throws Exception {
+        String xml = "<worksheet><sheetData><row r=\"1\">"
+                + "<c r=\"A1\"><v>1</v></c><c r=\"B1\"><v>2</v></c><c r=\"C1\"><v>3</v></c>"
+                + "</row></sheetData></worksheet>";
+
+        List<Integer> columns = new ArrayList<>();
+        new FastSheetTokenizer().parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+                new FastSheetTokenizer.RawSheetHandler() {
+                    @Override public void startRow(int rowNum) { }
+                    @Override public boolean wantsCell(int colIndex) { return colIndex != 1; }
+                    @Override public void cell(int colIndex, byte cellType, int styleIndex,
+                                               FastSheetTokenizer.RawValue value) {
+                        assertEquals(colIndex + 1, value.parseInt());
+                        columns.add(colIndex);
+                    }
+                    @Override public void endRow(int rowNum) { }
+                });
+
+        assertEquals(List.of(0, 2), columns);
+    }
+
+    @Test
+    public void testStreamingProcessorFastEngineMatchesPoiEngine() throws Exception {
+        byte[] workbook;
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            header.createCell(2).setCellValue("Số lượng tập");
+            header.createCell(3).setCellValue("Ngày giải ngân");
+            header.createCell(4).setCellValue("Cột không dùng");
+            for (int r = 1; r <= 50; r++) {
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("KHO" + r);
+                data.createCell(1).setCellValue("HD-" + r);
+                data.createCell(2).setCellValue(r);
+                data.createCell(3).setCellValue("2024-01-15");
+                data.createCell(4).setCellValue("ignored");
+            }
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+
+        List<HopDongDTO> poiRows = readWith(workbook, ExcelConfig.ParseEngine.POI_SAX);
+        List<HopDongDTO> fastRows = readWith(workbook, ExcelConfig.ParseEngine.FAST);
+
+        assertEquals(50, fastRows.size());
+        assertEquals(poiRows, fastRows);
+        assertEquals("HD-7", fastRows.get(6).getContractNumber());
+        assertEquals(7, fastRows.get(6).getFolderQuantity());
+        assertEquals(LocalDate.of(2024, 1, 15), fastRows.get(6).getDisbursementDate());
+    }
+
+    @Test
+    public void testTypedCellValuesBindDatesAndNumbersFromRawValue() throws Exception {
+        byte[] workbook;
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            CellStyle vnDate = wb.createCellStyle();
+            vnDate.setDataFormat(wb.createDataFormat().getFormat("dd/mm/yyyy"));
+            CellStyle thousands = wb.createCellStyle();
+            thousands.setDataFormat(wb.createDataFormat().getFormat("#,##0"));
+
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Số hợp đồng");
+            header.createCell(1).setCellValue("Số lượng tập");
+            header.createCell(2).setCellValue("Ngày giải ngân");
+            header.createCell(3).setCellValue("Ngày đến hạn");
+            for (int r = 1; r <= 20; r++) {
+                Row data = sheet.createRow(r);
+                // Date-formatted number in a String column keeps its displayed text
+                data.createCell(0).setCellValue(LocalDate.of(2024, 3, r));
+                data.getCell(0).setCellStyle(vnDate);
+                data.createCell(1).setCellValue(1000 + r);
+                data.getCell(1).setCellStyle(thousands);
+                data.createCell(2).setCellValue(LocalDate.of(2024, 1, r));
+                data.getCell(2).setCellStyle(vnDate);
+                // Unformatted serial number in a date column
+                data.createCell(3).setCellValue(45292 + r);
+            }
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+
+        List<HopDongDTO> typed = read(workbook, ExcelConfig.builder().parseEngine(ExcelConfig.ParseEngine.FAST));
+        List<HopDongDTO> poi = read(workbook, ExcelConfig.builder());
+        List<HopDongDTO> text = read(workbook,
+                ExcelConfig.builder().parseEngine(ExcelConfig.ParseEngine.FAST).typedCellValues(false));
+
+        assertEquals(20, typed.size());
+        HopDongDTO row = typed.get(4);
+        assertEquals("05/03/2024", row.getContractNumber());
+        assertEquals(1005, row.getFolderQuantity(), "no \"1,005\" text round trip");
+        assertEquals(LocalDate.of(2024, 1, 5), row.getDisbursementDate());
+        assertEquals(LocalDate.of(2024, 1, 6), row.getDueDate());
+
+        for (int i = 0; i < typed.size(); i++) {
+            // Dates match the formatted-text path of both engines
+            assertEquals(poi.get(i).getDisbursementDate(), typed.get(i).getDisbursementDate());
+            assertEquals(poi.get(i).getDueDate(), typed.get(i).getDueDate());
+            assertEquals(poi.get(i).getContractNumber(), typed.get(i).getContractNumber());
+            assertEquals(text.get(i).getDisbursementDate(), typed.get(i).getDisbursementDate());
+        }
+    }
+
+    private List<HopDongDTO> read(byte[] workbook, ExcelConfig.Builder config) throws Exception {
+        List<HopDongDTO> rows = new ArrayList<>();
+        new TrueStreamingSAXProcessor<>(HopDongDTO.class, config.batchSize(20).build(), new ArrayList<>(), rows::addAll)
+                .processExcelStreamTrue(new ByteArrayInputStream(workbook));
+        return rows;
+    }
+
+    private List<HopDongDTO> readWith(byte[] workbook, ExcelConfig.ParseEngine engine) throws Exception {
+        List<HopDongDTO> rows = new ArrayList<>();
+        TrueStreamingSAXProcessor<HopDongDTO> processor = new TrueStreamingSAXProcessor<>(
+                HopDongDTO.class,
+                ExcelConfig.builder().batchSize(20).parseEngine(engine).build(),
+                new ArrayList<>(),
+                rows::addAll);
+        processor.processExcelStreamTrue(new ByteArrayInputStream(workbook));
+        return rows;
+    }
+
+    private void assertParity(byte[] workbook, String label) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(workbook))) {
+            XSSFReader reader = new XSSFReader(pkg);
+            StylesTable styles = reader.getStylesTable();
+            SharedStrings strings = reader.getSharedStringsTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                byte[] sheetXml;
+                try (InputStream sheet = sheets.next()) {
+                    sheetXml = sheet.readAllBytes();
+                }
+
+                List<String> expected = new ArrayList<>();
+                XMLReader xmlReader = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
+                xmlReader.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, strings, new RecordingHandler(expected), new DataFormatter(), false));
+                xmlReader.parse(new InputSource(new ByteArrayInputStream(sheetXml)));
+
+                List<String> actual = new ArrayList<>();
+                RawCellFormatter formatter = new RawCellFormatter(styles, strings, new DataFormatter());
+                new FastSheetTokenizer().parse(new ByteArrayInputStream(sheetXml),
+                        new SheetContentsHandlerAdapter(new RecordingHandler(actual), formatter, true));
+
+                assertEquals(expected, actual, label + " / " + sheets.getSheetName());
+            }
+        }
+    }
+
+    private static final class RecordingHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final List<String> events;
+
+        RecordingHandler(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            events.add("start " + rowNum);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            events.add("end " + rowNum);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // Normalize reference through CellReference so "A1" and generated refs compare equal
+            events.add(new CellReference(cellReference).formatAsString() + "=" + formattedValue);
+        }
+
+        @Override
+        public void endSheet() {
+            events.add("endSheet");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FileBackedSharedStrings must resolve the same text as POI's in-memory SharedStringsTable
+ */
+public class FileBackedSharedStringsTest {
+
+    private static final int ROWS = 300;
+    private static byte[] workbook;
+
+    @BeforeAll
+    public static void createWorkbook() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            header.createCell(2).setCellValue("Số lượng tập");
+            header.createCell(3).setCellValue("Ngày giải ngân");
+            for (int r = 1; r <= ROWS; r++) {
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("KHO & <" + (r % 7) + ">");
+                data.createCell(1).setCellValue("HĐ-" + r);
+                data.createCell(2).setCellValue(r % 40);
+                data.createCell(3).setCellValue("2024-03-" + String.format("%02d", 1 + r % 28));
+            }
+
+            XSSFRichTextString rich = new XSSFRichTextString("Đậm và thường");
+            XSSFFont bold = wb.createFont();
+            bold.setBold(true);
+            rich.applyFont(0, 3, bold);
+            sheet.createRow(ROWS + 2).createCell(4).setCellValue(rich);
+            sheet.getRow(ROWS + 2).createCell(5).setCellValue("");
+
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+    }
+
+    @Test
+    public void testResolvesSameTextAsSharedStringsTable() throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(workbook))) {
+            XSSFReader reader = new XSSFReader(pkg);
+            SharedStrings expected = reader.getSharedStringsTable();
+
+            // Tiny cache so most lookups go to the file
+            try (InputStream sst = reader.getSharedStringsData();
+                 FileBackedSharedStrings actual = FileBackedSharedStrings.load(sst, 8)) {
+                assertEquals(expected.getUniqueCount(), actual.getUniqueCount());
+                assertEquals(expected.getCount(), actual.getCount());
+                for (int i = actual.getUniqueCount() - 1; i >= 0; i--) {
+                    assertEquals(expected.getItemAt(i).getString(), actual.getString(i), "index " + i);
+                    assertEquals(expected.getItemAt(i).getString(), actual.getItemAt(i).getString(), "index " + i);
+                }
+                assertThrows(IndexOutOfBoundsException.class, () -> actual.getString(actual.getUniqueCount()));
+            }
+        }
+    }
+
+    @Test
+    public void testRichTextPhoneticAndEscapes() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"5\" uniqueCount=\"3\">"
+                + "<si><t>Tên &amp; mã</t></si>"
+                + "<si><r><t>Nguyễn </t></r><r><rPr><b/></rPr><t xml:space=\"preserve\">Văn A</t></r>"
+                + "<rPh sb=\"0\" eb=\"1\"><t>ignored</t></rPh></si>"
+                + "<si><t>Tab_x0009_here</t></si>"
+                + "</sst>";
+
+        try (FileBackedSharedStrings strings = FileBackedSharedStrings.load(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), 0)) {
+            assertEquals(3, strings.getUniqueCount());
+            assertEquals(5, strings.getCount());
+            assertEquals("Tên & mã", strings.getString(0));
+            assertEquals("Nguyễn Văn A", strings.getString(1));
+            assertEquals("Tab\there", strings.getString(2));
+        }
+    }
+
+    @Test
+    public void testTempFileDeletedOnClose() throws Exception {
+        FileBackedSharedStrings strings = FileBackedSharedStrings.load(null, 10);
+        Path file = (Path) readField(strings, "file");
+        assertTrue(Files.exists(file));
+        assertEquals(0, strings.getUniqueCount());
+
+        strings.close();
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testStreamingProcessorFileBackedMatchesInMemory() throws Exception {
+        List<HopDongDTO> inMemory = readWith(ExcelConfig.SharedStringsStore.IN_MEMORY, ExcelConfig.ParseEngine.POI_SAX);
+        List<HopDongDTO> poiFileBacked = readWith(ExcelConfig.SharedStringsStore.FILE_BACKED, ExcelConfig.ParseEngine.POI_SAX);
+        List<HopDongDTO> fastFileBacked = readWith(ExcelConfig.SharedStringsStore.FILE_BACKED, ExcelConfig.ParseEngine.FAST);
+
+        assertFalse(inMemory.isEmpty());
+        assertEquals(inMemory, poiFileBacked);
+        assertEquals(inMemory, fastFileBacked);
+        assertEquals("HĐ-9", fastFileBacked.get(8).getContractNumber());
+    }
+
+    private static List<HopDongDTO> readWith(ExcelConfig.SharedStringsStore store, ExcelConfig.ParseEngine engine)
+            throws Exception {
+        List<HopDongDTO> rows = new ArrayList<>();
+        TrueStreamingSAXProcessor<HopDongDTO> processor = new TrueStreamingSAXProcessor<>(
+                HopDongDTO.class,
+                ExcelConfig.builder()
+                        .batchSize(50)
+                        .parseEngine(engine)
+                        .sharedStringsStore(store)
+                        .sharedStringsCacheSize(16)
+                        .build(),
+                new ArrayList<>(),
+                rows::addAll);
+        processor.processExcelStreamTrue(new ByteArrayInputStream(workbook));
+        return rows;
+    }
+
+    private static Object readField(Object target, String name) throws Exception {
+        java.lang.reflect.Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+}
@@ -0,0 +1,150 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.concurrent.MigrationWorkScheduler;
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Intra-sheet parallel parsing must deliver the same rows, in the same order, as sequential parsing
+ */
+public class ParallelSheetChunkParserTest {
+
+    private static final int ROWS = 2_345;
+    private static byte[] workbook;
+
+    @BeforeAll
+    public static void createWorkbook() throws Exception {
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(500); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            header.createCell(2).setCellValue("Số lượng tập");
+            header.createCell(3).setCellValue("Ngày giải ngân");
+            for (int r = 1; r <= ROWS; r++) {
+                if (r % 97 == 0) {
+                    continue; // gaps in row numbering
+                }
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("KHO" + (r % 10));
+                // Duplicate contract numbers every 500 rows
+                data.createCell(1).setCellValue("HD-" + (r % 500 == 0 ? 1 : r));
+                data.createCell(2).setCellValue(r % 40);
+                data.createCell(3).setCellValue("2024-02-" + String.format("%02d", 1 + r % 28));
+            }
+            wb.write(out);
+            wb.dispose();
+            workbook = out.toByteArray();
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequentialInOrder() throws Exception {
+        List<HopDongDTO> sequential = read(ExcelConfig.builder().batchSize(300).build());
+        List<HopDongDTO> parallel = read(ExcelConfig.builder()
+                .batchSize(300)
+                .threadPoolSize(4)
+                .parallelSheetParsing(true)
+                .parallelChunkRows(128)
+                .build());
+
+        assertEquals(ROWS - ROWS / 97, sequential.size());
+        assertEquals(sequential, parallel);
+        assertEquals("HD-1", parallel.get(0).getContractNumber());
+    }
+
+    @Test
+    public void testChunksOnSharedPoolMatchSequential() throws Exception {
+        MigrationWorkScheduler scheduler = new MigrationWorkScheduler(3);
+        try {
+            List<HopDongDTO> sequential = read(ExcelConfig.builder().batchSize(300).build());
+            List<HopDongDTO> shared = read(ExcelConfig.builder()
+                    .batchSize(300)
+                    .threadPoolSize(8) // bounded by the 3 shared workers
+                    .parallelSheetParsing(true)
+                    .parallelChunkRows(128)
+                    .jobId("job-1")
+                    .workScheduler(scheduler)
+                    .build());
+
+            assertEquals(sequential, shared);
+        } finally {
+            scheduler.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testMaxRowsEnforcedAcrossChunks() {
+        ExcelConfig config = ExcelConfig.builder()
+                .threadPoolSize(4)
+                .parallelSheetParsing(true)
+                .parallelChunkRows(100)
+                .maxRows(1_000)
+                .build();
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> read(config));
+        assertTrue(String.valueOf(error.getMessage()).contains("vượt quá giới hạn")
+                || String.valueOf(error.getCause()).contains("vượt quá giới hạn"));
+    }
+
+    @Test
+    public void testSplitterKeepsRowNumbersWithoutRowAttributes() throws Exception {
+        String xml = "<worksheet><sheetData>"
+                + "<row><c><v>0</v></c></row><row><c><v>1</v></c></row>"
+                + "<row r=\"6\"><c><v>5</v></c></row><row><c><v>6</v></c></row>"
+                + "</sheetData></worksheet>";
+
+        List<String> rows = new ArrayList<>();
+        new ParallelSheetChunkParser(2, 1, 1).<List<String>>parse(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+                ParallelSheetChunkParserTest::collect,
+                ParallelSheetChunkParserTest::collect,
+                rows::addAll);
+
+        assertEquals(List.of("0=0", "1=1", "5=5", "6=6"), rows);
+    }
+
+    private static List<String> collect(java.io.InputStream chunk, int firstRowNum) throws Exception {
+        List<String> rows = new ArrayList<>();
+        new FastSheetTokenizer().parse(chunk, new FastSheetTokenizer.RawSheetHandler() {
+            private int row;
+
+            @Override
+            public void startRow(int rowNum) {
+                row = rowNum;
+            }
+
+            @Override
+            public void cell(int colIndex, byte cellType, int styleIndex, FastSheetTokenizer.RawValue value) {
+                rows.add(row + "=" + value);
+            }
+
+            @Override
+            public void endRow(int rowNum) {
+            }
+        }, firstRowNum);
+        return rows;
+    }
+
+    private static List<HopDongDTO> read(ExcelConfig config) throws Exception {
+        List<HopDongDTO> rows = new ArrayList<>();
+        TrueStreamingSAXProcessor<HopDongDTO> processor = new TrueStreamingSAXProcessor<>(
+                HopDongDTO.class, config, new ArrayList<>(), rows::addAll);
+        processor.processExcelStreamTrue(new ByteArrayInputStream(workbook));
+        return rows;
+    }
+}
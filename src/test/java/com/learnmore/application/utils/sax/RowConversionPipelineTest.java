@@ -0,0 +1,91 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rows converted on the worker pool must match sequential conversion, in sheet order
+ */
+public class RowConversionPipelineTest {
+
+    private static final int ROWS = 3_210;
+    private static byte[] workbook;
+
+    @BeforeAll
+    public static void createWorkbook() throws Exception {
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(500); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            header.createCell(2).setCellValue("Số lượng tập");
+            header.createCell(3).setCellValue("Ngày giải ngân");
+            for (int r = 1; r <= ROWS; r++) {
+                Row data = sheet.createRow(r);
+                if (r % 101 == 0) {
+                    continue; // blank rows are skipped by the workers
+                }
+                data.createCell(0).setCellValue("KHO" + (r % 10));
+                data.createCell(1).setCellValue("HD-" + r);
+                data.createCell(2).setCellValue(r % 40);
+                data.createCell(3).setCellValue("2024-03-" + String.format("%02d", 1 + r % 28));
+            }
+            wb.write(out);
+            wb.dispose();
+            workbook = out.toByteArray();
+        }
+    }
+
+    @Test
+    public void testParallelConversionMatchesSequentialInOrder() throws Exception {
+        for (ExcelConfig.ParseEngine engine : ExcelConfig.ParseEngine.values()) {
+            List<HopDongDTO> sequential = read(ExcelConfig.builder().parseEngine(engine).batchSize(256).build());
+            List<HopDongDTO> parallel = read(ExcelConfig.builder()
+                    .parseEngine(engine)
+                    .batchSize(256)
+                    .threadPoolSize(4)
+                    .parallelRowConversion(true)
+                    .conversionBlockRows(64)
+                    .build());
+
+            assertEquals(ROWS - ROWS / 101, sequential.size(), engine.name());
+            assertEquals(sequential, parallel, engine.name());
+            assertEquals("HD-1", parallel.get(0).getContractNumber());
+        }
+    }
+
+    @Test
+    public void testMaxRowsEnforcedAcrossBlocks() {
+        ExcelConfig config = ExcelConfig.builder()
+                .parseEngine(ExcelConfig.ParseEngine.FAST)
+                .threadPoolSize(4)
+                .parallelRowConversion(true)
+                .conversionBlockRows(50)
+                .maxRows(1_000)
+                .build();
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> read(config));
+        assertTrue(String.valueOf(error.getMessage()).contains("vượt quá giới hạn")
+                || String.valueOf(error.getCause()).contains("vượt quá giới hạn"));
+    }
+
+    private static List<HopDongDTO> read(ExcelConfig config) throws Exception {
+        List<HopDongDTO> rows = new ArrayList<>();
+        TrueStreamingSAXProcessor<HopDongDTO> processor = new TrueStreamingSAXProcessor<>(
+                HopDongDTO.class, config, new ArrayList<>(), rows::addAll);
+        processor.processExcelStreamTrue(new ByteArrayInputStream(workbook));
+        return rows;
+    }
+}
@@ -0,0 +1,113 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Preview reads stop after the requested rows and touch only the shared strings those rows use
+ */
+public class SheetPreviewTest {
+
+    @Test
+    public void testPreviewStopsAtRowLimit() throws Exception {
+        byte[] workbook;
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            CellStyle vnDate = wb.createCellStyle();
+            vnDate.setDataFormat(wb.createDataFormat().getFormat("dd/mm/yyyy"));
+
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Số hợp đồng");
+            header.createCell(1).setCellValue("Số lượng tập");
+            header.createCell(2).setCellValue("Ngày giải ngân");
+            header.createCell(3).setCellValue("Cột không dùng");
+            header.createCell(4).setCellValue("Ghi chú trống");
+            for (int r = 1; r <= 5_000; r++) {
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("HD-" + r);
+                data.createCell(1).setCellValue(r);
+                data.createCell(2).setCellValue(LocalDate.of(2024, 1, 1 + r % 28));
+                data.getCell(2).setCellStyle(vnDate);
+                if (r % 2 == 0) {
+                    data.createCell(3).setCellValue("x" + r);
+                } else {
+                    data.createCell(3).setCellValue(r);
+                }
+            }
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+
+        ExcelConfig config = ExcelConfig.builder()
+                .parseEngine(ExcelConfig.ParseEngine.FAST)
+                .sharedStringsStore(ExcelConfig.SharedStringsStore.LAZY)
+                .rowLimit(10)
+                .batchSize(10)
+                .build();
+        SheetPreview<HopDongDTO> preview = new SheetPreview<>();
+
+        try (WorkbookSession session = WorkbookSession.open(workbook)) {
+            TrueStreamingSAXProcessor.preview(HopDongDTO.class, config, preview).processExcelStreamTrue(session);
+
+            // Only the strings of the header and the first rows were parsed
+            LazySharedStrings strings = (LazySharedStrings) session.getSharedStrings(config);
+            assertTrue(strings.getParsedCount() < 30, "parsed " + strings.getParsedCount());
+            assertTrue(strings.getUniqueCount() > 5_000);
+        }
+
+        assertTrue(preview.isRowLimitReached());
+        assertEquals(List.of("Số hợp đồng", "Số lượng tập", "Ngày giải ngân", "Cột không dùng", "Ghi chú trống"),
+                preview.getHeaders());
+        assertEquals(10, preview.getRows().size());
+        HopDongDTO row = preview.getRows().get(9);
+        assertEquals("HD-10", row.getContractNumber());
+        assertEquals(10, row.getFolderQuantity());
+        assertEquals(LocalDate.of(2024, 1, 11), row.getDisbursementDate());
+
+        Map<String, SheetPreview.ColumnType> types = preview.getColumnTypes();
+        assertEquals(SheetPreview.ColumnType.TEXT, types.get("Số hợp đồng"));
+        assertEquals(SheetPreview.ColumnType.NUMBER, types.get("Số lượng tập"));
+        assertEquals(SheetPreview.ColumnType.DATE, types.get("Ngày giải ngân"));
+        assertEquals(SheetPreview.ColumnType.MIXED, types.get("Cột không dùng"));
+        assertEquals(SheetPreview.ColumnType.EMPTY, types.get("Ghi chú trống"));
+    }
+
+    @Test
+    public void testLazySharedStringsParsesOnDemand() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"5\" uniqueCount=\"3\">"
+                + "<si><t>Tên &amp; mã</t></si>"
+                + "<si><r><t>Nguyễn </t></r><r><rPr><b/></rPr><t xml:space=\"preserve\">Văn A</t></r>"
+                + "<rPh sb=\"0\" eb=\"1\"><t>ignored</t></rPh></si>"
+                + "<si><t>Tab_x0009_here</t></si>"
+                + "</sst>";
+
+        try (LazySharedStrings strings = LazySharedStrings.open(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))) {
+            assertEquals(3, strings.getUniqueCount());
+            assertEquals(5, strings.getCount());
+            assertEquals(0, strings.getParsedCount());
+
+            assertEquals("Tên & mã", strings.getString(0));
+            assertEquals(1, strings.getParsedCount());
+            assertEquals("Tab\there", strings.getString(2));
+            assertEquals("Nguyễn Văn A", strings.getItemAt(1).getString());
+            assertEquals(3, strings.getParsedCount());
+            assertThrows(IndexOutOfBoundsException.class, () -> strings.getString(3));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.concurrent.MigrationWorkScheduler;
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sheets parsed concurrently up to maxConcurrentSheets, each with its own processor, results per sheet
+ */
+public class TrueStreamingMultiSheetProcessorTest {
+
+    private static final List<String> SHEETS = List.of("HopDong", "CIF", "Tap");
+
+    @Test
+    public void testSheetsParsedConcurrently() throws Exception {
+        byte[] workbook = createWorkbook(400, null);
+        CountDownLatch allStarted = new CountDownLatch(SHEETS.size());
+        Map<String, Set<String>> threads = new ConcurrentHashMap<>();
+        Map<String, List<String>> contracts = new ConcurrentHashMap<>();
+
+        Map<String, Class<?>> classes = new HashMap<>();
+        Map<String, Consumer<List<?>>> processors = new HashMap<>();
+        for (String sheet : SHEETS) {
+            classes.put(sheet, HopDongDTO.class);
+            List<String> seen = new ArrayList<>();
+            contracts.put(sheet, seen);
+            processors.put(sheet, batch -> {
+                threads.computeIfAbsent(sheet, k -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+                if (seen.isEmpty()) {
+                    // Every sheet must be in flight at the same time for this to pass
+                    allStarted.countDown();
+                    try {
+                        assertTrue(allStarted.await(10, TimeUnit.SECONDS), "sheets not parsed concurrently");
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                for (Object row : batch) {
+                    seen.add(((HopDongDTO) row).getContractNumber());
+                }
+            });
+        }
+
+        ExcelConfig config = ExcelConfig.builder().batchSize(100).maxConcurrentSheets(3).build();
+        Map<String, TrueStreamingSAXProcessor.ProcessingResult> results =
+                new TrueStreamingMultiSheetProcessor(classes, processors, config)
+                        .processTrueStreaming(new ByteArrayInputStream(workbook));
+
+        assertEquals(SHEETS, new ArrayList<>(results.keySet()), "workbook order");
+        for (String sheet : SHEETS) {
+            assertEquals(400, results.get(sheet).getProcessedRecords());
+            assertEquals(400, contracts.get(sheet).size());
+            assertEquals(sheet + "-1", contracts.get(sheet).get(0));
+            assertEquals(sheet + "-400", contracts.get(sheet).get(399), "rows in order within a sheet");
+            assertEquals(1, threads.get(sheet).size(), "one thread per sheet");
+        }
+        assertEquals(3, threads.values().stream().flatMap(Set::stream).distinct().count());
+    }
+
+    @Test
+    public void testSheetsRunOnSharedPool() throws Exception {
+        byte[] workbook = createWorkbook(200, null);
+        MigrationWorkScheduler scheduler = new MigrationWorkScheduler(2);
+        try {
+            Map<String, Set<String>> threads = new ConcurrentHashMap<>();
+            Map<String, Class<?>> classes = new HashMap<>();
+            Map<String, Consumer<List<?>>> processors = new HashMap<>();
+            for (String sheet : SHEETS) {
+                classes.put(sheet, HopDongDTO.class);
+                processors.put(sheet, batch -> threads.computeIfAbsent(sheet, k -> ConcurrentHashMap.newKeySet())
+                        .add(Thread.currentThread().getName()));
+            }
+            ExcelConfig config = ExcelConfig.builder()
+                    .batchSize(50)
+                    .maxConcurrentSheets(3)
+                    .jobId("job-1")
+                    .workScheduler(scheduler)
+                    .build();
+
+            Map<String, TrueStreamingSAXProcessor.ProcessingResult> results =
+                    new TrueStreamingMultiSheetProcessor(classes, processors, config)
+                            .processTrueStreaming(new ByteArrayInputStream(workbook));
+
+            assertEquals(SHEETS, new ArrayList<>(results.keySet()));
+            for (String sheet : SHEETS) {
+                assertEquals(200, results.get(sheet).getProcessedRecords());
+                assertTrue(threads.get(sheet).stream().allMatch(name -> name.startsWith("migration-worker-")),
+                        "no pool per read: " + threads.get(sheet));
+            }
+
+            // Called from a worker of the same pool: sheets parse on that thread instead of waiting on the pool
+            threads.clear();
+            CompletableFuture<Map<String, TrueStreamingSAXProcessor.ProcessingResult>> nested = new CompletableFuture<>();
+            scheduler.submit("job-2", MigrationWorkScheduler.Priority.NORMAL, () -> {
+                try {
+                    nested.complete(new TrueStreamingMultiSheetProcessor(classes, processors, config)
+                            .processTrueStreaming(new ByteArrayInputStream(workbook)));
+                } catch (Exception e) {
+                    nested.completeExceptionally(e);
+                }
+            });
+            assertEquals(3, nested.get(10, TimeUnit.SECONDS).size());
+            assertEquals(1, threads.values().stream().flatMap(Set::stream).distinct().count());
+        } finally {
+            scheduler.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testFailingSheetFailsTheRead() throws Exception {
+        // CIF has a header only: its processor throws "Tập không có dữ liệu"
+        byte[] workbook = createWorkbook(100, "CIF");
+        Map<String, Class<?>> classes = new HashMap<>();
+        Map<String, Consumer<List<?>>> processors = new HashMap<>();
+        for (String sheet : SHEETS) {
+            classes.put(sheet, HopDongDTO.class);
+            processors.put(sheet, batch -> { });
+        }
+
+        ExcelConfig config = ExcelConfig.builder().batchSize(50).maxConcurrentSheets(2).build();
+        TrueStreamingMultiSheetProcessor processor = new TrueStreamingMultiSheetProcessor(classes, processors, config);
+
+        Exception failure = assertThrows(RuntimeException.class,
+                () -> processor.processTrueStreaming(new ByteArrayInputStream(workbook)));
+        assertEquals("Tập không có dữ liệu", failure.getMessage());
+    }
+
+    private static byte[] createWorkbook(int rowsPerSheet, String emptySheet) throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (String name : SHEETS) {
+                Sheet sheet = wb.createSheet(name);
+                Row header = sheet.createRow(0);
+                header.createCell(0).setCellValue("Kho VPBank");
+                header.createCell(1).setCellValue("Số hợp đồng");
+                int rows = name.equals(emptySheet) ? 0 : rowsPerSheet;
+                for (int r = 1; r <= rows; r++) {
+                    Row data = sheet.createRow(r);
+                    data.createCell(0).setCellValue("KHO" + (r % 10));
+                    data.createCell(1).setCellValue(name + "-" + r);
+                }
+            }
+            wb.write(out);
+            return out.toByteArray();
+        }
+    }
+}
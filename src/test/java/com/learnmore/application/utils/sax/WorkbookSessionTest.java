@@ -0,0 +1,114 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import com.learnmore.application.utils.validation.ExcelDimensionValidator;
+import com.learnmore.application.utils.validation.ExcelEarlyValidator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One WorkbookSession per upload: every step reuses the opened package and cached metadata
+ */
+public class WorkbookSessionTest {
+
+    private static byte[] workbook;
+
+    @BeforeAll
+    public static void createWorkbook() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            header.createCell(2).setCellValue("Số lượng tập");
+            for (int r = 1; r <= 40; r++) {
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("KHO" + r);
+                data.createCell(1).setCellValue("HD-" + r);
+                data.createCell(2).setCellValue(r);
+            }
+            Sheet cif = wb.createSheet("HSBG_theo_CIF");
+            for (int r = 0; r <= 5; r++) {
+                cif.createRow(r).createCell(1).setCellValue("CIF" + r);
+            }
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+    }
+
+    @Test
+    public void testCachesPackageSheetsAndDimensions() throws Exception {
+        try (WorkbookSession session = WorkbookSession.open(workbook)) {
+            assertSame(session.getPackage(), session.getPackage());
+            assertSame(session.getReader(), session.getReader());
+            assertSame(session.getStylesTable(), session.getStylesTable());
+            ExcelConfig config = ExcelConfig.builder().build();
+            assertSame(session.getSharedStrings(config), session.getSharedStrings(config));
+
+            assertEquals(List.of("HSBG_theo_hop_dong", "HSBG_theo_CIF"), session.getSheetNames());
+            assertEquals(Map.of("HSBG_theo_hop_dong", "A1:C41", "HSBG_theo_CIF", "B1:B6"), session.getDimensionRefs());
+
+            try (InputStream cif = session.openSheet("HSBG_theo_CIF")) {
+                assertNotNull(cif);
+            }
+            assertNull(session.openSheet("missing"));
+        }
+    }
+
+    @Test
+    public void testValidatorsShareSession() throws Exception {
+        try (WorkbookSession session = WorkbookSession.open(workbook)) {
+            Map<String, Integer> rowCounts = ExcelDimensionValidator.validateAllSheets(session, 1000, 1);
+            assertEquals(40, rowCounts.get("HSBG_theo_hop_dong"));
+            assertEquals(5, rowCounts.get("HSBG_theo_CIF"));
+
+            assertEquals(40, ExcelDimensionValidator.validateRowCount(session, 1000, 1));
+            assertEquals(40, ExcelEarlyValidator.validateRecordCount(session, 1000, 1).getDataRows());
+        }
+    }
+
+    @Test
+    public void testProcessorReadsThroughConfiguredSession() throws Exception {
+        List<HopDongDTO> rows = new ArrayList<>();
+        try (WorkbookSession session = WorkbookSession.open(workbook);
+             InputStream in = new BufferedInputStream(InputStream.nullInputStream())) {
+            // The stream is neither spooled nor inspected: an empty, wrapped stream still reads the session
+            ExcelConfig config = ExcelConfig.builder().batchSize(10).workbookSession(session).build();
+            new TrueStreamingSAXProcessor<>(HopDongDTO.class, config, new ArrayList<>(), rows::addAll)
+                    .processExcelStreamTrue(in);
+        }
+        assertEquals(40, rows.size());
+        assertEquals("HD-40", rows.get(39).getContractNumber());
+    }
+
+    @Test
+    public void testCloseReleasesTempFile() throws Exception {
+        WorkbookSession session = WorkbookSession.open(workbook);
+        Path file = session.getSource().getPath();
+        InputStream in = session.newInputStream();
+        session.getSheetNames();
+
+        session.close();
+        in.close();
+
+        assertFalse(Files.exists(file));
+        assertTrue(session.isClosed());
+        assertThrows(java.io.IOException.class, session::newInputStream);
+        assertThrows(java.io.IOException.class, session::getPackage);
+    }
+}
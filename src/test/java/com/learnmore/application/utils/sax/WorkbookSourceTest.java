@@ -0,0 +1,95 @@
+package com.learnmore.application.utils.sax;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.config.ExcelConfig;
+import com.learnmore.application.utils.validation.ExcelEarlyValidator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WorkbookSource: spool once, random-access reads for every consumer
+ */
+public class WorkbookSourceTest {
+
+    private static byte[] workbook;
+
+    @BeforeAll
+    public static void createWorkbook() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Kho VPBank");
+            header.createCell(1).setCellValue("Số hợp đồng");
+            header.createCell(2).setCellValue("Số lượng tập");
+            for (int r = 1; r <= 120; r++) {
+                Row data = sheet.createRow(r);
+                data.createCell(0).setCellValue("KHO" + r);
+                data.createCell(1).setCellValue("HD-" + r);
+                data.createCell(2).setCellValue(r);
+            }
+            wb.createSheet("HSBG_theo_CIF").createRow(0).createCell(0).setCellValue("Mã CIF");
+            wb.write(out);
+            workbook = out.toByteArray();
+        }
+    }
+
+    @Test
+    public void testSpoolReadsSheetNamesAndDeletesTempFile() throws Exception {
+        Path file;
+        try (WorkbookSource source = WorkbookSource.spool(new ByteArrayInputStream(workbook))) {
+            file = source.getPath();
+            assertEquals(workbook.length, source.getSize());
+            assertEquals(List.of("HSBG_theo_hop_dong", "HSBG_theo_CIF"), source.getSheetNames());
+            // Reopening is cheap and repeatable
+            assertEquals(2, source.getSheetNames().size());
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testWrappedFileIsNotDeleted() throws Exception {
+        Path file = Files.createTempFile("workbook-source-test-", ".xlsx");
+        try {
+            Files.write(file, workbook);
+            try (WorkbookSource source = WorkbookSource.of(file)) {
+                ExcelEarlyValidator.EarlyValidationResult result =
+                        ExcelEarlyValidator.validateRecordCount(source, 100, 1);
+                assertEquals(120, result.getDataRows());
+                assertFalse(result.isValid());
+            }
+            assertTrue(Files.exists(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testProcessorReadsFromSourceAndStreamAlike() throws Exception {
+        List<HopDongDTO> fromStream = new ArrayList<>();
+        new TrueStreamingSAXProcessor<>(HopDongDTO.class, ExcelConfig.builder().batchSize(50).build(),
+                new ArrayList<>(), fromStream::addAll)
+                .processExcelStreamTrue(new ByteArrayInputStream(workbook));
+
+        List<HopDongDTO> fromSource = new ArrayList<>();
+        try (WorkbookSource source = WorkbookSource.spool(new ByteArrayInputStream(workbook))) {
+            new TrueStreamingSAXProcessor<>(HopDongDTO.class, ExcelConfig.builder().batchSize(50).build(),
+                    new ArrayList<>(), fromSource::addAll)
+                    .processExcelStreamTrue(source);
+        }
+
+        assertEquals(120, fromStream.size());
+        assertEquals(fromStream, fromSource);
+    }
+}
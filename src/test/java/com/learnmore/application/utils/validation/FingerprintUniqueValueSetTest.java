@@ -0,0 +1,58 @@
+package com.learnmore.application.utils.validation;
+
+import com.learnmore.application.utils.config.ExcelConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fingerprint unique set must behave exactly like the HashSet of "field:value" strings
+ */
+public class FingerprintUniqueValueSetTest {
+
+    @Test
+    public void testMatchesStringSetOnHeapAndOffHeap() {
+        for (ExcelConfig.UniqueValueStore store : ExcelConfig.UniqueValueStore.values()) {
+            try (UniqueValueSet values = UniqueValueSet.create(store, 0)) {
+                for (int i = 0; i < 200_000; i++) {
+                    assertTrue(values.add(i % 3, "CIF" + i), store + " new value " + i);
+                }
+                for (int i = 0; i < 200_000; i += 101) {
+                    assertFalse(values.add(i % 3, "CIF" + i), store + " duplicate " + i);
+                    assertTrue(values.add((i + 1) % 3, "CIF" + i), store + " same value, other field");
+                }
+                assertEquals(200_000 + 1981, values.size());
+            }
+        }
+    }
+
+    @Test
+    public void testEdgeValuesAreConfirmedExactly() {
+        try (FingerprintUniqueValueSet values = new FingerprintUniqueValueSet(0, false)) {
+            assertTrue(values.add(0, ""));
+            assertFalse(values.add(0, ""));
+            assertTrue(values.add(0, "Nguyễn Văn A"));
+            assertFalse(values.add(0, "Nguyễn Văn A"));
+            assertTrue(values.add(0, "Nguyen Van A"));
+
+            // Larger than the write buffer: written straight to the side store and read back
+            String large = "x".repeat(100_000);
+            assertTrue(values.add(1, large));
+            assertFalse(values.add(1, large));
+            assertTrue(values.add(1, large + "y"));
+        }
+    }
+
+    @Test
+    public void testSlotTableIsSixteenBytesPerSlot() {
+        try (FingerprintUniqueValueSet values = new FingerprintUniqueValueSet(1_000_000, true)) {
+            for (int i = 0; i < 1_000_000; i++) {
+                values.add(0, Integer.toString(i));
+            }
+            assertTrue(values.isOffHeap());
+            // Presized: no growth, 2^21 slots × 16 bytes + I/O buffers
+            assertTrue(values.memoryBytes() < 40L * 1024 * 1024, "memory " + values.memoryBytes());
+            assertEquals(1_000_000, values.size());
+        }
+    }
+}
@@ -1,13 +1,14 @@
 package com.learnmore.benchmark;
 
 import com.learnmore.application.dto.migration.ExcelRowDTO;
+import com.learnmore.application.utils.reflection.BeanBinder;
 import com.learnmore.application.utils.reflection.MethodHandleMapper;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 
 /**
- * Simple performance test to compare MethodHandle vs Reflection performance
+ * Simple performance test to compare Reflection vs MethodHandle vs generated BeanBinder performance
  * Run with: mvn test -Dtest=MethodHandleBenchmark
  */
 public class MethodHandleBenchmark {
@@ -16,6 +17,12 @@ public class MethodHandleBenchmark {
     private Field reflectionField;
     private Constructor<ExcelRowDTO> reflectionConstructor;
     private MethodHandleMapper<ExcelRowDTO> methodHandleMapper;
+    private BeanBinder<ExcelRowDTO> beanBinder;
+    private BeanBinder.ObjectSetter rowNumSetter;
+    private BeanBinder.ObjectSetter maDonViSetter;
+    private BeanBinder.ObjectSetter maThungSetter;
+    private BeanBinder.ObjectSetter soLuongTapSetter;
+    private BeanBinder.Getter rowNumGetter;
     
     public void setup() throws Exception {
         dto = new ExcelRowDTO();
@@ -28,6 +35,14 @@ public class MethodHandleBenchmark {
         
         // Setup MethodHandle components
         methodHandleMapper = MethodHandleMapper.forClass(ExcelRowDTO.class);
+        
+        // Setup generated binder: slots resolved once, like ColumnBindingPlan does per header column
+        beanBinder = BeanBinder.forClass(ExcelRowDTO.class);
+        rowNumSetter = beanBinder.setter(beanBinder.slot("rowNum"));
+        maDonViSetter = beanBinder.setter(beanBinder.slot("maDonVi"));
+        maThungSetter = beanBinder.setter(beanBinder.slot("maThung"));
+        soLuongTapSetter = beanBinder.setter(beanBinder.slot("soLuongTap"));
+        rowNumGetter = beanBinder.getter(beanBinder.slot("rowNum"));
     }
     
     public void testReflectionFieldSet() throws Exception {
@@ -38,6 +53,10 @@ public class MethodHandleBenchmark {
         methodHandleMapper.setFieldValue(dto, "rowNum", 100);
     }
     
+    public void testBinderFieldSet() {
+        rowNumSetter.set(dto, 100);
+    }
+    
     public Object testReflectionFieldGet() throws Exception {
         return reflectionField.get(dto);
     }
@@ -46,6 +65,10 @@ public class MethodHandleBenchmark {
         return methodHandleMapper.getFieldValue(dto, "rowNum");
     }
     
+    public Object testBinderFieldGet() {
+        return rowNumGetter.get(dto);
+    }
+    
     public ExcelRowDTO testReflectionCreate() throws Exception {
         return reflectionConstructor.newInstance();
     }
@@ -54,6 +77,10 @@ public class MethodHandleBenchmark {
         return methodHandleMapper.createInstance();
     }
     
+    public ExcelRowDTO testBinderCreate() {
+        return beanBinder.newInstance();
+    }
+    
     /**
      * Simulate real-world Excel processing scenario
      */
@@ -91,6 +118,18 @@ public class MethodHandleBenchmark {
         return row;
     }
     
+    public ExcelRowDTO testCompleteRowProcessingBinder() {
+        ExcelRowDTO row = beanBinder.newInstance();
+        
+        // Set multiple fields using generated setters (no name lookup, no MethodHandle.invoke)
+        maDonViSetter.set(row, "DV001");
+        maThungSetter.set(row, "TH001");
+        rowNumSetter.set(row, 1);
+        soLuongTapSetter.set(row, 5);
+        
+        return row;
+    }
+    
     /**
      * Run simple performance comparison
      */
@@ -102,6 +141,7 @@ public class MethodHandleBenchmark {
         for (int i = 0; i < 10000; i++) {
             benchmark.testReflectionFieldSet();
             benchmark.testMethodHandleFieldSet();
+            benchmark.testBinderFieldSet();
         }
         
         // Test reflection
@@ -118,10 +158,19 @@ public class MethodHandleBenchmark {
         }
         long methodHandleTime = System.nanoTime() - startTime;
         
+        // Test generated binder
+        startTime = System.nanoTime();
+        for (int i = 0; i < 100000; i++) {
+            benchmark.testBinderFieldSet();
+        }
+        long binderTime = System.nanoTime() - startTime;
+        
         System.out.println("=== Performance Comparison (100,000 operations) ===");
         System.out.printf("Reflection Time:    %,d ns (%.2f ms)%n", reflectionTime, reflectionTime / 1_000_000.0);
         System.out.printf("MethodHandle Time:  %,d ns (%.2f ms)%n", methodHandleTime, methodHandleTime / 1_000_000.0);
-        System.out.printf("Performance Gain:   %.2fx faster%n", (double) reflectionTime / methodHandleTime);
+        System.out.printf("BeanBinder Time:    %,d ns (%.2f ms)%n", binderTime, binderTime / 1_000_000.0);
+        System.out.printf("MethodHandle Gain:  %.2fx faster%n", (double) reflectionTime / methodHandleTime);
+        System.out.printf("BeanBinder Gain:    %.2fx faster%n", (double) reflectionTime / binderTime);
         
         // Test complete row processing
         startTime = System.nanoTime();
@@ -136,17 +185,27 @@ public class MethodHandleBenchmark {
         }
         long methodHandleRowTime = System.nanoTime() - startTime;
         
+        startTime = System.nanoTime();
+        for (int i = 0; i < 50000; i++) {
+            benchmark.testCompleteRowProcessingBinder();
+        }
+        long binderRowTime = System.nanoTime() - startTime;
+        
         System.out.println("\n=== Complete Row Processing (50,000 operations) ===");
         System.out.printf("Reflection Time:    %,d ns (%.2f ms)%n", reflectionRowTime, reflectionRowTime / 1_000_000.0);
         System.out.printf("MethodHandle Time:  %,d ns (%.2f ms)%n", methodHandleRowTime, methodHandleRowTime / 1_000_000.0);
-        System.out.printf("Performance Gain:   %.2fx faster%n", (double) reflectionRowTime / methodHandleRowTime);
+        System.out.printf("BeanBinder Time:    %,d ns (%.2f ms)%n", binderRowTime, binderRowTime / 1_000_000.0);
+        System.out.printf("MethodHandle Gain:  %.2fx faster%n", (double) reflectionRowTime / methodHandleRowTime);
+        System.out.printf("BeanBinder Gain:    %.2fx faster%n", (double) reflectionRowTime / binderRowTime);
         
         // Estimated throughput for 1M records
         double reflectionThroughput = 1_000_000.0 / (reflectionRowTime / 1_000_000_000.0);
         double methodHandleThroughput = 1_000_000.0 / (methodHandleRowTime / 1_000_000_000.0);
+        double binderThroughput = 1_000_000.0 / (binderRowTime / 1_000_000_000.0);
         
         System.out.println("\n=== Estimated Throughput (1M records) ===");
         System.out.printf("Reflection:         %,.0f records/second%n", reflectionThroughput * 20);
         System.out.printf("MethodHandle:       %,.0f records/second%n", methodHandleThroughput * 20);
+        System.out.printf("BeanBinder:         %,.0f records/second%n", binderThroughput * 20);
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.learnmore.benchmark;
+
+import com.learnmore.application.dto.migration.sheet.HopDongDTO;
+import com.learnmore.application.utils.ExcelColumn;
+import com.learnmore.application.utils.config.ExcelConfig;
+import com.learnmore.application.utils.sax.TrueStreamingSAXProcessor;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark: date-heavy sheet (real date cells, dd/mm/yyyy style) read through
+ * DataFormatter text + re-parsing vs the typed raw-value path
+ *
+ * Run main() directly (IDE or java -cp target/test-classes:...)
+ * Optional arg: number of data rows (default 200,000)
+ */
+public class TypedCellValuesBenchmark {
+
+    private static final int DEFAULT_ROWS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        byte[] workbook = generateWorkbook(rows);
+
+        System.out.println("=== HopDongDTO, date/number columns as typed cells, " + rows + " rows ("
+                + workbook.length / 1024 + " KB) ===");
+
+        ExcelConfig.Builder poi = ExcelConfig.builder();
+        ExcelConfig.Builder fastText = ExcelConfig.builder()
+                .parseEngine(ExcelConfig.ParseEngine.FAST).typedCellValues(false);
+        ExcelConfig.Builder fastTyped = ExcelConfig.builder()
+                .parseEngine(ExcelConfig.ParseEngine.FAST).typedCellValues(true);
+
+        // Warmup
+        for (int i = 0; i < 2; i++) {
+            run(workbook, poi);
+            run(workbook, fastText);
+            run(workbook, fastTyped);
+        }
+
+        long poiNanos = run(workbook, poi);
+        long textNanos = run(workbook, fastText);
+        long typedNanos = run(workbook, fastTyped);
+
+        System.out.printf("POI SAX (formatted text):   %,d ms (%,.0f rows/sec)%n",
+                poiNanos / 1_000_000, rows / (poiNanos / 1e9));
+        System.out.printf("FAST (formatted text):      %,d ms (%,.0f rows/sec)%n",
+                textNanos / 1_000_000, rows / (textNanos / 1e9));
+        System.out.printf("FAST (typed raw values):    %,d ms (%,.0f rows/sec)%n",
+                typedNanos / 1_000_000, rows / (typedNanos / 1e9));
+        System.out.printf("Speedup typed vs text:      %.1fx%n", (double) textNanos / Math.max(typedNanos, 1));
+    }
+
+    private static long run(byte[] workbook, ExcelConfig.Builder config) throws Exception {
+        AtomicLong bound = new AtomicLong();
+        TrueStreamingSAXProcessor<HopDongDTO> processor = new TrueStreamingSAXProcessor<>(
+                HopDongDTO.class,
+                config.batchSize(5000).enableProgressTracking(false).build(),
+                new ArrayList<>(),
+                batch -> bound.addAndGet(batch.size()));
+        long start = System.nanoTime();
+        processor.processExcelStreamTrue(new ByteArrayInputStream(workbook));
+        return System.nanoTime() - start;
+    }
+
+    private static byte[] generateWorkbook(int rows) throws Exception {
+        String[] headers = new String[33];
+        Class<?>[] types = new Class<?>[33];
+        for (Field field : HopDongDTO.class.getDeclaredFields()) {
+            ExcelColumn annotation = field.getAnnotation(ExcelColumn.class);
+            if (annotation != null && annotation.index() >= 0 && annotation.index() < headers.length) {
+                headers[annotation.index()] = annotation.name();
+                types[annotation.index()] = field.getType();
+            }
+        }
+
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy"));
+
+            Sheet sheet = workbook.createSheet("HSBG_theo_hop_dong");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < headers.length; c++) {
+                header.createCell(c).setCellValue(headers[c]);
+            }
+            LocalDate base = LocalDate.of(2020, 1, 1);
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < headers.length; c++) {
+                    if (types[c] == LocalDate.class) {
+                        row.createCell(c).setCellValue(base.plusDays((r + c) % 2000));
+                        row.getCell(c).setCellStyle(dateStyle);
+                    } else if (types[c] == Integer.class) {
+                        row.createCell(c).setCellValue(r % 50);
+                    } else {
+                        row.createCell(c).setCellValue("V" + c + "-" + r);
+                    }
+                }
+            }
+            workbook.write(out);
+            workbook.dispose();
+            return out.toByteArray();
+        }
+    }
+}